@@ -14,10 +14,100 @@ public class AppConf {
     @Value("${spring.application.card.transfer.betweenCards.permissions.onlyYourself:false}")
     boolean transferAllowedYourselfOnly;
 
+    @Value("${spring.application.card.transfer.partitions.monthsAhead:3}")
+    private int transferPartitionMonthsAhead;
+
+    @Value("${spring.application.card.transfer.partitions.retentionMonths:24}")
+    private int transferRetentionMonths;
+
+    @Value("${spring.application.card.transfer.coldArchive.directory:archive/transfers}")
+    private String transferColdArchiveDirectory;
+
+    @Value("${spring.application.card.transfer.coldArchive.olderThanMonths:12}")
+    private int transferColdArchiveOlderThanMonths;
+
+    @Value("${spring.application.card.transfer.coldArchive.chunkSize:5000}")
+    private int transferColdArchiveChunkSize;
+
+    @Value("${spring.application.card.transfer.coldArchive.deleteBatchSize:1000}")
+    private int transferColdArchiveDeleteBatchSize;
+
+    @Value("${spring.application.card.transfer.coldArchive.rowsPerSecond:2000}")
+    private int transferColdArchiveRowsPerSecond;
+
+    @Value("${spring.application.card.transfer.coldArchive.compression:bzip2}")
+    private String transferColdArchiveCompression;
+
     @Value("${spring.application.card.balance.min:0.01}")
     private String minBalanceStr;
 
     @Value("${spring.application.card.expiration.years:3}")
     private int cardExpirationYears;
 
+    @Value("${spring.application.card.expiration.sweep.chunkSize:1000}")
+    private int cardExpirySweepChunkSize;
+
+    @Value("${spring.application.card.expiration.sweep.rowsPerSecond:500}")
+    private int cardExpirySweepRowsPerSecond;
+
+    @Value("${spring.application.card.archive.retentionDays:365}")
+    private int cardArchiveRetentionDays;
+
+    @Value("${spring.application.card.archive.chunkSize:500}")
+    private int cardArchiveChunkSize;
+
+    @Value("${spring.application.card.archive.rowsPerSecond:500}")
+    private int cardArchiveRowsPerSecond;
+
+    @Value("${spring.application.card.bulkStatus.chunkSize:1000}")
+    private int cardBulkStatusChunkSize;
+
+    @Value("${spring.application.card.ownershipIndex.preload:false}")
+    private boolean cardOwnershipIndexPreload;
+
+    @Value("${spring.application.card.ownershipIndex.maxSize:1000000}")
+    private int cardOwnershipIndexMaxSize;
+
+    @Value("${spring.application.card.ownershipIndex.missTtlMillis:2000}")
+    private long cardOwnershipIndexMissTtlMillis;
+
+    @Value("${spring.application.card.analytics.rangeSize:100000}")
+    private long cardAnalyticsRangeSize;
+
+    @Value("${spring.application.card.analytics.parallelism:4}")
+    private int cardAnalyticsParallelism;
+
+    @Value("${spring.application.card.analytics.queueCapacity:64}")
+    private int cardAnalyticsQueueCapacity;
+
+    @Value("${spring.application.card.analytics.timeoutSeconds:60}")
+    private long cardAnalyticsTimeoutSeconds;
+
+    @Value("${spring.application.cache.singleFlight.refreshParallelism:2}")
+    private int cacheRefreshParallelism;
+
+    @Value("${spring.application.cache.singleFlight.refreshQueueCapacity:100}")
+    private int cacheRefreshQueueCapacity;
+
+    @Value("${spring.application.card.export.fetchSize:1000}")
+    private int cardExportFetchSize;
+
+    @Value("${spring.application.card.enrollment.maxReportedRejections:1000}")
+    private int enrollmentMaxReportedRejections;
+
+    @Value("${spring.application.cache.warmUp.enabled:true}")
+    private boolean cacheWarmUpEnabled;
+
+    @Value("${spring.application.cache.warmUp.maxKeys:100}")
+    private int cacheWarmUpMaxKeys;
+
+    @Value("${spring.application.cache.warmUp.timeoutSeconds:30}")
+    private long cacheWarmUpTimeoutSeconds;
+
+    @Value("${spring.application.cache.warmUp.trackedKeys:1000}")
+    private int cacheWarmUpTrackedKeys;
+
+    @Value("${spring.application.cache.warmUp.sampleRate:0.1}")
+    private double cacheWarmUpSampleRate;
+
 }
@@ -0,0 +1,76 @@
+package com.example.bankcards.config.app;
+
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.task.ThreadPoolTaskExecutorBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.scheduling.annotation.AsyncAnnotationBeanPostProcessor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Configuration of the executors used for parallel work inside a single request and for work
+ * moved off the request threads.
+ */
+@Configuration
+public class ExecutorConfig {
+
+    /**
+     * Creates the default application executor, used e.g. by Spring MVC for asynchronous requests.
+     * Spring Boot only auto-configures it when no other executor is defined, so it has to be declared
+     * explicitly next to the dedicated executors.
+     *
+     * @param builder the builder configured from the {@code spring.task.execution} properties
+     * @return the default ThreadPoolTaskExecutor
+     */
+    @Lazy
+    @Bean(name = {TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME,
+            AsyncAnnotationBeanPostProcessor.DEFAULT_TASK_EXECUTOR_BEAN_NAME})
+    public ThreadPoolTaskExecutor applicationTaskExecutor(ThreadPoolTaskExecutorBuilder builder) {
+        return builder.build();
+    }
+
+    /**
+     * Creates the executor that aggregates card ID ranges in parallel.
+     * The number of threads is bounded, since every thread holds a database connection while it works.
+     * When the queue is full, the calling thread aggregates the range itself.
+     *
+     * @param appConf the application parameters
+     * @return a bounded ThreadPoolTaskExecutor
+     */
+    @Bean
+    public ThreadPoolTaskExecutor cardAnalyticsExecutor(AppConf appConf) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(appConf.getCardAnalyticsParallelism());
+        executor.setMaxPoolSize(appConf.getCardAnalyticsParallelism());
+        executor.setQueueCapacity(appConf.getCardAnalyticsQueueCapacity());
+        executor.setThreadNamePrefix("card-analytics-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Creates the executor of the background cache work: it refreshes hot cache entries before they expire
+     * and counts the searches used for the cache warm-up.
+     * When the queue is full, the task is dropped; the entry is reloaded once it expires.
+     *
+     * @param appConf the application parameters
+     * @return a bounded ThreadPoolTaskExecutor
+     */
+    @Bean
+    public ThreadPoolTaskExecutor cacheRefreshExecutor(AppConf appConf) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(appConf.getCacheRefreshParallelism());
+        executor.setMaxPoolSize(appConf.getCacheRefreshParallelism());
+        executor.setQueueCapacity(appConf.getCacheRefreshQueueCapacity());
+        executor.setThreadNamePrefix("cache-refresh-");
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        executor.initialize();
+        return executor;
+    }
+
+}
@@ -3,6 +3,7 @@ package com.example.bankcards.config.auth;
 import com.example.bankcards.security.ApiAccessDeniedHandler;
 import com.example.bankcards.security.ForbiddenEntryPoint;
 import com.example.bankcards.security.JwtAuthFilter;
+import jakarta.servlet.DispatcherType;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
@@ -77,8 +78,9 @@ public class WebSecurityConfig {
                     return corsConfig;
                 }))
                 .authorizeHttpRequests(request -> request
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                         .requestMatchers(ignoredUrls.toArray(new String[0])).permitAll()
-                        .requestMatchers("/v1/api/card/add", "/v1/api/card/admin/update", "/v1/api/card/admin/{id}/{status}/update", "/v1/api/card/admin/{id}/delete").hasRole("ADMIN")
+                        .requestMatchers("/v1/api/card/add", "/v1/api/card/admin/bulk/add", "/v1/api/card/admin/bulk/enroll", "/v1/api/card/admin/bulk/status/update", "/v1/api/card/admin/analytics", "/v1/api/card/admin/export", "/v1/api/card/admin/update", "/v1/api/card/admin/{id}/{status}/update", "/v1/api/card/admin/{id}/delete", "/v1/api/admin/statistics/**").hasRole("ADMIN")
                         .requestMatchers("/v1/api/card/get/**", "/v1/api/card/block").hasRole("USER")
                         .requestMatchers("/v1/api/auth/login", "/v1/api/auth/refresh").permitAll()
                         .anyRequest().authenticated())
@@ -0,0 +1,377 @@
+package com.example.bankcards.config.cache;
+
+import com.example.bankcards.config.datasource.ReplicaRoutingDataSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Predicate;
+
+/**
+ * A cache decorator which coalesces concurrent loads of the same key.
+ * <p>
+ * Only the first caller that misses a key runs the loader, the other callers wait for its result
+ * instead of running the same query. Entries are stored together with the time they were loaded at
+ * and the time the load took, which is used to refresh hot entries before they expire:
+ * the closer an entry is to its expiry and the longer it takes to load, the more likely a caller
+ * triggers a reload. Early refreshes run on a separate executor, so every caller keeps getting the cached value.
+ * </p>
+ * <p>
+ * Evicting or clearing the cache invalidates the loads in flight: a load only stores its value
+ * if no eviction of its key happened since it started, so a value read before a change is never cached
+ * after the eviction for that change. Evictions are tracked by generation counters striped by key hash,
+ * so an eviction may also keep a concurrent load of another key from being stored.
+ * </p>
+ * <p>
+ * Loads, coalesced loads and early refreshes are counted in the {@code cache.singleflight.loads} metric.
+ * </p>
+ * <p>
+ * Cached values are shared by all users, so loads and early refreshes read from the primary database
+ * even in read-only transactions, see {@link ReplicaRoutingDataSource#callOnPrimary(Callable)}.
+ * </p>
+ */
+@Slf4j
+public class SingleFlightCache implements Cache {
+
+    private static final int GENERATION_STRIPES = 64;
+
+    private final Cache delegate;
+
+    private final long ttlMillis;
+
+    private final double earlyRefreshBeta;
+
+    private final long waitTimeoutMillis;
+
+    private final Predicate<Object> storeIf;
+
+    private final Executor refreshExecutor;
+
+    private final Map<Object, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+
+    private final AtomicLongArray generations = new AtomicLongArray(GENERATION_STRIPES);
+
+    /**
+     * The moving average of the load time, recorded for the values put into the cache directly.
+     */
+    private volatile long averageLoadMillis;
+
+    private final Counter loads;
+
+    private final Counter coalescedLoads;
+
+    private final Counter earlyRefreshes;
+
+    /**
+     * Creates the decorator.
+     *
+     * @param delegate the decorated cache
+     * @param ttl the time to live of the entries of the decorated cache
+     * @param earlyRefreshBeta the eagerness of early refreshes, 0 disables them
+     * @param waitTimeout the maximum time to wait for the load of another caller before loading the value itself
+     * @param storeIf the condition a loaded value has to meet to be stored in the cache
+     * @param refreshExecutor the executor of the early refreshes
+     * @param meterRegistry the registry of the load metrics
+     */
+    public SingleFlightCache(Cache delegate, Duration ttl, double earlyRefreshBeta, Duration waitTimeout,
+                             Predicate<Object> storeIf, Executor refreshExecutor, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.ttlMillis = ttl.toMillis();
+        this.earlyRefreshBeta = earlyRefreshBeta;
+        this.waitTimeoutMillis = waitTimeout.toMillis();
+        this.storeIf = storeIf;
+        this.refreshExecutor = refreshExecutor;
+        this.loads = loadCounter(meterRegistry, "loaded");
+        this.coalescedLoads = loadCounter(meterRegistry, "coalesced");
+        this.earlyRefreshes = loadCounter(meterRegistry, "refreshed");
+    }
+
+    @Override
+    public String getName() {
+        return delegate.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return delegate.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        CachedValue cached = lookup(key);
+        return cached == null ? null : new SimpleValueWrapper(cached.getValue());
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        CachedValue cached = lookup(key);
+        Object value = cached == null ? null : cached.getValue();
+
+        if (value != null && type != null && !type.isInstance(value)) {
+            throw new IllegalStateException("Cached value is not of required type [" + type.getName() + "]: " + value);
+        }
+
+        return (T) value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        CachedValue cached = lookup(key);
+
+        if (cached == null) {
+            return (T) load(key, valueLoader);
+        }
+
+        if (isDueForEarlyRefresh(cached)) {
+            refresh(key, valueLoader);
+        }
+
+        return (T) cached.getValue();
+    }
+
+    /**
+     * Stores the value with the average load time of the cache, so that it is refreshed early like a loaded value.
+     * Loads in flight for the key don't overwrite it.
+     */
+    @Override
+    public void put(Object key, Object value) {
+        invalidateLoads(key);
+        delegate.put(key, new CachedValue(value, System.currentTimeMillis(), averageLoadMillis));
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        ValueWrapper existing = delegate.putIfAbsent(key,
+                new CachedValue(value, System.currentTimeMillis(), averageLoadMillis));
+        return existing != null && existing.get() instanceof CachedValue cached
+                ? new SimpleValueWrapper(cached.getValue())
+                : existing;
+    }
+
+    @Override
+    public void evict(Object key) {
+        invalidateLoads(key);
+        delegate.evict(key);
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        invalidateLoads(key);
+        return delegate.evictIfPresent(key);
+    }
+
+    @Override
+    public void clear() {
+        invalidateAllLoads();
+        delegate.clear();
+    }
+
+    @Override
+    public boolean invalidate() {
+        invalidateAllLoads();
+        return delegate.invalidate();
+    }
+
+    /**
+     * Loads the value, unless another caller is already loading it, in which case the caller waits for its result.
+     *
+     * @param key the key to load the value for
+     * @param valueLoader the loader of the value
+     * @return the loaded value
+     */
+    private Object load(Object key, Callable<?> valueLoader) {
+        CompletableFuture<Object> flight = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inFlight.putIfAbsent(key, flight);
+
+        if (existing != null) {
+            coalescedLoads.increment();
+            return await(key, valueLoader, existing);
+        }
+
+        try {
+            // another caller may have stored the entry between the lookup and taking over the load
+            CachedValue stored = lookup(key);
+            Object value = stored != null ? stored.getValue() : loadAndStore(key, valueLoader, false);
+            flight.complete(value);
+            return value;
+        } catch (RuntimeException e) {
+            flight.completeExceptionally(e instanceof ValueRetrievalException ? e.getCause() : e);
+            throw e;
+        } finally {
+            inFlight.remove(key, flight);
+        }
+    }
+
+    /**
+     * Reloads the entry on the refresh executor, unless it is already being loaded.
+     * If the executor rejects the refresh, the entry is left to expire.
+     *
+     * @param key the key to reload the value for
+     * @param valueLoader the loader of the value
+     */
+    private void refresh(Object key, Callable<?> valueLoader) {
+        CompletableFuture<Object> flight = new CompletableFuture<>();
+
+        if (inFlight.putIfAbsent(key, flight) != null) {
+            return;
+        }
+
+        try {
+            refreshExecutor.execute(() -> {
+                try {
+                    flight.complete(loadAndStore(key, valueLoader, true));
+                } catch (RuntimeException e) {
+                    log.warn("Failed to refresh the entry {} of the cache {}: {}", key, getName(), e.getMessage());
+                    flight.completeExceptionally(e instanceof ValueRetrievalException ? e.getCause() : e);
+                } finally {
+                    inFlight.remove(key, flight);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            inFlight.remove(key, flight);
+            flight.cancel(false);
+        }
+    }
+
+    /**
+     * Waits for the load of another caller. If it doesn't complete in time or is cancelled,
+     * the value is loaded without coalescing.
+     *
+     * @param key the key of the value
+     * @param valueLoader the loader of the value
+     * @param flight the load of the other caller
+     * @return the loaded value
+     */
+    private Object await(Object key, Callable<?> valueLoader, CompletableFuture<Object> flight) {
+        try {
+            return flight.get(waitTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ValueRetrievalException(key, valueLoader, e);
+        } catch (ExecutionException e) {
+            throw new ValueRetrievalException(key, valueLoader, e.getCause());
+        } catch (TimeoutException | CancellationException e) {
+            return loadAndStore(key, valueLoader, false);
+        }
+    }
+
+    /**
+     * Runs the loader and stores the value, unless the key was evicted while the loader was running.
+     * The generation is checked again after storing, since an eviction may happen in between.
+     *
+     * @param key the key of the value
+     * @param valueLoader the loader of the value
+     * @param earlyRefresh whether the load refreshes an entry before its expiry
+     * @return the loaded value
+     */
+    private Object loadAndStore(Object key, Callable<?> valueLoader, boolean earlyRefresh) {
+        long generation = generations.get(stripe(key));
+        long startedAt = System.nanoTime();
+        Object value;
+
+        try {
+            value = ReplicaRoutingDataSource.callOnPrimary(valueLoader);
+        } catch (Exception e) {
+            throw new ValueRetrievalException(key, valueLoader, e);
+        }
+
+        long loadMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt);
+        averageLoadMillis = averageLoadMillis == 0 ? loadMillis : (averageLoadMillis * 7 + loadMillis) / 8;
+        (earlyRefresh ? earlyRefreshes : loads).increment();
+
+        if (storeIf.test(value) && generations.get(stripe(key)) == generation) {
+            delegate.put(key, new CachedValue(value, System.currentTimeMillis(), loadMillis));
+
+            if (generations.get(stripe(key)) != generation) {
+                delegate.evict(key);
+            }
+        }
+
+        return value;
+    }
+
+    /**
+     * Decides whether the entry should be refreshed before it expires, following the probabilistic
+     * early expiration algorithm: an entry is refreshed once {@code now - loadMillis * beta * ln(random)}
+     * passes its expiry.
+     *
+     * @param cached the cached entry
+     * @return {@code true} if the caller should refresh the entry
+     */
+    private boolean isDueForEarlyRefresh(CachedValue cached) {
+        if (earlyRefreshBeta <= 0) {
+            return false;
+        }
+
+        double random = 1.0 - ThreadLocalRandom.current().nextDouble();
+        double gap = cached.getLoadMillis() * earlyRefreshBeta * -Math.log(random);
+        return System.currentTimeMillis() + gap >= cached.getLoadedAt() + ttlMillis;
+    }
+
+    /**
+     * Retrieves the entry from the decorated cache. Values stored without the decorator are treated as missing.
+     *
+     * @param key the key of the entry
+     * @return the entry, or {@code null} if it is missing
+     */
+    private CachedValue lookup(Object key) {
+        ValueWrapper wrapper = delegate.get(key);
+        return wrapper != null && wrapper.get() instanceof CachedValue cached ? cached : null;
+    }
+
+    private void invalidateLoads(Object key) {
+        generations.incrementAndGet(stripe(key));
+    }
+
+    private void invalidateAllLoads() {
+        for (int i = 0; i < GENERATION_STRIPES; i++) {
+            generations.incrementAndGet(i);
+        }
+    }
+
+    private static int stripe(Object key) {
+        return Math.floorMod(key.hashCode(), GENERATION_STRIPES);
+    }
+
+    private Counter loadCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("cache.singleflight.loads")
+                .description("Loads of single-flight cache entries")
+                .tag("cache", delegate.getName())
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    /**
+     * A cached value together with the time it was loaded at and the time its load took.
+     * Not a record, so that it keeps its type information in the JSON stored in Redis.
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class CachedValue {
+        private Object value;
+        private long loadedAt;
+        private long loadMillis;
+    }
+
+}
@@ -0,0 +1,88 @@
+package com.example.bankcards.config.cache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.function.Predicate;
+
+/**
+ * A cache manager which puts a {@link SingleFlightCache} in front of the selected caches of another cache manager.
+ * The other caches are returned as they are.
+ */
+public class SingleFlightCacheManager implements CacheManager {
+
+    private final CacheManager delegate;
+
+    private final double earlyRefreshBeta;
+
+    private final Duration waitTimeout;
+
+    private final Executor refreshExecutor;
+
+    private final MeterRegistry meterRegistry;
+
+    private final Map<String, CacheSettings> settings = new ConcurrentHashMap<>();
+
+    private final Map<String, Cache> caches = new ConcurrentHashMap<>();
+
+    /**
+     * Creates the cache manager.
+     *
+     * @param delegate the decorated cache manager
+     * @param earlyRefreshBeta the eagerness of early refreshes, 0 disables them
+     * @param waitTimeout the maximum time to wait for the load of another caller
+     * @param refreshExecutor the executor of the early refreshes
+     * @param meterRegistry the registry of the load metrics
+     */
+    public SingleFlightCacheManager(CacheManager delegate, double earlyRefreshBeta, Duration waitTimeout,
+                                    Executor refreshExecutor, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.earlyRefreshBeta = earlyRefreshBeta;
+        this.waitTimeout = waitTimeout;
+        this.refreshExecutor = refreshExecutor;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Puts a single-flight decorator in front of the given cache.
+     *
+     * @param name the name of the cache
+     * @param ttl the time to live of the entries of the cache
+     * @param storeIf the condition a loaded value has to meet to be stored in the cache
+     * @return this cache manager
+     */
+    public SingleFlightCacheManager withSingleFlight(String name, Duration ttl, Predicate<Object> storeIf) {
+        settings.put(name, new CacheSettings(ttl, storeIf));
+        return this;
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        CacheSettings cacheSettings = settings.get(name);
+
+        if (cacheSettings == null) {
+            return delegate.getCache(name);
+        }
+
+        return caches.computeIfAbsent(name, n -> {
+            Cache cache = delegate.getCache(n);
+            return cache == null ? null : new SingleFlightCache(cache, cacheSettings.ttl(), earlyRefreshBeta,
+                    waitTimeout, cacheSettings.storeIf(), refreshExecutor, meterRegistry);
+        });
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return delegate.getCacheNames();
+    }
+
+    private record CacheSettings(Duration ttl, Predicate<Object> storeIf) {
+    }
+
+}
@@ -4,6 +4,9 @@ import lombok.Getter;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 /**
  * Class for storing adjustable application crypto parameters. Stores constants set externally
  */
@@ -19,7 +22,110 @@ public class CryptoConfig {
     @Value("${spring.application.security.crypto.key}")
     private String cryptoSecretKey;
 
+    @Value("${spring.application.security.crypto.key-id:1}")
+    private String cryptoKeyId;
+
+    /**
+     * Retired keys that are still used to decrypt values, in the {@code id:key,id:key} format.
+     * A key that was used with another transformation than the current one is set as
+     * {@code id:transformation:key}, e.g. {@code 1:ECB/PKCS5Padding:key}.
+     */
+    @Value("${spring.application.security.crypto.previous-keys:}")
+    private String previousSecretKeys;
+
+    /**
+     * Id of the key used for values encrypted before the key id was added to the value.
+     */
+    @Value("${spring.application.security.crypto.legacy-key-id:1}")
+    private String legacyKeyId;
+
+    @Value("${spring.application.security.crypto.index.algorithm:HmacSHA256}")
+    private String indexAlgorithm;
+
+    @Value("${spring.application.security.crypto.index.key}")
+    private String indexSecretKey;
+
+    @Value("${spring.application.security.crypto.pool.size:64}")
+    private int enginePoolSize;
+
+    @Value("${spring.application.security.crypto.reencryption.enabled:false}")
+    private boolean reEncryptionEnabled;
+
+    @Value("${spring.application.security.crypto.reencryption.chunk-size:500}")
+    private int reEncryptionChunkSize;
+
+    @Value("${spring.application.security.crypto.reencryption.rows-per-second:1000}")
+    private int reEncryptionRowsPerSecond;
+
     public String getCryptoAlgorithmWithTransformation() {
         return cryptoAlgorithm + "/" + cryptoTransformation;
     }
+
+    /**
+     * Returns all keys that can be used for decryption, including the current one.
+     *
+     * @return map of the key id to the secret key
+     * @throws IllegalArgumentException if the previous keys are not in the {@code id:key} format
+     */
+    public Map<String, String> getDecryptionSecretKeys() {
+        Map<String, String> keys = new LinkedHashMap<>();
+        getDecryptionKeys().forEach((keyId, key) -> keys.put(keyId, key.secretKey()));
+        return keys;
+    }
+
+    /**
+     * Returns all keys that can be used for decryption, including the current one, together with
+     * the transformation each key was used with. Previous keys without an explicit transformation
+     * use the current one.
+     *
+     * @return map of the key id to the decryption key
+     * @throws IllegalArgumentException if the previous keys are not in the {@code id:key}
+     *                                  or {@code id:transformation:key} format
+     */
+    public Map<String, DecryptionKey> getDecryptionKeys() {
+        Map<String, DecryptionKey> keys = new LinkedHashMap<>();
+
+        if (previousSecretKeys != null && !previousSecretKeys.isBlank()) {
+            for (String entry : previousSecretKeys.split(",")) {
+                int separator = entry.indexOf(':');
+                if (separator <= 0) {
+                    throw new IllegalArgumentException("Invalid previous crypto key entry. Expected format is id:key");
+                }
+                String keyId = entry.substring(0, separator).trim();
+                String rest = entry.substring(separator + 1);
+
+                int transformationSeparator = rest.indexOf(':');
+                if (transformationSeparator > 0 && rest.substring(0, transformationSeparator).contains("/")) {
+                    keys.put(keyId, new DecryptionKey(rest.substring(transformationSeparator + 1).trim(),
+                            rest.substring(0, transformationSeparator).trim()));
+                } else {
+                    keys.put(keyId, new DecryptionKey(rest.trim(), cryptoTransformation));
+                }
+            }
+        }
+
+        keys.put(cryptoKeyId, new DecryptionKey(cryptoSecretKey, cryptoTransformation));
+        return keys;
+    }
+
+    public boolean isGcmMode() {
+        return isGcmMode(cryptoTransformation);
+    }
+
+    private static boolean isGcmMode(String transformation) {
+        return transformation != null && transformation.startsWith("GCM");
+    }
+
+    /**
+     * A key that can be used for decryption and the transformation the values were encrypted with.
+     *
+     * @param secretKey      the secret key
+     * @param transformation the cipher transformation without the algorithm, e.g. {@code GCM/NoPadding}
+     */
+    public record DecryptionKey(String secretKey, String transformation) {
+
+        public boolean isGcmMode() {
+            return CryptoConfig.isGcmMode(transformation);
+        }
+    }
 }
@@ -0,0 +1,68 @@
+package com.example.bankcards.config.crypto;
+
+import java.security.GeneralSecurityException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * A bounded pool of cryptographic engines such as {@link javax.crypto.Cipher} or {@link javax.crypto.Mac}.
+ * <p>
+ * The engines are not thread-safe, so each engine is confined to a single caller between
+ * {@link #borrow()} and {@link #release(Object)}. The pool never blocks: if no idle engine is available,
+ * a new one is created, and if the pool is full, the released engine is dropped.
+ * No monitors are held while an engine is in use, so the pool is safe to use from virtual threads.
+ * </p>
+ *
+ * @param <T> the type of the pooled engine
+ */
+public class CryptoEnginePool<T> {
+
+    /**
+     * Factory used to create a new engine when there is no idle one.
+     *
+     * @param <T> the type of the created engine
+     */
+    @FunctionalInterface
+    public interface EngineFactory<T> {
+        T create() throws GeneralSecurityException;
+    }
+
+    private final EngineFactory<T> factory;
+
+    private final BlockingQueue<T> idleEngines;
+
+    /**
+     * Creates a new pool.
+     *
+     * @param factory the factory used to create new engines
+     * @param maxIdle the maximum number of idle engines kept in the pool
+     */
+    public CryptoEnginePool(EngineFactory<T> factory, int maxIdle) {
+        this.factory = factory;
+        this.idleEngines = new ArrayBlockingQueue<>(Math.max(1, maxIdle));
+    }
+
+    /**
+     * Takes an idle engine from the pool or creates a new one.
+     * The engine must be returned with {@link #release(Object)} once it is no longer used.
+     *
+     * @return the engine confined to the caller
+     * @throws GeneralSecurityException if a new engine cannot be created
+     */
+    public T borrow() throws GeneralSecurityException {
+        T engine = idleEngines.poll();
+        return engine != null ? engine : factory.create();
+    }
+
+    /**
+     * Returns the engine to the pool. The engine is dropped if the pool is full.
+     *
+     * @param engine the engine previously taken with {@link #borrow()}
+     */
+    public void release(T engine) {
+        if (engine != null) {
+            idleEngines.offer(engine);
+        }
+    }
+
+}
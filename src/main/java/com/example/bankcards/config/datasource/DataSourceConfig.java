@@ -0,0 +1,90 @@
+package com.example.bankcards.config.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+
+/**
+ * Configures the primary and the replica connection pools and the data source which routes between them.
+ * <p>
+ * Only active when the replica is enabled, otherwise the default single data source is used.
+ * The primary pool is configured by the standard {@code spring.datasource} properties,
+ * the replica pool by {@code spring.application.datasource.replica}.
+ * </p>
+ */
+@Configuration
+@ConditionalOnProperty(name = "spring.application.datasource.replica.enabled", havingValue = "true")
+public class DataSourceConfig {
+
+    @Value("${spring.application.datasource.replica.url}")
+    private String replicaUrl;
+
+    @Value("${spring.application.datasource.replica.username}")
+    private String replicaUsername;
+
+    @Value("${spring.application.datasource.replica.password}")
+    private String replicaPassword;
+
+    /**
+     * The time after a commit during which the user's read-only transactions go to the primary.
+     * The writes are only tracked by the node that served them, so read-your-writes holds only while
+     * the user's requests stay on the same node, e.g. with sticky sessions; another node may serve
+     * the user's reads from the replica right after a write.
+     */
+    @Value("${spring.application.datasource.replica.readYourWritesMillis:5000}")
+    private long readYourWritesMillis;
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+    }
+
+    @Bean
+    @ConfigurationProperties("spring.application.datasource.replica.hikari")
+    public HikariDataSource replicaDataSource(DataSourceProperties properties) {
+        return DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .driverClassName(properties.determineDriverClassName())
+                .url(replicaUrl)
+                .username(replicaUsername)
+                .password(replicaPassword)
+                .build();
+    }
+
+    /**
+     * The data source used by JPA, JDBC templates and Liquibase.
+     * <p>
+     * Connections are obtained lazily, so the routing sees whether the transaction is read-only.
+     * The defaults are set explicitly, so the proxy doesn't open a connection at startup to detect them.
+     * </p>
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primaryDataSource,
+                                 @Qualifier("replicaDataSource") DataSource replicaDataSource) {
+        ReplicaRoutingDataSource routingDataSource = new ReplicaRoutingDataSource(primaryDataSource, replicaDataSource,
+                new ReadYourWritesGuard(readYourWritesMillis));
+
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy();
+        dataSource.setDefaultAutoCommit(true);
+        dataSource.setDefaultTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+        dataSource.setTargetDataSource(routingDataSource);
+        dataSource.afterPropertiesSet();
+        return dataSource;
+    }
+
+}
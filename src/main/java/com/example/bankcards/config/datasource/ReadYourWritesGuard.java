@@ -0,0 +1,66 @@
+package com.example.bankcards.config.datasource;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps track of the users who have recently committed changes, so that their read-only transactions
+ * are sent to the primary until the replica is expected to have caught up.
+ * <p>
+ * The state is kept in memory of the current node, so a user whose next request is served by another node
+ * may still read from the replica.
+ * </p>
+ */
+public class ReadYourWritesGuard {
+
+    private static final int PURGE_THRESHOLD = 10_000;
+
+    private final long windowNanos;
+
+    private final Map<String, Long> lastWrites = new ConcurrentHashMap<>();
+
+    /**
+     * Creates the guard.
+     *
+     * @param windowMillis the time after a commit during which the user reads from the primary
+     */
+    public ReadYourWritesGuard(long windowMillis) {
+        this.windowNanos = windowMillis * 1_000_000L;
+    }
+
+    /**
+     * Records that the user has committed changes.
+     *
+     * @param user the name of the user
+     */
+    public void recordWrite(String user) {
+        long now = System.nanoTime();
+        lastWrites.put(user, now);
+
+        if (lastWrites.size() > PURGE_THRESHOLD) {
+            lastWrites.values().removeIf(writtenAt -> now - writtenAt >= windowNanos);
+        }
+    }
+
+    /**
+     * Checks whether the user has committed changes within the window.
+     *
+     * @param user the name of the user
+     * @return {@code true} if the reads of the user must go to the primary
+     */
+    public boolean requiresPrimary(String user) {
+        Long writtenAt = lastWrites.get(user);
+
+        if (writtenAt == null) {
+            return false;
+        }
+
+        if (System.nanoTime() - writtenAt < windowNanos) {
+            return true;
+        }
+
+        lastWrites.remove(user, writtenAt);
+        return false;
+    }
+
+}
@@ -0,0 +1,135 @@
+package com.example.bankcards.config.datasource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.function.Supplier;
+
+/**
+ * Data source which sends connections of read-only transactions to the replica and all the other connections
+ * to the primary.
+ * <p>
+ * The decision is made when the connection is obtained, so the data source must be wrapped in a
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}, which obtains the connection
+ * on the first statement, after the transaction has been marked as read-only.
+ * After a user commits a read-write transaction, the read-only transactions of the user go to the primary
+ * for a while, so the user sees the own changes even if the replica lags behind.
+ * </p>
+ * <p>
+ * Loads whose results are shared with other users, such as cache fills, are run with
+ * {@link #callOnPrimary(Callable)} or {@link #onPrimary(Supplier)}, so a lagging replica never ends up in a shared cache.
+ * The hint is ignored when the replica is disabled.
+ * </p>
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    /**
+     * The data sources the connections are routed to.
+     */
+    public enum Target {
+        PRIMARY, REPLICA
+    }
+
+    private static final ThreadLocal<Boolean> PRIMARY_HINT = new ThreadLocal<>();
+
+    private final ReadYourWritesGuard readYourWritesGuard;
+
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica, ReadYourWritesGuard readYourWritesGuard) {
+        this.readYourWritesGuard = readYourWritesGuard;
+        setTargetDataSources(Map.of(Target.PRIMARY, primary, Target.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    /**
+     * Runs the action with the connections obtained by the current thread routed to the primary.
+     * A connection already obtained by the current transaction is kept.
+     *
+     * @param action the action to run
+     * @param <T> the type of the result
+     * @return the result of the action
+     * @throws Exception if the action fails
+     */
+    public static <T> T callOnPrimary(Callable<T> action) throws Exception {
+        Boolean previous = PRIMARY_HINT.get();
+        PRIMARY_HINT.set(Boolean.TRUE);
+        try {
+            return action.call();
+        } finally {
+            if (previous == null) {
+                PRIMARY_HINT.remove();
+            }
+        }
+    }
+
+    /**
+     * Runs the action with the connections obtained by the current thread routed to the primary.
+     * A connection already obtained by the current transaction is kept.
+     *
+     * @param action the action to run
+     * @param <T> the type of the result
+     * @return the result of the action
+     */
+    public static <T> T onPrimary(Supplier<T> action) {
+        Boolean previous = PRIMARY_HINT.get();
+        PRIMARY_HINT.set(Boolean.TRUE);
+        try {
+            return action.get();
+        } finally {
+            if (previous == null) {
+                PRIMARY_HINT.remove();
+            }
+        }
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            return Target.PRIMARY;
+        }
+
+        String user = currentUser();
+
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (user != null && TransactionSynchronizationManager.isSynchronizationActive()) {
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        readYourWritesGuard.recordWrite(user);
+                    }
+                });
+            }
+            return Target.PRIMARY;
+        }
+
+        if (PRIMARY_HINT.get() != null) {
+            return Target.PRIMARY;
+        }
+
+        return user != null && readYourWritesGuard.requiresPrimary(user) ? Target.PRIMARY : Target.REPLICA;
+    }
+
+    /**
+     * Returns the name of the authenticated user of the current thread.
+     *
+     * @return the user name, or null for anonymous and background work
+     */
+    private static String currentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+
+        if (authentication == null || !authentication.isAuthenticated()
+                || authentication instanceof AnonymousAuthenticationToken) {
+            return null;
+        }
+
+        return authentication.getName();
+    }
+
+}
@@ -0,0 +1,38 @@
+package com.example.bankcards.config.jpa;
+
+import org.hibernate.boot.model.FunctionContributions;
+import org.hibernate.boot.model.FunctionContributor;
+import org.hibernate.type.StandardBasicTypes;
+
+/**
+ * Registers the SQL functions used to match a column against an array parameter.
+ * <p>
+ * An {@code IN} list renders one placeholder per element, so every distinct list size produces a new SQL string,
+ * which defeats the query plan cache of Hibernate and the prepared statements of PostgreSQL.
+ * {@code column = any(?)} binds the whole collection as a single array, keeping the SQL string stable,
+ * and unlike the built-in {@code array_contains} it can still use a b-tree index on the column.
+ * </p>
+ * <p>
+ * Registered through {@code META-INF/services/org.hibernate.boot.model.FunctionContributor}.
+ * </p>
+ */
+public class ArrayFunctionContributor implements FunctionContributor {
+
+    /**
+     * The name of the function that checks whether the first argument equals any element of the array
+     * passed as the second argument.
+     */
+    public static final String ANY_OF = "any_of";
+
+    @Override
+    public void contributeFunctions(FunctionContributions functionContributions) {
+        functionContributions.getFunctionRegistry()
+                .patternDescriptorBuilder(ANY_OF, "(?1 = any(?2))")
+                .setExactArgumentCount(2)
+                .setInvariantType(functionContributions.getTypeConfiguration()
+                        .getBasicTypeRegistry()
+                        .resolve(StandardBasicTypes.BOOLEAN))
+                .register();
+    }
+
+}
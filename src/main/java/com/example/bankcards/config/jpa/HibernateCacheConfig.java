@@ -0,0 +1,120 @@
+package com.example.bankcards.config.jpa;
+
+import com.example.bankcards.entity.Role;
+import com.example.bankcards.entity.User;
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.JCacheMetrics;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.util.OptionalLong;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Configures the Hibernate second-level cache backed by Caffeine through JCache.
+ * <p>
+ * Only the regions created here exist, Hibernate fails to start if an entity or a collection
+ * is marked as cacheable without a configured region, so every cache stays bounded.
+ * Hit and miss counts of each region are published as {@code cache.gets} metrics from the JCache statistics
+ * of the region, so they don't depend on the Hibernate statistics, which are disabled by default.
+ * </p>
+ */
+@Configuration
+public class HibernateCacheConfig {
+
+    /**
+     * The region of the roles.
+     */
+    public static final String ROLE_REGION = Role.class.getName();
+
+    /**
+     * The region of the role sets of the users.
+     */
+    public static final String USER_ROLE_SET_REGION = User.class.getName() + ".roleSet";
+
+    @Value("${spring.application.hibernateCache.referenceData.maxSize:100}")
+    private long referenceDataMaxSize;
+
+    @Value("${spring.application.hibernateCache.roleSets.maxSize:10000}")
+    private long roleSetsMaxSize;
+
+    @Value("${spring.application.hibernateCache.roleSets.expireAfterWriteMinutes:60}")
+    private long roleSetsExpireAfterWriteMinutes;
+
+    @Value("${spring.application.hibernateCache.queryResults.maxSize:1000}")
+    private long queryResultsMaxSize;
+
+    /**
+     * Creates the JCache manager with a bounded cache for every second-level cache region.
+     * Every application context gets its own manager, so closing one context doesn't affect the others.
+     *
+     * @return the JCache manager used by Hibernate
+     */
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager() {
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager(URI.create("bankrest-hibernate-" + UUID.randomUUID()), getClass().getClassLoader());
+
+        createCache(cacheManager, ROLE_REGION, referenceDataMaxSize, OptionalLong.empty());
+        createCache(cacheManager, USER_ROLE_SET_REGION, roleSetsMaxSize,
+                OptionalLong.of(TimeUnit.MINUTES.toNanos(roleSetsExpireAfterWriteMinutes)));
+        createCache(cacheManager, RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME,
+                queryResultsMaxSize, OptionalLong.empty());
+        createCache(cacheManager, RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME,
+                referenceDataMaxSize, OptionalLong.empty());
+
+        return cacheManager;
+    }
+
+    /**
+     * Enables the second-level and the query caches and hands the JCache manager to Hibernate.
+     *
+     * @param hibernateCacheManager the JCache manager with the configured regions
+     * @return the customizer of the Hibernate properties
+     */
+    @Bean
+    public HibernatePropertiesCustomizer hibernateCacheCustomizer(CacheManager hibernateCacheManager) {
+        return properties -> {
+            properties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+            properties.put(AvailableSettings.USE_QUERY_CACHE, true);
+            properties.put(AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+            properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+            properties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+        };
+    }
+
+    /**
+     * Publishes the size, hit, miss, put and eviction counts of every second-level cache region.
+     *
+     * @param hibernateCacheManager the JCache manager with the configured regions
+     * @return the binder of the region metrics
+     */
+    @Bean
+    public MeterBinder hibernateCacheMetrics(CacheManager hibernateCacheManager) {
+        return registry -> hibernateCacheManager.getCacheNames().forEach(name ->
+                new JCacheMetrics<>(hibernateCacheManager.getCache(name), Tags.of("cache.manager", "hibernateCacheManager"))
+                        .bindTo(registry));
+    }
+
+    private static void createCache(CacheManager cacheManager, String name, long maxSize,
+                                    OptionalLong expireAfterWriteNanos) {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        configuration.setMaximumSize(OptionalLong.of(maxSize));
+        configuration.setExpireAfterWrite(expireAfterWriteNanos);
+        configuration.setStatisticsEnabled(true);
+        cacheManager.createCache(name, configuration);
+    }
+
+}
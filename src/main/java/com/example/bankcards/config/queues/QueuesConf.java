@@ -20,4 +20,7 @@ public class QueuesConf {
     @Value("${spring.queues.cardBlockRequestCreated.name:cardBlockRequestCreated}")
     private String cardBlockRequestCreated;
 
+    @Value("${spring.topics.cardOwnershipInvalidation.name:cardOwnershipInvalidationTopic}")
+    private String cardOwnershipInvalidationTopic;
+
 }
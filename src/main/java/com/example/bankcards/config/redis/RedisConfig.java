@@ -1,11 +1,17 @@
 package com.example.bankcards.config.redis;
 
+import com.example.bankcards.config.cache.SingleFlightCacheManager;
+import com.example.bankcards.dto.api.resp.PageResp;
 import com.example.bankcards.dto.redis.CardBlockRequestCreatedMessageDTO;
 import com.example.bankcards.dto.redis.TransferMessageDTO;
 import com.fasterxml.jackson.annotation.JsonTypeInfo;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -13,9 +19,12 @@ import org.springframework.data.redis.cache.RedisCacheConfiguration;
 import org.springframework.data.redis.cache.RedisCacheManager;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.RedisSerializationContext;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.concurrent.DelegatingSecurityContextExecutor;
 
 import java.time.Duration;
 import java.util.Objects;
@@ -30,6 +39,16 @@ import java.util.Objects;
 @Configuration
 public class RedisConfig {
 
+    private static final String CARDS_BY_SEARCH_CACHE = "cardsBySearch";
+
+    private static final Duration CARDS_BY_SEARCH_TTL = Duration.ofHours(1);
+
+    @Value("${spring.application.cache.singleFlight.earlyRefreshBeta:1.0}")
+    private double earlyRefreshBeta;
+
+    @Value("${spring.application.cache.singleFlight.waitTimeoutMillis:30000}")
+    private long waitTimeoutMillis;
+
     /**
      * Creates a {@link RedisTemplate} configured to serialize keys as Strings and values using
      * Jackson with custom settings to support polymorphic types and Java time module support.
@@ -86,16 +105,34 @@ public class RedisConfig {
     }
 
 
+    /**
+     * Creates a container for Redis pub/sub listeners, used to deliver invalidation messages
+     * from the other nodes of the application.
+     *
+     * @param connectionFactory the Redis connection factory
+     * @return a RedisMessageListenerContainer
+     */
+    @Bean
+    public RedisMessageListenerContainer redisMessageListenerContainer(RedisConnectionFactory connectionFactory) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        return container;
+    }
+
     /**
      * Configures a RedisCacheManager for managing Redis caches with custom serialization settings.
      * This cache manager is used for caching operations and ensures that the values are serialized to JSON format
      * with proper type handling.
+     * Concurrent loads of the card search results are coalesced by a {@link SingleFlightCacheManager}.
      *
      * @param redisConnectionFactory the factory used to create connections to the Redis server.
-     * @return a configured RedisCacheManager.
+     * @param meterRegistry the registry of the cache load metrics.
+     * @param cacheRefreshExecutor the executor of the early refreshes of the single-flight caches.
+     * @return a configured CacheManager.
      */
     @Bean
-    public RedisCacheManager cacheManager(RedisConnectionFactory redisConnectionFactory) {
+    public CacheManager cacheManager(RedisConnectionFactory redisConnectionFactory, MeterRegistry meterRegistry,
+                                     @Qualifier("cacheRefreshExecutor") ThreadPoolTaskExecutor cacheRefreshExecutor) {
         ObjectMapper objectMapper = new ObjectMapper();
         objectMapper.registerModule(new JavaTimeModule());
         objectMapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
@@ -115,11 +152,23 @@ public class RedisConfig {
 
         RedisCacheConfiguration cardsBySearchConfig = RedisCacheConfiguration.defaultCacheConfig()
                 .serializeValuesWith(jsonSerializer)
-                .entryTtl(Duration.ofHours(1));
+                .entryTtl(CARDS_BY_SEARCH_TTL);
 
-        return RedisCacheManager.builder(redisConnectionFactory)
+        RedisCacheConfiguration cardAnalyticsConfig = RedisCacheConfiguration.defaultCacheConfig()
+                .serializeValuesWith(jsonSerializer)
+                .entryTtl(Duration.ofMinutes(1));
+
+        RedisCacheManager redisCacheManager = RedisCacheManager.builder(redisConnectionFactory)
                 .cacheDefaults(config)
-                .withCacheConfiguration("cardsBySearch", cardsBySearchConfig)
+                .withCacheConfiguration(CARDS_BY_SEARCH_CACHE, cardsBySearchConfig)
+                .withCacheConfiguration("cardAnalytics", cardAnalyticsConfig)
                 .build();
+        redisCacheManager.afterPropertiesSet();
+
+        // the loaders run the cached methods, which read the current user
+        return new SingleFlightCacheManager(redisCacheManager, earlyRefreshBeta, Duration.ofMillis(waitTimeoutMillis),
+                new DelegatingSecurityContextExecutor(cacheRefreshExecutor), meterRegistry)
+                .withSingleFlight(CARDS_BY_SEARCH_CACHE, CARDS_BY_SEARCH_TTL,
+                        value -> !(value instanceof PageResp<?> page) || !page.getObjects().isEmpty());
     }
 }
@@ -18,8 +18,8 @@ import static com.example.bankcards.entity.enums.CardType.CARD_NUMBER_REGEX;
  * Custom Jackson deserializer for {@link EncryptedCardNumber}.
  * <p>
  * This deserializer takes a plain card number string, validates its format using a regular expression,
- * generates a masked version of the card number, encrypts the card number, and then returns an {@link EncryptedCardNumber}
- * object containing the encrypted card number and its masked version.
+ * generates a masked version of the card number, encrypts the card number, calculates its blind index and then returns
+ * an {@link EncryptedCardNumber} object containing the encrypted card number, its masked version and its blind index.
  * </p>
  * <p>
  * The deserializer requires an {@link EncryptionService} for encryption purposes and uses a regular expression
@@ -45,12 +45,12 @@ public class EncryptedCardNumberDeserializer extends StdDeserializer<EncryptedCa
      * Deserializes a plain card number into an {@link EncryptedCardNumber} object.
      * <p>
      * This method takes a plain card number in string format, validates it against a regular expression pattern,
-     * generates a masked version of the card number, and encrypts the original card number.
+     * generates a masked version of the card number, encrypts the original card number and calculates its blind index.
      * </p>
      *
      * @param p The JSON parser used to parse the input value.
      * @param ctxt The deserialization context.
-     * @return An {@link EncryptedCardNumber} object containing the encrypted card number and its masked version.
+     * @return An {@link EncryptedCardNumber} object containing the encrypted card number, its masked version and blind index.
      * @throws IOException If an I/O error occurs during deserialization.
      * @throws InvalidFormatException If the provided card number does not match the expected format.
      */
@@ -68,7 +68,9 @@ public class EncryptedCardNumberDeserializer extends StdDeserializer<EncryptedCa
 
         String encrypted = encryptionService.encrypt(plainCardNumber);
 
-        return new EncryptedCardNumber(encrypted, cardMask);
+        String numberHash = encryptionService.hash(plainCardNumber);
+
+        return new EncryptedCardNumber(encrypted, cardMask, numberHash);
     }
 
 }
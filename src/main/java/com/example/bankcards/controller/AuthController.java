@@ -31,6 +31,11 @@ import static com.example.bankcards.util.Constants.TOKEN_TYPE;
 @RequestMapping("v1/api/auth")
 @Validated
 public class AuthController {
+    /**
+     * The path the refresh token cookie is sent to, covering both the refresh and the logout endpoints.
+     */
+    private static final String REFRESH_TOKEN_COOKIE_PATH = "/v1/api/auth";
+
     private final AuthService authService;
 
     /**
@@ -50,15 +55,22 @@ public class AuthController {
     }
 
     /**
-     * Invalidates the current refresh token by clearing client cookie.
+     * Invalidates the current refresh token by revoking its family and clearing client cookie.
      *
+     * @param request HTTP request containing the refresh token cookie
      * @return Empty response with cleared refresh token cookie
      */
     @PostMapping("/logout")
-    public ResponseEntity<?> logout() {
+    public ResponseEntity<?> logout(HttpServletRequest request) {
+        String refreshToken = extractRefreshTokenCookie(request);
+
+        if (Objects.nonNull(refreshToken) && !refreshToken.isBlank()) {
+            authService.logoutUser(refreshToken);
+        }
+
         ResponseCookie cookie = ResponseCookie.from(REFRESH_TOKEN_KEY, "")
                 .httpOnly(true)
-                .path("/v1/api/auth/refresh")
+                .path(REFRESH_TOKEN_COOKIE_PATH)
                 .maxAge(0)
                 .build();
 
@@ -91,12 +103,9 @@ public class AuthController {
 
     private String extractRefreshToken(HttpServletRequest request) {
         // 1. From cookie
-        if (request.getCookies() != null) {
-            for (Cookie cookie : request.getCookies()) {
-                if (REFRESH_TOKEN_KEY.equals(cookie.getName())) {
-                    return cookie.getValue();
-                }
-            }
+        String cookieToken = extractRefreshTokenCookie(request);
+        if (Objects.nonNull(cookieToken)) {
+            return cookieToken;
         }
 
         // 2. From header Authorization
@@ -108,11 +117,23 @@ public class AuthController {
         return null;
     }
 
+    private String extractRefreshTokenCookie(HttpServletRequest request) {
+        if (request.getCookies() != null) {
+            for (Cookie cookie : request.getCookies()) {
+                if (REFRESH_TOKEN_KEY.equals(cookie.getName())) {
+                    return cookie.getValue();
+                }
+            }
+        }
+
+        return null;
+    }
+
     private ResponseCookie createRefreshTokenCookie(String refreshToken) {
         return ResponseCookie.from(REFRESH_TOKEN_KEY, refreshToken)
                 .httpOnly(true)
                 .secure(true)
-                .path("/v1/api/auth/refresh")
+                .path(REFRESH_TOKEN_COOKIE_PATH)
                 .sameSite("Strict")
                 .build();
     }
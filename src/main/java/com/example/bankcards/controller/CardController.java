@@ -1,15 +1,28 @@
 package com.example.bankcards.controller;
 
 import com.example.bankcards.dto.api.req.AddCardDTO;
+import com.example.bankcards.dto.api.req.BulkAddCardDTO;
+import com.example.bankcards.dto.api.req.BulkCardStatusDTO;
+import com.example.bankcards.dto.api.req.CardExportFormat;
 import com.example.bankcards.dto.api.req.notifications.CardBlockRequestNotificationDTO;
 import com.example.bankcards.dto.api.req.SearchReq;
 import com.example.bankcards.dto.api.req.UpdateCardDTO;
 import com.example.bankcards.dto.api.req.filters.CardSearchFilter;
+import com.example.bankcards.dto.api.resp.ArchivedTransferDTO;
+import com.example.bankcards.dto.api.resp.BulkCardResultDTO;
+import com.example.bankcards.dto.api.resp.BulkCardStatusResultDTO;
+import com.example.bankcards.dto.api.resp.BulkEnrollmentResultDTO;
+import com.example.bankcards.dto.api.resp.CardAnalyticsDTO;
 import com.example.bankcards.dto.api.resp.CardDTO;
+import com.example.bankcards.dto.api.resp.CardPortfolioSummaryDTO;
 import com.example.bankcards.dto.api.resp.PageResp;
 import com.example.bankcards.entity.enums.CardStatus;
+import com.example.bankcards.service.CacheWarmUpService;
+import com.example.bankcards.service.CardAnalyticsService;
+import com.example.bankcards.service.CardExportService;
 import com.example.bankcards.service.CardService;
 import com.example.bankcards.service.NotificationService;
+import com.example.bankcards.service.TransferArchiveService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -19,12 +32,20 @@ import jakarta.validation.Valid;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotNull;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.InputStream;
+import java.time.YearMonth;
+import java.util.List;
 import java.util.Map;
 
 import static com.example.bankcards.util.Constants.ID_CANNOT_BE_NULL;
@@ -36,7 +57,11 @@ import static com.example.bankcards.util.Constants.ID_MUST_BE_POSITIVE;
 @Validated
 public class CardController {
     private final CardService cardService;
+    private final CardAnalyticsService cardAnalyticsService;
+    private final CardExportService cardExportService;
     private final NotificationService notificationService;
+    private final TransferArchiveService transferArchiveService;
+    private final CacheWarmUpService cacheWarmUpService;
 
     @Operation(
             summary = "Add a new card",
@@ -63,6 +88,53 @@ public class CardController {
         );
     }
 
+    @Operation(
+            summary = "Add cards in bulk",
+            description = "Creates many cards at once and returns the result for every requested card",
+            requestBody = @io.swagger.v3.oas.annotations.parameters.RequestBody(
+                    description = "Bulk card creation request payload",
+                    required = true,
+                    content = @Content(schema = @Schema(implementation = BulkAddCardDTO.class))
+            ),
+            responses = {
+                    @ApiResponse(responseCode = "201", description = "Cards processed, see the per-item results"),
+                    @ApiResponse(responseCode = "400", description = "Invalid request payload")
+            }
+    )
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @PostMapping("/admin/bulk/add")
+    public ResponseEntity<?> addCards(@RequestBody @Valid BulkAddCardDTO req) {
+        List<BulkCardResultDTO> results = cardService.createCards(req.getCards());
+        long created = results.stream().filter(result -> result.getCardId() != null).count();
+        return ResponseEntity.status(HttpStatus.CREATED).body(
+                Map.of(
+                        "created", created,
+                        "failed", results.size() - created,
+                        "results", results
+                )
+        );
+    }
+
+    @Operation(
+            summary = "Enroll card balances in bulk",
+            description = "Adds the amounts from a CSV file (card id, amount per row, no header) to the balances "
+                    + "of active cards and reports the rejected rows",
+            requestBody = @io.swagger.v3.oas.annotations.parameters.RequestBody(
+                    description = "CSV file with enrollments",
+                    required = true,
+                    content = @Content(mediaType = "text/csv")
+            ),
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Enrollments processed, see the rejected rows"),
+                    @ApiResponse(responseCode = "400", description = "Invalid CSV file")
+            }
+    )
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @PostMapping(value = "/admin/bulk/enroll", consumes = "text/csv")
+    public ResponseEntity<BulkEnrollmentResultDTO> enrollBalances(InputStream csv) {
+        return ResponseEntity.ok(cardService.enrollBalances(csv));
+    }
+
     @Operation(
             summary = "Update card",
             description = "Updates details of an existing card",
@@ -114,6 +186,26 @@ public class CardController {
         );
     }
 
+    @Operation(
+            summary = "Set status of cards in bulk",
+            description = "Changes the status of the cards selected by IDs or by a filter; "
+                    + "expired cards and cards that already have the status are skipped",
+            requestBody = @io.swagger.v3.oas.annotations.parameters.RequestBody(
+                    description = "Bulk card status request payload",
+                    required = true,
+                    content = @Content(schema = @Schema(implementation = BulkCardStatusDTO.class))
+            ),
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Card statuses processed, see the counts"),
+                    @ApiResponse(responseCode = "400", description = "Invalid request payload")
+            }
+    )
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @PostMapping("/admin/bulk/status/update")
+    public ResponseEntity<BulkCardStatusResultDTO> setCardStatuses(@RequestBody @Valid BulkCardStatusDTO req) {
+        return ResponseEntity.ok(cardService.setCardStatuses(req));
+    }
+
     @Operation(
             summary = "Delete card",
             description = "Deletes a card by its ID",
@@ -160,6 +252,106 @@ public class CardController {
         return ResponseEntity.ok(card);
     }
 
+    @Operation(
+            summary = "Get card portfolio summary",
+            description = "Returns the total balance and the number of cards by status and type of a user; "
+                    + "administrators can request the summary of any user",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Summary returned successfully",
+                            content = @Content(schema = @Schema(implementation = CardPortfolioSummaryDTO.class))),
+                    @ApiResponse(responseCode = "403", description = "Summary of another user requested")
+            }
+    )
+    @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
+    @GetMapping("/get/summary")
+    public ResponseEntity<CardPortfolioSummaryDTO> getPortfolioSummary(
+            @Parameter(description = "Owner ID, the current user by default", example = "1")
+            @RequestParam(required = false)
+            @Min(value = 1, message = ID_MUST_BE_POSITIVE)
+            Long ownerId) {
+        return ResponseEntity.ok(cardService.getPortfolioSummary(ownerId));
+    }
+
+    @Operation(
+            summary = "Get archived transfers of a card",
+            description = "Returns the settled transfers from or to a card in a month which were moved to the cold archive, "
+                    + "including the transfers archived together with a deleted counterpart card; "
+                    + "users can only read the transfers of their own cards",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Archived transfers returned successfully"),
+                    @ApiResponse(responseCode = "403", description = "Transfers of another user's card requested")
+            }
+    )
+    @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
+    @GetMapping("/get/{id}/archive/transfers")
+    public ResponseEntity<List<ArchivedTransferDTO>> getArchivedTransfers(
+            @Parameter(description = "Card ID", example = "1")
+            @PathVariable
+            @NotNull(message = ID_CANNOT_BE_NULL)
+            @Min(value = 1, message = ID_MUST_BE_POSITIVE)
+            Long id,
+            @Parameter(description = "Month the transfers were created in", example = "2025-01")
+            @RequestParam
+            @DateTimeFormat(pattern = "yyyy-MM")
+            YearMonth month) {
+        return ResponseEntity.ok(transferArchiveService.getArchivedTransfers(id, month));
+    }
+
+    @Operation(
+            summary = "Get card analytics",
+            description = "Returns the bank-wide number, balance and hold of the cards by type, status and expiration month; "
+                    + "the result is cached for a short time and reports when it was computed",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Analytics returned successfully",
+                            content = @Content(schema = @Schema(implementation = CardAnalyticsDTO.class)))
+            }
+    )
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @GetMapping("/admin/analytics")
+    public ResponseEntity<CardAnalyticsDTO> getCardAnalytics(
+            @Parameter(description = "Recompute the analytics instead of returning the cached result", example = "false")
+            @RequestParam(defaultValue = "false") boolean refresh) {
+        return ResponseEntity.ok(cardAnalyticsService.getCardAnalytics(refresh));
+    }
+
+    @Operation(
+            summary = "Export cards",
+            description = "Streams all the cards as NDJSON or CSV straight from the database, optionally compressed with gzip; "
+                    + "card numbers are masked",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Cards streamed successfully")
+            }
+    )
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @GetMapping("/admin/export")
+    public ResponseEntity<StreamingResponseBody> exportCards(
+            @Parameter(description = "Export format", example = "NDJSON")
+            @RequestParam(defaultValue = "NDJSON") CardExportFormat format,
+            @Parameter(description = "Owner ID, all the owners by default", example = "1")
+            @RequestParam(required = false)
+            @Min(value = 1, message = ID_MUST_BE_POSITIVE)
+            Long ownerId,
+            @Parameter(description = "Include deleted cards", example = "false")
+            @RequestParam(defaultValue = "false") boolean includeDeleted,
+            @Parameter(description = "Compress the response with gzip", example = "false")
+            @RequestParam(defaultValue = "false") boolean gzip) {
+        StreamingResponseBody body = outputStream ->
+                cardExportService.exportCards(format, ownerId, includeDeleted, gzip, outputStream);
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(format.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("cards." + format.getFileExtension())
+                        .build()
+                        .toString());
+
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+
+        return response.body(body);
+    }
+
     @Operation(
             summary = "Get cards with filters",
             description = "Returns a paginated list of cards filtered by various criteria",
@@ -179,6 +371,8 @@ public class CardController {
                     required = true,
                     content = @Content(schema = @Schema(implementation = SearchReq.class)))
             @RequestBody @Valid SearchReq<CardSearchFilter> req) {
+        cardService.hashCardNumbers(req.getFilter());
+        cacheWarmUpService.recordCardSearch(req);
         PageResp<CardDTO> cardPage = cardService.getCards(req);
         return ResponseEntity.ok(cardPage);
     }
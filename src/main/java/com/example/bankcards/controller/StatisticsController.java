@@ -0,0 +1,37 @@
+package com.example.bankcards.controller;
+
+import com.example.bankcards.dto.api.resp.QueryPlanCacheStatisticsDTO;
+import com.example.bankcards.service.QueryStatisticsService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("v1/api/admin/statistics")
+public class StatisticsController {
+    private final QueryStatisticsService queryStatisticsService;
+
+    @Operation(
+            summary = "Get query plan cache statistics",
+            description = "Returns the hit and miss counts of the Hibernate query plan cache since the application was started. "
+                    + "The counts are only collected when HIBERNATE_STATISTICS_ENABLED is true",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Statistics returned successfully",
+                            content = @Content(schema = @Schema(implementation = QueryPlanCacheStatisticsDTO.class)))
+            }
+    )
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @GetMapping("/query-plan-cache")
+    public ResponseEntity<QueryPlanCacheStatisticsDTO> getQueryPlanCacheStatistics() {
+        return ResponseEntity.ok(queryStatisticsService.getQueryPlanCacheStatistics());
+    }
+
+}
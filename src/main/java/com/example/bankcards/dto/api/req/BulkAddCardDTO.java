@@ -0,0 +1,32 @@
+package com.example.bankcards.dto.api.req;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+import static com.example.bankcards.util.Constants.*;
+
+/**
+ * A data transfer object representing a request to issue many cards at once.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class BulkAddCardDTO {
+
+    /**
+     * @see AddCardDTO
+     */
+    @NotEmpty(message = BULK_CARDS_CANNOT_BE_EMPTY)
+    @Size(max = MAX_BULK_CARDS, message = BULK_CARDS_SIZE_EXCEEDED)
+    private List<@Valid @NotNull(message = CARD_CANNOT_BE_NULL) AddCardDTO> cards;
+
+}
@@ -0,0 +1,40 @@
+package com.example.bankcards.dto.api.req;
+
+import com.example.bankcards.dto.api.req.filters.CardSearchFilter;
+import com.example.bankcards.entity.enums.CardStatus;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Set;
+
+import static com.example.bankcards.util.Constants.*;
+
+/**
+ * A data transfer object representing a request to change the status of many cards at once.
+ * The cards are selected either by their IDs or by a search filter.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class BulkCardStatusDTO {
+
+    /**
+     * @see CardStatus
+     */
+    @NotNull(message = CARD_STATUS_CANNOT_BE_NULL)
+    private CardStatus status;
+
+    @Size(max = MAX_BULK_CARDS, message = BULK_CARDS_SIZE_EXCEEDED)
+    private Set<Long> idSet;
+
+    /**
+     * @see CardSearchFilter
+     */
+    private CardSearchFilter filter;
+
+}
@@ -0,0 +1,27 @@
+package com.example.bankcards.dto.api.req;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Formats of the card export.
+ */
+@Getter
+@RequiredArgsConstructor
+public enum CardExportFormat {
+
+    /**
+     * One JSON object per line.
+     */
+    NDJSON("application/x-ndjson", "ndjson"),
+
+    /**
+     * Comma-separated values with a header line.
+     */
+    CSV("text/csv", "csv");
+
+    private final String contentType;
+
+    private final String fileExtension;
+
+}
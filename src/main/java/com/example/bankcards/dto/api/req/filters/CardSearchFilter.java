@@ -24,8 +24,17 @@ public class CardSearchFilter implements SearchFilter {
 
     private Set<CardType> cardTypes;
 
+    /**
+     * The card numbers to search for. They are replaced by their blind indexes before the search,
+     * so plain card numbers are neither compared nor kept in cache keys.
+     */
     private Set<String> number;
 
+    /**
+     * The blind indexes of the card numbers to search for.
+     */
+    private Set<String> numberHash;
+
     private LocalDate expirationFrom;
 
     private LocalDate expirationTo;
@@ -0,0 +1,36 @@
+package com.example.bankcards.dto.api.resp;
+
+import com.example.bankcards.entity.enums.TransferStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Data transfer object representing a settled transfer moved to the cold archive.
+ * It is also the format of the lines of the archive files.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class ArchivedTransferDTO {
+
+    private Long id;
+
+    private Long fromCardId;
+
+    private Long toCardId;
+
+    private BigDecimal amount;
+
+    private TransferStatus status;
+
+    private LocalDateTime createdAt;
+
+    private LocalDateTime confirmedAt;
+
+}
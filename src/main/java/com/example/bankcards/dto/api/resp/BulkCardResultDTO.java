@@ -0,0 +1,40 @@
+package com.example.bankcards.dto.api.resp;
+
+import com.example.bankcards.entity.enums.CardType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Data transfer object representing the result of issuing a single card within a bulk request.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class BulkCardResultDTO {
+
+    /**
+     * Position of the item in the bulk request.
+     */
+    private int index;
+
+    private Long ownerId;
+
+    /**
+     * @see CardType
+     */
+    private CardType cardType;
+
+    /**
+     * ID of the issued card, or null if the card was not issued.
+     */
+    private Long cardId;
+
+    /**
+     * The reason the card was not issued, or null if it was issued.
+     */
+    private String error;
+
+}
@@ -0,0 +1,48 @@
+package com.example.bankcards.dto.api.resp;
+
+import com.example.bankcards.entity.enums.CardStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Data transfer object representing the result of a bulk card status change.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class BulkCardStatusResultDTO {
+
+    /**
+     * @see CardStatus
+     */
+    private CardStatus status;
+
+    /**
+     * Number of cards selected by the request.
+     */
+    private long requested;
+
+    /**
+     * Number of cards whose status was changed.
+     */
+    private long updated;
+
+    /**
+     * Number of cards skipped because they are expired.
+     */
+    private long expired;
+
+    /**
+     * Number of cards skipped because the status was already set.
+     */
+    private long alreadySet;
+
+    /**
+     * Number of requested cards that were not found.
+     */
+    private long notFound;
+
+}
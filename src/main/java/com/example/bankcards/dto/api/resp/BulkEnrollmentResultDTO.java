@@ -0,0 +1,45 @@
+package com.example.bankcards.dto.api.resp;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Data transfer object representing the result of a bulk balance enrollment.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class BulkEnrollmentResultDTO {
+
+    /**
+     * Number of rows in the uploaded file.
+     */
+    private long received;
+
+    /**
+     * Number of rows that were applied to the card balances.
+     */
+    private long enrolled;
+
+    /**
+     * Total amount added to the card balances.
+     */
+    private BigDecimal enrolledAmount;
+
+    /**
+     * Number of rows that were rejected.
+     */
+    private long rejected;
+
+    /**
+     * The rejected rows, in the order of the file. The list may be truncated, see {@link #rejected}.
+     */
+    private List<RejectedEnrollmentDTO> rejectedRows;
+
+}
@@ -0,0 +1,25 @@
+package com.example.bankcards.dto.api.resp;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * Data transfer object representing the aggregates of a group of cards.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class CardAggregateDTO {
+
+    private long cardCount;
+
+    private BigDecimal totalBalance;
+
+    private BigDecimal totalHold;
+
+}
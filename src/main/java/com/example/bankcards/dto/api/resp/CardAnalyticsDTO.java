@@ -0,0 +1,63 @@
+package com.example.bankcards.dto.api.resp;
+
+import com.example.bankcards.entity.enums.CardStatus;
+import com.example.bankcards.entity.enums.CardType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Data transfer object representing the bank-wide aggregates of the cards.
+ * Deleted cards are not included.
+ * <p>
+ * The aggregates are cached for a short time, {@code computedAt} and {@code ageSeconds}
+ * show how stale they are.
+ * </p>
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class CardAnalyticsDTO {
+
+    /**
+     * Aggregates of all the cards.
+     */
+    private CardAggregateDTO total;
+
+    /**
+     * Aggregates by card type.
+     *
+     * @see CardType
+     */
+    private Map<CardType, CardAggregateDTO> byType;
+
+    /**
+     * Aggregates by card status. Cards past their expiration date are counted as expired.
+     *
+     * @see CardStatus
+     */
+    private Map<CardStatus, CardAggregateDTO> byStatus;
+
+    /**
+     * Aggregates by expiration month in the {@code yyyy-MM} format, sorted by month.
+     */
+    private Map<String, CardAggregateDTO> byExpirationMonth;
+
+    /**
+     * Number of card ID ranges the aggregates were computed from.
+     */
+    private int ranges;
+
+    private LocalDateTime computedAt;
+
+    /**
+     * Seconds passed since the aggregates were computed.
+     */
+    private long ageSeconds;
+
+}
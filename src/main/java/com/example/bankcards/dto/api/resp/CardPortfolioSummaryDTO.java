@@ -0,0 +1,48 @@
+package com.example.bankcards.dto.api.resp;
+
+import com.example.bankcards.entity.enums.CardStatus;
+import com.example.bankcards.entity.enums.CardType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+/**
+ * Data transfer object representing the summary of the cards of a user.
+ * Deleted cards are not included.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class CardPortfolioSummaryDTO {
+
+    private Long ownerId;
+
+    private long totalCards;
+
+    private BigDecimal totalBalance;
+
+    /**
+     * Total hold of the cards, only shown to administrators.
+     */
+    private BigDecimal totalHold;
+
+    /**
+     * Number of cards by status.
+     *
+     * @see CardStatus
+     */
+    private Map<CardStatus, Long> cardsByStatus;
+
+    /**
+     * Number of cards by type.
+     *
+     * @see CardType
+     */
+    private Map<CardType, Long> cardsByType;
+
+}
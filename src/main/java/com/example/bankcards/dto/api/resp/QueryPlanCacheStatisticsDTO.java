@@ -0,0 +1,37 @@
+package com.example.bankcards.dto.api.resp;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Data transfer object representing the statistics of the Hibernate query plan cache
+ * since the application was started.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class QueryPlanCacheStatisticsDTO {
+
+    /**
+     * Whether Hibernate statistics are collected. If not, all the counters are zero.
+     */
+    private boolean statisticsEnabled;
+
+    private long hitCount;
+
+    private long missCount;
+
+    /**
+     * Share of the lookups served from the cache, from 0 to 1.
+     */
+    private double hitRate;
+
+    /**
+     * Number of JDBC statements prepared by Hibernate.
+     */
+    private long preparedStatementCount;
+
+}
@@ -0,0 +1,37 @@
+package com.example.bankcards.dto.api.resp;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Data transfer object representing a row of a bulk enrollment file that was not applied.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class RejectedEnrollmentDTO {
+
+    /**
+     * Number of the row in the file, starting from 1.
+     */
+    private long line;
+
+    /**
+     * The card ID as it was sent in the file.
+     */
+    private String cardId;
+
+    /**
+     * The amount as it was sent in the file.
+     */
+    private String amount;
+
+    /**
+     * The reason the row was rejected.
+     */
+    private String reason;
+
+}
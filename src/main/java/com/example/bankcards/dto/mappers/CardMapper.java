@@ -21,6 +21,7 @@ import java.util.stream.Collectors;
  *     <li>Converting {@link CardType} to/from an integer code</li>
  *     <li>Masking the card number when mapping to DTO</li>
  *     <li>Creating {@link User} stubs from ownerId</li>
+ *     <li>Exposing the effective status of expired cards that the expiry sweep has not updated yet</li>
  * </ul>
  */
 @Mapper(
@@ -38,6 +39,7 @@ public interface CardMapper {
     @Mapping(source = "type", target = "cardTypeCode", qualifiedByName = "cardTypeToCode")
     @Mapping(source = "number", target = "numberMask", qualifiedByName = "maskCardNumber")
     @Mapping(source = "owner.id", target = "ownerId")
+    @Mapping(source = "effectiveStatus", target = "status")
     CardDTO toDto(Card card);
 
     /**
@@ -51,9 +53,12 @@ public interface CardMapper {
     @InheritInverseConfiguration
     @Mapping(target = "type", source = "cardTypeCode", qualifiedByName = "codeToCardType")
     @Mapping(target = "number", ignore = true)
+    @Mapping(target = "numberHash", ignore = true)
     @Mapping(target = "isDeleted", ignore = true)
+    @Mapping(target = "deletedAt", ignore = true)
     @Mapping(target = "version", ignore = true)
     @Mapping(target = "owner", source = "ownerId", qualifiedByName = "ownerFromId")
+    @Mapping(target = "status", source = "status")
     Card fromDto(CardDTO cardDTO);
 
     /**
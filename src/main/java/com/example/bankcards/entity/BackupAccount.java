@@ -9,7 +9,9 @@ import jakarta.validation.constraints.NotNull;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 
 import java.math.BigDecimal;
 import java.util.Map;
@@ -42,9 +44,11 @@ public class BackupAccount {
     @Column(name = "sender_data", columnDefinition = "jsonb")
     private Map<SourceOfFunds.SenderDataKey, String> senderData;
 
-    @ManyToOne(optional = false)
+    @ManyToOne(optional = false, fetch = FetchType.LAZY)
     @JoinColumn(name = "owner_id", nullable = false)
     @NotNull(message = USER_CANNOT_BE_NULL)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private User owner;
 
     @Column(name = "amount", nullable = false, precision = 19, scale = 2)
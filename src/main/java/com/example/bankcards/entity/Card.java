@@ -9,6 +9,7 @@ import lombok.*;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 
 import static com.example.bankcards.util.Constants.*;
 
@@ -29,7 +30,7 @@ public class Card {
 
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "cardIdSeq")
-    @SequenceGenerator(name = "cardIdSeq", sequenceName = "card_id_seq", allocationSize = 1)
+    @SequenceGenerator(name = "cardIdSeq", sequenceName = "card_id_seq", allocationSize = 50)
     @NotNull(message = ID_CANNOT_BE_NULL)
     private Long id;
 
@@ -37,10 +38,17 @@ public class Card {
     @Column(name = "card_type", nullable = false)
     private CardType type;
 
-    @Column(name = "number", nullable = false)
+    @Column(name = "number", nullable = false, length = 255)
     @NotNull(message = CARD_NUMBER_CANNOT_BE_NULL)
     private String number;
 
+    /**
+     * Keyed blind index of the plain card number, used for equality lookups
+     * that must not depend on the cipher mode of {@link #number}.
+     */
+    @Column(name = "number_hash", length = 64)
+    private String numberHash;
+
     @Column(name = "expiration", nullable = false)
     @NotNull(message = EXPIRATION_DATE_CANNOT_BE_NULL)
     private LocalDate expiration;
@@ -61,9 +69,11 @@ public class Card {
     @Builder.Default
     private BigDecimal hold = BigDecimal.ZERO;
 
-    @ManyToOne(optional = false)
+    @ManyToOne(optional = false, fetch = FetchType.LAZY)
     @JoinColumn(name = "owner_id", nullable = false)
     @NotNull(message = USER_CANNOT_BE_NULL)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private User owner;
 
     @Column(name = "is_deleted", nullable = false)
@@ -71,9 +81,25 @@ public class Card {
     @Builder.Default
     private Boolean isDeleted = false;
 
+    /**
+     * Time the card was deleted at, used to move deleted cards to the archive after the retention period.
+     */
+    @Column(name = "deleted_at")
+    private LocalDateTime deletedAt;
+
     @Version
     private Long version;
 
+    /**
+     * Returns the status of the card taking its expiration date into account.
+     *
+     * @return EXPIRED if the expiration date has passed, the stored status otherwise
+     * @see CardStatus#effective(CardStatus, LocalDate, LocalDate)
+     */
+    public CardStatus getEffectiveStatus() {
+        return CardStatus.effective(status, expiration, LocalDate.now());
+    }
+
     public void addToHold(@NotNull(message = TRANSFER_AMOUNT_CANNOT_BE_NUL)
             @DecimalMin(value = "0.00", message = TRANSFER_AMOUNT_MUST_BE_POSITIVE) BigDecimal amount)
     {
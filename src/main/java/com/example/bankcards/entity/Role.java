@@ -7,6 +7,8 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.springframework.security.core.GrantedAuthority;
 
 import java.io.Serializable;
@@ -16,6 +18,7 @@ import static com.example.bankcards.util.Constants.ROLE_CANNOT_BE_NULL;
 
 /**
  * This class represents a user Role entity with its attributes.
+ * Roles never change, so they are kept in a read-only region of the second-level cache.
  */
 @Data
 @NoArgsConstructor
@@ -23,6 +26,8 @@ import static com.example.bankcards.util.Constants.ROLE_CANNOT_BE_NULL;
 @Builder
 @Table(name = "bank_rest_roles")
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_ONLY)
 public class Role implements GrantedAuthority, Serializable {
     @Id
     @Column
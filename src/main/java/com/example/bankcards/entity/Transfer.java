@@ -8,7 +8,9 @@ import jakarta.validation.constraints.PastOrPresent;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -17,6 +19,9 @@ import static com.example.bankcards.util.Constants.*;
 
 /**
  * This class represents a Transfer entity with its attributes.
+ * <p>
+ * The cards are loaded lazily. Use the {@value #CARDS_GRAPH} entity graph to load them together with the transfer.
+ * </p>
  */
 @Data
 @AllArgsConstructor
@@ -24,20 +29,30 @@ import static com.example.bankcards.util.Constants.*;
 @Builder
 @Entity
 @Table(name = "transfers")
+@NamedEntityGraph(name = Transfer.CARDS_GRAPH, attributeNodes = {
+        @NamedAttributeNode("fromCard"),
+        @NamedAttributeNode("toCard")
+})
 public class Transfer {
 
+    public static final String CARDS_GRAPH = "Transfer.cards";
+
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "transferIdSeq")
     @SequenceGenerator(name = "transferIdSeq", sequenceName = "transfer_id_seq", allocationSize = 1)
     private Long id;
 
-    @ManyToOne(optional = false)
+    @ManyToOne(optional = false, fetch = FetchType.LAZY)
     @JoinColumn(name = "from_card_id")
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     @NotNull(message = CARD_FROM_CANNOT_BE_NULL)
     private Card fromCard;
 
-    @ManyToOne(optional = false)
+    @ManyToOne(optional = false, fetch = FetchType.LAZY)
     @JoinColumn(name = "to_card_id")
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     @NotNull(message = CARD_TO_CANNOT_BE_NULL)
     private Card toCard;
 
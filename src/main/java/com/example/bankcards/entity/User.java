@@ -4,6 +4,8 @@ import com.example.bankcards.entity.enums.RoleEnum;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 
@@ -24,6 +26,7 @@ import static com.example.bankcards.util.Constants.*;
 @Entity
 @Table(name = "users")
 public class User implements UserDetails {
+
     @Id
     @Column
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "userIdSeq")
@@ -54,11 +57,12 @@ public class User implements UserDetails {
     @Size(min = 8, max = 500, message = INVALID_PASSWORD_LENGTH)
     private String password;
 
-    @ManyToMany(fetch = FetchType.EAGER)
+    @ManyToMany(fetch = FetchType.LAZY)
     @JoinTable(name = "users_roles",
             joinColumns = @JoinColumn(name = "user_id"),
             inverseJoinColumns = @JoinColumn(name = "role_id")
     )
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
     @ToString.Exclude
     @EqualsAndHashCode.Exclude
     @Builder.Default
@@ -1,5 +1,8 @@
 package com.example.bankcards.entity.enums;
 
+import java.time.LocalDate;
+import java.util.Objects;
+
 /**
  * Represents available card statuses in the system.
  */
@@ -17,4 +20,19 @@ public enum CardStatus {
         return cardStatus == CardStatus.EXPIRED || cardStatus == CardStatus.BLOCKED;
     }
 
-}
\ No newline at end of file
+    /**
+     * Calculates the effective card status.
+     * A card whose expiration date has passed is expired, even if the expiry sweep has not updated it yet.
+     * @param cardStatus stored card status
+     * @param expiration card expiration date
+     * @param today current date
+     * @return EXPIRED if the card has expired, the stored status otherwise
+     */
+    public static CardStatus effective(CardStatus cardStatus, LocalDate expiration, LocalDate today) {
+        if (Objects.nonNull(expiration) && expiration.isBefore(today)) {
+            return CardStatus.EXPIRED;
+        }
+        return cardStatus;
+    }
+
+}
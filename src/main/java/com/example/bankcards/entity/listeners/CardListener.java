@@ -19,6 +19,7 @@ import jakarta.persistence.PostLoad;
  * <ul>
  *   <li>The card number is valid before saving or updating.</li>
  *   <li>The card number is encrypted before being stored, unless already encrypted.</li>
+ *   <li>The blind index of the card number is calculated before being stored.</li>
  *   <li>The card number is decrypted after loading from the database.</li>
  *   <li>The card balance is validated before saving or updating.</li>
  * </ul>
@@ -55,8 +56,8 @@ public class CardListener {
 
     /**
      * Called before persisting or updating a {@link Card} entity. This method ensures
-     * that the card number is valid, encrypts the card number if necessary, and
-     * validates the card's balance.
+     * that the card number is valid, calculates its blind index, encrypts the card
+     * number if necessary, and validates the card's balance.
      *
      * @param card the card entity to be persisted or updated
      * @throws IllegalArgumentException if the card number is invalid
@@ -70,7 +71,10 @@ public class CardListener {
 
         if (!card.getNumber().startsWith("ENC:")) {
             validateCardNumber(card);
+            hashNumber(card, card.getNumber());
             encryptNumber(card);
+        } else if (card.getNumberHash() == null) {
+            hashNumber(card, encryptionService.decrypt(card.getNumber().substring(4)));
         }
 
         balanceValidator.validate(card);
@@ -89,6 +93,17 @@ public class CardListener {
         }
     }
 
+    /**
+     * Calculates the blind index of the plain card number, which is used
+     * for equality lookups instead of the encrypted number.
+     *
+     * @param card the card entity whose blind index is to be set
+     * @param plainNumber the plain card number
+     */
+    private void hashNumber(Card card, String plainNumber) {
+        card.setNumberHash(encryptionService.hash(plainNumber));
+    }
+
     /**
      * Encrypts the card number before persisting it in the database. The encrypted
      * number is prefixed with "ENC:" to mark it as encrypted.
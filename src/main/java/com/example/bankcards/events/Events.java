@@ -3,6 +3,9 @@ package com.example.bankcards.events;
 
 import com.example.bankcards.dto.redis.CardBlockRequestCreatedMessageDTO;
 import com.example.bankcards.dto.redis.TransferMessageDTO;
+import com.example.bankcards.entity.enums.CardStatus;
+
+import java.util.List;
 
 /**
  * Abstract class representing various events in the bank transfer process.
@@ -51,4 +54,41 @@ public abstract class Events {
 
     }
 
-}
\ No newline at end of file
+    /**
+     * Domain event representing a status change of many cards by a set-based update.
+     * <p>
+     * This event is published after the cards have been updated directly in the database,
+     * bypassing the entity lifecycle, so that dependent data (e.g. caches) can be refreshed.
+     * </p>
+     *
+     * @param cardIds the IDs of the updated cards
+     * @param status the new status of the cards
+     */
+    public record CardsStatusChanged(List<Long> cardIds, CardStatus status) {
+    }
+
+    /**
+     * Domain event representing a balance change of many cards by a set-based update.
+     * <p>
+     * This event is published after the balances have been updated directly in the database,
+     * bypassing the entity lifecycle, so that dependent data (e.g. caches) can be refreshed.
+     * </p>
+     *
+     * @param enrolledRows the number of applied enrollment rows
+     */
+    public record CardsBalanceChanged(long enrolledRows) {
+    }
+
+    /**
+     * Domain event representing the deletion of a card.
+     * <p>
+     * This event is published when a card is marked as deleted, so that data derived from the card
+     * (e.g. the card ownership index) can be evicted once the deletion is committed.
+     * </p>
+     *
+     * @param cardId the ID of the deleted card
+     */
+    public record CardDeleted(Long cardId) {
+    }
+
+}
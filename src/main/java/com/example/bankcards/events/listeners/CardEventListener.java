@@ -0,0 +1,77 @@
+package com.example.bankcards.events.listeners;
+
+import com.example.bankcards.events.Events;
+import com.example.bankcards.service.CardOwnershipIndex;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Optional;
+
+/**
+ * Listener for handling card events.
+ * <p>
+ * This class listens to {@link Events.CardsStatusChanged} and {@link Events.CardsBalanceChanged} events
+ * and evicts the cached card search results, since set-based updates bypass the service methods that would otherwise keep them consistent.
+ * It also listens to {@link Events.CardDeleted} events and evicts the deleted card from the {@link CardOwnershipIndex}
+ * once the deletion is committed.
+ * </p>
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CardEventListener {
+
+    private static final String CARDS_BY_SEARCH_CACHE = "cardsBySearch";
+
+    private final CacheManager cacheManager;
+
+    private final CardOwnershipIndex cardOwnershipIndex;
+
+    /**
+     * Handles {@link Events.CardsStatusChanged}.
+     *
+     * @param event the event containing the IDs of the updated cards and their new status.
+     */
+    @EventListener
+    public void handleCardsStatusChanged(Events.CardsStatusChanged event) {
+        log.info("Received CardsStatusChanged: {} cards changed status to {}", event.cardIds().size(), event.status());
+        evictCardSearches();
+    }
+
+    /**
+     * Handles {@link Events.CardsBalanceChanged}.
+     *
+     * @param event the event containing the number of applied enrollment rows.
+     */
+    @EventListener
+    public void handleCardsBalanceChanged(Events.CardsBalanceChanged event) {
+        log.info("Received CardsBalanceChanged: {} enrollment rows applied", event.enrolledRows());
+        evictCardSearches();
+    }
+
+    /**
+     * Handles {@link Events.CardDeleted} after the deletion is committed.
+     *
+     * @param event the event containing the ID of the deleted card.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void handleCardDeleted(Events.CardDeleted event) {
+        log.info("Received CardDeleted: card id {}", event.cardId());
+        cardOwnershipIndex.evict(event.cardId());
+    }
+
+    private void evictCardSearches() {
+        try {
+            Optional.ofNullable(cacheManager.getCache(CARDS_BY_SEARCH_CACHE)).ifPresent(Cache::clear);
+        } catch (Exception e) {
+            log.error("Failed to evict card search cache: {}", e.getMessage(), e);
+        }
+    }
+
+}
@@ -1,5 +1,7 @@
 package com.example.bankcards.events.schedulers;
 
+import com.example.bankcards.service.TransferArchiveService;
+import com.example.bankcards.service.TransferPartitionService;
 import com.example.bankcards.service.TransferService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -11,6 +13,8 @@ import org.springframework.stereotype.Component;
  * <p>
  * This component runs a scheduled task to cancel pending transfers at regular intervals.
  * It interacts with the {@link TransferService} to cancel transfers that are still pending.
+ * The monthly partitions of the transfers table are maintained by the {@link TransferPartitionService},
+ * and settled transfers are moved to the cold archive by the {@link TransferArchiveService}.
  * </p>
  */
 @Slf4j
@@ -23,6 +27,18 @@ public class BankRestScheduler {
      * @see TransferService
      */
     private final TransferService transferService;
+    /**
+     * The transfer partition service bean
+     *
+     * @see TransferPartitionService
+     */
+    private final TransferPartitionService transferPartitionService;
+    /**
+     * The transfer archive service bean
+     *
+     * @see TransferArchiveService
+     */
+    private final TransferArchiveService transferArchiveService;
 
     /**
      * Cancels pending transfers at a fixed rate.
@@ -44,4 +60,43 @@ public class BankRestScheduler {
         }
     }
 
+    /**
+     * Maintains the monthly partitions of the transfers table with a fixed delay.
+     * <p>
+     * Partitions for the upcoming months are created first, then the partitions older than the retention period
+     * are detached. If an exception occurs during the process, it is logged with an error message.
+     * </p>
+     *
+     * @see TransferPartitionService#createFuturePartitions()
+     * @see TransferPartitionService#detachExpiredPartitions()
+     */
+    @Scheduled(fixedDelayString = "${spring.schedule.timing.transfers.partitions:86400000}",
+            initialDelayString = "${spring.schedule.timing.transfers.partitionsInitialDelay:60000}")
+    public void maintainTransferPartitions() {
+        try {
+            transferPartitionService.createFuturePartitions();
+            transferPartitionService.detachExpiredPartitions();
+        } catch (Exception e) {
+            log.error("Exception occurred while maintaining transfer partitions: ", e);
+        }
+    }
+
+    /**
+     * Moves settled transfers to the cold archive with a fixed delay.
+     * <p>
+     * It calls the {@link TransferArchiveService#archiveSettledTransfers()} method, which archives the completed
+     * and failed transfers older than the configured number of months.
+     * If an exception occurs during the process, it is logged with an error message.
+     * </p>
+     */
+    @Scheduled(fixedDelayString = "${spring.schedule.timing.transfers.coldArchive:86400000}",
+            initialDelayString = "${spring.schedule.timing.transfers.coldArchiveInitialDelay:600000}")
+    public void archiveSettledTransfers() {
+        try {
+            transferArchiveService.archiveSettledTransfers();
+        } catch (Exception e) {
+            log.error("Exception occurred while archiving settled transfers: ", e);
+        }
+    }
+
 }
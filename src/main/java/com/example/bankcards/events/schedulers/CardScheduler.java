@@ -1,15 +1,29 @@
 package com.example.bankcards.events.schedulers;
 
+import com.example.bankcards.config.app.AppConf;
+import com.example.bankcards.service.CacheWarmUpService;
+import com.example.bankcards.service.CardNumberReEncryptionService;
+import com.example.bankcards.service.CardOwnershipIndex;
 import com.example.bankcards.service.CardService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskExecutor;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
 /**
  * Scheduler responsible for managing scheduled tasks related to bank cards.
  * <p>
- * This component runs a scheduled task to mark expired cards at regular intervals.
+ * This component runs a scheduled task to mark expired cards at regular intervals
+ * and calculates the missing blind indexes of card numbers once the application is started.
+ * It also re-encrypts card numbers with the current crypto key after the key is rotated,
+ * and preloads the {@link CardOwnershipIndex} once the application is started.
+ * The caches are warmed up with the most frequent card searches before the application accepts traffic.
+ * Deleted cards are moved to the archive once their retention period has passed.
  * It interacts with the {@link CardService} to update expired cards.
  * </p>
  */
@@ -20,15 +34,26 @@ public class CardScheduler {
 
     private final CardService cardService;
 
+    private final CardNumberReEncryptionService reEncryptionService;
+
+    private final CardOwnershipIndex cardOwnershipIndex;
+
+    private final CacheWarmUpService cacheWarmUpService;
+
+    private final AppConf appConf;
+
+    @Qualifier(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME)
+    private final TaskExecutor applicationTaskExecutor;
+
     /**
-     * Marks expired cards at a fixed rate.
+     * Marks expired cards with a fixed delay.
      * <p>
-     * This method is triggered at a regular interval as specified by the `fixedRate` property in the application configuration.
+     * This method is triggered with a fixed delay, so a throttled sweep is never started twice on the same node.
      * It attempts to mark all expired cards as expired by calling the {@link CardService#markExpiredCards()} method.
      * If an exception occurs during the process, it is logged with an error message.
      * </p>
      */
-    @Scheduled(fixedRateString = "${spring.schedule.timing.cards.expiry:86400000}",
+    @Scheduled(fixedDelayString = "${spring.schedule.timing.cards.expiry:86400000}",
             initialDelayString = "${spring.schedule.timing.cards.initialDelay:43200000}")
     public void markExpiredCards() {
         try {
@@ -37,4 +62,111 @@ public class CardScheduler {
             log.error("Exception occurred while marking expired cards: ", e);
         }
     }
+
+    /**
+     * Calculates the missing blind indexes of card numbers once the application is ready.
+     * <p>
+     * Cards created before the blind index column was introduced cannot be found by their number
+     * until this method calls the {@link CardService#fillMissingNumberHashes()} method.
+     * The calculation runs on the application executor, so a large card table doesn't delay the readiness.
+     * If an exception occurs during the process, it is logged with an error message.
+     * </p>
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void fillMissingNumberHashes() {
+        applicationTaskExecutor.execute(() -> {
+            try {
+                cardService.fillMissingNumberHashes();
+            } catch (Exception e) {
+                log.error("Exception occurred while calculating card number blind indexes: ", e);
+            }
+        });
+    }
+
+    /**
+     * Preloads the card ownership index once the application is ready, if enabled.
+     * <p>
+     * Without preloading, every card is looked up in the database on the first ownership check.
+     * The preload reads no more than the maximum size of the index, starting with the newest cards.
+     * If an exception occurs during the process, it is logged with an error message and the index is filled on demand.
+     * </p>
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadCardOwnershipIndex() {
+        if (!appConf.isCardOwnershipIndexPreload()) {
+            return;
+        }
+
+        try {
+            cardOwnershipIndex.load();
+        } catch (Exception e) {
+            log.error("Exception occurred while loading card ownership index: ", e);
+        }
+    }
+
+    /**
+     * Warms up the caches once the application is ready.
+     * <p>
+     * The application reports readiness only after the listeners of the {@link ApplicationReadyEvent} complete,
+     * so the warm-up delays the readiness probe by at most its configured time budget.
+     * If an exception occurs during the process, it is logged with an error message and the caches fill on demand.
+     * </p>
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUpCaches() {
+        try {
+            cacheWarmUpService.warmUp();
+        } catch (Exception e) {
+            log.error("Exception occurred while warming up caches: ", e);
+        }
+    }
+
+    /**
+     * Removes the least frequent card searches from the tracked ones with a fixed delay.
+     * If an exception occurs during the process, it is logged with an error message.
+     */
+    @Scheduled(fixedDelayString = "${spring.schedule.timing.cards.hotKeysTrim:3600000}",
+            initialDelayString = "${spring.schedule.timing.cards.hotKeysTrimInitialDelay:600000}")
+    public void trimHotCardSearches() {
+        try {
+            cacheWarmUpService.trimHotCardSearches();
+        } catch (Exception e) {
+            log.error("Exception occurred while trimming tracked card searches: ", e);
+        }
+    }
+
+    /**
+     * Re-encrypts card numbers with the current crypto key.
+     * <p>
+     * This method is triggered with a fixed delay, so a long re-encryption is never started twice on the same node.
+     * It calls the {@link CardNumberReEncryptionService#reEncryptCardNumbers()} method, which continues
+     * from the last processed card. If an exception occurs during the process, it is logged with an error message.
+     * </p>
+     */
+    @Scheduled(fixedDelayString = "${spring.schedule.timing.cards.reEncryption:600000}",
+            initialDelayString = "${spring.schedule.timing.cards.reEncryptionInitialDelay:120000}")
+    public void reEncryptCardNumbers() {
+        try {
+            reEncryptionService.reEncryptCardNumbers();
+        } catch (Exception e) {
+            log.error("Exception occurred while re-encrypting card numbers: ", e);
+        }
+    }
+
+    /**
+     * Moves deleted cards to the archive with a fixed delay.
+     * <p>
+     * It calls the {@link CardService#archiveDeletedCards()} method, which archives the cards deleted
+     * longer than the retention period ago. If an exception occurs during the process, it is logged with an error message.
+     * </p>
+     */
+    @Scheduled(fixedDelayString = "${spring.schedule.timing.cards.archive:3600000}",
+            initialDelayString = "${spring.schedule.timing.cards.archiveInitialDelay:300000}")
+    public void archiveDeletedCards() {
+        try {
+            cardService.archiveDeletedCards();
+        } catch (Exception e) {
+            log.error("Exception occurred while archiving deleted cards: ", e);
+        }
+    }
 }
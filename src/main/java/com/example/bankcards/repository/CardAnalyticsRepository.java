@@ -0,0 +1,62 @@
+package com.example.bankcards.repository;
+
+import com.example.bankcards.entity.enums.CardStatus;
+import com.example.bankcards.entity.enums.CardType;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * This interface provides bank-wide card aggregates over ranges of card IDs.
+ * <p>
+ * Every range is aggregated with a separate query, so that the ranges can be read in parallel
+ * and each query only scans its own part of the primary key index.
+ * </p>
+ */
+public interface CardAnalyticsRepository {
+
+    /**
+     * Finds the lowest and the highest ID of the cards.
+     *
+     * @return the range of the card IDs, or an empty optional if there are no cards
+     */
+    Optional<IdRange> findIdRange();
+
+    /**
+     * Aggregates the cards that are not deleted and whose IDs are within the given range,
+     * grouped by card type, status and expiration month.
+     * Cards past their expiration date are counted as expired, even if the expiry sweep has not updated them yet.
+     *
+     * @param fromId the lowest card ID of the range, inclusive
+     * @param toId the highest card ID of the range, inclusive
+     * @param timeoutSeconds the statement timeout of the query, in seconds
+     * @return the aggregates of every non-empty group
+     */
+    List<Bucket> aggregate(long fromId, long toId, int timeoutSeconds);
+
+    /**
+     * A range of card IDs, both bounds inclusive.
+     *
+     * @param fromId the lowest card ID
+     * @param toId the highest card ID
+     */
+    record IdRange(long fromId, long toId) {
+    }
+
+    /**
+     * The aggregates of the cards with the same type, status and expiration month.
+     *
+     * @param type the card type
+     * @param status the card status
+     * @param expirationMonth the expiration month
+     * @param cardCount the number of cards
+     * @param totalBalance the total balance of the cards
+     * @param totalHold the total hold of the cards
+     */
+    record Bucket(CardType type, CardStatus status, YearMonth expirationMonth,
+                  long cardCount, BigDecimal totalBalance, BigDecimal totalHold) {
+    }
+
+}
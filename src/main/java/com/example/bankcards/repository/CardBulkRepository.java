@@ -0,0 +1,124 @@
+package com.example.bankcards.repository;
+
+import com.example.bankcards.dto.api.resp.BulkEnrollmentResultDTO;
+import com.example.bankcards.entity.enums.CardStatus;
+import jakarta.validation.constraints.NotNull;
+
+import java.io.Reader;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * This interface provides set-based operations on many cards at once.
+ * <p>
+ * The operations are executed as plain SQL statements and bypass the {@link com.example.bankcards.entity.Card}
+ * entity listener, so they must only touch columns that do not need validation or encryption.
+ * </p>
+ */
+public interface CardBulkRepository {
+
+    /**
+     * Marks a chunk of cards that expired before the given date as {@code EXPIRED}.
+     * Rows locked by other transactions are skipped and picked up by a later chunk.
+     *
+     * @param today the current date; cards with an earlier expiration date are marked
+     * @param limit the maximum number of cards to mark
+     * @return the IDs of the marked cards
+     */
+    List<Long> markExpired(@NotNull LocalDate today, int limit);
+
+    /**
+     * Retrieves a chunk of stored card numbers whose blind index has not been calculated yet, ordered by card ID.
+     *
+     * @param afterId the ID of the last card of the previous chunk, or 0 for the first chunk
+     * @param limit the maximum number of cards to retrieve
+     * @return the IDs and the stored, usually encrypted, numbers of the cards
+     */
+    List<StoredNumber> findNumbersWithoutHash(long afterId, int limit);
+
+    /**
+     * Sets the blind indexes of card numbers with a single batch update.
+     * Cards whose blind index has been set in the meantime are left unchanged.
+     *
+     * @param hashes the IDs of the cards and the blind indexes of their numbers
+     * @return the number of updated cards
+     */
+    int updateNumberHashes(@NotNull Map<Long, String> hashes);
+
+    /**
+     * Moves a chunk of cards deleted before the given time to the archive, together with all the transfers
+     * from or to them and their confirmed block requests. Cards with pending transfers or unconfirmed block requests
+     * are kept until those are resolved. Rows locked by other transactions are skipped and picked up by a later chunk.
+     * <p>
+     * A transfer between an archived card and a live one is moved as well; it stays readable for the live card
+     * through {@link TransferColdArchiveRepository#findTransfersOfArchivedCards(long, java.time.YearMonth)}.
+     * </p>
+     *
+     * @param deletedBefore the end of the retention period; cards deleted earlier are archived
+     * @param limit the maximum number of cards to archive
+     * @return the numbers of the archived cards and transfers
+     */
+    Archived archiveDeleted(@NotNull LocalDateTime deletedBefore, int limit);
+
+    /**
+     * Adds the amounts from a CSV stream to the balances of the cards.
+     * <p>
+     * Every row of the stream contains a card ID and an amount, separated by a comma.
+     * The stream is copied into a temporary staging table and applied with a single set-based update,
+     * so it must be called within a transaction. Only active, not expired cards are enrolled;
+     * the other rows, as well as malformed ones, are rejected and do not affect the applied rows.
+     * </p>
+     *
+     * @param csv the CSV stream without a header
+     * @param maxReportedRejections the maximum number of rejected rows to return
+     * @return the numbers of received, enrolled and rejected rows, and the first rejected rows
+     */
+    BulkEnrollmentResultDTO enrollBalances(@NotNull Reader csv, int maxReportedRejections);
+
+    /**
+     * Sets the status of the given cards.
+     * <p>
+     * Like a single status change, expired cards (including cards past their expiration date)
+     * and cards that already have the status are skipped.
+     * </p>
+     *
+     * @param ids the IDs of the cards
+     * @param status the status to be set
+     * @return the IDs of the updated cards and the numbers of skipped cards
+     */
+    StatusChange updateStatus(@NotNull Collection<Long> ids, @NotNull CardStatus status);
+
+    /**
+     * The result of a set-based status change.
+     *
+     * @param updatedIds the IDs of the updated cards
+     * @param expired the number of cards skipped because they are expired
+     * @param alreadySet the number of cards skipped because the status was already set
+     * @param found the number of cards found by the given IDs
+     */
+    record StatusChange(List<Long> updatedIds, long expired, long alreadySet, long found) {
+    }
+
+    /**
+     * A card number as it is stored in the database.
+     *
+     * @param id the ID of the card
+     * @param number the stored card number
+     */
+    record StoredNumber(long id, String number) {
+    }
+
+    /**
+     * The result of archiving a chunk of deleted cards.
+     *
+     * @param cards the number of archived cards
+     * @param transfers the number of archived transfers
+     * @param blockRequests the number of archived block requests
+     */
+    record Archived(int cards, int transfers, int blockRequests) {
+    }
+
+}
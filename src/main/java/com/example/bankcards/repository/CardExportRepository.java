@@ -0,0 +1,46 @@
+package com.example.bankcards.repository;
+
+import com.example.bankcards.entity.enums.CardStatus;
+import com.example.bankcards.entity.enums.CardType;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * This interface provides streaming reads of the cards for export.
+ * <p>
+ * The cards are read through a server-side cursor, so only one fetch of rows is held in memory at a time,
+ * whatever the number of cards. Must be called within a transaction, otherwise the driver fetches all the rows at once.
+ * </p>
+ */
+public interface CardExportRepository {
+
+    /**
+     * Reads the cards in ascending ID order and passes them to the consumer in chunks of the fetch size.
+     *
+     * @param ownerId the ID of the owner of the cards, or null for the cards of all the owners
+     * @param includeDeleted whether deleted cards are included
+     * @param fetchSize the number of rows fetched from the database at a time
+     * @param consumer the consumer of the chunks; a chunk is only valid during the call and must not be retained
+     */
+    void forEachChunk(Long ownerId, boolean includeDeleted, int fetchSize, Consumer<List<CardRow>> consumer);
+
+    /**
+     * A card as stored in the database.
+     *
+     * @param id the card ID
+     * @param type the card type
+     * @param encryptedNumber the encrypted card number
+     * @param expiration the expiration date
+     * @param status the effective status, expired if the expiration date has passed
+     * @param balance the balance
+     * @param hold the hold
+     * @param ownerId the ID of the owner
+     */
+    record CardRow(long id, CardType type, String encryptedNumber, LocalDate expiration, CardStatus status,
+                   BigDecimal balance, BigDecimal hold, long ownerId) {
+    }
+
+}
@@ -0,0 +1,40 @@
+package com.example.bankcards.repository;
+
+import com.example.bankcards.entity.enums.CardType;
+import jakarta.validation.constraints.NotNull;
+
+import java.util.Optional;
+
+/**
+ * This interface provides methods for allocating card number sequences per owner and card type.
+ * <p>
+ * Each counter stores the last allocated sequence. Sequences are allocated atomically on the database side,
+ * so concurrent card issuance doesn't need to lock or decrypt previously issued cards.
+ * Sequences that were allocated but not used (for example, because the card was not saved) are not reused.
+ * </p>
+ */
+public interface CardNumberCounterRepository {
+
+    /**
+     * Allocates the given number of sequences from an existing counter.
+     *
+     * @param ownerId the ID of the card owner
+     * @param type the type of the card
+     * @param count the number of sequences to allocate
+     * @return an {@link Optional} containing the last allocated sequence, or empty if the counter does not exist yet
+     */
+    Optional<Long> increment(@NotNull Long ownerId, @NotNull CardType type, int count);
+
+    /**
+     * Creates the counter starting after the given sequence and allocates the given number of sequences.
+     * If the counter has been created concurrently, the sequences are allocated from the existing counter.
+     *
+     * @param ownerId the ID of the card owner
+     * @param type the type of the card
+     * @param lastIssuedSequence the sequence of the last card issued before the counter was created, or -1 if none
+     * @param count the number of sequences to allocate
+     * @return the last allocated sequence
+     */
+    long initialize(@NotNull Long ownerId, @NotNull CardType type, long lastIssuedSequence, int count);
+
+}
@@ -0,0 +1,39 @@
+package com.example.bankcards.repository;
+
+import com.example.bankcards.entity.enums.CardStatus;
+import com.example.bankcards.entity.enums.CardType;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * This interface provides access to the per-owner card aggregates.
+ * <p>
+ * The aggregates are maintained by database triggers on every change of the cards,
+ * so reading them does not depend on the number of cards of the owner.
+ * </p>
+ */
+public interface CardPortfolioSummaryRepository {
+
+    /**
+     * Finds the aggregates of the cards of the owner that are not deleted, grouped by card type and status.
+     * Cards past their expiration date are counted as expired once the expiry sweep has updated their status.
+     *
+     * @param ownerId the ID of the owner
+     * @return the aggregates of every non-empty card type and status
+     */
+    List<Bucket> findByOwnerId(long ownerId);
+
+    /**
+     * The aggregates of the cards of an owner with the same type and status.
+     *
+     * @param type the card type
+     * @param status the card status
+     * @param cardCount the number of cards
+     * @param totalBalance the total balance of the cards
+     * @param totalHold the total hold of the cards
+     */
+    record Bucket(CardType type, CardStatus status, long cardCount, BigDecimal totalBalance, BigDecimal totalHold) {
+    }
+
+}
@@ -0,0 +1,25 @@
+package com.example.bankcards.repository;
+
+import jakarta.validation.constraints.NotNull;
+
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * This interface provides a lock shared by all the nodes of the application, so that a background job
+ * runs on a single node at a time.
+ */
+public interface JobLockRepository {
+
+    /**
+     * Runs the job while holding the lock with the given name. If another node holds the lock,
+     * the job is not run.
+     *
+     * @param name the name of the lock
+     * @param job the job to run
+     * @param <T> the type of the job result
+     * @return the result of the job, or an empty {@link Optional} if the lock is held by another node
+     */
+    <T> Optional<T> runExclusively(@NotNull String name, @NotNull Supplier<T> job);
+
+}
@@ -0,0 +1,64 @@
+package com.example.bankcards.repository;
+
+import jakarta.validation.constraints.NotNull;
+
+import java.time.Duration;
+
+/**
+ * This interface provides methods for storing the families of refresh tokens.
+ * <p>
+ * A family starts when a user logs in and holds the ID of the only refresh token of the family
+ * which can still be used. Every refresh replaces it with the ID of the next token, so a token
+ * presented after it was rotated is a reused token, and the whole family is revoked.
+ * </p>
+ */
+public interface RefreshTokenFamilyRepository {
+
+    /**
+     * Starts a new family with its first refresh token.
+     *
+     * @param familyId the ID of the family
+     * @param tokenId the ID of the first refresh token of the family
+     * @param ttl the lifetime of the refresh token
+     */
+    void create(@NotNull String familyId, @NotNull String tokenId, @NotNull Duration ttl);
+
+    /**
+     * Atomically replaces the current refresh token of the family with the next one,
+     * if the presented token is the current one. If it is not, the family is revoked.
+     *
+     * @param familyId the ID of the family
+     * @param presentedTokenId the ID of the presented refresh token
+     * @param nextTokenId the ID of the refresh token issued in exchange
+     * @param ttl the lifetime of the next refresh token
+     * @return the result of the rotation
+     */
+    RotationResult rotate(@NotNull String familyId, @NotNull String presentedTokenId,
+                          @NotNull String nextTokenId, @NotNull Duration ttl);
+
+    /**
+     * Revokes the family, so none of its refresh tokens can be used anymore.
+     *
+     * @param familyId the ID of the family
+     */
+    void revoke(@NotNull String familyId);
+
+    /**
+     * The result of a rotation.
+     */
+    enum RotationResult {
+        /**
+         * The presented token was the current one and was replaced by the next token.
+         */
+        ROTATED,
+        /**
+         * The presented token was already rotated, the family has been revoked.
+         */
+        REUSED,
+        /**
+         * The family doesn't exist, it has expired or has been revoked.
+         */
+        UNKNOWN
+    }
+
+}
@@ -2,13 +2,17 @@ package com.example.bankcards.repository;
 
 import com.example.bankcards.entity.Role;
 import com.example.bankcards.entity.enums.RoleEnum;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
 
 /**
  * This interface provides methods for accessing and manipulating Role entities in the database.
+ * Role lookups are cached in the query cache, the roles themselves in the second-level cache.
  *
  * @see Role
  */
@@ -21,6 +25,7 @@ public interface RoleRepository extends JpaRepository<Role, Long> {
      * @param role The role of the user associated with the role enum.
      * @return The user Role from database.
      */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<Role> getByRole(RoleEnum role);
 
 }
\ No newline at end of file
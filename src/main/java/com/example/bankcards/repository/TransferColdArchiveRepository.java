@@ -0,0 +1,100 @@
+package com.example.bankcards.repository;
+
+import com.example.bankcards.entity.enums.TransferStatus;
+import jakarta.validation.constraints.NotNull;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * This interface provides methods for moving settled transfers to the cold archive
+ * and for finding the archive files of a card.
+ * <p>
+ * Transfers are read month by month in keyset chunks ordered by ID, so every read is bounded by a single partition
+ * of the {@code transfers} table and doesn't slow down as the chunks move forward.
+ * </p>
+ */
+public interface TransferColdArchiveRepository {
+
+    /**
+     * Retrieves the next chunk of completed and failed transfers created within the given month.
+     *
+     * @param month the month the transfers were created in
+     * @param afterId the ID of the last transfer of the previous chunk, or 0 for the first chunk
+     * @param limit the maximum number of transfers to return
+     * @return the transfers in ascending ID order
+     */
+    List<SettledTransfer> findSettledTransfers(@NotNull YearMonth month, long afterId, int limit);
+
+    /**
+     * Registers an archive file and indexes it by the cards of the transfers it contains.
+     *
+     * @param file the archive file
+     * @param cardIds the IDs of the cards the transfers were made from or to
+     * @return the ID of the registered file
+     */
+    long saveFile(@NotNull ArchiveFile file, @NotNull Collection<Long> cardIds);
+
+    /**
+     * Deletes the given transfers created within the given month in batches.
+     *
+     * @param month the month the transfers were created in
+     * @param ids the IDs of the transfers to delete
+     * @param batchSize the maximum number of transfers deleted by a single statement
+     * @return the number of deleted transfers
+     */
+    int deleteTransfers(@NotNull YearMonth month, @NotNull List<Long> ids, int batchSize);
+
+    /**
+     * Retrieves the archive files which contain transfers from or to the given card in the given month.
+     *
+     * @param cardId the ID of the card
+     * @param month the month the transfers were created in
+     * @return the archive files in ascending order of their first transfer
+     */
+    List<ArchiveFile> findFiles(long cardId, @NotNull YearMonth month);
+
+    /**
+     * Retrieves the transfers from or to the given card in the given month that were moved to the archive
+     * together with a deleted card, see {@link CardBulkRepository#archiveDeleted}.
+     *
+     * @param cardId the ID of the card
+     * @param month the month the transfers were created in
+     * @return the transfers in ascending ID order
+     */
+    List<SettledTransfer> findTransfersOfArchivedCards(long cardId, @NotNull YearMonth month);
+
+    /**
+     * A settled transfer as stored in the database.
+     *
+     * @param id the transfer ID
+     * @param fromCardId the ID of the sender's card
+     * @param toCardId the ID of the recipient's card
+     * @param amount the amount
+     * @param status the status, completed or failed
+     * @param createdAt the creation date
+     * @param confirmedAt the confirmation date, if any
+     */
+    record SettledTransfer(long id, long fromCardId, long toCardId, BigDecimal amount, TransferStatus status,
+                           LocalDateTime createdAt, LocalDateTime confirmedAt) {
+    }
+
+    /**
+     * An archive file.
+     *
+     * @param id the file ID, null until the file is registered
+     * @param month the month the transfers in the file were created in
+     * @param path the path of the file, relative to the archive directory
+     * @param compression the name of the compressor the file was written with
+     * @param rowCount the number of transfers in the file
+     * @param firstTransferId the ID of the first transfer in the file
+     * @param lastTransferId the ID of the last transfer in the file
+     */
+    record ArchiveFile(Long id, YearMonth month, String path, String compression, int rowCount,
+                       long firstTransferId, long lastTransferId) {
+    }
+
+}
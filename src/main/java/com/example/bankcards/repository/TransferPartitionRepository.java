@@ -0,0 +1,62 @@
+package com.example.bankcards.repository;
+
+import jakarta.validation.constraints.NotNull;
+
+import java.time.YearMonth;
+import java.util.List;
+
+/**
+ * This interface provides methods for maintaining the monthly partitions of the {@code transfers} table.
+ * <p>
+ * The table is partitioned by range on {@code created_at}, one partition per month named {@code transfers_pYYYYMM}.
+ * Partitions have to exist before the first transfer of the month is created, otherwise the transfer
+ * ends up in the default partition.
+ * </p>
+ */
+public interface TransferPartitionRepository {
+
+    /**
+     * Creates the missing monthly partitions for every month in the given range.
+     *
+     * @param from the first month to create the partition for
+     * @param to the last month to create the partition for, inclusive
+     * @return the number of created partitions
+     */
+    int createPartitions(@NotNull YearMonth from, @NotNull YearMonth to);
+
+    /**
+     * Retrieves the monthly partitions currently attached to the {@code transfers} table, oldest first.
+     *
+     * @return the list of attached monthly partitions
+     */
+    List<Partition> findPartitions();
+
+    /**
+     * Checks whether the given partition contains transfers which are still pending.
+     *
+     * @param partition the partition to check
+     * @return {@code true} if the partition contains pending transfers
+     */
+    boolean hasPendingTransfers(@NotNull Partition partition);
+
+    /**
+     * Detaches the given partition from the {@code transfers} table.
+     * <p>
+     * The detached table is kept with its data, but its foreign keys to {@code cards} are dropped,
+     * so that it doesn't prevent cards from being archived.
+     * </p>
+     *
+     * @param partition the partition to detach
+     */
+    void detachPartition(@NotNull Partition partition);
+
+    /**
+     * A monthly partition of the {@code transfers} table.
+     *
+     * @param name the name of the partition table
+     * @param month the month the partition contains transfers for
+     */
+    record Partition(String name, YearMonth month) {
+    }
+
+}
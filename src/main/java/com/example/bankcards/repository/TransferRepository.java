@@ -2,14 +2,16 @@ package com.example.bankcards.repository;
 
 import com.example.bankcards.entity.Transfer;
 import jakarta.persistence.LockModeType;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -21,17 +23,51 @@ import java.util.Optional;
 public interface TransferRepository extends JpaRepository<Transfer, Long> {
 
     /**
-     * Retrieves a page of transfer IDs where the transfer status is {@code PENDING}
-     * and the creation date is earlier than the current date.
+     * Retrieves the next transfers where the transfer status is {@code PENDING}
+     * and the creation date is earlier than the given time, ordered by creation date and ID.
      * <p>
      * This query is typically used to identify outdated pending transfers
      * that may require further processing, cancellation, or notification.
+     * The scan is bounded by the status, not by a period, so pending transfers in partitions
+     * older than the retention period are found as well; it is served by the partial index on
+     * pending transfers. The transfers are read in key order after the given one, so transfers
+     * which are cancelled in the meantime do not shift the next batch.
+     * </p>
+     *
+     * @param createdBefore the end of the period, exclusive
+     * @param afterCreatedAt the creation date of the last transfer already read
+     * @param afterId the ID of the last transfer already read
+     * @param pageable the maximum number of transfers to return
+     * @return the IDs and creation dates of matching {@link Transfer} entities
+     */
+    @Query("SELECT t.id AS id, t.createdAt AS createdAt FROM Transfer t WHERE t.status = 'PENDING' " +
+            "AND t.createdAt < :createdBefore " +
+            "AND (t.createdAt > :afterCreatedAt OR (t.createdAt = :afterCreatedAt AND t.id > :afterId)) " +
+            "ORDER BY t.createdAt, t.id")
+    List<PendingTransfer> findPendingTransfersCreatedBefore(@Param("createdBefore") LocalDateTime createdBefore,
+                                                            @Param("afterCreatedAt") LocalDateTime afterCreatedAt,
+                                                            @Param("afterId") Long afterId,
+                                                            Pageable pageable);
+
+    /**
+     * Retrieves a {@link Transfer} entity together with both of its cards by its ID,
+     * looking only at transfers created within the given period.
+     * <p>
+     * The period lets the database prune the partitions of the {@code transfers} table,
+     * so only the partition of the transfer is searched. The owners of the cards are not loaded.
+     * </p>
      *
-     * @param pageable the pagination information, including page number, size, and sorting
-     * @return a {@link Page} containing the IDs of matching {@link Transfer} entities
+     * @param id the ID of the transfer to retrieve
+     * @param createdFrom the start of the period, inclusive
+     * @param createdTo the end of the period, exclusive
+     * @return an {@link Optional} containing the {@link Transfer} if found,
+     *         or an empty {@link Optional} if no such transfer exists in the period
      */
-    @Query("SELECT t.id FROM Transfer t WHERE t.status = 'PENDING' AND t.createdAt < CURRENT_DATE")
-    Page<Long> findTransferIdsWithStatusPendingAndCreatedAToToday(Pageable pageable);
+    @EntityGraph(Transfer.CARDS_GRAPH)
+    @Query("SELECT t FROM Transfer t WHERE t.id = :id AND t.createdAt >= :createdFrom AND t.createdAt < :createdTo")
+    Optional<Transfer> findByIdCreatedBetween(@Param("id") Long id,
+                                              @Param("createdFrom") LocalDateTime createdFrom,
+                                              @Param("createdTo") LocalDateTime createdTo);
 
     /**
      * Retrieves a {@link Transfer} entity by its ID with a pessimistic write lock.
@@ -40,14 +76,30 @@ public interface TransferRepository extends JpaRepository<Transfer, Long> {
      * for update operations in concurrent environments. The {@code PESSIMISTIC_WRITE}
      * lock prevents other transactions from reading or modifying the record
      * until the current transaction is completed.
+     * The creation period lets the database prune the partitions of the {@code transfers} table.
      * </p>
      *
      * @param id the ID of the transfer to retrieve and lock
+     * @param createdFrom the start of the period the transfer was created in, inclusive
+     * @param createdTo the end of the period the transfer was created in, exclusive
      * @return an {@link Optional} containing the {@link Transfer} if found,
      *         or an empty {@link Optional} if no entity with the given ID exists
      */
     @Lock(LockModeType.PESSIMISTIC_WRITE)
-    @Query("SELECT t FROM Transfer t WHERE t.id = :id")
-    Optional<Transfer> findByIdForUpdate(@Param("id") Long id);
+    @Query("SELECT t FROM Transfer t WHERE t.id = :id AND t.createdAt >= :createdFrom AND t.createdAt < :createdTo")
+    Optional<Transfer> findByIdForUpdate(@Param("id") Long id,
+                                         @Param("createdFrom") LocalDateTime createdFrom,
+                                         @Param("createdTo") LocalDateTime createdTo);
+
+    /**
+     * The key of a pending transfer: its ID and the creation date which selects its partition.
+     */
+    interface PendingTransfer {
+
+        Long getId();
+
+        LocalDateTime getCreatedAt();
+
+    }
 
 }
@@ -1,6 +1,7 @@
 package com.example.bankcards.repository;
 
 import com.example.bankcards.entity.User;
+import com.example.bankcards.entity.enums.RoleEnum;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
@@ -31,6 +32,14 @@ public interface UserRepository extends JpaRepository<User, Long> {
      */
     boolean existsByUsername(String username);
 
+    /**
+     * Finds any User who has the given role.
+     *
+     * @param role the role the user has to have
+     * @return an Optional containing the found User, or empty if no User has the role
+     */
+    Optional<User> findFirstByRoleSet_Role(RoleEnum role);
+
     //Просто для примера в CardBlockRequestServiceImpl метод -> assignAdministrator(Long cardBlockRequestId)
     @Query(value = """
     SELECT * FROM users u
@@ -0,0 +1,61 @@
+package com.example.bankcards.repository.impl;
+
+import com.example.bankcards.entity.enums.CardStatus;
+import com.example.bankcards.entity.enums.CardType;
+import com.example.bankcards.repository.CardAnalyticsRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Implementation of the {@link CardAnalyticsRepository} interface based on {@link JdbcTemplate}.
+ */
+@Repository
+@RequiredArgsConstructor
+public class CardAnalyticsRepositoryImpl implements CardAnalyticsRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public Optional<IdRange> findIdRange() {
+        return Optional.ofNullable(jdbcTemplate.queryForObject("SELECT min(id) AS from_id, max(id) AS to_id FROM cards",
+                (rs, rowNum) -> rs.getObject("from_id") == null
+                        ? null
+                        : new IdRange(rs.getLong("from_id"), rs.getLong("to_id"))));
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The timeout is set on the statement, so the database cancels the query once it expires.
+     * </p>
+     */
+    @Override
+    public List<Bucket> aggregate(long fromId, long toId, int timeoutSeconds) {
+        return jdbcTemplate.query(connection -> {
+                    PreparedStatement statement = connection.prepareStatement("SELECT card_type, " +
+                            "CASE WHEN status <> 'EXPIRED' AND expiration < CURRENT_DATE THEN 'EXPIRED' ELSE status END AS effective_status, " +
+                            "date_trunc('month', expiration)::date AS expiration_month, " +
+                            "count(*) AS card_count, sum(balance) AS total_balance, sum(hold) AS total_hold " +
+                            "FROM cards WHERE id BETWEEN ? AND ? AND NOT is_deleted " +
+                            "GROUP BY 1, 2, 3");
+                    statement.setLong(1, fromId);
+                    statement.setLong(2, toId);
+                    statement.setQueryTimeout(timeoutSeconds);
+                    return statement;
+                },
+                (rs, rowNum) -> new Bucket(
+                        CardType.valueOf(rs.getString("card_type")),
+                        CardStatus.valueOf(rs.getString("effective_status")),
+                        YearMonth.from(rs.getDate("expiration_month").toLocalDate()),
+                        rs.getLong("card_count"),
+                        rs.getBigDecimal("total_balance"),
+                        rs.getBigDecimal("total_hold")));
+    }
+
+}
@@ -0,0 +1,267 @@
+package com.example.bankcards.repository.impl;
+
+import com.example.bankcards.dto.api.resp.BulkEnrollmentResultDTO;
+import com.example.bankcards.dto.api.resp.RejectedEnrollmentDTO;
+import com.example.bankcards.entity.enums.CardStatus;
+import com.example.bankcards.repository.CardBulkRepository;
+import jakarta.validation.constraints.NotNull;
+import lombok.RequiredArgsConstructor;
+import org.postgresql.PGConnection;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.io.FilterReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import static com.example.bankcards.util.Constants.*;
+
+/**
+ * Implementation of the {@link CardBulkRepository} interface based on {@link JdbcTemplate}.
+ * <p>
+ * The version of every updated card is incremented, so that a concurrent entity update
+ * fails with an optimistic lock exception instead of silently overwriting the new status or balance.
+ * </p>
+ */
+@Repository
+@RequiredArgsConstructor
+public class CardBulkRepositoryImpl implements CardBulkRepository {
+
+    /**
+     * A card ID and an amount with at most 2 decimal places, separated by a comma; either may be quoted.
+     */
+    private static final String ENROLLMENT_ROW_PATTERN =
+            "^\\s*\"?([0-9]{1,18})\"?\\s*,\\s*\"?([0-9]{1,17}(?:\\.[0-9]{1,2})?)\"?\\s*$";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public List<Long> markExpired(@NotNull LocalDate today, int limit) {
+        return jdbcTemplate.queryForList("UPDATE cards SET status = 'EXPIRED', version = COALESCE(version, 0) + 1 " +
+                        "WHERE id IN (" +
+                        "SELECT id FROM cards WHERE expiration < ? AND status <> 'EXPIRED' " +
+                        "LIMIT ? FOR UPDATE SKIP LOCKED) " +
+                        "RETURNING id",
+                Long.class, Date.valueOf(today), limit);
+    }
+
+    @Override
+    public List<StoredNumber> findNumbersWithoutHash(long afterId, int limit) {
+        return jdbcTemplate.query("SELECT id, number FROM cards WHERE number_hash IS NULL AND id > ? " +
+                        "ORDER BY id LIMIT ?",
+                (rs, rowNum) -> new StoredNumber(rs.getLong("id"), rs.getString("number")),
+                afterId, limit);
+    }
+
+    @Override
+    public int updateNumberHashes(@NotNull Map<Long, String> hashes) {
+        List<Object[]> batch = hashes.entrySet().stream()
+                .map(entry -> new Object[]{entry.getValue(), entry.getKey()})
+                .toList();
+
+        return Arrays.stream(jdbcTemplate.batchUpdate(
+                        "UPDATE cards SET number_hash = ? WHERE id = ? AND number_hash IS NULL", batch))
+                .filter(count -> count > 0)
+                .sum();
+    }
+
+    @Override
+    public Archived archiveDeleted(@NotNull LocalDateTime deletedBefore, int limit) {
+        return jdbcTemplate.queryForObject("WITH batch AS (" +
+                        "SELECT c.id FROM cards c WHERE c.is_deleted AND c.deleted_at < ? " +
+                        "AND NOT EXISTS (SELECT 1 FROM card_block_requests r WHERE r.from_card_id = c.id " +
+                        "AND NOT r.is_confirmed) " +
+                        "AND NOT EXISTS (SELECT 1 FROM transfers t WHERE t.status = 'PENDING' " +
+                        "AND (t.from_card_id = c.id OR t.to_card_id = c.id)) " +
+                        "ORDER BY c.deleted_at LIMIT ? FOR UPDATE OF c SKIP LOCKED), " +
+                        "moved_transfers AS (" +
+                        "DELETE FROM transfers t WHERE t.from_card_id IN (SELECT id FROM batch) " +
+                        "OR t.to_card_id IN (SELECT id FROM batch) " +
+                        "RETURNING t.id, t.from_card_id, t.to_card_id, t.amount, t.status, t.created_at, t.confirmed_at, t.version), " +
+                        "archived_transfers AS (" +
+                        "INSERT INTO transfers_archive (id, from_card_id, to_card_id, amount, status, created_at, " +
+                        "confirmed_at, version, archived_at) " +
+                        "SELECT id, from_card_id, to_card_id, amount, status, created_at, confirmed_at, version, now() " +
+                        "FROM moved_transfers RETURNING id), " +
+                        "moved_block_requests AS (" +
+                        "DELETE FROM card_block_requests r WHERE r.from_card_id IN (SELECT id FROM batch) " +
+                        "RETURNING r.id, r.created_at, r.updated_at, r.from_user_id, r.appointed_admin_id, r.note, " +
+                        "r.from_card_id, r.is_confirmed), " +
+                        "archived_block_requests AS (" +
+                        "INSERT INTO card_block_requests_archive (id, created_at, updated_at, from_user_id, " +
+                        "appointed_admin_id, note, from_card_id, is_confirmed, archived_at) " +
+                        "SELECT id, created_at, updated_at, from_user_id, appointed_admin_id, note, from_card_id, " +
+                        "is_confirmed, now() FROM moved_block_requests RETURNING id), " +
+                        "moved_cards AS (" +
+                        "DELETE FROM cards c WHERE c.id IN (SELECT id FROM batch) " +
+                        "RETURNING c.id, c.card_type, c.number, c.number_hash, c.expiration, c.status, c.balance, c.hold, " +
+                        "c.owner_id, c.version, c.deleted_at), " +
+                        "archived_cards AS (" +
+                        "INSERT INTO cards_archive (id, card_type, number, number_hash, expiration, status, balance, hold, " +
+                        "owner_id, version, deleted_at, archived_at) " +
+                        "SELECT id, card_type, number, number_hash, expiration, status, balance, hold, " +
+                        "owner_id, version, deleted_at, now() FROM moved_cards RETURNING id) " +
+                        "SELECT (SELECT count(*) FROM archived_cards) AS cards, " +
+                        "(SELECT count(*) FROM archived_transfers) AS transfers, " +
+                        "(SELECT count(*) FROM archived_block_requests) AS block_requests",
+                (rs, rowNum) -> new Archived(rs.getInt("cards"), rs.getInt("transfers"), rs.getInt("block_requests")),
+                Timestamp.valueOf(deletedBefore), limit);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Every line is copied as a whole into a single text column and split in SQL, so a malformed line
+     * is rejected on its own instead of failing the whole COPY.
+     * </p>
+     */
+    @Override
+    public BulkEnrollmentResultDTO enrollBalances(@NotNull Reader csv, int maxReportedRejections) {
+        jdbcTemplate.execute("CREATE TEMP TABLE card_enrollment_staging (" +
+                "line_no BIGSERIAL, line TEXT, card_id_value BIGINT, amount_value NUMERIC(19, 2), " +
+                "reject_reason TEXT, enrolled BOOLEAN NOT NULL DEFAULT false) ON COMMIT DROP");
+
+        jdbcTemplate.execute((ConnectionCallback<Long>) connection -> {
+            try {
+                return connection.unwrap(PGConnection.class).getCopyAPI()
+                        .copyIn("COPY card_enrollment_staging (line) FROM STDIN " +
+                                "WITH (FORMAT csv, DELIMITER E'\\x1f', QUOTE E'\\x1e')", new CopyLineReader(csv));
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to read the enrollment file", e);
+            }
+        });
+        jdbcTemplate.execute("ANALYZE card_enrollment_staging");
+
+        jdbcTemplate.update("UPDATE card_enrollment_staging s " +
+                "SET card_id_value = p.fields[1]::BIGINT, amount_value = p.fields[2]::NUMERIC(19, 2) " +
+                "FROM (SELECT line_no, regexp_match(line, ?) AS fields FROM card_enrollment_staging) p " +
+                "WHERE s.line_no = p.line_no AND p.fields IS NOT NULL AND p.fields[2]::NUMERIC(19, 2) > 0",
+                ENROLLMENT_ROW_PATTERN);
+        jdbcTemplate.update("UPDATE card_enrollment_staging SET reject_reason = ? WHERE card_id_value IS NULL",
+                ENROLLMENT_INVALID_ROW);
+
+        jdbcTemplate.update("WITH totals AS (" +
+                "SELECT card_id_value AS card_id, SUM(amount_value) AS amount FROM card_enrollment_staging " +
+                "WHERE reject_reason IS NULL GROUP BY card_id_value), " +
+                "enrolled AS (" +
+                "UPDATE cards c SET balance = c.balance + t.amount, version = COALESCE(c.version, 0) + 1 " +
+                "FROM totals t WHERE c.id = t.card_id AND c.status = 'ACTIVE' AND c.expiration >= CURRENT_DATE " +
+                "RETURNING c.id) " +
+                "UPDATE card_enrollment_staging s SET enrolled = true FROM enrolled e WHERE s.card_id_value = e.id");
+        jdbcTemplate.update("UPDATE card_enrollment_staging s " +
+                "SET reject_reason = CASE WHEN EXISTS (SELECT 1 FROM cards c WHERE c.id = s.card_id_value) " +
+                "THEN ? ELSE ? END " +
+                "WHERE s.reject_reason IS NULL AND NOT s.enrolled", ENROLLMENT_CARD_LOCKED, ENROLLMENT_CARD_NOT_FOUND);
+
+        List<RejectedEnrollmentDTO> rejectedRows = jdbcTemplate.query("SELECT line_no, " +
+                        "trim(split_part(line, ',', 1)) AS card_id, trim(split_part(line, ',', 2)) AS amount, reject_reason " +
+                        "FROM card_enrollment_staging WHERE reject_reason IS NOT NULL ORDER BY line_no LIMIT ?",
+                (rs, rowNum) -> RejectedEnrollmentDTO.builder()
+                        .line(rs.getLong("line_no"))
+                        .cardId(rs.getString("card_id"))
+                        .amount(rs.getString("amount"))
+                        .reason(rs.getString("reject_reason"))
+                        .build(),
+                maxReportedRejections);
+
+        BulkEnrollmentResultDTO result = jdbcTemplate.queryForObject("SELECT count(*) AS received, " +
+                        "count(*) FILTER (WHERE enrolled) AS enrolled, " +
+                        "COALESCE(SUM(amount_value) FILTER (WHERE enrolled), 0) AS enrolled_amount, " +
+                        "count(*) FILTER (WHERE reject_reason IS NOT NULL) AS rejected " +
+                        "FROM card_enrollment_staging",
+                (rs, rowNum) -> BulkEnrollmentResultDTO.builder()
+                        .received(rs.getLong("received"))
+                        .enrolled(rs.getLong("enrolled"))
+                        .enrolledAmount(rs.getBigDecimal("enrolled_amount"))
+                        .rejected(rs.getLong("rejected"))
+                        .build());
+
+        Objects.requireNonNull(result).setRejectedRows(rejectedRows);
+        return result;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The cards are locked in the order of their IDs before they are counted and updated,
+     * so the counts match the update and concurrent bulk changes do not deadlock.
+     * </p>
+     */
+    @Override
+    public StatusChange updateStatus(@NotNull Collection<Long> ids, @NotNull CardStatus status) {
+        Long[] idArray = ids.toArray(new Long[0]);
+
+        StatusChange skipped = jdbcTemplate.queryForObject("WITH locked AS (" +
+                        "SELECT status, expiration FROM cards WHERE id = ANY(?) ORDER BY id FOR UPDATE) " +
+                        "SELECT count(*) AS found, " +
+                        "count(*) FILTER (WHERE status = 'EXPIRED' OR expiration < CURRENT_DATE) AS expired, " +
+                        "count(*) FILTER (WHERE status = ? AND status <> 'EXPIRED' AND expiration >= CURRENT_DATE) AS already_set " +
+                        "FROM locked",
+                (rs, rowNum) -> new StatusChange(List.of(),
+                        rs.getLong("expired"), rs.getLong("already_set"), rs.getLong("found")),
+                idArray, status.name());
+
+        List<Long> updatedIds = jdbcTemplate.queryForList("UPDATE cards SET status = ?, version = COALESCE(version, 0) + 1 " +
+                        "WHERE id = ANY(?) AND status <> 'EXPIRED' AND expiration >= CURRENT_DATE AND status <> ? " +
+                        "RETURNING id",
+                Long.class, status.name(), idArray, status.name());
+
+        Objects.requireNonNull(skipped);
+        return new StatusChange(updatedIds, skipped.expired(), skipped.alreadySet(), skipped.found());
+    }
+
+    /**
+     * Prepares the enrollment stream for the single-column COPY: replaces the characters that COPY cannot store
+     * there (NUL and the delimiter and quote characters of the COPY command) and drops carriage returns,
+     * so that such a line is rejected as malformed instead of failing the whole COPY.
+     */
+    static class CopyLineReader extends FilterReader {
+
+        private static final char REPLACEMENT = '\uFFFD';
+
+        CopyLineReader(Reader in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int c;
+            do {
+                c = super.read();
+            } while (c == '\r');
+            return c < 0 ? c : sanitize((char) c);
+        }
+
+        @Override
+        public int read(char[] buffer, int offset, int length) throws IOException {
+            int read;
+            int kept;
+            do {
+                read = super.read(buffer, offset, length);
+                kept = 0;
+                for (int i = offset; i < offset + read; i++) {
+                    if (buffer[i] != '\r') {
+                        buffer[offset + kept++] = sanitize(buffer[i]);
+                    }
+                }
+            } while (read > 0 && kept == 0);
+            return read < 0 ? read : kept;
+        }
+
+        private static char sanitize(char c) {
+            return c == '\u0000' || c == '\u001e' || c == '\u001f' ? REPLACEMENT : c;
+        }
+    }
+
+}
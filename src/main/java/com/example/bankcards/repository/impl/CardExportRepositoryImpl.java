@@ -0,0 +1,76 @@
+package com.example.bankcards.repository.impl;
+
+import com.example.bankcards.entity.enums.CardStatus;
+import com.example.bankcards.entity.enums.CardType;
+import com.example.bankcards.repository.CardExportRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ * Implementation of the {@link CardExportRepository} interface based on {@link JdbcTemplate}.
+ * <p>
+ * The statement is forward-only with a fetch size, which makes the PostgreSQL driver read the rows
+ * through a cursor when auto-commit is disabled.
+ * </p>
+ */
+@Repository
+@RequiredArgsConstructor
+public class CardExportRepositoryImpl implements CardExportRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void forEachChunk(Long ownerId, boolean includeDeleted, int fetchSize, Consumer<List<CardRow>> consumer) {
+        StringBuilder sql = new StringBuilder("SELECT id, card_type, number, expiration, " +
+                "CASE WHEN status <> 'EXPIRED' AND expiration < CURRENT_DATE THEN 'EXPIRED' ELSE status END AS effective_status, " +
+                "balance, hold, owner_id FROM cards WHERE true");
+        if (Objects.nonNull(ownerId)) {
+            sql.append(" AND owner_id = ?");
+        }
+        if (!includeDeleted) {
+            sql.append(" AND NOT is_deleted");
+        }
+        sql.append(" ORDER BY id");
+
+        List<CardRow> chunk = new ArrayList<>(fetchSize);
+
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(sql.toString(),
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(fetchSize);
+            if (Objects.nonNull(ownerId)) {
+                statement.setLong(1, ownerId);
+            }
+            return statement;
+        }, (RowCallbackHandler) rs -> {
+            chunk.add(new CardRow(
+                    rs.getLong("id"),
+                    CardType.valueOf(rs.getString("card_type")),
+                    rs.getString("number"),
+                    rs.getDate("expiration").toLocalDate(),
+                    CardStatus.valueOf(rs.getString("effective_status")),
+                    rs.getBigDecimal("balance"),
+                    rs.getBigDecimal("hold"),
+                    rs.getLong("owner_id")));
+
+            if (chunk.size() == fetchSize) {
+                consumer.accept(chunk);
+                chunk.clear();
+            }
+        });
+
+        if (!chunk.isEmpty()) {
+            consumer.accept(chunk);
+        }
+    }
+
+}
@@ -0,0 +1,53 @@
+package com.example.bankcards.repository.impl;
+
+import com.example.bankcards.entity.enums.CardType;
+import com.example.bankcards.repository.CardNumberCounterRepository;
+import jakarta.validation.constraints.NotNull;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Implementation of the {@link CardNumberCounterRepository} interface based on the {@code card_number_counters} table.
+ * <p>
+ * Every allocation is a single {@code UPDATE ... RETURNING} statement executed in its own short transaction,
+ * so the counter row is locked only for the duration of that statement and not for the whole card issuance.
+ * </p>
+ */
+@Repository
+@RequiredArgsConstructor
+public class CardNumberCounterRepositoryImpl implements CardNumberCounterRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public Optional<Long> increment(@NotNull Long ownerId, @NotNull CardType type, int count) {
+        List<Long> result = jdbcTemplate.queryForList("UPDATE card_number_counters " +
+                        "SET last_sequence = last_sequence + ? " +
+                        "WHERE owner_id = ? AND card_type = ? " +
+                        "RETURNING last_sequence",
+                Long.class, count, ownerId, type.name());
+
+        return result.stream().findFirst();
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public long initialize(@NotNull Long ownerId, @NotNull CardType type, long lastIssuedSequence, int count) {
+        Long result = jdbcTemplate.queryForObject("INSERT INTO card_number_counters (owner_id, card_type, last_sequence) " +
+                        "VALUES (?, ?, ?) " +
+                        "ON CONFLICT (owner_id, card_type) " +
+                        "DO UPDATE SET last_sequence = card_number_counters.last_sequence + ? " +
+                        "RETURNING last_sequence",
+                Long.class, ownerId, type.name(), lastIssuedSequence + count, count);
+
+        return result == null ? lastIssuedSequence + count : result;
+    }
+
+}
@@ -0,0 +1,39 @@
+package com.example.bankcards.repository.impl;
+
+import com.example.bankcards.entity.enums.CardStatus;
+import com.example.bankcards.entity.enums.CardType;
+import com.example.bankcards.repository.CardPortfolioSummaryRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Implementation of the {@link CardPortfolioSummaryRepository} interface based on {@link JdbcTemplate}.
+ * <p>
+ * The stored aggregates reflect the stored card statuses, one row per card type and status,
+ * so the read never touches the cards table.
+ * </p>
+ */
+@Repository
+@RequiredArgsConstructor
+public class CardPortfolioSummaryRepositoryImpl implements CardPortfolioSummaryRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public List<Bucket> findByOwnerId(long ownerId) {
+        return jdbcTemplate.query("SELECT card_type, status, card_count, total_balance, total_hold " +
+                        "FROM card_portfolio_summaries WHERE owner_id = ? AND card_count > 0 " +
+                        "ORDER BY card_type, status",
+                (rs, rowNum) -> new Bucket(
+                        CardType.valueOf(rs.getString("card_type")),
+                        CardStatus.valueOf(rs.getString("status")),
+                        rs.getLong("card_count"),
+                        rs.getBigDecimal("total_balance"),
+                        rs.getBigDecimal("total_hold")),
+                ownerId);
+    }
+
+}
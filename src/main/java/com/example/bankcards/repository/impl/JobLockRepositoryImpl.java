@@ -0,0 +1,52 @@
+package com.example.bankcards.repository.impl;
+
+import com.example.bankcards.repository.JobLockRepository;
+import jakarta.validation.constraints.NotNull;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Implementation of the {@link JobLockRepository} interface based on PostgreSQL session advisory locks.
+ * <p>
+ * The lock is taken on a connection that is kept for the whole job and released before the connection is returned
+ * to the pool. The job itself runs its statements on other connections, so it may commit as often as it needs to.
+ * If the node dies, the database closes its session and the lock is released.
+ * </p>
+ */
+@Repository
+@RequiredArgsConstructor
+public class JobLockRepositoryImpl implements JobLockRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public <T> Optional<T> runExclusively(@NotNull String name, @NotNull Supplier<T> job) {
+        return jdbcTemplate.execute((ConnectionCallback<Optional<T>>) connection -> {
+            try (PreparedStatement lock = connection.prepareStatement("SELECT pg_try_advisory_lock(hashtext(?))")) {
+                lock.setString(1, name);
+                try (ResultSet rs = lock.executeQuery()) {
+                    if (!rs.next() || !rs.getBoolean(1)) {
+                        return Optional.empty();
+                    }
+                }
+            }
+
+            try {
+                return Optional.ofNullable(job.get());
+            } finally {
+                try (PreparedStatement unlock = connection.prepareStatement("SELECT pg_advisory_unlock(hashtext(?))")) {
+                    unlock.setString(1, name);
+                    unlock.execute();
+                }
+            }
+        });
+    }
+
+}
@@ -0,0 +1,66 @@
+package com.example.bankcards.repository.impl;
+
+import com.example.bankcards.repository.RefreshTokenFamilyRepository;
+import jakarta.validation.constraints.NotNull;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Repository;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Implementation of the {@link RefreshTokenFamilyRepository} interface based on Redis.
+ * <p>
+ * Every family is a single key holding the ID of its current refresh token, which expires together with that token.
+ * The rotation runs as a script, so comparing the current token and replacing it is atomic:
+ * of two requests presenting the same token only one gets the next token, the other one revokes the family.
+ * </p>
+ */
+@Repository
+@RequiredArgsConstructor
+public class RefreshTokenFamilyRepositoryImpl implements RefreshTokenFamilyRepository {
+
+    static final String FAMILY_KEY_PREFIX = "auth:refresh:family:";
+
+    static final RedisScript<Long> ROTATE_SCRIPT = new DefaultRedisScript<>("""
+            local current = redis.call('GET', KEYS[1])
+            if not current then
+                return 0
+            end
+            if current ~= ARGV[1] then
+                redis.call('DEL', KEYS[1])
+                return -1
+            end
+            redis.call('SET', KEYS[1], ARGV[2], 'PX', ARGV[3])
+            return 1
+            """, Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+
+    @Override
+    public void create(@NotNull String familyId, @NotNull String tokenId, @NotNull Duration ttl) {
+        redisTemplate.opsForValue().set(FAMILY_KEY_PREFIX + familyId, tokenId, ttl);
+    }
+
+    @Override
+    public RotationResult rotate(@NotNull String familyId, @NotNull String presentedTokenId,
+                                 @NotNull String nextTokenId, @NotNull Duration ttl) {
+        Long result = redisTemplate.execute(ROTATE_SCRIPT, List.of(FAMILY_KEY_PREFIX + familyId),
+                presentedTokenId, nextTokenId, Long.toString(ttl.toMillis()));
+
+        if (result == null || result == 0) {
+            return RotationResult.UNKNOWN;
+        }
+
+        return result > 0 ? RotationResult.ROTATED : RotationResult.REUSED;
+    }
+
+    @Override
+    public void revoke(@NotNull String familyId) {
+        redisTemplate.delete(FAMILY_KEY_PREFIX + familyId);
+    }
+
+}
@@ -0,0 +1,121 @@
+package com.example.bankcards.repository.impl;
+
+import com.example.bankcards.entity.enums.TransferStatus;
+import com.example.bankcards.repository.TransferColdArchiveRepository;
+import jakarta.validation.constraints.NotNull;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Implementation of the {@link TransferColdArchiveRepository} interface based on the {@code transfer_archive_files}
+ * and {@code transfer_archive_index} tables.
+ * <p>
+ * Every query on {@code transfers} is bounded by the creation month, so it is pruned to a single partition.
+ * </p>
+ */
+@Repository
+@RequiredArgsConstructor
+public class TransferColdArchiveRepositoryImpl implements TransferColdArchiveRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public List<SettledTransfer> findSettledTransfers(@NotNull YearMonth month, long afterId, int limit) {
+        return jdbcTemplate.query("SELECT id, from_card_id, to_card_id, amount, status, created_at, confirmed_at " +
+                        "FROM transfers " +
+                        "WHERE created_at >= ? AND created_at < ? AND status IN ('COMPLETED', 'FAILED') AND id > ? " +
+                        "ORDER BY id LIMIT ?",
+                TransferColdArchiveRepositoryImpl::mapSettledTransfer,
+                monthStart(month), monthStart(month.plusMonths(1)), afterId, limit);
+    }
+
+    @Override
+    public long saveFile(@NotNull ArchiveFile file, @NotNull Collection<Long> cardIds) {
+        Long fileId = jdbcTemplate.queryForObject("INSERT INTO transfer_archive_files " +
+                        "(month, path, compression, row_count, first_transfer_id, last_transfer_id, created_at) " +
+                        "VALUES (?, ?, ?, ?, ?, ?, now()) RETURNING id",
+                Long.class, file.month().atDay(1), file.path(), file.compression(), file.rowCount(),
+                file.firstTransferId(), file.lastTransferId());
+
+        jdbcTemplate.update("INSERT INTO transfer_archive_index (card_id, month, file_id) " +
+                        "SELECT card_id, ?, ? FROM unnest(?::bigint[]) AS card_id " +
+                        "ON CONFLICT DO NOTHING",
+                file.month().atDay(1), fileId, cardIds.toArray(new Long[0]));
+
+        return Objects.requireNonNull(fileId);
+    }
+
+    @Override
+    public int deleteTransfers(@NotNull YearMonth month, @NotNull List<Long> ids, int batchSize) {
+        int deleted = 0;
+
+        for (int from = 0; from < ids.size(); from += batchSize) {
+            List<Long> batch = ids.subList(from, Math.min(from + batchSize, ids.size()));
+            deleted += jdbcTemplate.update("DELETE FROM transfers " +
+                            "WHERE created_at >= ? AND created_at < ? AND id = ANY(?) " +
+                            "AND status IN ('COMPLETED', 'FAILED')",
+                    monthStart(month), monthStart(month.plusMonths(1)), batch.toArray(new Long[0]));
+        }
+
+        return deleted;
+    }
+
+    @Override
+    public List<ArchiveFile> findFiles(long cardId, @NotNull YearMonth month) {
+        return jdbcTemplate.query("SELECT f.id, f.month, f.path, f.compression, f.row_count, " +
+                        "f.first_transfer_id, f.last_transfer_id " +
+                        "FROM transfer_archive_index i " +
+                        "JOIN transfer_archive_files f ON f.id = i.file_id " +
+                        "WHERE i.card_id = ? AND i.month = ? " +
+                        "ORDER BY f.first_transfer_id",
+                (rs, rowNum) -> new ArchiveFile(
+                        rs.getLong("id"),
+                        YearMonth.from(rs.getDate("month").toLocalDate()),
+                        rs.getString("path"),
+                        rs.getString("compression"),
+                        rs.getInt("row_count"),
+                        rs.getLong("first_transfer_id"),
+                        rs.getLong("last_transfer_id")),
+                cardId, month.atDay(1));
+    }
+
+    @Override
+    public List<SettledTransfer> findTransfersOfArchivedCards(long cardId, @NotNull YearMonth month) {
+        return jdbcTemplate.query("SELECT id, from_card_id, to_card_id, amount, status, created_at, confirmed_at " +
+                        "FROM transfers_archive " +
+                        "WHERE (from_card_id = ? OR to_card_id = ?) AND created_at >= ? AND created_at < ? " +
+                        "ORDER BY id",
+                TransferColdArchiveRepositoryImpl::mapSettledTransfer,
+                cardId, cardId, monthStart(month), monthStart(month.plusMonths(1)));
+    }
+
+    private static SettledTransfer mapSettledTransfer(ResultSet rs, int rowNum) throws SQLException {
+        return new SettledTransfer(
+                rs.getLong("id"),
+                rs.getLong("from_card_id"),
+                rs.getLong("to_card_id"),
+                rs.getBigDecimal("amount"),
+                TransferStatus.valueOf(rs.getString("status")),
+                rs.getTimestamp("created_at").toLocalDateTime(),
+                toLocalDateTime(rs.getTimestamp("confirmed_at")));
+    }
+
+    private static LocalDateTime monthStart(YearMonth month) {
+        return month.atDay(1).atStartOfDay();
+    }
+
+    private static LocalDateTime toLocalDateTime(Timestamp timestamp) {
+        return timestamp == null ? null : timestamp.toLocalDateTime();
+    }
+
+}
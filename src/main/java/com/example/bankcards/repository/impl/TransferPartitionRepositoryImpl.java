@@ -0,0 +1,83 @@
+package com.example.bankcards.repository.impl;
+
+import com.example.bankcards.repository.TransferPartitionRepository;
+import jakarta.validation.constraints.NotNull;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+/**
+ * Implementation of the {@link TransferPartitionRepository} interface based on the PostgreSQL catalog.
+ * <p>
+ * Partitions are created by the {@code create_transfer_partitions} database function, which is also used
+ * by the migration that partitioned the table. Only partitions named {@code transfers_pYYYYMM} are managed,
+ * the default partition and manually attached partitions are left alone.
+ * </p>
+ */
+@Repository
+@RequiredArgsConstructor
+public class TransferPartitionRepositoryImpl implements TransferPartitionRepository {
+
+    private static final String PARTITION_PREFIX = "transfers_p";
+
+    private static final DateTimeFormatter PARTITION_MONTH_FORMAT = DateTimeFormatter.ofPattern("yyyyMM");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public int createPartitions(@NotNull YearMonth from, @NotNull YearMonth to) {
+        Integer created = jdbcTemplate.queryForObject("SELECT create_transfer_partitions(?, ?)",
+                Integer.class, from.atDay(1), to.atDay(1));
+
+        return created == null ? 0 : created;
+    }
+
+    @Override
+    public List<Partition> findPartitions() {
+        return jdbcTemplate.query("SELECT c.relname AS name FROM pg_inherits i " +
+                        "JOIN pg_class c ON c.oid = i.inhrelid " +
+                        "JOIN pg_class p ON p.oid = i.inhparent " +
+                        "WHERE p.relname = 'transfers' AND c.relname ~ '^transfers_p[0-9]{6}$' " +
+                        "ORDER BY c.relname",
+                (rs, rowNum) -> {
+                    String name = rs.getString("name");
+                    YearMonth month = YearMonth.parse(name.substring(PARTITION_PREFIX.length()), PARTITION_MONTH_FORMAT);
+                    return new Partition(name, month);
+                });
+    }
+
+    @Override
+    public boolean hasPendingTransfers(@NotNull Partition partition) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject("SELECT EXISTS (SELECT 1 FROM " +
+                quote(partition) + " WHERE status = 'PENDING')", Boolean.class));
+    }
+
+    @Override
+    @Transactional
+    public void detachPartition(@NotNull Partition partition) {
+        jdbcTemplate.execute("ALTER TABLE transfers DETACH PARTITION " + quote(partition));
+
+        List<String> foreignKeys = jdbcTemplate.queryForList("SELECT conname FROM pg_constraint " +
+                "WHERE conrelid = ?::regclass AND contype = 'f'", String.class, partition.name());
+
+        foreignKeys.forEach(foreignKey -> jdbcTemplate.execute("ALTER TABLE " + quote(partition) +
+                " DROP CONSTRAINT \"" + foreignKey + "\""));
+    }
+
+    /**
+     * Quotes the name of the partition. The names come from the catalog and are already
+     * restricted to {@code transfers_pYYYYMM}, quoting keeps them from being parsed as anything else.
+     *
+     * @param partition the partition
+     * @return the quoted partition name
+     */
+    private static String quote(Partition partition) {
+        return "\"" + partition.name() + "\"";
+    }
+
+}
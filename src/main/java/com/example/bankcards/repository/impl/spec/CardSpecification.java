@@ -1,23 +1,41 @@
 package com.example.bankcards.repository.impl.spec;
 
+import com.example.bankcards.config.jpa.ArrayFunctionContributor;
 import com.example.bankcards.dto.api.req.filters.CardSearchFilter;
 import com.example.bankcards.entity.Card;
 import com.example.bankcards.entity.Card_;
 import com.example.bankcards.entity.User_;
+import com.example.bankcards.entity.enums.CardStatus;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
 import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.query.criteria.HibernateCriteriaBuilder;
 import org.springframework.data.jpa.domain.Specification;
 
+import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 /**
  * The class representing a specification for searching cards based on a provided filter.
+ * <p>
+ * Collections are bound as a single array parameter instead of an {@code IN} list, so the generated SQL
+ * only depends on which filters are set and not on the number of values passed to them.
+ * </p>
+ *
+ * @see ArrayFunctionContributor
  */
 public class CardSpecification {
 
     /**
      * Creates a specification based on the provided filter.
+     * Deleted cards are excluded unless the filter explicitly asks for them.
+     * Card numbers are matched by their blind indexes only, see {@link CardSearchFilter#getNumberHash()}.
      *
      * @param filter The filter used to search for cards.
      * @param userId if the search is being conducted for the admin, this parameter does not need to be passed
@@ -29,15 +47,15 @@ public class CardSpecification {
 
             if (Objects.nonNull(filter)) {
                 if (Objects.nonNull(filter.getIdSet()) && !filter.getIdSet().isEmpty()) {
-                    predicates.add(root.get(Card_.ID).in(filter.getIdSet()));
+                    predicates.add(anyOf(cb, root.get(Card_.ID), filter.getIdSet().toArray(Long[]::new)));
                 }
 
                 if (Objects.nonNull(filter.getCardTypes()) && !filter.getCardTypes().isEmpty()) {
-                    predicates.add(root.get(Card_.TYPE).in(filter.getCardTypes()));
+                    predicates.add(anyOf(cb, root.get(Card_.TYPE).as(String.class), names(filter.getCardTypes())));
                 }
 
-                if (Objects.nonNull(filter.getNumber()) && !filter.getNumber().isEmpty()) {
-                    predicates.add(root.get(Card_.NUMBER).in(filter.getNumber()));
+                if (Objects.nonNull(filter.getNumberHash()) && !filter.getNumberHash().isEmpty()) {
+                    predicates.add(anyOf(cb, root.get(Card_.NUMBER_HASH), filter.getNumberHash().toArray(String[]::new)));
                 }
 
                 if (Objects.nonNull(filter.getExpirationFrom()) && Objects.nonNull(filter.getExpirationTo())
@@ -51,7 +69,7 @@ public class CardSpecification {
                 }
 
                 if (Objects.nonNull(filter.getStatus()) && !filter.getStatus().isEmpty()) {
-                    predicates.add(root.get(Card_.STATUS).in(filter.getStatus()));
+                    predicates.add(effectiveStatusIn(root, cb, filter.getStatus()));
                 }
 
                 if (Objects.nonNull(filter.getBalanceFrom()) && Objects.nonNull(filter.getBalanceTo())
@@ -73,14 +91,14 @@ public class CardSpecification {
                 }
 
                 if (Objects.nonNull(filter.getOwnerIdSet()) && !filter.getOwnerIdSet().isEmpty()) {
-                    predicates.add(root.get(Card_.OWNER).get(User_.ID).in(filter.getOwnerIdSet()));
+                    predicates.add(anyOf(cb, root.get(Card_.OWNER).get(User_.ID), filter.getOwnerIdSet().toArray(Long[]::new)));
                 }
 
-                if (Objects.nonNull(filter.getIsDeleted())) {
-                    predicates.add(cb.equal(root.get(Card_.IS_DELETED), filter.getIsDeleted()));
-                }
             }
 
+            Boolean isDeleted = Objects.nonNull(filter) ? filter.getIsDeleted() : null;
+            predicates.add(cb.equal(root.get(Card_.IS_DELETED), Objects.requireNonNullElse(isDeleted, false)));
+
             if (Objects.nonNull(userId)) {
                 predicates.add(cb.equal(root.get(Card_.OWNER).get(User_.ID), userId));
             }
@@ -89,4 +107,88 @@ public class CardSpecification {
         };
     }
 
-}
\ No newline at end of file
+    /**
+     * Checks whether the filter restricts the search by at least one card attribute.
+     * The deletion flag alone does not count, since it still matches almost every card.
+     *
+     * @param filter The filter used to search for cards.
+     * @return true if {@link #search(CardSearchFilter, Long)} adds at least one predicate for the filter
+     * besides the deletion flag.
+     */
+    public static boolean hasCriteria(CardSearchFilter filter) {
+        return Objects.nonNull(filter)
+                && (isNotEmpty(filter.getIdSet())
+                || isNotEmpty(filter.getCardTypes())
+                || isNotEmpty(filter.getNumberHash())
+                || Objects.nonNull(filter.getExpirationFrom())
+                || isNotEmpty(filter.getStatus())
+                || Objects.nonNull(filter.getBalanceFrom())
+                || Objects.nonNull(filter.getHoldFrom())
+                || isNotEmpty(filter.getOwnerIdSet()));
+    }
+
+    private static boolean isNotEmpty(Set<?> values) {
+        return Objects.nonNull(values) && !values.isEmpty();
+    }
+
+    /**
+     * Creates a predicate matching cards by their effective status.
+     * A card whose expiration date has passed is treated as expired, whatever its stored status is.
+     *
+     * @param root The root of the card query.
+     * @param cb The criteria builder.
+     * @param statuses The requested statuses.
+     * @return A Predicate matching cards whose effective status is one of the requested statuses.
+     */
+    private static Predicate effectiveStatusIn(Root<Card> root, CriteriaBuilder cb, Set<CardStatus> statuses) {
+        LocalDate today = LocalDate.now();
+        List<Predicate> predicates = new ArrayList<>();
+
+        Set<CardStatus> notExpired = statuses.stream()
+                .filter(status -> status != CardStatus.EXPIRED)
+                .collect(Collectors.toCollection(() -> EnumSet.noneOf(CardStatus.class)));
+
+        if (!notExpired.isEmpty()) {
+            predicates.add(cb.and(
+                    anyOf(cb, root.get(Card_.STATUS).as(String.class), names(notExpired)),
+                    cb.greaterThanOrEqualTo(root.get(Card_.EXPIRATION), today)));
+        }
+
+        if (statuses.contains(CardStatus.EXPIRED)) {
+            predicates.add(cb.or(
+                    cb.equal(root.get(Card_.STATUS), CardStatus.EXPIRED),
+                    cb.lessThan(root.get(Card_.EXPIRATION), today)));
+        }
+
+        return cb.or(predicates.toArray(new Predicate[0]));
+    }
+
+    /**
+     * Creates a predicate matching rows whose expression equals any of the values.
+     * The values are bound as a single array parameter.
+     *
+     * @param cb The criteria builder.
+     * @param expression The expression to match.
+     * @param values The values to match against.
+     * @return A Predicate rendered as {@code expression = any(?)}.
+     */
+    private static <T> Predicate anyOf(CriteriaBuilder cb, Expression<T> expression, T[] values) {
+        HibernateCriteriaBuilder hcb = (HibernateCriteriaBuilder) cb;
+        return cb.isTrue(cb.function(ArrayFunctionContributor.ANY_OF, Boolean.class, expression, hcb.value(values)));
+    }
+
+    /**
+     * Returns the names of the constants, in their declaration order, to be matched against an enum column
+     * stored as a string.
+     *
+     * @param values The enum constants.
+     * @return The names of the constants.
+     */
+    private static String[] names(Set<? extends Enum<?>> values) {
+        return values.stream()
+                .sorted()
+                .map(Enum::name)
+                .toArray(String[]::new);
+    }
+
+}
@@ -1,6 +1,8 @@
 package com.example.bankcards.security;
 
+import com.example.bankcards.service.TokenRevocationService;
 import com.example.bankcards.service.impl.JwtProvider;
+import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
@@ -25,6 +27,7 @@ import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
 import java.util.List;
+import java.util.Optional;
 
 import static com.example.bankcards.util.Constants.TOKEN_HEADER;
 import static com.example.bankcards.util.Constants.TOKEN_TYPE;
@@ -37,6 +40,10 @@ import static com.example.bankcards.util.Constants.TOKEN_TYPE;
  * If the token is invalid or missing, the request is either skipped (if it matches an ignored URL pattern)
  * or an authentication failure response is returned with status {@link HttpServletResponse#SC_UNAUTHORIZED}.
  * <p>
+ * Access tokens revoked by the {@link TokenRevocationService}, e.g. after a refresh token was reused,
+ * are rejected in both modes. In the stateless mode the principal is built from the claims of the access token
+ * instead of a database lookup.
+ * <p>
  * This filter extends {@link OncePerRequestFilter} to ensure it is applied only once per request.
  */
 @Slf4j
@@ -55,9 +62,21 @@ public class JwtAuthFilter extends OncePerRequestFilter {
      */
     private final UserDetailsService userDetailsService;
 
+    /**
+     * TokenRevocationService bean.
+     * @see TokenRevocationService
+     */
+    private final TokenRevocationService tokenRevocationService;
+
     @Value("${spring.application.web.ignoredUrls:*}")
     private List<String> ignoredUrls;
 
+    /**
+     * Whether the principal is built from the claims of the access token instead of being loaded from the database.
+     */
+    @Value("${spring.application.security.jwt.stateless:false}")
+    private boolean stateless;
+
     /**
      * Determines whether the filter should not be applied for the given request.
      * <p>
@@ -105,15 +124,16 @@ public class JwtAuthFilter extends OncePerRequestFilter {
             }
 
             String jwt = header.substring(TOKEN_TYPE.length());
-            if (!jwtProvider.validateAccessToken(jwt)) {
+            Optional<Claims> claims = jwtProvider.parseAccessToken(jwt);
+            if (claims.isEmpty()) {
                 log.warn("Invalid JWT token detected. Unauthorized access attempt.");
                 throw new UnavailableException("Unauthorized access");
             }
 
-            String username = jwtProvider.getAccessClaims(jwt).getSubject();
+            String username = claims.get().getSubject();
             if (StringUtils.isNotBlank(username) && SecurityContextHolder.getContext().getAuthentication() == null) {
                 log.info("Authenticated user '{}'. Setting security context.", username);
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+                UserDetails userDetails = loadPrincipal(username, claims.get());
                 SecurityContext context = SecurityContextHolder.createEmptyContext();
                 UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
                         userDetails,
@@ -139,4 +159,26 @@ public class JwtAuthFilter extends OncePerRequestFilter {
             response.getWriter().print(e.getMessage());
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Loads the principal of the request.
+     * <p>
+     * The access token is rejected if the tokens of the user were revoked, which only takes a Redis lookup.
+     * In the stateless mode the principal is then built from the claims of the access token,
+     * otherwise the user is loaded from the database.
+     * </p>
+     *
+     * @param username the username from the access token
+     * @param claims the claims of the verified access token
+     * @return the principal of the request
+     * @throws UnavailableException if the access token is revoked
+     */
+    private UserDetails loadPrincipal(String username, Claims claims) throws UnavailableException {
+        if (tokenRevocationService.isRevoked(username, claims.getIssuedAt())) {
+            log.warn("Revoked JWT token detected for user '{}'. Unauthorized access attempt.", username);
+            throw new UnavailableException("Unauthorized access");
+        }
+
+        return stateless ? jwtProvider.getPrincipal(claims) : userDetailsService.loadUserByUsername(username);
+    }
+}
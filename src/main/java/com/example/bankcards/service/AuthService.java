@@ -30,4 +30,12 @@ public interface AuthService {
      * @throws IllegalArgumentException If the refresh token is invalid or has expired.
      */
     LoggedUserRespDTO reLoginUser(@NotBlank String refreshToken);
+
+    /**
+     * Logs the user out by revoking the family of the provided refresh token,
+     * so that the refresh token cannot be used to obtain new tokens anymore.
+     *
+     * @param refreshToken The refresh token of the session being closed.
+     */
+    void logoutUser(@NotBlank String refreshToken);
 }
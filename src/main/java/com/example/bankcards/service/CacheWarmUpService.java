@@ -0,0 +1,36 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.dto.api.req.SearchReq;
+import com.example.bankcards.dto.api.req.filters.CardSearchFilter;
+
+/**
+ * The {@code CacheWarmUpService} interface defines the warm-up of the caches after the application is started.
+ * <p>
+ * Card searches are counted in a Redis sorted set, shared by all the instances, so that a freshly started
+ * instance can preload the results of the most frequent searches before it starts accepting traffic.
+ * </p>
+ */
+public interface CacheWarmUpService {
+
+    /**
+     * Counts a card search of the current user. Failures are logged and never propagated to the caller.
+     *
+     * @param req The search request.
+     */
+    void recordCardSearch(SearchReq<CardSearchFilter> req);
+
+    /**
+     * Preloads the roles and the results of the most frequent card searches, within the configured time budget.
+     *
+     * @return The number of preloaded card searches.
+     */
+    int warmUp();
+
+    /**
+     * Removes the least frequent card searches, keeping the configured number of tracked searches.
+     *
+     * @return The number of removed card searches.
+     */
+    long trimHotCardSearches();
+
+}
@@ -0,0 +1,19 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.dto.api.resp.CardAnalyticsDTO;
+
+/**
+ * This interface provides bank-wide analytics of the cards for administrators.
+ */
+public interface CardAnalyticsService {
+
+    /**
+     * Returns the aggregates of all the cards by type, status and expiration month.
+     * The aggregates are cached for a short time.
+     *
+     * @param refresh whether to recompute the aggregates even if cached ones are available
+     * @return the card aggregates along with the time they were computed at
+     */
+    CardAnalyticsDTO getCardAnalytics(boolean refresh);
+
+}
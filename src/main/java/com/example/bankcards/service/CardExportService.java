@@ -0,0 +1,27 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.dto.api.req.CardExportFormat;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * This interface provides the export of the cards for administrators.
+ */
+public interface CardExportService {
+
+    /**
+     * Writes the cards to the output stream in the given format as they are read from the database.
+     * Card numbers are masked, and statuses of the cards past their expiration date are exported as expired.
+     *
+     * @param format the export format
+     * @param ownerId the ID of the owner of the cards, or null to export the cards of all the owners
+     * @param includeDeleted whether deleted cards are exported
+     * @param gzip whether the output is compressed with gzip
+     * @param outputStream the stream to write to; it is not closed
+     * @throws IOException if writing to the stream fails
+     */
+    void exportCards(CardExportFormat format, Long ownerId, boolean includeDeleted, boolean gzip,
+                     OutputStream outputStream) throws IOException;
+
+}
@@ -0,0 +1,23 @@
+package com.example.bankcards.service;
+
+/**
+ * Service interface for re-encrypting stored card numbers with the current crypto key.
+ * <p>
+ * After the key is rotated, card numbers encrypted with previous keys are still readable,
+ * but should be moved to the current key in the background so that the previous keys can be retired.
+ * </p>
+ */
+public interface CardNumberReEncryptionService {
+
+    /**
+     * Re-encrypts card numbers that were encrypted with a previous key.
+     * <p>
+     * The cards are processed in chunks ordered by ID. The last processed ID is stored after every chunk,
+     * so the process continues from the same place after a restart.
+     * </p>
+     *
+     * @return the number of re-encrypted card numbers
+     */
+    long reEncryptCardNumbers();
+
+}
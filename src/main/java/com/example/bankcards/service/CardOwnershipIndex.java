@@ -0,0 +1,55 @@
+package com.example.bankcards.service;
+
+import java.util.NoSuchElementException;
+
+/**
+ * The {@code CardOwnershipIndex} interface defines an in-memory index of card owners,
+ * used to check the ownership of a card without a database round trip.
+ * <p>
+ * Deleted cards are not indexed. Cards missing from the index are looked up in the database once
+ * and added to it; the index may drop rarely used cards to stay within its size. Card owners never change, so an entry only has to be evicted when the card is deleted.
+ * </p>
+ */
+public interface CardOwnershipIndex {
+
+    /**
+     * Checks whether the card belongs to the user.
+     *
+     * @param cardId The ID of the card.
+     * @param ownerId The ID of the user.
+     * @return true if the card exists, is not deleted and belongs to the user.
+     */
+    boolean isOwner(long cardId, long ownerId);
+
+    /**
+     * Returns the ID of the card owner.
+     *
+     * @param cardId The ID of the card.
+     * @return The ID of the owner.
+     * @throws NoSuchElementException If the card does not exist or is deleted.
+     */
+    long getOwnerId(long cardId);
+
+    /**
+     * Adds a new card to the index.
+     *
+     * @param cardId The ID of the card.
+     * @param ownerId The ID of the owner.
+     */
+    void put(long cardId, long ownerId);
+
+    /**
+     * Removes a card from the index on this and all the other nodes of the application.
+     *
+     * @param cardId The ID of the card.
+     */
+    void evict(long cardId);
+
+    /**
+     * Loads the owners of the newest cards that are not deleted into the index, up to its maximum size.
+     *
+     * @return The number of loaded cards.
+     */
+    long load();
+
+}
@@ -1,14 +1,23 @@
 package com.example.bankcards.service;
 
 import com.example.bankcards.dto.api.req.AddCardDTO;
+import com.example.bankcards.dto.api.req.BulkCardStatusDTO;
 import com.example.bankcards.dto.api.req.SearchReq;
 import com.example.bankcards.dto.api.req.filters.CardSearchFilter;
+import com.example.bankcards.dto.api.resp.BulkCardResultDTO;
+import com.example.bankcards.dto.api.resp.BulkCardStatusResultDTO;
+import com.example.bankcards.dto.api.resp.BulkEnrollmentResultDTO;
 import com.example.bankcards.dto.api.resp.CardDTO;
+import com.example.bankcards.dto.api.resp.CardPortfolioSummaryDTO;
 import com.example.bankcards.dto.api.req.UpdateCardDTO;
 import com.example.bankcards.dto.api.resp.PageResp;
 import com.example.bankcards.entity.enums.CardStatus;
+import com.example.bankcards.exception.ProhibitedException;
 import jakarta.validation.constraints.NotNull;
 
+import java.io.InputStream;
+import java.util.List;
+
 /**
  * The {@code CardService} interface defines the contract for managing card operations.
  * Implementations of this interface provide methods for creating, updating, deleting, and retrieving card details,
@@ -25,6 +34,16 @@ public interface CardService {
      */
     Long createCard(@NotNull AddCardDTO request);
 
+    /**
+     * Creates many cards at once.
+     * Items that cannot be issued (for example, because the owner does not exist) are reported
+     * in the result and do not prevent the other cards from being issued.
+     *
+     * @param requests The details required for creating the cards.
+     * @return The result for every requested card, in the order of the requests.
+     */
+    List<BulkCardResultDTO> createCards(@NotNull List<AddCardDTO> requests);
+
     /**
      * Updates an existing card based on the provided update request details.
      *
@@ -34,6 +53,16 @@ public interface CardService {
      */
     Long updateCard(@NotNull UpdateCardDTO request);
 
+    /**
+     * Adds the amounts from a CSV stream to the balances of many cards at once.
+     * Every row contains a card ID and an amount. Rows for cards that are not active,
+     * do not exist or are malformed are rejected and reported in the result.
+     *
+     * @param csv The CSV stream without a header, encoded in UTF-8.
+     * @return The numbers of received, enrolled and rejected rows, and the rejected rows.
+     */
+    BulkEnrollmentResultDTO enrollBalances(@NotNull InputStream csv);
+
     /**
      * Deletes an existing card by its ID.
      *
@@ -53,6 +82,16 @@ public interface CardService {
      */
     Long setCardStatus(@NotNull Long id, @NotNull CardStatus status);
 
+    /**
+     * Sets the status of many cards at once, selected either by their IDs or by a search filter.
+     * Expired cards and cards that already have the status are skipped and counted in the result.
+     *
+     * @param request The status to be set and the cards to change.
+     * @return The numbers of updated and skipped cards.
+     * @throws IllegalArgumentException If neither IDs nor a filter are specified.
+     */
+    BulkCardStatusResultDTO setCardStatuses(@NotNull BulkCardStatusDTO request);
+
     /**
      * Retrieves a card by its ID.
      *
@@ -71,9 +110,38 @@ public interface CardService {
      */
     PageResp<CardDTO> getCards(@NotNull SearchReq<CardSearchFilter> req);
 
+    /**
+     * Replaces the card numbers of the filter with their blind indexes.
+     * It is called before the search request is cached or recorded, so plain card numbers are never stored.
+     *
+     * @param filter The search filter, may be {@code null}.
+     * @return The same filter, without plain card numbers.
+     */
+    CardSearchFilter hashCardNumbers(CardSearchFilter filter);
+
+    /**
+     * Retrieves the summary of the cards of a user: total balance and hold, and the number of cards by status and type.
+     *
+     * @param ownerId The ID of the user, or null for the current user.
+     * @return The summary of the cards of the user.
+     * @throws ProhibitedException If the current user is not an administrator and requests another user's summary.
+     */
+    CardPortfolioSummaryDTO getPortfolioSummary(Long ownerId);
+
     /**
      * Marks expired cards as expired.
      * This method processes all cards that have expired and marks them with an expired status.
      */
     void markExpiredCards();
+
+    /**
+     * Moves the cards deleted longer than the retention period ago, with their transfers, to the archive.
+     */
+    void archiveDeletedCards();
+
+    /**
+     * Calculates the missing blind indexes of card numbers.
+     * This method processes all cards stored before the blind index was introduced.
+     */
+    void fillMissingNumberHashes();
 }
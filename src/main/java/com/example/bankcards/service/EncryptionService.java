@@ -1,5 +1,7 @@
 package com.example.bankcards.service;
 
+import java.util.List;
+
 /**
  * Interface provides encryption and decryption functionalities.
  */
@@ -19,4 +21,45 @@ public interface EncryptionService {
      * @return The decrypted plaintext string.
      */
     String decrypt(String input);
+
+    /**
+     * Encrypts all the given input strings.
+     *
+     * @param inputs The plaintext strings to be encrypted.
+     * @return The encrypted strings in the same order as the inputs.
+     */
+    List<String> encryptAll(List<String> inputs);
+
+    /**
+     * Decrypts all the given encrypted strings.
+     *
+     * @param inputs The encrypted strings to be decrypted.
+     * @return The decrypted plaintext strings in the same order as the inputs.
+     */
+    List<String> decryptAll(List<String> inputs);
+
+    /**
+     * Returns the id of the key the given string was encrypted with.
+     *
+     * @param input The encrypted string.
+     * @return The key id.
+     */
+    String getKeyId(String input);
+
+    /**
+     * Returns the id of the key currently used for encryption.
+     *
+     * @return The current key id.
+     */
+    String getCurrentKeyId();
+
+    /**
+     * Calculates a keyed blind index for the given input string.
+     * Unlike {@link #encrypt(String)}, the result is always the same for the same input,
+     * so it can be stored in an indexed column and used for equality lookups.
+     *
+     * @param input The plaintext string to be hashed.
+     * @return The blind index as a lowercase hex string.
+     */
+    String hash(String input);
 }
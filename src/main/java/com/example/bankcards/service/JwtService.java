@@ -30,4 +30,12 @@ public interface JwtService {
      * @throws IllegalArgumentException If the provided refresh token is invalid, expired, or cannot be used to regenerate tokens.
      */
     LoggedUserRespDTO regeneratePairOfTokens(@NotBlank String refreshToken);
+
+    /**
+     * Revokes the family of the given refresh token, so neither the token nor any token issued in exchange
+     * for it can be used anymore. Tokens which cannot be parsed are ignored.
+     *
+     * @param refreshToken The refresh token whose family is revoked.
+     */
+    void revokeRefreshTokenFamily(@NotBlank String refreshToken);
 }
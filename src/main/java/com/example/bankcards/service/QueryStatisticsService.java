@@ -0,0 +1,17 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.dto.api.resp.QueryPlanCacheStatisticsDTO;
+
+/**
+ * This interface provides the statistics of the queries executed by the application.
+ */
+public interface QueryStatisticsService {
+
+    /**
+     * Returns the hit and miss counts of the Hibernate query plan cache.
+     *
+     * @return the query plan cache statistics
+     */
+    QueryPlanCacheStatisticsDTO getQueryPlanCacheStatistics();
+
+}
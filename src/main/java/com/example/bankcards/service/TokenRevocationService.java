@@ -0,0 +1,31 @@
+package com.example.bankcards.service;
+
+import java.util.Date;
+
+/**
+ * The {@code TokenRevocationService} interface defines the revocation of the access tokens of a user.
+ * <p>
+ * Every access token is checked against it, so that the tokens issued before a reused refresh token was detected
+ * stop working. When the principal is built from the claims of the access token instead of the database,
+ * it also keeps a disabled user or a user whose roles changed from using the tokens issued before.
+ * </p>
+ */
+public interface TokenRevocationService {
+
+    /**
+     * Revokes all the access tokens issued to the user until now.
+     *
+     * @param username The username of the user.
+     */
+    void revokeTokens(String username);
+
+    /**
+     * Checks whether the access token of the user is revoked.
+     *
+     * @param username The username of the user.
+     * @param issuedAt The time the token was issued at, or {@code null} if the token has no issue time.
+     * @return true if the token was issued before the tokens of the user were revoked.
+     */
+    boolean isRevoked(String username, Date issuedAt);
+
+}
@@ -0,0 +1,39 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.dto.api.resp.ArchivedTransferDTO;
+import jakarta.validation.constraints.NotNull;
+
+import java.time.YearMonth;
+import java.util.List;
+
+/**
+ * Service interface for the cold archive of settled transfers.
+ * <p>
+ * Completed and failed transfers older than the configured number of months are moved out of the database
+ * into compressed archive files, one file per chunk of transfers of a month. The files are indexed by card and month,
+ * so the statement of a card for an archived month reads only the files which contain its transfers.
+ * </p>
+ */
+public interface TransferArchiveService {
+
+    /**
+     * Moves the completed and failed transfers older than the configured number of months to the archive files
+     * and deletes them from the database.
+     *
+     * @return the number of archived transfers
+     */
+    long archiveSettledTransfers();
+
+    /**
+     * Retrieves the archived transfers from or to the given card created within the given month,
+     * including the transfers moved to the archive together with a deleted counterpart card.
+     * Users can only read the transfers of their own cards.
+     *
+     * @param cardId the ID of the card
+     * @param month the month the transfers were created in
+     * @return the archived transfers in ascending ID order
+     * @throws com.example.bankcards.exception.ProhibitedException if the card belongs to another user
+     */
+    List<ArchivedTransferDTO> getArchivedTransfers(@NotNull Long cardId, @NotNull YearMonth month);
+
+}
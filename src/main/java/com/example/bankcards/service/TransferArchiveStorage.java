@@ -0,0 +1,54 @@
+package com.example.bankcards.service;
+
+import jakarta.validation.constraints.NotNull;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * This interface provides access to the storage of the transfer archive files.
+ * <p>
+ * Every node of the application serves statement lookups from the files written by any other node,
+ * so the storage must be shared by all the nodes, e.g. a network file system or an object storage;
+ * a disk local to one node is not enough.
+ * </p>
+ */
+public interface TransferArchiveStorage {
+
+    /**
+     * Writes a file. The content is published under the path only once it is completely written,
+     * replacing a file left over by an earlier attempt that failed before the file was registered.
+     *
+     * @param path the path of the file relative to the storage root
+     * @param content the writer of the file content
+     * @throws IOException if the file cannot be written
+     */
+    void write(@NotNull String path, @NotNull ContentWriter content) throws IOException;
+
+    /**
+     * Opens a file for sequential reading.
+     *
+     * @param path the path of the file relative to the storage root
+     * @return the stream of the file content
+     * @throws IOException if the file cannot be read
+     */
+    InputStream read(@NotNull String path) throws IOException;
+
+    /**
+     * Writes the content of a file to the given stream.
+     */
+    @FunctionalInterface
+    interface ContentWriter {
+
+        /**
+         * Writes the content to the stream. The stream is closed by the storage, closing it earlier is allowed.
+         *
+         * @param out the stream of the file
+         * @throws IOException if the content cannot be written
+         */
+        void writeTo(OutputStream out) throws IOException;
+
+    }
+
+}
@@ -0,0 +1,30 @@
+package com.example.bankcards.service;
+
+/**
+ * Service interface for maintaining the monthly partitions of the transfers table.
+ * <p>
+ * Partitions for the upcoming months are created in advance, so new transfers never land in the default partition.
+ * Partitions older than the retention period are detached, so they are no longer scanned or indexed
+ * together with the current transfers.
+ * </p>
+ */
+public interface TransferPartitionService {
+
+    /**
+     * Creates the missing partitions for the current month and the configured number of months ahead.
+     *
+     * @return the number of created partitions
+     */
+    int createFuturePartitions();
+
+    /**
+     * Detaches the partitions of the months older than the retention period.
+     * <p>
+     * Partitions which still contain pending transfers are skipped until the transfers are processed.
+     * </p>
+     *
+     * @return the number of detached partitions
+     */
+    int detachExpiredPartitions();
+
+}
@@ -19,7 +19,7 @@ import org.springframework.transaction.annotation.Transactional;
  */
 @Service
 @RequiredArgsConstructor
-@Transactional(propagation = Propagation.REQUIRED)
+@Transactional(propagation = Propagation.REQUIRED, readOnly = true)
 public class AuthServiceImpl implements AuthService {
     /**
      * Service responsible for loading user details from the database.
@@ -69,4 +69,14 @@ public class AuthServiceImpl implements AuthService {
         return jwtService.regeneratePairOfTokens(refreshToken);
     }
 
-}
\ No newline at end of file
+    /**
+     * Revokes the family of the provided refresh token.
+     *
+     * @param refreshToken the refresh token of the session being closed.
+     */
+    @Override
+    public void logoutUser(String refreshToken) {
+        jwtService.revokeRefreshTokenFamily(refreshToken);
+    }
+
+}
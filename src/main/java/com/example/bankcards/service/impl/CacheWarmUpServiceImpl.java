@@ -0,0 +1,233 @@
+package com.example.bankcards.service.impl;
+
+import com.example.bankcards.config.app.AppConf;
+import com.example.bankcards.dto.api.req.SearchReq;
+import com.example.bankcards.dto.api.req.filters.CardSearchFilter;
+import com.example.bankcards.entity.User;
+import com.example.bankcards.entity.enums.RoleEnum;
+import com.example.bankcards.repository.RoleRepository;
+import com.example.bankcards.repository.UserRepository;
+import com.example.bankcards.service.CacheWarmUpService;
+import com.example.bankcards.service.CardService;
+import com.example.bankcards.util.PrincipalExtractor;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.context.SecurityContextImpl;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.stereotype.Service;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Implementation of the {@link CacheWarmUpService} interface.
+ * <p>
+ * Every member of the sorted set is a card search together with the scope it was made in:
+ * searches of administrators share one scope, searches of other users are kept per owner.
+ * During the warm-up each search is repeated on behalf of a user of its scope through the {@link CardService},
+ * so the results end up in the cache under the same keys the requests use.
+ * The searches are stored with a plain {@link ObjectMapper}, since the application one reads card types by their codes.
+ * </p>
+ * <p>
+ * Searches are sampled and counted in the background, so recording a search doesn't add a Redis round trip
+ * to the request. A sampled search is counted with the inverse of the sample rate, which keeps the scores comparable.
+ * Searches by plain card numbers are never recorded; the numbers are expected to be replaced by their blind indexes.
+ * </p>
+ */
+@Slf4j
+@Service
+public class CacheWarmUpServiceImpl implements CacheWarmUpService {
+
+    static final String HOT_CARD_SEARCHES_KEY = "cache:hot:cardsBySearch";
+
+    /**
+     * The AppConf bean.
+     *
+     * @see AppConf
+     */
+    private final AppConf appConf;
+    private final StringRedisTemplate redisTemplate;
+    /**
+     * The CardService bean.
+     *
+     * @see CardService
+     */
+    private final CardService cardService;
+    private final RoleRepository roleRepository;
+    private final UserRepository userRepository;
+    private final UserDetailsService userDetailsService;
+    private final TaskExecutor cacheRefreshExecutor;
+    private final ObjectMapper objectMapper;
+
+    public CacheWarmUpServiceImpl(AppConf appConf,
+                                  StringRedisTemplate redisTemplate,
+                                  CardService cardService,
+                                  RoleRepository roleRepository,
+                                  UserRepository userRepository,
+                                  UserDetailsService userDetailsService,
+                                  @Qualifier("cacheRefreshExecutor") TaskExecutor cacheRefreshExecutor) {
+        this.appConf = appConf;
+        this.redisTemplate = redisTemplate;
+        this.cardService = cardService;
+        this.roleRepository = roleRepository;
+        this.userRepository = userRepository;
+        this.userDetailsService = userDetailsService;
+        this.cacheRefreshExecutor = cacheRefreshExecutor;
+        this.objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+    }
+
+    @Override
+    public void recordCardSearch(SearchReq<CardSearchFilter> req) {
+        User user = PrincipalExtractor.getCurrentUser();
+
+        if (Objects.isNull(user) || Objects.isNull(req) || !appConf.isCacheWarmUpEnabled() || hasPlainNumbers(req)) {
+            return;
+        }
+
+        double sampleRate = appConf.getCacheWarmUpSampleRate();
+        if (sampleRate < 1.0 && ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+            return;
+        }
+
+        try {
+            String member = objectMapper.writeValueAsString(new HotCardSearch(user.isAdmin() ? null : user.getId(), req));
+            double increment = sampleRate < 1.0 ? 1.0 / sampleRate : 1.0;
+            cacheRefreshExecutor.execute(() -> incrementScore(member, increment));
+        } catch (TaskRejectedException e) {
+            log.debug("Card search not recorded, the executor is busy");
+        } catch (Exception e) {
+            log.warn("Failed to record card search: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public int warmUp() {
+        if (!appConf.isCacheWarmUpEnabled()) {
+            return 0;
+        }
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(appConf.getCacheWarmUpTimeoutSeconds());
+
+        for (RoleEnum role : RoleEnum.values()) {
+            roleRepository.getByRole(role);
+        }
+
+        Set<String> members = redisTemplate.opsForZSet()
+                .reverseRange(HOT_CARD_SEARCHES_KEY, 0, appConf.getCacheWarmUpMaxKeys() - 1L);
+
+        if (Objects.isNull(members) || members.isEmpty()) {
+            return 0;
+        }
+
+        Map<Long, Optional<User>> principals = new HashMap<>();
+        int warmed = 0;
+
+        try {
+            for (String member : members) {
+                if (System.nanoTime() > deadline) {
+                    log.warn("Cache warm-up stopped after {} of {} card searches, the time budget is exhausted",
+                            warmed, members.size());
+                    break;
+                }
+
+                if (warmUpCardSearch(member, principals)) {
+                    warmed++;
+                }
+            }
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+
+        log.info("Warmed up {} of {} card searches", warmed, members.size());
+        return warmed;
+    }
+
+    @Override
+    public long trimHotCardSearches() {
+        Long removed = redisTemplate.opsForZSet()
+                .removeRange(HOT_CARD_SEARCHES_KEY, 0, -appConf.getCacheWarmUpTrackedKeys() - 1L);
+
+        return Objects.isNull(removed) ? 0 : removed;
+    }
+
+    private void incrementScore(String member, double increment) {
+        try {
+            redisTemplate.opsForZSet().incrementScore(HOT_CARD_SEARCHES_KEY, member, increment);
+        } catch (Exception e) {
+            log.warn("Failed to record card search: {}", e.getMessage());
+        }
+    }
+
+    private static boolean hasPlainNumbers(SearchReq<CardSearchFilter> req) {
+        return Objects.nonNull(req.getFilter()) && Objects.nonNull(req.getFilter().getNumber())
+                && !req.getFilter().getNumber().isEmpty();
+    }
+
+    /**
+     * Repeats the card search on behalf of a user of its scope. Searches whose scope has no user anymore are removed.
+     *
+     * @param member the member of the sorted set describing the search
+     * @param principals the users already loaded for the scopes
+     * @return {@code true} if the search results were loaded
+     */
+    private boolean warmUpCardSearch(String member, Map<Long, Optional<User>> principals) {
+        try {
+            HotCardSearch search = objectMapper.readValue(member, HotCardSearch.class);
+            Optional<User> principal = principals.computeIfAbsent(search.ownerId(), this::loadPrincipal);
+
+            if (principal.isEmpty()) {
+                redisTemplate.opsForZSet().remove(HOT_CARD_SEARCHES_KEY, member);
+                return false;
+            }
+
+            User user = principal.get();
+            SecurityContextHolder.setContext(new SecurityContextImpl(
+                    UsernamePasswordAuthenticationToken.authenticated(user, null, user.getAuthorities())));
+            cardService.getCards(search.request());
+            return true;
+        } catch (JsonProcessingException e) {
+            redisTemplate.opsForZSet().remove(HOT_CARD_SEARCHES_KEY, member);
+            return false;
+        } catch (Exception e) {
+            log.warn("Failed to warm up card search {}: {}", member, e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Loads a user of the scope, any administrator for the shared administrator scope.
+     *
+     * @param ownerId the ID of the owner, or {@code null} for the administrator scope
+     * @return the user with initialized roles, or empty if the scope has no user
+     */
+    private Optional<User> loadPrincipal(Long ownerId) {
+        Optional<User> user = Objects.isNull(ownerId)
+                ? userRepository.findFirstByRoleSet_Role(RoleEnum.ROLE_ADMIN)
+                : userRepository.findById(ownerId);
+
+        return user.map(u -> (User) userDetailsService.loadUserByUsername(u.getUsername()));
+    }
+
+    /**
+     * A card search counted in the sorted set.
+     *
+     * @param ownerId the ID of the user who searched, or {@code null} if an administrator searched
+     * @param request the search request
+     */
+    record HotCardSearch(Long ownerId, SearchReq<CardSearchFilter> request) {
+    }
+
+}
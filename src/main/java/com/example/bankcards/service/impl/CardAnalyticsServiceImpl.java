@@ -0,0 +1,256 @@
+package com.example.bankcards.service.impl;
+
+import com.example.bankcards.config.app.AppConf;
+import com.example.bankcards.dto.api.resp.CardAggregateDTO;
+import com.example.bankcards.dto.api.resp.CardAnalyticsDTO;
+import com.example.bankcards.entity.enums.CardStatus;
+import com.example.bankcards.entity.enums.CardType;
+import com.example.bankcards.repository.CardAnalyticsRepository;
+import com.example.bankcards.service.CardAnalyticsService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+
+/**
+ * Implementation of the {@link CardAnalyticsService} interface.
+ * <p>
+ * The card ID space is split into ranges of the configured size. Every range is aggregated by a separate query
+ * on the bounded analytics executor, and the partial aggregates are merged once all the ranges are done.
+ * The ranges are read in separate transactions, so the result is not a snapshot of a single point in time;
+ * it is cached for a short time and reports when it was computed.
+ * </p>
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CardAnalyticsServiceImpl implements CardAnalyticsService {
+
+    private static final String CARD_ANALYTICS_CACHE = "cardAnalytics";
+
+    private static final String CARD_ANALYTICS_KEY = "all";
+
+    /**
+     * The AppConf bean.
+     *
+     * @see AppConf
+     */
+    private final AppConf appConf;
+
+    /**
+     * The CardAnalyticsRepository bean.
+     *
+     * @see CardAnalyticsRepository
+     */
+    private final CardAnalyticsRepository cardAnalyticsRepository;
+
+    private final CacheManager cacheManager;
+
+    @Qualifier("cardAnalyticsExecutor")
+    private final ThreadPoolTaskExecutor cardAnalyticsExecutor;
+
+    @Override
+    public CardAnalyticsDTO getCardAnalytics(boolean refresh) {
+        Cache cache = cacheManager.getCache(CARD_ANALYTICS_CACHE);
+        CardAnalyticsDTO analytics = refresh || cache == null ? null : cache.get(CARD_ANALYTICS_KEY, CardAnalyticsDTO.class);
+
+        if (analytics == null) {
+            analytics = computeAnalytics();
+            if (cache != null) {
+                cache.put(CARD_ANALYTICS_KEY, analytics);
+            }
+        }
+
+        analytics.setAgeSeconds(Duration.between(analytics.getComputedAt(), LocalDateTime.now()).toSeconds());
+        return analytics;
+    }
+
+    /**
+     * Aggregates all the card ID ranges in parallel and merges the partial aggregates.
+     *
+     * @return the card aggregates
+     * @throws IllegalStateException if a range fails or the ranges are not aggregated within the configured timeout
+     */
+    private CardAnalyticsDTO computeAnalytics() {
+        LocalDateTime computedAt = LocalDateTime.now();
+        long startedAt = System.nanoTime();
+        long deadline = startedAt + TimeUnit.SECONDS.toNanos(appConf.getCardAnalyticsTimeoutSeconds());
+
+        List<CardAnalyticsRepository.IdRange> ranges = cardAnalyticsRepository.findIdRange()
+                .map(this::splitIdRange)
+                .orElse(List.of());
+
+        List<CompletableFuture<Aggregates>> partials = ranges.stream()
+                .map(range -> CompletableFuture.supplyAsync(
+                        () -> Aggregates.of(cardAnalyticsRepository.aggregate(range.fromId(), range.toId(),
+                                remainingSeconds(deadline))),
+                        cardAnalyticsExecutor))
+                .toList();
+
+        try {
+            CompletableFuture.allOf(partials.toArray(CompletableFuture[]::new))
+                    .get(appConf.getCardAnalyticsTimeoutSeconds(), TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            partials.forEach(partial -> partial.cancel(true));
+            throw new IllegalStateException("Card analytics interrupted", e);
+        } catch (ExecutionException e) {
+            partials.forEach(partial -> partial.cancel(true));
+            throw new IllegalStateException("Card analytics failed", e.getCause());
+        } catch (TimeoutException e) {
+            partials.forEach(partial -> partial.cancel(true));
+            throw new IllegalStateException("Card analytics timed out", e);
+        }
+
+        Aggregates merged = partials.stream()
+                .map(CompletableFuture::join)
+                .reduce(new Aggregates(), Aggregates::merge);
+
+        log.info("Aggregated {} card ID ranges in {} ms", ranges.size(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt));
+
+        return merged.toDto(ranges.size(), computedAt);
+    }
+
+    /**
+     * Returns the whole seconds left until the deadline, used as the statement timeout of a range query,
+     * since cancelling a future does not stop a running JDBC statement.
+     *
+     * @param deadline the {@link System#nanoTime()} by which all the ranges must be aggregated
+     * @return the seconds left, rounded up
+     * @throws IllegalStateException if the deadline has passed before the range query started
+     */
+    private static int remainingSeconds(long deadline) {
+        long remaining = deadline - System.nanoTime();
+
+        if (remaining <= 0) {
+            throw new IllegalStateException("Card analytics timed out before the range was aggregated");
+        }
+
+        return (int) Math.min(Integer.MAX_VALUE, (remaining + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+    }
+
+    /**
+     * Splits the card ID range into ranges of the configured size.
+     *
+     * @param idRange the range of all the card IDs
+     * @return the ranges in ascending order
+     */
+    private List<CardAnalyticsRepository.IdRange> splitIdRange(CardAnalyticsRepository.IdRange idRange) {
+        long rangeSize = Math.max(1, appConf.getCardAnalyticsRangeSize());
+        List<CardAnalyticsRepository.IdRange> ranges = new ArrayList<>();
+
+        for (long fromId = idRange.fromId(); fromId <= idRange.toId(); fromId += rangeSize) {
+            ranges.add(new CardAnalyticsRepository.IdRange(fromId, Math.min(idRange.toId(), fromId + rangeSize - 1)));
+        }
+
+        return ranges;
+    }
+
+    /**
+     * The aggregates of a single range, or of several ranges once merged. Confined to a single thread at a time.
+     */
+    private static final class Aggregates {
+
+        private final Aggregate total = new Aggregate();
+
+        private final Map<CardType, Aggregate> byType = new EnumMap<>(CardType.class);
+
+        private final Map<CardStatus, Aggregate> byStatus = new EnumMap<>(CardStatus.class);
+
+        private final Map<YearMonth, Aggregate> byExpirationMonth = new TreeMap<>();
+
+        private static Aggregates of(List<CardAnalyticsRepository.Bucket> buckets) {
+            Aggregates aggregates = new Aggregates();
+
+            for (CardAnalyticsRepository.Bucket bucket : buckets) {
+                Aggregate aggregate = new Aggregate(bucket.cardCount(), bucket.totalBalance(), bucket.totalHold());
+                aggregates.total.add(aggregate);
+                aggregates.byType.computeIfAbsent(bucket.type(), key -> new Aggregate()).add(aggregate);
+                aggregates.byStatus.computeIfAbsent(bucket.status(), key -> new Aggregate()).add(aggregate);
+                aggregates.byExpirationMonth.computeIfAbsent(bucket.expirationMonth(), key -> new Aggregate()).add(aggregate);
+            }
+
+            return aggregates;
+        }
+
+        private Aggregates merge(Aggregates other) {
+            total.add(other.total);
+            other.byType.forEach((key, aggregate) -> byType.computeIfAbsent(key, k -> new Aggregate()).add(aggregate));
+            other.byStatus.forEach((key, aggregate) -> byStatus.computeIfAbsent(key, k -> new Aggregate()).add(aggregate));
+            other.byExpirationMonth.forEach((key, aggregate) ->
+                    byExpirationMonth.computeIfAbsent(key, k -> new Aggregate()).add(aggregate));
+            return this;
+        }
+
+        private CardAnalyticsDTO toDto(int ranges, LocalDateTime computedAt) {
+            return CardAnalyticsDTO.builder()
+                    .total(total.toDto())
+                    .byType(toDtos(byType, Function.identity()))
+                    .byStatus(toDtos(byStatus, Function.identity()))
+                    .byExpirationMonth(toDtos(byExpirationMonth, YearMonth::toString))
+                    .ranges(ranges)
+                    .computedAt(computedAt)
+                    .build();
+        }
+
+        private static <K, T> Map<T, CardAggregateDTO> toDtos(Map<K, Aggregate> aggregates, Function<K, T> keyMapper) {
+            Map<T, CardAggregateDTO> result = new LinkedHashMap<>();
+            aggregates.forEach((key, aggregate) -> result.put(keyMapper.apply(key), aggregate.toDto()));
+            return result;
+        }
+
+    }
+
+    /**
+     * The number of cards and their total balance and hold.
+     */
+    private static final class Aggregate {
+
+        private long cardCount;
+
+        private BigDecimal totalBalance = BigDecimal.ZERO;
+
+        private BigDecimal totalHold = BigDecimal.ZERO;
+
+        private Aggregate() {
+        }
+
+        private Aggregate(long cardCount, BigDecimal totalBalance, BigDecimal totalHold) {
+            this.cardCount = cardCount;
+            this.totalBalance = totalBalance;
+            this.totalHold = totalHold;
+        }
+
+        private void add(Aggregate other) {
+            cardCount += other.cardCount;
+            totalBalance = totalBalance.add(other.totalBalance);
+            totalHold = totalHold.add(other.totalHold);
+        }
+
+        private CardAggregateDTO toDto() {
+            return new CardAggregateDTO(cardCount, totalBalance, totalHold);
+        }
+
+    }
+
+}
@@ -0,0 +1,171 @@
+package com.example.bankcards.service.impl;
+
+import com.example.bankcards.config.app.AppConf;
+import com.example.bankcards.dto.api.req.CardExportFormat;
+import com.example.bankcards.dto.api.resp.CardDTO;
+import com.example.bankcards.entity.enums.CardType;
+import com.example.bankcards.repository.CardExportRepository;
+import com.example.bankcards.service.CardExportService;
+import com.example.bankcards.service.EncryptionService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Implementation of the {@link CardExportService} interface.
+ * <p>
+ * The cards are read chunk by chunk from a database cursor, the numbers of a chunk are decrypted with a single cipher,
+ * and every chunk is written and flushed to the output before the next one is fetched, so the memory use
+ * does not depend on the number of exported cards.
+ * </p>
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CardExportServiceImpl implements CardExportService {
+
+    private static final String ENCRYPTED_PREFIX = "ENC:";
+
+    private static final String CSV_HEADER = "id,cardTypeCode,numberMask,expiration,status,balance,hold,ownerId";
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * The AppConf bean.
+     *
+     * @see AppConf
+     */
+    private final AppConf appConf;
+
+    /**
+     * The CardExportRepository bean.
+     *
+     * @see CardExportRepository
+     */
+    private final CardExportRepository cardExportRepository;
+
+    /**
+     * The EncryptionService bean.
+     *
+     * @see EncryptionService
+     */
+    private final EncryptionService encryptionService;
+
+    private final ObjectMapper objectMapper;
+
+    @Transactional(readOnly = true)
+    @Override
+    public void exportCards(CardExportFormat format, Long ownerId, boolean includeDeleted, boolean gzip,
+                            OutputStream outputStream) throws IOException {
+        GZIPOutputStream gzipStream = gzip ? new GZIPOutputStream(outputStream, BUFFER_SIZE, true) : null;
+        Writer writer = new BufferedWriter(new OutputStreamWriter(gzip ? gzipStream : outputStream,
+                StandardCharsets.UTF_8), BUFFER_SIZE);
+        ObjectWriter jsonWriter = objectMapper.writerFor(CardDTO.class);
+        long[] exported = {0};
+
+        if (format == CardExportFormat.CSV) {
+            writer.write(CSV_HEADER);
+            writer.write('\n');
+        }
+
+        try {
+            cardExportRepository.forEachChunk(ownerId, includeDeleted, appConf.getCardExportFetchSize(), chunk -> {
+                try {
+                    for (CardDTO card : toDtos(chunk)) {
+                        if (format == CardExportFormat.CSV) {
+                            writeCsv(writer, card);
+                        } else {
+                            writer.write(jsonWriter.writeValueAsString(card));
+                            writer.write('\n');
+                        }
+                    }
+                    writer.flush();
+                    exported[0] += chunk.size();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            log.warn("Card export aborted after {} cards: {}", exported[0], e.getMessage());
+            throw e.getCause();
+        }
+
+        writer.flush();
+        if (gzip) {
+            gzipStream.finish();
+        }
+
+        log.info("Exported {} cards as {}", exported[0], format);
+    }
+
+    /**
+     * Converts a chunk of stored cards to DTOs with masked numbers.
+     *
+     * @param chunk the stored cards
+     * @return the DTOs in the same order
+     */
+    private List<CardDTO> toDtos(List<CardExportRepository.CardRow> chunk) {
+        List<String> numbers = encryptionService.decryptAll(chunk.stream()
+                .map(row -> row.encryptedNumber().startsWith(ENCRYPTED_PREFIX)
+                        ? row.encryptedNumber().substring(ENCRYPTED_PREFIX.length())
+                        : row.encryptedNumber())
+                .toList());
+
+        List<CardDTO> cards = new ArrayList<>(chunk.size());
+        for (int i = 0; i < chunk.size(); i++) {
+            CardExportRepository.CardRow row = chunk.get(i);
+            cards.add(CardDTO.builder()
+                    .id(row.id())
+                    .cardTypeCode(row.type().getTypeCode())
+                    .numberMask(CardType.generateCardMask(numbers.get(i)))
+                    .expiration(row.expiration())
+                    .status(row.status())
+                    .balance(row.balance())
+                    .hold(row.hold())
+                    .ownerId(row.ownerId())
+                    .build());
+        }
+        return cards;
+    }
+
+    /**
+     * Writes a card as a CSV line. None of the values can contain a comma or a quote, so they are not quoted.
+     *
+     * @param writer the writer
+     * @param card the card
+     * @throws IOException if writing fails
+     */
+    private static void writeCsv(Writer writer, CardDTO card) throws IOException {
+        writer.write(String.valueOf(card.getId()));
+        writer.write(',');
+        writer.write(String.valueOf(card.getCardTypeCode()));
+        writer.write(',');
+        writer.write(card.getNumberMask());
+        writer.write(',');
+        writer.write(card.getExpiration().toString());
+        writer.write(',');
+        writer.write(card.getStatus().name());
+        writer.write(',');
+        writer.write(card.getBalance().toPlainString());
+        writer.write(',');
+        writer.write(card.getHold().toPlainString());
+        writer.write(',');
+        writer.write(String.valueOf(card.getOwnerId()));
+        writer.write('\n');
+    }
+
+}
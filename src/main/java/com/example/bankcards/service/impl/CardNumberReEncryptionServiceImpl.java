@@ -0,0 +1,155 @@
+package com.example.bankcards.service.impl;
+
+import com.example.bankcards.config.crypto.CryptoConfig;
+import com.example.bankcards.service.CardNumberReEncryptionService;
+import com.example.bankcards.service.EncryptionService;
+import com.example.bankcards.util.Throttling;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Implementation of the {@link CardNumberReEncryptionService} interface.
+ * <p>
+ * Card numbers are read and written with plain JDBC, bypassing the entity listener, so that a chunk
+ * is decrypted and encrypted with a single cipher and written with a single batch update.
+ * Card numbers stored in plain text are encrypted with the current key as well.
+ * Each chunk runs in its own transaction which holds a lock on the progress row of the current key,
+ * so only one node processes the cards at a time. The throughput is limited by the configured
+ * rows-per-second budget to keep the load on the database predictable.
+ * </p>
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CardNumberReEncryptionServiceImpl implements CardNumberReEncryptionService {
+
+    private static final String ENCRYPTED_PREFIX = "ENC:";
+
+    /**
+     * The CryptoConfig bean.
+     *
+     * @see CryptoConfig
+     */
+    private final CryptoConfig cryptoConfig;
+    /**
+     * The EncryptionService bean.
+     *
+     * @see EncryptionService
+     */
+    private final EncryptionService encryptionService;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * Re-encrypts card numbers that were encrypted with a previous key, chunk by chunk,
+     * until all the cards are processed. Does nothing if re-encryption is disabled.
+     *
+     * @return the number of re-encrypted card numbers
+     */
+    @Override
+    public long reEncryptCardNumbers() {
+        if (!cryptoConfig.isReEncryptionEnabled()) {
+            return 0;
+        }
+
+        String keyId = encryptionService.getCurrentKeyId();
+        jdbcTemplate.update("INSERT INTO card_reencryption_progress (key_id, last_card_id, updated_at) " +
+                "VALUES (?, 0, now()) ON CONFLICT (key_id) DO NOTHING", keyId);
+
+        long startedAt = System.nanoTime();
+        long reEncrypted = 0;
+        int processed;
+
+        do {
+            processed = Objects.requireNonNull(transactionTemplate.execute(status -> processChunk(keyId)));
+            reEncrypted += processed;
+            Throttling.throttle(startedAt, reEncrypted, cryptoConfig.getReEncryptionRowsPerSecond());
+        } while (processed > 0);
+
+        if (reEncrypted > 0) {
+            log.info("Re-encrypted {} card numbers with key {}", reEncrypted, keyId);
+        }
+
+        return reEncrypted;
+    }
+
+    /**
+     * Re-encrypts the next chunk of card numbers after the stored progress and moves the progress forward.
+     *
+     * @param keyId the id of the current key
+     * @return the number of re-encrypted card numbers, or 0 if there is nothing left to process
+     */
+    private int processChunk(String keyId) {
+        List<Long> progress = jdbcTemplate.queryForList("SELECT last_card_id FROM card_reencryption_progress " +
+                "WHERE key_id = ? AND completed_at IS NULL FOR UPDATE", Long.class, keyId);
+
+        if (progress.isEmpty()) {
+            return 0;
+        }
+
+        Long lastCardId = progress.get(0);
+
+        List<Long> ids = new ArrayList<>();
+        List<String> numbers = new ArrayList<>();
+        jdbcTemplate.query("SELECT id, number FROM cards WHERE id > ? AND number NOT LIKE ? ORDER BY id LIMIT ?",
+                rs -> {
+                    ids.add(rs.getLong("id"));
+                    numbers.add(rs.getString("number"));
+                },
+                lastCardId, ENCRYPTED_PREFIX + keyId + ":%", cryptoConfig.getReEncryptionChunkSize());
+
+        if (ids.isEmpty()) {
+            jdbcTemplate.update("UPDATE card_reencryption_progress SET completed_at = now(), updated_at = now() " +
+                    "WHERE key_id = ?", keyId);
+            return 0;
+        }
+
+        List<String> plainNumbers = decryptAll(numbers);
+        List<String> encryptedNumbers = encryptionService.encryptAll(plainNumbers);
+
+        List<Object[]> batch = new ArrayList<>(ids.size());
+        for (int i = 0; i < ids.size(); i++) {
+            batch.add(new Object[]{ENCRYPTED_PREFIX + encryptedNumbers.get(i), ids.get(i), numbers.get(i)});
+        }
+        jdbcTemplate.batchUpdate("UPDATE cards SET number = ? WHERE id = ? AND number = ?", batch);
+
+        jdbcTemplate.update("UPDATE card_reencryption_progress SET last_card_id = ?, updated_at = now() " +
+                "WHERE key_id = ?", ids.get(ids.size() - 1), keyId);
+
+        return ids.size();
+    }
+
+    /**
+     * Decrypts the encrypted card numbers of the chunk. Card numbers that were stored before encryption
+     * was enabled have no prefix and are returned as is, so they are encrypted with the current key.
+     *
+     * @param numbers the stored card numbers
+     * @return the plain card numbers in the same order
+     */
+    private List<String> decryptAll(List<String> numbers) {
+        List<Integer> encryptedIndexes = new ArrayList<>();
+        List<String> encryptedNumbers = new ArrayList<>();
+        for (int i = 0; i < numbers.size(); i++) {
+            if (numbers.get(i).startsWith(ENCRYPTED_PREFIX)) {
+                encryptedIndexes.add(i);
+                encryptedNumbers.add(numbers.get(i).substring(ENCRYPTED_PREFIX.length()));
+            }
+        }
+
+        List<String> plainNumbers = new ArrayList<>(numbers);
+        List<String> decryptedNumbers = encryptionService.decryptAll(encryptedNumbers);
+        for (int i = 0; i < encryptedIndexes.size(); i++) {
+            plainNumbers.set(encryptedIndexes.get(i), decryptedNumbers.get(i));
+        }
+
+        return plainNumbers;
+    }
+
+}
@@ -0,0 +1,319 @@
+package com.example.bankcards.service.impl;
+
+import com.example.bankcards.config.app.AppConf;
+import com.example.bankcards.config.queues.QueuesConf;
+import com.example.bankcards.service.CardOwnershipIndex;
+import it.unimi.dsi.fastutil.longs.Long2LongLinkedOpenHashMap;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Implementation of the {@link CardOwnershipIndex} interface.
+ * <p>
+ * Owners are stored in a primitive {@link Long2LongLinkedOpenHashMap}, so a lookup neither boxes the IDs
+ * nor allocates map entries. The map is guarded by a {@link StampedLock}, whose uncontended read lock
+ * does not allocate either.
+ * </p>
+ * <p>
+ * The index is bounded: once it holds the configured maximum number of cards, the least recently used card
+ * is dropped for every new one. A hit moves the card to the most recently used end only when the read lock
+ * can be upgraded without waiting, so lookups never block each other to maintain the order. Cards that were
+ * not found are remembered for a short time, so repeated lookups of a missing card do not reach the database.
+ * A card created on another node during that time is reported as missing until the miss expires.
+ * </p>
+ * <p>
+ * Evictions are published to a Redis topic and applied by every node. A card that is looked up
+ * in the database while it is being evicted is not added to the index, so a deleted card cannot
+ * be brought back by a concurrent lookup.
+ * </p>
+ */
+@Slf4j
+@Service
+public class CardOwnershipIndexImpl implements CardOwnershipIndex, MessageListener {
+
+    private static final long NO_OWNER = 0L;
+
+    private static final int LOAD_CHUNK_SIZE = 10000;
+
+    private final Long2LongLinkedOpenHashMap owners = new Long2LongLinkedOpenHashMap();
+
+    /**
+     * Cards that were not found, mapped to the {@link System#nanoTime()} until which they are treated as missing.
+     */
+    private final Long2LongLinkedOpenHashMap misses = new Long2LongLinkedOpenHashMap();
+
+    private final StampedLock lock = new StampedLock();
+
+    /**
+     * Number of evictions applied so far, guarded by {@link #lock}.
+     */
+    private long evictions;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final StringRedisTemplate redisTemplate;
+
+    private final String topicName;
+
+    private final int maxSize;
+
+    private final long missTtlNanos;
+
+    /**
+     * Constructor that initializes the index and subscribes it to the invalidation topic.
+     *
+     * @param jdbcTemplate The JdbcTemplate used to look up the cards missing from the index.
+     * @param redisTemplate The StringRedisTemplate used to publish evictions.
+     * @param listenerContainer The container delivering evictions published by the other nodes.
+     * @param queuesConf The configuration holding the name of the invalidation topic.
+     * @param appConf The configuration holding the maximum size of the index and the lifetime of a miss.
+     */
+    public CardOwnershipIndexImpl(JdbcTemplate jdbcTemplate,
+                                  StringRedisTemplate redisTemplate,
+                                  RedisMessageListenerContainer listenerContainer,
+                                  QueuesConf queuesConf,
+                                  AppConf appConf) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.redisTemplate = redisTemplate;
+        this.topicName = queuesConf.getCardOwnershipInvalidationTopic();
+        this.maxSize = appConf.getCardOwnershipIndexMaxSize();
+        this.missTtlNanos = TimeUnit.MILLISECONDS.toNanos(appConf.getCardOwnershipIndexMissTtlMillis());
+        this.owners.defaultReturnValue(NO_OWNER);
+        this.misses.defaultReturnValue(0L);
+        listenerContainer.addMessageListener(this, new ChannelTopic(topicName));
+    }
+
+    @Override
+    public boolean isOwner(long cardId, long ownerId) {
+        return ownerId != NO_OWNER && find(cardId) == ownerId;
+    }
+
+    @Override
+    public long getOwnerId(long cardId) {
+        long ownerId = find(cardId);
+
+        if (ownerId == NO_OWNER) {
+            throw new NoSuchElementException("Card not found! Id: " + cardId);
+        }
+
+        return ownerId;
+    }
+
+    @Override
+    public void put(long cardId, long ownerId) {
+        long stamp = lock.writeLock();
+        try {
+            misses.remove(cardId);
+            store(cardId, ownerId);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public void evict(long cardId) {
+        remove(cardId);
+
+        try {
+            redisTemplate.convertAndSend(topicName, Long.toString(cardId));
+        } catch (Exception e) {
+            log.error("Failed to publish card ownership eviction. Card id: {}", cardId, e);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The cards are read in chunks from the newest to the oldest, and no more than the maximum size
+     * of the index are read. A chunk read while a card was evicted is skipped, its cards are added
+     * to the index on their first lookup instead.
+     * </p>
+     */
+    @Override
+    public long load() {
+        long loaded = 0;
+        long lastCardId = Long.MAX_VALUE;
+        List<long[]> chunk;
+
+        do {
+            int limit = (int) Math.min(LOAD_CHUNK_SIZE, maxSize - loaded);
+            long version = currentEvictions();
+            chunk = jdbcTemplate.query("SELECT id, owner_id FROM cards WHERE id < ? AND is_deleted = false " +
+                            "ORDER BY id DESC LIMIT ?",
+                    (rs, rowNum) -> new long[]{rs.getLong("id"), rs.getLong("owner_id")},
+                    lastCardId, limit);
+
+            long stamp = lock.writeLock();
+            try {
+                if (evictions == version) {
+                    for (long[] card : chunk) {
+                        if (!owners.containsKey(card[0])) {
+                            owners.putAndMoveToFirst(card[0], card[1]);
+                        }
+                    }
+                    trim();
+                }
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+
+            loaded += chunk.size();
+            if (!chunk.isEmpty()) {
+                lastCardId = chunk.get(chunk.size() - 1)[0];
+            }
+        } while (chunk.size() == LOAD_CHUNK_SIZE && loaded < maxSize);
+
+        log.info("Card ownership index loaded: {} cards", loaded);
+        return loaded;
+    }
+
+    /**
+     * Removes the card evicted on another node from the local index.
+     *
+     * @param message The message containing the ID of the card.
+     * @param pattern The channel pattern, not used.
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        try {
+            remove(Long.parseLong(new String(message.getBody(), StandardCharsets.UTF_8)));
+        } catch (NumberFormatException e) {
+            log.error("Invalid card ownership eviction message: {}", message, e);
+        }
+    }
+
+    /**
+     * Returns the owner of the card from the index, or looks it up in the database if the card is not indexed.
+     *
+     * @param cardId The ID of the card.
+     * @return The ID of the owner, or {@link #NO_OWNER} if the card does not exist or is deleted.
+     */
+    private long find(long cardId) {
+        long ownerId;
+        long missedUntil;
+        long version;
+
+        long stamp = lock.readLock();
+        try {
+            ownerId = owners.get(cardId);
+            missedUntil = ownerId == NO_OWNER ? misses.get(cardId) : 0L;
+            version = evictions;
+
+            if (ownerId != NO_OWNER) {
+                long writeStamp = lock.tryConvertToWriteLock(stamp);
+                if (writeStamp != 0L) {
+                    stamp = writeStamp;
+                    owners.getAndMoveToLast(cardId);
+                }
+            }
+        } finally {
+            lock.unlock(stamp);
+        }
+
+        if (ownerId != NO_OWNER) {
+            return ownerId;
+        }
+
+        if (missedUntil != 0L && System.nanoTime() - missedUntil < 0) {
+            return NO_OWNER;
+        }
+
+        List<Long> found = jdbcTemplate.queryForList("SELECT owner_id FROM cards WHERE id = ? AND is_deleted = false",
+                Long.class, cardId);
+        ownerId = found.isEmpty() ? NO_OWNER : found.get(0);
+
+        stamp = lock.writeLock();
+        try {
+            if (ownerId == NO_OWNER) {
+                rememberMiss(cardId);
+            } else if (evictions == version) {
+                misses.remove(cardId);
+                store(cardId, ownerId);
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+
+        return ownerId;
+    }
+
+    /**
+     * Adds the card to the most recently used end of the index and drops the least recently used cards
+     * above the maximum size. Must be called under the write lock.
+     *
+     * @param cardId The ID of the card.
+     * @param ownerId The ID of the owner.
+     */
+    private void store(long cardId, long ownerId) {
+        owners.putAndMoveToLast(cardId, ownerId);
+        trim();
+    }
+
+    /**
+     * Drops the least recently used cards above the maximum size. Must be called under the write lock.
+     */
+    private void trim() {
+        while (owners.size() > maxSize) {
+            owners.removeFirstLong();
+        }
+    }
+
+    /**
+     * Remembers that the card was not found, dropping the oldest misses above the maximum size.
+     * Must be called under the write lock.
+     *
+     * @param cardId The ID of the card.
+     */
+    private void rememberMiss(long cardId) {
+        if (missTtlNanos <= 0) {
+            return;
+        }
+
+        misses.putAndMoveToLast(cardId, System.nanoTime() + missTtlNanos);
+        while (misses.size() > maxSize) {
+            misses.removeFirstLong();
+        }
+    }
+
+    /**
+     * Removes the card from the local index.
+     *
+     * @param cardId The ID of the card.
+     */
+    private void remove(long cardId) {
+        long stamp = lock.writeLock();
+        try {
+            owners.remove(cardId);
+            evictions++;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Returns the number of evictions applied so far.
+     *
+     * @return The number of evictions.
+     */
+    private long currentEvictions() {
+        long stamp = lock.readLock();
+        try {
+            return evictions;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+}
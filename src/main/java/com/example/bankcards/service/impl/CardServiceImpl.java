@@ -3,42 +3,72 @@ package com.example.bankcards.service.impl;
 import com.example.bankcards.config.app.AppConf;
 import com.example.bankcards.dto.api.crypto.EncryptedCardNumber;
 import com.example.bankcards.dto.api.req.AddCardDTO;
+import com.example.bankcards.dto.api.req.BulkCardStatusDTO;
 import com.example.bankcards.dto.api.req.EnrollDTO;
 import com.example.bankcards.dto.api.req.SearchReq;
 import com.example.bankcards.dto.api.req.UpdateCardDTO;
 import com.example.bankcards.dto.api.req.filters.CardSearchFilter;
+import com.example.bankcards.dto.api.resp.BulkCardResultDTO;
+import com.example.bankcards.dto.api.resp.BulkCardStatusResultDTO;
+import com.example.bankcards.dto.api.resp.BulkEnrollmentResultDTO;
 import com.example.bankcards.dto.api.resp.CardDTO;
+import com.example.bankcards.dto.api.resp.CardPortfolioSummaryDTO;
 import com.example.bankcards.dto.api.resp.PageResp;
 import com.example.bankcards.dto.mappers.CardMapper;
 import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.Card_;
 import com.example.bankcards.entity.User;
 import com.example.bankcards.entity.enums.CardStatus;
 import com.example.bankcards.entity.enums.CardType;
 import com.example.bankcards.exception.ProhibitedException;
 import com.example.bankcards.exception.UserNotFoundException;
+import com.example.bankcards.events.Events;
+import com.example.bankcards.repository.CardBulkRepository;
+import com.example.bankcards.repository.CardNumberCounterRepository;
+import com.example.bankcards.repository.CardPortfolioSummaryRepository;
 import com.example.bankcards.repository.CardRepository;
 import com.example.bankcards.repository.UserRepository;
 import com.example.bankcards.repository.impl.spec.CardSpecification;
+import com.example.bankcards.service.CardOwnershipIndex;
 import com.example.bankcards.service.CardService;
 import com.example.bankcards.service.EncryptionService;
 import com.example.bankcards.util.PrincipalExtractor;
+import com.example.bankcards.util.Throttling;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
 import jakarta.validation.constraints.NotNull;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.NestedExceptionUtils;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.retry.annotation.Backoff;
 import org.springframework.retry.annotation.Retryable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.io.BufferedReader;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
-import java.util.Objects;
-import java.util.Optional;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static com.example.bankcards.util.Constants.USER_NOT_FOUND;
 
 /**
  * Implementation of the {@link CardService} interface.
@@ -48,6 +78,15 @@ import java.util.Optional;
 @Service
 @RequiredArgsConstructor
 public class CardServiceImpl implements CardService {
+
+    /** The number of cards persisted and flushed at once by the bulk issuance. */
+    private static final int BULK_INSERT_CHUNK_SIZE = 500;
+
+    /** The number of card number blind indexes calculated and written at once. */
+    private static final int NUMBER_HASH_CHUNK_SIZE = 500;
+
+    private static final String ENCRYPTED_PREFIX = "ENC:";
+
     /**
      * The AppConf bean.
      *
@@ -61,6 +100,30 @@ public class CardServiceImpl implements CardService {
      * @see CardSpecification
      */
     private final CardRepository cardRepository;
+    /**
+     * The CardBulkRepository bean.
+     *
+     * @see CardBulkRepository
+     */
+    private final CardBulkRepository cardBulkRepository;
+    /**
+     * The CardNumberCounterRepository bean.
+     *
+     * @see CardNumberCounterRepository
+     */
+    private final CardNumberCounterRepository cardNumberCounterRepository;
+    /**
+     * The CardOwnershipIndex bean.
+     *
+     * @see CardOwnershipIndex
+     */
+    private final CardOwnershipIndex cardOwnershipIndex;
+    /**
+     * The CardPortfolioSummaryRepository bean.
+     *
+     * @see CardPortfolioSummaryRepository
+     */
+    private final CardPortfolioSummaryRepository cardPortfolioSummaryRepository;
     /**
      * The UserRepository bean.
      *
@@ -79,6 +142,24 @@ public class CardServiceImpl implements CardService {
      * @see CardMapper
      */
     private final CardMapper cardMapper;
+    /**
+     * The shared EntityManager, used to release issued cards from the persistence context during bulk issuance.
+     *
+     * @see EntityManager
+     */
+    private final EntityManager entityManager;
+    /**
+     * The TransactionTemplate bean, used to run every chunk of set-based updates in its own transaction.
+     *
+     * @see TransactionTemplate
+     */
+    private final TransactionTemplate transactionTemplate;
+    /**
+     * The ApplicationEventPublisher bean
+     *
+     * @see ApplicationEventPublisher
+     */
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * Creates a new card for the specified user and card type.
@@ -98,11 +179,9 @@ public class CardServiceImpl implements CardService {
         User owner = userRepository.findById(ownerId)
                 .orElseThrow(() -> new UserNotFoundException(ownerId));
 
+        long sequence = allocateSequences(ownerId, cardType, 1);
 
-        Optional<Card> lastCardOpt = cardRepository.findLastByCardType(ownerId, cardType);
-        String lastCardNumber = lastCardOpt.map(Card::getNumber).orElse(null);
-
-        String newCardNumber = CardNumberGenerator.generate(cardType, ownerId, lastCardNumber);
+        String newCardNumber = CardNumberGenerator.generate(cardType, ownerId, sequence);
         LocalDate expiration = LocalDate.now().plusYears(appConf.getCardExpirationYears());
 
         Card card = Card.builder()
@@ -114,7 +193,152 @@ public class CardServiceImpl implements CardService {
                 .isDeleted(false)
                 .build();
 
-        return cardRepository.save(card).getId();
+        Long cardId = cardRepository.save(card).getId();
+        cardOwnershipIndex.put(cardId, ownerId);
+        return cardId;
+    }
+
+    /**
+     * Creates many cards at once.
+     * <p>
+     * Owners are loaded with a single query, and card number sequences are allocated with one counter update
+     * per owner and card type. The generated numbers are encrypted with a single cipher and hashed up front,
+     * so the entity listener neither validates nor encrypts them again. Cards are persisted in chunks, each in its
+     * own transaction, so their IDs are taken from the pooled sequence and the inserts are sent as JDBC batches.
+     * If a chunk fails, its cards are saved one by one. Items with a missing owner, an exhausted card number
+     * sequence or a failed insert are reported as failed without affecting the other items.
+     * </p>
+     *
+     * @param requests Contains information about the cards to be created.
+     * @return The result for every requested card, in the order of the requests.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    @Override
+    public List<BulkCardResultDTO> createCards(List<AddCardDTO> requests) {
+
+        checkIfActionIsProhibited();
+
+        Set<Long> ownerIds = requests.stream()
+                .map(AddCardDTO::getOwnerId)
+                .collect(Collectors.toSet());
+        Map<Long, User> owners = userRepository.findAllById(ownerIds).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+
+        List<BulkCardResultDTO> results = new ArrayList<>(requests.size());
+        Map<OwnerCardType, List<Integer>> groups = new LinkedHashMap<>();
+
+        for (int i = 0; i < requests.size(); i++) {
+            AddCardDTO request = requests.get(i);
+            results.add(BulkCardResultDTO.builder()
+                    .index(i)
+                    .ownerId(request.getOwnerId())
+                    .cardType(request.getCardType())
+                    .build());
+
+            if (owners.containsKey(request.getOwnerId())) {
+                groups.computeIfAbsent(new OwnerCardType(request.getOwnerId(), request.getCardType()),
+                        key -> new ArrayList<>()).add(i);
+            } else {
+                results.get(i).setError(String.format(USER_NOT_FOUND, request.getOwnerId()));
+            }
+        }
+
+        LocalDate expiration = LocalDate.now().plusYears(appConf.getCardExpirationYears());
+        List<Card> cards = new ArrayList<>(requests.size());
+        List<BulkCardResultDTO> issued = new ArrayList<>(requests.size());
+
+        groups.forEach((group, indexes) -> {
+            long firstSequence = allocateSequences(group.ownerId(), group.type(), indexes.size()) - indexes.size() + 1;
+
+            for (int i = 0; i < indexes.size(); i++) {
+                BulkCardResultDTO result = results.get(indexes.get(i));
+                try {
+                    cards.add(Card.builder()
+                            .type(group.type())
+                            .number(CardNumberGenerator.generate(group.type(), group.ownerId(), firstSequence + i))
+                            .owner(owners.get(group.ownerId()))
+                            .status(CardStatus.ACTIVE)
+                            .expiration(expiration)
+                            .isDeleted(false)
+                            .build());
+                    issued.add(result);
+                } catch (IllegalStateException e) {
+                    result.setError(e.getMessage());
+                }
+            }
+        });
+
+        encryptNumbers(cards);
+
+        for (int from = 0; from < cards.size(); from += BULK_INSERT_CHUNK_SIZE) {
+            int to = Math.min(from + BULK_INSERT_CHUNK_SIZE, cards.size());
+            List<Card> chunk = cards.subList(from, to);
+            List<BulkCardResultDTO> chunkResults = issued.subList(from, to);
+
+            try {
+                transactionTemplate.execute(status -> {
+                    cardRepository.saveAll(chunk);
+                    cardRepository.flush();
+                    return null;
+                });
+            } catch (RuntimeException e) {
+                log.warn("Bulk issuance chunk of {} cards failed, saving the cards one by one: {}",
+                        chunk.size(), e.getMessage());
+                saveEach(chunk, chunkResults);
+                continue;
+            }
+
+            for (int i = 0; i < chunk.size(); i++) {
+                registerIssuedCard(chunk.get(i), chunkResults.get(i));
+            }
+        }
+
+        long created = results.stream().filter(result -> result.getCardId() != null).count();
+        log.info("Bulk issuance: {} of {} cards issued", created, requests.size());
+        return results;
+    }
+
+    /**
+     * Encrypts and hashes the generated card numbers of the cards, encrypting all of them with a single cipher.
+     *
+     * @param cards The cards with plain card numbers.
+     */
+    private void encryptNumbers(List<Card> cards) {
+        List<String> plainNumbers = cards.stream().map(Card::getNumber).toList();
+        List<String> encryptedNumbers = encryptionService.encryptAll(plainNumbers);
+
+        for (int i = 0; i < cards.size(); i++) {
+            Card card = cards.get(i);
+            card.setNumberHash(encryptionService.hash(plainNumbers.get(i)));
+            card.setNumber(ENCRYPTED_PREFIX + encryptedNumbers.get(i));
+        }
+    }
+
+    /**
+     * Saves the cards one by one, each in its own transaction, after their chunk failed.
+     * The cards that still cannot be saved are reported as failed.
+     *
+     * @param cards The cards of the failed chunk.
+     * @param results The results of the cards, in the same order.
+     */
+    private void saveEach(List<Card> cards, List<BulkCardResultDTO> results) {
+        for (int i = 0; i < cards.size(); i++) {
+            Card card = cards.get(i);
+            card.setId(null);
+            card.setVersion(null);
+
+            try {
+                transactionTemplate.execute(status -> cardRepository.saveAndFlush(card));
+                registerIssuedCard(card, results.get(i));
+            } catch (RuntimeException e) {
+                results.get(i).setError(NestedExceptionUtils.getMostSpecificCause(e).getMessage());
+            }
+        }
+    }
+
+    private void registerIssuedCard(Card card, BulkCardResultDTO result) {
+        result.setCardId(card.getId());
+        cardOwnershipIndex.put(card.getId(), card.getOwner().getId());
     }
 
     /**
@@ -148,8 +372,37 @@ public class CardServiceImpl implements CardService {
         return cardId;
     }
 
+    /**
+     * Adds the amounts from a CSV stream to the balances of many cards at once.
+     * <p>
+     * The stream is copied into a staging table with PostgreSQL COPY and applied with a single set-based update
+     * in one transaction, instead of resolving and updating the cards one by one.
+     * </p>
+     *
+     * @param csv The CSV stream without a header, encoded in UTF-8.
+     * @return The numbers of received, enrolled and rejected rows, and the rejected rows.
+     */
+    @Override
+    public BulkEnrollmentResultDTO enrollBalances(@NotNull InputStream csv) {
+
+        checkIfActionIsProhibited();
+
+        Reader reader = new BufferedReader(new InputStreamReader(csv, StandardCharsets.UTF_8));
+        BulkEnrollmentResultDTO result = Objects.requireNonNull(transactionTemplate.execute(status ->
+                cardBulkRepository.enrollBalances(reader, appConf.getEnrollmentMaxReportedRejections())));
+
+        log.info("Bulk enrollment: {} of {} rows enrolled, {} rejected",
+                result.getEnrolled(), result.getReceived(), result.getRejected());
+
+        if (result.getEnrolled() > 0) {
+            eventPublisher.publishEvent(new Events.CardsBalanceChanged(result.getEnrolled()));
+        }
+        return result;
+    }
+
     /**
      * Deletes a card by setting its "isDeleted" flag to true.
+     * The card is moved to the archive once the retention period has passed since the deletion.
      *
      * @param id The ID of the card to be deleted.
      * @return The ID of the deleted card.
@@ -162,7 +415,10 @@ public class CardServiceImpl implements CardService {
 
         Card card = cardRepository.findById(id).orElseThrow();
         card.setIsDeleted(true);
-        return cardRepository.save(card).getId();
+        card.setDeletedAt(LocalDateTime.now());
+        Long cardId = cardRepository.save(card).getId();
+        eventPublisher.publishEvent(new Events.CardDeleted(cardId));
+        return cardId;
     }
 
     /**
@@ -180,7 +436,7 @@ public class CardServiceImpl implements CardService {
         checkIfActionIsProhibited();
 
         Card card = cardRepository.findById(id).orElseThrow();
-        if (CardStatus.EXPIRED.equals(card.getStatus()))
+        if (CardStatus.EXPIRED.equals(card.getEffectiveStatus()))
             throw new DataIntegrityViolationException("Card is expired! Id: " + id);
         if (card.getStatus().equals(status))
             throw new DataIntegrityViolationException("Status already set! Card id: " + id);
@@ -189,6 +445,67 @@ public class CardServiceImpl implements CardService {
         return cardRepository.save(card).getId();
     }
 
+    /**
+     * Sets the status of many cards at once, selected either by their IDs or by a search filter.
+     * <p>
+     * The cards are processed in chunks of IDs, each with a set-based update in its own short transaction.
+     * Cards selected by a filter are read chunk by chunk in the order of their IDs, so no offset is scanned.
+     * A single {@link Events.CardsStatusChanged} event is published for all the updated cards,
+     * including the ones updated before a failed chunk.
+     * </p>
+     *
+     * @param request The status to be set and the cards to change.
+     * @return The numbers of updated and skipped cards.
+     * @throws IllegalArgumentException If neither IDs nor a filter are specified, or both are.
+     */
+    @Override
+    public BulkCardStatusResultDTO setCardStatuses(@NotNull BulkCardStatusDTO request) {
+
+        checkIfActionIsProhibited();
+
+        Set<Long> idSet = request.getIdSet();
+        CardSearchFilter filter = hashCardNumbers(request.getFilter());
+        boolean byIds = Objects.nonNull(idSet) && !idSet.isEmpty();
+
+        if (byIds == Objects.nonNull(filter)) {
+            throw new IllegalArgumentException("Either ID set or filter must be specified! Request: " + request);
+        }
+
+        if (!byIds && !CardSpecification.hasCriteria(filter)) {
+            throw new IllegalArgumentException("Filter must contain at least one search criterion! Request: " + request);
+        }
+
+        CardStatus status = request.getStatus();
+        int chunkSize = appConf.getCardBulkStatusChunkSize();
+        BulkCardStatusResultDTO result = BulkCardStatusResultDTO.builder().status(status).build();
+        List<Long> updatedIds = new ArrayList<>();
+
+        try {
+            if (byIds) {
+                List<Long> ids = idSet.stream().sorted().toList();
+                for (int from = 0; from < ids.size(); from += chunkSize) {
+                    applyStatusChange(ids.subList(from, Math.min(from + chunkSize, ids.size())), status, result, updatedIds);
+                }
+            } else {
+                Specification<Card> specification = CardSpecification.search(filter, null);
+                List<Long> ids = findCardIds(specification, 0L, chunkSize);
+                while (!ids.isEmpty()) {
+                    applyStatusChange(ids, status, result, updatedIds);
+                    ids = ids.size() < chunkSize
+                            ? List.of()
+                            : findCardIds(specification, ids.get(ids.size() - 1), chunkSize);
+                }
+            }
+        } finally {
+            if (!updatedIds.isEmpty()) {
+                eventPublisher.publishEvent(new Events.CardsStatusChanged(updatedIds, status));
+            }
+        }
+
+        log.info("Bulk status change to {}: {} of {} cards updated", status, result.getUpdated(), result.getRequested());
+        return result;
+    }
+
     /**
      * Retrieves the details of a card.
      *
@@ -202,7 +519,7 @@ public class CardServiceImpl implements CardService {
         User user = PrincipalExtractor.getCurrentUser();
 
         if (Objects.nonNull(user) && (user.isAdmin()
-                || cardRepository.existsByIdAndOwnerId(id, user.getId()))) {
+                || cardOwnershipIndex.isOwner(id, user.getId()))) {
 
             return cardRepository.findById(id)
                     .map(cardMapper::toDto)
@@ -215,6 +532,7 @@ public class CardServiceImpl implements CardService {
 
     /**
      * Retrieves a paginated list of cards based on the provided search criteria.
+     * Concurrent misses for the same search are coalesced into a single query, empty pages are not cached.
      *
      * @param req The search request containing pagination and filtering details.
      * @return A page response containing the list of cards that match the search criteria.
@@ -223,8 +541,9 @@ public class CardServiceImpl implements CardService {
     @Override
     @Cacheable(
             value = "cardsBySearch",
-            key = "#req.getFilter().toString() + #req.getPageNumber() + #req.getPageSize()",
-            unless = "#result.objects.isEmpty()",
+            key = "T(com.example.bankcards.util.PrincipalExtractor).getDataScope() + ':' + " +
+                    "#req.getFilter().toString() + #req.getPageNumber() + #req.getPageSize()",
+            sync = true,
             cacheManager = "cacheManager"
     )
     public PageResp<CardDTO> getCards(SearchReq<CardSearchFilter> req) {
@@ -235,14 +554,14 @@ public class CardServiceImpl implements CardService {
                 .map(r -> PageRequest.of(req.getPageNumber(), req.getPageSize()))
                 .map(pr -> {
 
-                    CardSearchFilter searchFilter = req.getFilter();
+                    CardSearchFilter searchFilter = hashCardNumbers(req.getFilter());
 
                     if (Objects.nonNull(user) && !user.isAdmin()) {
-                        return Objects.isNull(searchFilter) ? cardRepository.findAllByOwner_Id(ownerId, pr) :
+                        return Objects.isNull(searchFilter) ? cardRepository.findAllByOwner_IdAndIsDeletedFalse(ownerId, pr) :
                                 cardRepository.findAll(CardSpecification.search(searchFilter, ownerId), pr);
                     }
 
-                    return Objects.isNull(searchFilter) ? cardRepository.findAll(pr) :
+                    return Objects.isNull(searchFilter) ? cardRepository.findAllByIsDeletedFalse(pr) :
                             cardRepository.findAll(CardSpecification.search(searchFilter, null), pr);
 
                 })
@@ -253,43 +572,179 @@ public class CardServiceImpl implements CardService {
         return cardMapper.toPageResp(result, isAdmin);
     }
 
+    /**
+     * Replaces the card numbers of the filter with their blind indexes.
+     * The blind indexes are sorted, so the same numbers always produce the same cache key.
+     *
+     * @param filter The search filter, may be {@code null}.
+     * @return The same filter, without plain card numbers.
+     */
+    @Override
+    public CardSearchFilter hashCardNumbers(CardSearchFilter filter) {
+        if (Objects.isNull(filter) || Objects.isNull(filter.getNumber())) {
+            return filter;
+        }
+
+        Set<String> numberHashes = new TreeSet<>(Objects.requireNonNullElse(filter.getNumberHash(), Set.of()));
+        filter.getNumber().forEach(number -> numberHashes.add(encryptionService.hash(number)));
+        filter.setNumberHash(numberHashes);
+        filter.setNumber(null);
+        return filter;
+    }
+
+    /**
+     * Retrieves the summary of the cards of a user.
+     * <p>
+     * The summary is read from the per-owner aggregates, which are maintained by the database on every card change,
+     * so the cost of the read does not grow with the number of cards. The total hold is only shown to administrators.
+     * </p>
+     *
+     * @param ownerId The ID of the user, or null for the current user.
+     * @return The summary of the cards of the user.
+     * @throws ProhibitedException If the current user is not an administrator and requests another user's summary.
+     */
+    @Transactional(readOnly = true)
+    @Override
+    public CardPortfolioSummaryDTO getPortfolioSummary(Long ownerId) {
+        PrincipalExtractor.checkCurrentUser();
+        User user = PrincipalExtractor.getCurrentUser();
+
+        Long summaryOwnerId = Objects.requireNonNullElse(ownerId, user.getId());
+
+        if (!user.isAdmin() && !summaryOwnerId.equals(user.getId())) {
+            throw new ProhibitedException(user.getId());
+        }
+
+        Map<CardStatus, Long> cardsByStatus = new EnumMap<>(CardStatus.class);
+        Map<CardType, Long> cardsByType = new EnumMap<>(CardType.class);
+        long totalCards = 0;
+        BigDecimal totalBalance = BigDecimal.ZERO;
+        BigDecimal totalHold = BigDecimal.ZERO;
+
+        for (CardPortfolioSummaryRepository.Bucket bucket : cardPortfolioSummaryRepository.findByOwnerId(summaryOwnerId)) {
+            cardsByStatus.merge(bucket.status(), bucket.cardCount(), Long::sum);
+            cardsByType.merge(bucket.type(), bucket.cardCount(), Long::sum);
+            totalCards += bucket.cardCount();
+            totalBalance = totalBalance.add(bucket.totalBalance());
+            totalHold = totalHold.add(bucket.totalHold());
+        }
+
+        return CardPortfolioSummaryDTO.builder()
+                .ownerId(summaryOwnerId)
+                .totalCards(totalCards)
+                .totalBalance(totalBalance)
+                .totalHold(user.isAdmin() ? totalHold : BigDecimal.ZERO)
+                .cardsByStatus(cardsByStatus)
+                .cardsByType(cardsByType)
+                .build();
+    }
+
     /**
      * Marks expired cards as expired.
-     * This method processes all cards that have expired and marks them with an expired status.
+     * <p>
+     * Cards are marked with set-based updates in chunks, each in its own short transaction,
+     * so the sweep neither loads the cards nor holds locks on all of them at once.
+     * An {@link Events.CardsStatusChanged} event is published for every chunk.
+     * </p>
+     * <p>
+     * Expired cards are already treated as expired on read and transfer, see {@link Card#getEffectiveStatus()},
+     * so the sweep only compacts the stored status and is throttled to the configured rows-per-second budget.
+     * </p>
      */
     @Retryable(
             retryFor = {Exception.class},
             backoff = @Backoff(delay = 100)
     )
-    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    @Override
     public void markExpiredCards() {
-        int page = 0;
-        int size = 500;
-        Page<Card> cards;
+        LocalDate today = LocalDate.now();
+        int chunkSize = appConf.getCardExpirySweepChunkSize();
+        long startedAt = System.nanoTime();
+        long total = 0;
+        List<Long> expired;
 
         do {
-            cards = cardRepository.findCardsByExpirationBeforeAndStatusNot(PageRequest.of(page, size), LocalDate.now(), "EXPIRED");
-            cards.forEach(card -> {
-                try {
-                    processCardExpiration(card);
-                } catch (Exception e) {
-                    log.error("Error processing expired card {}: {}", card.getId(), e.getMessage());
-                }
-            });
-            page++;
-        } while (cards.hasNext());
+            expired = Objects.requireNonNull(transactionTemplate.execute(status ->
+                    cardBulkRepository.markExpired(today, chunkSize)));
+
+            if (!expired.isEmpty()) {
+                eventPublisher.publishEvent(new Events.CardsStatusChanged(expired, CardStatus.EXPIRED));
+                total += expired.size();
+            }
+
+            Throttling.throttle(startedAt, total, appConf.getCardExpirySweepRowsPerSecond());
+        } while (expired.size() == chunkSize);
+
+        log.info("Marked {} cards as expired", total);
+    }
+
+    /**
+     * Moves the cards deleted longer than the retention period ago to the archive in chunks,
+     * each chunk in its own transaction and within the rows-per-second budget.
+     * Deleted cards are already excluded from live queries, so they are not evicted from any cache.
+     */
+    @Override
+    public void archiveDeletedCards() {
+        LocalDateTime deletedBefore = LocalDateTime.now().minusDays(appConf.getCardArchiveRetentionDays());
+        int chunkSize = appConf.getCardArchiveChunkSize();
+        long startedAt = System.nanoTime();
+        long cards = 0;
+        long transfers = 0;
+        long blockRequests = 0;
+        CardBulkRepository.Archived archived;
+
+        do {
+            archived = Objects.requireNonNull(transactionTemplate.execute(status ->
+                    cardBulkRepository.archiveDeleted(deletedBefore, chunkSize)));
+            cards += archived.cards();
+            transfers += archived.transfers();
+            blockRequests += archived.blockRequests();
+
+            Throttling.throttle(startedAt, cards + transfers + blockRequests, appConf.getCardArchiveRowsPerSecond());
+        } while (archived.cards() == chunkSize);
+
+        log.info("Archived {} deleted cards, {} transfers and {} block requests", cards, transfers, blockRequests);
+    }
+
+    /**
+     * Calculates the missing blind indexes of card numbers in chunks.
+     * Card numbers are read and the blind indexes are written with plain JDBC, bypassing the entity listener,
+     * and every chunk is written in its own transaction, so the work done so far is kept if the process stops.
+     */
+    @Override
+    public void fillMissingNumberHashes() {
+        long lastId = 0;
+        long filled = 0;
+        List<CardBulkRepository.StoredNumber> numbers;
+
+        do {
+            numbers = cardBulkRepository.findNumbersWithoutHash(lastId, NUMBER_HASH_CHUNK_SIZE);
+            if (numbers.isEmpty()) {
+                break;
+            }
+
+            Map<Long, String> hashes = new LinkedHashMap<>();
+            numbers.forEach(number -> hashes.put(number.id(), encryptionService.hash(plainNumber(number.number()))));
+            filled += Objects.requireNonNull(transactionTemplate.execute(status ->
+                    cardBulkRepository.updateNumberHashes(hashes)));
+            lastId = numbers.get(numbers.size() - 1).id();
+        } while (numbers.size() == NUMBER_HASH_CHUNK_SIZE);
+
+        if (filled > 0) {
+            log.info("Blind indexes calculated for {} cards", filled);
+        }
     }
 
     /**
-     * Processes a single card expiration.
-     * This method marks the card as expired.
+     * Decrypts a card number as it is stored in the database. Numbers stored before encryption are returned as they are.
      *
-     * @param card the card to be marked as expired
+     * @param storedNumber the stored card number
+     * @return the plain card number
      */
-    @Transactional
-    public void processCardExpiration(Card card) {
-        card.setStatus(CardStatus.EXPIRED);
-        cardRepository.save(card);
+    private String plainNumber(String storedNumber) {
+        return storedNumber.startsWith(ENCRYPTED_PREFIX)
+                ? encryptionService.decrypt(storedNumber.substring(ENCRYPTED_PREFIX.length()))
+                : storedNumber;
     }
 
     /**
@@ -307,6 +762,28 @@ public class CardServiceImpl implements CardService {
         }
     }
 
+    /**
+     * Allocates card number sequences for the owner and card type.
+     * The counter is initialized from the last issued card only once, when the first card is issued after
+     * the counter was introduced; afterwards issuance neither locks nor decrypts existing cards.
+     *
+     * @param ownerId The ID of the card owner.
+     * @param cardType The type of the card.
+     * @param count The number of sequences to allocate.
+     * @return The last allocated sequence; the allocated sequences are {@code [last - count + 1, last]}.
+     */
+    private long allocateSequences(Long ownerId, CardType cardType, int count) {
+        return cardNumberCounterRepository.increment(ownerId, cardType, count)
+                .orElseGet(() -> {
+                    String lastCardNumber = cardRepository.findLastByCardType(ownerId, cardType)
+                            .map(Card::getNumber)
+                            .orElse(null);
+                    long lastIssuedSequence = CardNumberGenerator.lastIssuedSequence(cardType, ownerId, lastCardNumber);
+
+                    return cardNumberCounterRepository.initialize(ownerId, cardType, lastIssuedSequence, count);
+                });
+    }
+
     /**
      * Resolves the card ID based on the provided request, either by card ID or by card number.
      *
@@ -320,15 +797,68 @@ public class CardServiceImpl implements CardService {
         if (request.getCardId() != null) {
             return request.getCardId();
         } else if (request.getCardNumber() != null) {
-            String decoded = encryptionService.decrypt(number.encrypted());
-
-            return cardRepository.findIdByNumber(decoded)
+            return cardRepository.findIdByNumberHash(number.numberHash())
                     .orElseThrow(() -> new IllegalArgumentException("Card not found by number: " + number.cardMask()));
         } else {
             throw new IllegalArgumentException("ID or card number must be specified! Request: " + request);
         }
     }
 
+    /**
+     * Sets the status of a chunk of cards in its own transaction and adds the counts to the result.
+     *
+     * @param ids The IDs of the cards in the chunk.
+     * @param status The status to be set.
+     * @param result The result to add the counts to.
+     * @param updatedIds The list to add the IDs of the updated cards to.
+     */
+    private void applyStatusChange(List<Long> ids, CardStatus status, BulkCardStatusResultDTO result, List<Long> updatedIds) {
+        CardBulkRepository.StatusChange change = Objects.requireNonNull(transactionTemplate.execute(transactionStatus ->
+                cardBulkRepository.updateStatus(ids, status)));
+
+        updatedIds.addAll(change.updatedIds());
+        result.setRequested(result.getRequested() + ids.size());
+        result.setUpdated(result.getUpdated() + change.updatedIds().size());
+        result.setExpired(result.getExpired() + change.expired());
+        result.setAlreadySet(result.getAlreadySet() + change.alreadySet());
+        result.setNotFound(result.getNotFound() + ids.size() - change.found());
+    }
+
+    /**
+     * Finds the IDs of the cards matching the specification, in ascending order, after the given ID.
+     *
+     * @param specification The specification to match.
+     * @param afterId The ID after which the cards are searched.
+     * @param limit The maximum number of IDs to return.
+     * @return The IDs of the matching cards.
+     */
+    private List<Long> findCardIds(Specification<Card> specification, Long afterId, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Card> root = query.from(Card.class);
+
+        List<Predicate> predicates = new ArrayList<>();
+        predicates.add(cb.greaterThan(root.get(Card_.id), afterId));
+        Optional.ofNullable(specification.toPredicate(root, query, cb)).ifPresent(predicates::add);
+
+        query.select(root.get(Card_.id))
+                .where(predicates.toArray(new Predicate[0]))
+                .orderBy(cb.asc(root.get(Card_.id)));
+
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    /**
+     * Key used to group bulk issuance requests by owner and card type.
+     *
+     * @param ownerId The ID of the card owner.
+     * @param type The type of the card.
+     */
+    private record OwnerCardType(Long ownerId, CardType type) {
+    }
+
     /**
      * A utility class responsible for generating card numbers based on card type, owner ID, and the last issued card number.
      * The generated card number adheres to the Luhn algorithm and follows the card type's prefix and length requirements.
@@ -355,45 +885,58 @@ public class CardServiceImpl implements CardService {
         private static final int MAX_SEQUENCE = 999;
 
         /**
-         * Generates a new card number for a given card type, owner ID, and the last issued card number.
+         * Generates a new card number for a given card type, owner ID, and the allocated sequence.
          *
          * <p>The generated card number consists of a prefix based on the card type, followed by a formatted owner ID,
          * a sequence number, and a Luhn check digit at the end.
          *
          * @param type The type of card for which the number is being generated (e.g., VISA, MasterCard).
          * @param ownerId The unique ID of the card owner.
-         * @param lastNumber The last issued card number for the owner (if available) to continue the sequence.
+         * @param sequence The sequence allocated for the owner and card type.
          *
          * @return The generated card number, which is a valid number conforming to the Luhn algorithm and card type rules.
          * @throws IllegalStateException If the maximum sequence is reached for the owner or if any error occurs in generating the card number.
          */
-        public static String generate(@NotNull CardType type, @NotNull Long ownerId, @NotNull String lastNumber) {
+        public static String generate(@NotNull CardType type, @NotNull Long ownerId, long sequence) {
             String prefix = type.getPrefix();
             int totalLength = type.getLength();
 
-            String base = buildBaseNumber(prefix, ownerId, lastNumber, totalLength);
+            String base = buildBaseNumber(prefix, ownerId, sequence, totalLength);
 
             return base + calculateLuhnCheckDigit(base);
         }
 
+        /**
+         * Determines the sequence of the last issued card number, which is used to initialize the counter.
+         *
+         * @param type The type of the card.
+         * @param ownerId The unique ID of the card owner.
+         * @param lastNumber The last issued card number for the owner, or null if there is none.
+         * @return The sequence of the last issued card, or -1 if no card of this type has been issued.
+         */
+        public static long lastIssuedSequence(@NotNull CardType type, @NotNull Long ownerId, String lastNumber) {
+            String prefix = type.getPrefix();
+
+            if (lastNumber == null || !lastNumber.startsWith(prefix)) {
+                return -1;
+            }
+
+            return extractSequence(lastNumber, prefix, formatOwnerId(ownerId));
+        }
+
         /**
          * Builds the base card number, excluding the Luhn check digit, based on the given parameters.
          *
          * @param prefix The prefix associated with the card type.
          * @param ownerId The unique ID of the card owner.
-         * @param lastNumber The last issued card number for the owner to continue the sequence.
+         * @param sequence The sequence allocated for the owner and card type.
          * @param totalLength The expected total length of the card number (including the check digit).
          *
          * @return The base card number, which includes the prefix, owner ID, and sequence number, but excludes the check digit.
          * @throws IllegalStateException If the sequence exceeds the maximum allowed or if the base number length is invalid.
          */
-        private static String buildBaseNumber(String prefix, Long ownerId, String lastNumber, int totalLength) {
+        private static String buildBaseNumber(String prefix, Long ownerId, long sequence, int totalLength) {
             String ownerIdPart = formatOwnerId(ownerId);
-            int sequence = 0;
-
-            if (lastNumber != null && lastNumber.startsWith(prefix)) {
-                sequence = extractSequence(lastNumber, prefix, ownerIdPart) + 1;
-            }
 
             if (sequence > MAX_SEQUENCE) {
                 throw new IllegalStateException("Max card sequence reached for owner: " + ownerId);
@@ -419,7 +962,7 @@ public class CardServiceImpl implements CardService {
         }
 
         /**
-         * Extracts the sequence part from the last issued card number to determine the next sequence number.
+         * Extracts the sequence part from the last issued card number.
          *
          * @param lastNumber The last issued card number.
          * @param prefix The prefix associated with the card type.
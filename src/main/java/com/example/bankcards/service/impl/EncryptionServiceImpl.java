@@ -1,22 +1,51 @@
 package com.example.bankcards.service.impl;
 
 import com.example.bankcards.config.crypto.CryptoConfig;
+import com.example.bankcards.config.crypto.CryptoEnginePool;
 import com.example.bankcards.service.EncryptionService;
 import org.springframework.stereotype.Service;
 
 import javax.crypto.Cipher;
+import javax.crypto.Mac;
+import javax.crypto.spec.GCMParameterSpec;
 import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.ArrayList;
 import java.util.Base64;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
 
 /**
  * The {@code EncryptionServiceImpl} class provides encryption and decryption functionalities.
  * It uses the Cipher class from Java's cryptography library to encrypt and decrypt data
  * using a specified algorithm and secret key.
+ * <p>
+ * {@link Cipher} and {@link Mac} instances are expensive to look up, so they are kept in
+ * {@link CryptoEnginePool}s and reused. Each instance is confined to a single call while it is borrowed.
+ * In GCM mode a random IV is generated for every message and stored in front of the ciphertext.
+ * </p>
+ * <p>
+ * Encrypted values are prefixed with the id of the key they were encrypted with, e.g. {@code 2:base64}.
+ * Values are always encrypted with the current key, and can be decrypted with the current key or any
+ * of the previous keys. Values without a key id are decrypted with the legacy key.
+ * Each key keeps the transformation it was used with, so values encrypted in ECB mode stay readable
+ * after the rotation to a GCM key. There is one cipher pool per transformation.
+ * </p>
  */
 @Service
 public class EncryptionServiceImpl implements EncryptionService {
 
+    private static final int GCM_IV_LENGTH = 12;
+
+    private static final int GCM_TAG_LENGTH = 128;
+
+    private static final char KEY_ID_SEPARATOR = ':';
+
     /**
      * The CryptoConfig bean
      *
@@ -24,64 +53,287 @@ public class EncryptionServiceImpl implements EncryptionService {
      */
     private final CryptoConfig cryptoConfig;
 
-    private final SecretKeySpec keySpec;
+    private final String currentKeyId;
+
+    private final CipherKey currentKey;
+
+    private final Map<String, CipherKey> decryptionKeys = new HashMap<>();
+
+    private final String legacyKeyId;
+
+    private final SecretKeySpec indexKeySpec;
+
+    private final SecureRandom secureRandom = new SecureRandom();
+
+    private final CryptoEnginePool<Mac> macPool;
 
     /**
      * Constructor that initializes the EncryptionServiceImpl with the necessary cryptographic configuration.
      *
      * @param cryptoConfig The cryptographic configuration (algorithm type and secret key).
+     * @throws IllegalStateException if the blind index key is missing or is one of the encryption keys.
      */
     public EncryptionServiceImpl(CryptoConfig cryptoConfig) {
         this.cryptoConfig = cryptoConfig;
 
-        String algorithm = cryptoConfig.getCryptoAlgorithm();
-        String secretKey = cryptoConfig.getCryptoSecretKey();
+        String indexSecretKey = cryptoConfig.getIndexSecretKey();
+        if (indexSecretKey == null || indexSecretKey.isBlank()
+                || cryptoConfig.getDecryptionSecretKeys().containsValue(indexSecretKey)) {
+            throw new IllegalStateException("The blind index key must be set and differ from the encryption keys");
+        }
 
-        byte[] keyBytes = secretKey.getBytes(StandardCharsets.UTF_8);
+        String algorithm = cryptoConfig.getCryptoAlgorithm();
+        Map<String, CryptoEnginePool<Cipher>> cipherPools = new HashMap<>();
 
-        if ("AES".equals(algorithm) && (!(keyBytes.length == 16 || keyBytes.length == 24 || keyBytes.length == 32))) {
-            throw new IllegalArgumentException("Invalid AES key length: " + keyBytes.length + " bytes. Must be 16, 24, or 32.");
-        }
+        cryptoConfig.getDecryptionKeys().forEach((keyId, key) -> {
+            String transformation = algorithm + "/" + key.transformation();
+            CryptoEnginePool<Cipher> cipherPool = cipherPools.computeIfAbsent(transformation,
+                    t -> new CryptoEnginePool<>(() -> Cipher.getInstance(t), cryptoConfig.getEnginePoolSize()));
+            decryptionKeys.put(keyId, new CipherKey(buildKeySpec(algorithm, key.secretKey()), key.isGcmMode(), cipherPool));
+        });
 
-        this.keySpec = new SecretKeySpec(keyBytes, algorithm);
+        this.currentKeyId = cryptoConfig.getCryptoKeyId();
+        this.currentKey = decryptionKeys.get(currentKeyId);
+        this.legacyKeyId = cryptoConfig.getLegacyKeyId();
+        this.indexKeySpec = new SecretKeySpec(indexSecretKey.getBytes(StandardCharsets.UTF_8),
+                cryptoConfig.getIndexAlgorithm());
+        this.macPool = new CryptoEnginePool<>(() -> Mac.getInstance(cryptoConfig.getIndexAlgorithm()),
+                cryptoConfig.getEnginePoolSize());
     }
 
     /**
-     * Encrypts the given input string using the specified cryptographic algorithm and secret key.
+     * Encrypts the given input string using the specified cryptographic algorithm and the current secret key.
      *
      * @param input The plaintext string to be encrypted.
-     * @return The encrypted string, encoded in Base64.
+     * @return The encrypted string, encoded in Base64 and prefixed with the current key id.
      * @throws RuntimeException If the encryption process fails.
      */
     public String encrypt(String input) {
+        Cipher cipher = null;
         try {
-            String algorithm = cryptoConfig.getCryptoAlgorithmWithTransformation();
-            Cipher cipher = Cipher.getInstance(algorithm);
-            cipher.init(Cipher.ENCRYPT_MODE, keySpec);
-            byte[] encrypted = cipher.doFinal(input.getBytes(StandardCharsets.UTF_8));
-            return Base64.getEncoder().encodeToString(encrypted);
+            cipher = currentKey.cipherPool().borrow();
+            return encrypt(cipher, input);
         } catch (Exception e) {
             throw new RuntimeException("Encryption failed", e);
+        } finally {
+            currentKey.cipherPool().release(cipher);
         }
     }
 
     /**
-     * Decrypts the given encrypted string using the specified cryptographic algorithm and secret key.
+     * Decrypts the given encrypted string using the specified cryptographic algorithm and the secret key
+     * the string was encrypted with.
      *
-     * @param input The encrypted string (Base64 encoded).
+     * @param input The encrypted string (Base64 encoded), optionally prefixed with the key id.
      * @return The decrypted plaintext string.
      * @throws RuntimeException If the decryption process fails.
      */
     public String decrypt(String input) {
+        CipherKey key = null;
+        Cipher cipher = null;
+        try {
+            key = getDecryptionKey(input);
+            cipher = key.cipherPool().borrow();
+            return decrypt(cipher, key, input);
+        } catch (Exception e) {
+            throw new RuntimeException("Decryption failed", e);
+        } finally {
+            if (key != null) {
+                key.cipherPool().release(cipher);
+            }
+        }
+    }
+
+    /**
+     * Encrypts all the given input strings with a single borrowed cipher.
+     *
+     * @param inputs The plaintext strings to be encrypted.
+     * @return The encrypted strings, encoded in Base64 and prefixed with the current key id, in the same order as the inputs.
+     * @throws RuntimeException If the encryption process fails.
+     */
+    public List<String> encryptAll(List<String> inputs) {
+        Cipher cipher = null;
         try {
-            String algorithm = cryptoConfig.getCryptoAlgorithmWithTransformation();
-            Cipher cipher = Cipher.getInstance(algorithm);
-            cipher.init(Cipher.DECRYPT_MODE, keySpec);
-            byte[] decrypted = cipher.doFinal(Base64.getDecoder().decode(input));
-            return new String(decrypted, StandardCharsets.UTF_8);
+            cipher = currentKey.cipherPool().borrow();
+            List<String> result = new ArrayList<>(inputs.size());
+            for (String input : inputs) {
+                result.add(encrypt(cipher, input));
+            }
+            return result;
+        } catch (Exception e) {
+            throw new RuntimeException("Encryption failed", e);
+        } finally {
+            currentKey.cipherPool().release(cipher);
+        }
+    }
+
+    /**
+     * Decrypts all the given encrypted strings with a single borrowed cipher per transformation.
+     *
+     * @param inputs The encrypted strings (Base64 encoded).
+     * @return The decrypted plaintext strings in the same order as the inputs.
+     * @throws RuntimeException If the decryption process fails.
+     */
+    public List<String> decryptAll(List<String> inputs) {
+        Map<CryptoEnginePool<Cipher>, Cipher> ciphers = new HashMap<>();
+        try {
+            List<String> result = new ArrayList<>(inputs.size());
+            for (String input : inputs) {
+                CipherKey key = getDecryptionKey(input);
+                Cipher cipher = ciphers.get(key.cipherPool());
+                if (cipher == null) {
+                    cipher = key.cipherPool().borrow();
+                    ciphers.put(key.cipherPool(), cipher);
+                }
+                result.add(decrypt(cipher, key, input));
+            }
+            return result;
         } catch (Exception e) {
             throw new RuntimeException("Decryption failed", e);
+        } finally {
+            ciphers.forEach(CryptoEnginePool::release);
         }
     }
 
+    /**
+     * Returns the id of the key the given string was encrypted with.
+     *
+     * @param input The encrypted string, optionally prefixed with the key id.
+     * @return The key id, or the legacy key id if the string has no key id.
+     */
+    public String getKeyId(String input) {
+        int separator = input.indexOf(KEY_ID_SEPARATOR);
+        return separator < 0 ? legacyKeyId : input.substring(0, separator);
+    }
+
+    /**
+     * Returns the id of the key used for encryption.
+     *
+     * @return The current key id.
+     */
+    public String getCurrentKeyId() {
+        return currentKeyId;
+    }
+
+    /**
+     * Calculates the blind index of the given input string using the configured HMAC algorithm and index key.
+     *
+     * @param input The plaintext string to be hashed.
+     * @return The HMAC of the input, encoded as a lowercase hex string.
+     * @throws RuntimeException If the hashing process fails.
+     */
+    public String hash(String input) {
+        Mac mac = null;
+        try {
+            mac = macPool.borrow();
+            mac.init(indexKeySpec);
+            byte[] hashed = mac.doFinal(input.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hashed);
+        } catch (Exception e) {
+            throw new RuntimeException("Hashing failed", e);
+        } finally {
+            macPool.release(mac);
+        }
+    }
+
+    /**
+     * Encrypts the input with the given cipher. In GCM mode the generated IV is prepended to the ciphertext.
+     *
+     * @param cipher The cipher confined to the current call.
+     * @param input The plaintext string to be encrypted.
+     * @return The encrypted string, encoded in Base64.
+     * @throws GeneralSecurityException If the encryption process fails.
+     */
+    private String encrypt(Cipher cipher, String input) throws GeneralSecurityException {
+        byte[] plain = input.getBytes(StandardCharsets.UTF_8);
+        SecretKeySpec keySpec = currentKey.keySpec();
+
+        if (!currentKey.gcmMode()) {
+            cipher.init(Cipher.ENCRYPT_MODE, keySpec);
+            return currentKeyId + KEY_ID_SEPARATOR + Base64.getEncoder().encodeToString(cipher.doFinal(plain));
+        }
+
+        byte[] iv = new byte[GCM_IV_LENGTH];
+        secureRandom.nextBytes(iv);
+        cipher.init(Cipher.ENCRYPT_MODE, keySpec, new GCMParameterSpec(GCM_TAG_LENGTH, iv));
+
+        ByteBuffer encrypted = ByteBuffer.allocate(GCM_IV_LENGTH + cipher.getOutputSize(plain.length));
+        encrypted.put(iv);
+        cipher.doFinal(ByteBuffer.wrap(plain), encrypted);
+        return currentKeyId + KEY_ID_SEPARATOR + Base64.getEncoder().encodeToString(encrypted.array());
+    }
+
+    /**
+     * Returns the key the given string was encrypted with.
+     *
+     * @param input The encrypted string, optionally prefixed with the key id.
+     * @return The decryption key.
+     * @throws IllegalArgumentException If the key id is unknown.
+     */
+    private CipherKey getDecryptionKey(String input) {
+        CipherKey key = decryptionKeys.get(getKeyId(input));
+
+        if (key == null) {
+            throw new IllegalArgumentException("Unknown crypto key id: " + getKeyId(input));
+        }
+
+        return key;
+    }
+
+    /**
+     * Decrypts the input with the given cipher and the key the input was encrypted with.
+     * In GCM mode the IV is read from the beginning of the ciphertext.
+     *
+     * @param cipher The cipher of the key transformation, confined to the current call.
+     * @param key The key the input was encrypted with.
+     * @param input The encrypted string (Base64 encoded), optionally prefixed with the key id.
+     * @return The decrypted plaintext string.
+     * @throws GeneralSecurityException If the decryption process fails.
+     */
+    private String decrypt(Cipher cipher, CipherKey key, String input) throws GeneralSecurityException {
+        SecretKeySpec decryptionKeySpec = key.keySpec();
+        byte[] encrypted = Base64.getDecoder().decode(input.substring(input.indexOf(KEY_ID_SEPARATOR) + 1));
+
+        if (!key.gcmMode()) {
+            cipher.init(Cipher.DECRYPT_MODE, decryptionKeySpec);
+            return new String(cipher.doFinal(encrypted), StandardCharsets.UTF_8);
+        }
+
+        if (encrypted.length <= GCM_IV_LENGTH) {
+            throw new IllegalArgumentException("Encrypted value is too short");
+        }
+
+        cipher.init(Cipher.DECRYPT_MODE, decryptionKeySpec, new GCMParameterSpec(GCM_TAG_LENGTH, encrypted, 0, GCM_IV_LENGTH));
+        byte[] decrypted = cipher.doFinal(encrypted, GCM_IV_LENGTH, encrypted.length - GCM_IV_LENGTH);
+        return new String(decrypted, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Builds the secret key specification and validates the key length.
+     *
+     * @param algorithm The cryptographic algorithm.
+     * @param secretKey The secret key.
+     * @return The secret key specification.
+     * @throws IllegalArgumentException If the key length is invalid for AES.
+     */
+    private static SecretKeySpec buildKeySpec(String algorithm, String secretKey) {
+        byte[] keyBytes = secretKey.getBytes(StandardCharsets.UTF_8);
+
+        if ("AES".equals(algorithm) && (!(keyBytes.length == 16 || keyBytes.length == 24 || keyBytes.length == 32))) {
+            throw new IllegalArgumentException("Invalid AES key length: " + keyBytes.length + " bytes. Must be 16, 24, or 32.");
+        }
+
+        return new SecretKeySpec(keyBytes, algorithm);
+    }
+
+    /**
+     * A key prepared for the cipher and the pool of ciphers of the transformation the key is used with.
+     *
+     * @param keySpec The secret key specification.
+     * @param gcmMode Whether the key is used in GCM mode.
+     * @param cipherPool The pool of ciphers of the key transformation.
+     */
+    private record CipherKey(SecretKeySpec keySpec, boolean gcmMode, CryptoEnginePool<Cipher> cipherPool) {
+    }
+
 }
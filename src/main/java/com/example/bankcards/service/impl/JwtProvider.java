@@ -1,6 +1,11 @@
 package com.example.bankcards.service.impl;
 
+import com.example.bankcards.entity.Role;
 import com.example.bankcards.entity.User;
+import com.example.bankcards.entity.enums.RoleEnum;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
@@ -11,41 +16,88 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
-import java.security.Key;
+import java.time.Duration;
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
+import java.util.Collection;
 import java.util.Date;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
 
+import static com.example.bankcards.util.Constants.FAMILY_CLAIM;
 import static com.example.bankcards.util.Constants.ID_CLAIM;
 import static com.example.bankcards.util.Constants.ROLE_CLAIM;
 
 /**
  * This class provides methods for generating access tokens and refresh tokens.
+ * <p>
+ * The signing keys and the parsers are built once, a token is verified and its claims are extracted
+ * by a single parse. The claims of verified access tokens are kept in a small cache bounded by size
+ * and by the expiration of the tokens.
+ * </p>
  */
 @Component
 @Slf4j
 public class JwtProvider {
+
+    private static final String ROLE_KEY = "role";
+
     /**
-     * The JWT access key secret is used to sign and verify access tokens.
+     * The key used to sign and verify access tokens, decoded once from the configured secret.
      */
-    @Value("${spring.application.security.jwt.access-key.secret}")
-    private String jwtAccessSecret;
+    private final SecretKey jwtAccessKey;
     /**
-     * The JWT refresh key secret is used to sign and verify refresh tokens.
+     * The key used to sign and verify refresh tokens, decoded once from the configured secret.
      */
-    @Value("${spring.application.security.jwt.refresh-key.secret}")
-    private String jwtRefreshSecret;
+    private final SecretKey jwtRefreshKey;
+    /**
+     * The parser verifying access tokens. Parsers are immutable and shared by all the requests.
+     */
+    private final JwtParser accessParser;
+    /**
+     * The parser verifying refresh tokens.
+     */
+    private final JwtParser refreshParser;
     /**
      * The JWT access expiration time determines how long an access token is valid for.
      */
-    @Value("${spring.application.security.jwt.access-key.expiration-time}")
-    private Integer jwtAccessExpirationTime;
+    private final Integer jwtAccessExpirationTime;
     /**
      * The JWT refresh expiration time determines how long a refresh token is valid for.
      */
-    @Value(("${spring.application.security.jwt.refresh-key.expiration-time}"))
-    private Integer jwtRefreshExpirationTime;
+    private final Integer jwtRefreshExpirationTime;
+    /**
+     * The claims of recently verified access tokens, or {@code null} if the cache is disabled.
+     * An entry never outlives the expiration of its token.
+     */
+    private final Cache<String, Claims> verifiedAccessClaims;
+
+    public JwtProvider(@Value("${spring.application.security.jwt.access-key.secret}") String jwtAccessSecret,
+                       @Value("${spring.application.security.jwt.refresh-key.secret}") String jwtRefreshSecret,
+                       @Value("${spring.application.security.jwt.access-key.expiration-time}")
+                       Integer jwtAccessExpirationTime,
+                       @Value("${spring.application.security.jwt.refresh-key.expiration-time}")
+                       Integer jwtRefreshExpirationTime,
+                       @Value("${spring.application.security.jwt.access-key.verified-cache-size:10000}")
+                       long verifiedCacheSize) {
+        this.jwtAccessKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(jwtAccessSecret));
+        this.jwtRefreshKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(jwtRefreshSecret));
+        this.accessParser = Jwts.parserBuilder().setSigningKey(jwtAccessKey).build();
+        this.refreshParser = Jwts.parserBuilder().setSigningKey(jwtRefreshKey).build();
+        this.jwtAccessExpirationTime = jwtAccessExpirationTime;
+        this.jwtRefreshExpirationTime = jwtRefreshExpirationTime;
+        this.verifiedAccessClaims = verifiedCacheSize > 0
+                ? Caffeine.newBuilder()
+                .maximumSize(verifiedCacheSize)
+                .expireAfter(new ClaimsExpiry())
+                .build()
+                : null;
+    }
 
     /**
      * Generates JWT access token.
@@ -58,131 +110,130 @@ public class JwtProvider {
         final Date accessExpiration = generateAccessExpiration(jwtAccessExpirationTime);
         return Jwts.builder()
                 .setSubject(user.getUsername())
+                .setIssuedAt(new Date())
                 .setExpiration(accessExpiration)
-                .signWith(getJwtAccessSecret())
+                .signWith(jwtAccessKey)
                 .claim(ID_CLAIM, user.getId())
-                .claim(ROLE_CLAIM, user.getAuthorities())
+                .claim(ROLE_CLAIM, user.getRoleSet().stream()
+                        .map(Role::getAuthority)
+                        .toList())
                 .compact();
     }
 
     /**
      * Generates JWT refresh token.
      *
-     * @param user represents a user object.
+     * @param user     represents a user object.
+     * @param familyId The ID of the family of refresh tokens the token belongs to.
+     * @param tokenId  The unique ID of the token.
      * @return String representation of JWT refresh token.
      * @see User
      */
-    public String generateRefreshToken(@NotNull User user) {
+    public String generateRefreshToken(@NotNull User user, @NotNull String familyId, @NotNull String tokenId) {
         final Date refreshExpiration = generateAccessExpiration(jwtRefreshExpirationTime);
         return Jwts.builder()
                 .setSubject(user.getUsername())
+                .setId(tokenId)
                 .setExpiration(refreshExpiration)
-                .signWith(getJwtRefreshSecret())
+                .signWith(jwtRefreshKey)
+                .claim(FAMILY_CLAIM, familyId)
                 .compact();
 
     }
 
     /**
-     * Validates JWT access token.This method calls {@link JwtProvider#validateToken(String, Key)}.
+     * Returns how long a refresh token is valid for.
      *
-     * @param accessToken String representation of JWT access token.
-     * @return true if the JWT access token is valid, false otherwise.
+     * @return The lifetime of refresh tokens.
      */
-    public boolean validateAccessToken(@NotNull String accessToken) {
-        return validateToken(accessToken, getJwtAccessSecret());
+    public Duration getRefreshTokenLifetime() {
+        return Duration.ofMinutes(jwtRefreshExpirationTime);
     }
 
     /**
-     * Validates JWT refresh token.This method calls {@link JwtProvider#validateToken(String, Key)}.
+     * Verifies JWT access token and extracts its claims with a single parse.
+     * Claims of recently verified tokens are taken from the cache without parsing the token again.
      *
-     * @param refreshToken String representation of JWT refresh token.
-     * @return true if the JWT refresh token is valid, false otherwise.
+     * @param accessToken String representation of JWT access token.
+     * @return The claims of the token, or empty if the token is invalid or expired.
      */
-    public boolean validateRefreshToken(@NotNull String refreshToken) {
-        return validateToken(refreshToken, getJwtRefreshSecret());
-    }
+    public Optional<Claims> parseAccessToken(@NotNull String accessToken) {
+        if (verifiedAccessClaims == null) {
+            return parse(accessToken, accessParser);
+        }
 
-    /**
-     * Validates a JWT token using the provided secret key.
-     *
-     * @param token     String representation of JWT token to validate.
-     * @param secretKey The secret key used to sign the JWT token.
-     * @return true if the token is valid, false otherwise.
-     */
-    private boolean validateToken(@NotNull String token, @NotNull Key secretKey) {
-        try {
-            Jwts.parserBuilder()
-                    .setSigningKey(secretKey)
-                    .build()
-                    .parseClaimsJws(token);
-            return true;
-        } catch (MalformedJwtException e) {
-            log.warn("Invalid JWT token: {}", e.getMessage());
-        } catch (ExpiredJwtException e) {
-            log.warn("JWT token has expired: {}", e.getMessage());
-        } catch (UnsupportedJwtException e) {
-            log.warn("Unsupported JWT token format: {}", e.getMessage());
-        } catch (IllegalArgumentException e) {
-            log.warn("JWT claims string is null or empty or only whitespace: {}", e.getMessage());
-        } catch (SignatureException e) {
-            log.warn("Incorrect JWT token signature");
+        Claims cached = verifiedAccessClaims.getIfPresent(accessToken);
+        if (cached != null) {
+            return Optional.of(cached);
         }
 
-        return false;
+        Optional<Claims> claims = parse(accessToken, accessParser);
+        claims.filter(c -> c.getExpiration() != null)
+                .ifPresent(c -> verifiedAccessClaims.put(accessToken, c));
+        return claims;
     }
 
     /**
-     * Extracts claim from JWT access token.
+     * Builds the principal from the claims of a verified access token, without loading the user from the database.
+     * Only the ID, the username and the roles of the user are set. The JSON deserializer reads the ID as a floating
+     * point number, which is exact for any ID below 2<sup>53</sup>.
+     * Roles are read both as role names and in the former format of serialized role objects.
      *
-     * @param token String representation of JWT access token.
-     * @return The claims contained in the JWT access token.
+     * @param claims The claims of a verified access token.
+     * @return The user described by the claims.
      */
-    public Claims getAccessClaims(@NotNull String token) {
-        return getClaims(token, getJwtAccessSecret());
-    }
+    public User getPrincipal(@NotNull Claims claims) {
+        Set<Role> roles = new HashSet<>();
 
-    /**
-     * Extracts claim from JWT refresh token.
-     *
-     * @param token String representation of JWT refresh token.
-     * @return The claims contained in the JWT refresh token.
-     */
-    public Claims getRefreshClaims(@NotNull String token) {
-        return getClaims(token, getJwtRefreshSecret());
+        if (claims.get(ROLE_CLAIM) instanceof Collection<?> roleClaims) {
+            for (Object roleClaim : roleClaims) {
+                Object role = roleClaim instanceof Map<?, ?> roleObject ? roleObject.get(ROLE_KEY) : roleClaim;
+                if (Objects.nonNull(role)) {
+                    roles.add(Role.builder().role(RoleEnum.valueOf(role.toString())).build());
+                }
+            }
+        }
+
+        return User.builder()
+                .id(claims.get(ID_CLAIM) instanceof Number id ? id.longValue() : null)
+                .username(claims.getSubject())
+                .roleSet(roles)
+                .build();
     }
 
     /**
-     * Retrieves the secret key used for creating JWT access tokens.
+     * Verifies JWT refresh token and extracts its claims with a single parse.
      *
-     * @return The secret key for JWT access tokens.
+     * @param refreshToken String representation of JWT refresh token.
+     * @return The claims of the token, or empty if the token is invalid or expired.
      */
-    private SecretKey getJwtAccessSecret() {
-        return Keys.hmacShaKeyFor(Decoders.BASE64.decode(jwtAccessSecret));
+    public Optional<Claims> parseRefreshToken(@NotNull String refreshToken) {
+        return parse(refreshToken, refreshParser);
     }
 
     /**
-     * Retrieves the secret key used for creating JWT refresh tokens.
+     * Verifies a JWT token with the given parser and returns its claims.
      *
-     * @return The secret key for JWT refresh tokens.
+     * @param token  String representation of JWT token to verify.
+     * @param parser The parser holding the key the token was signed with.
+     * @return The claims of the token, or empty if the token is invalid.
      */
-    private SecretKey getJwtRefreshSecret() {
-        return Keys.hmacShaKeyFor(Decoders.BASE64.decode(jwtRefreshSecret));
-    }
+    private Optional<Claims> parse(@NotNull String token, @NotNull JwtParser parser) {
+        try {
+            return Optional.of(parser.parseClaimsJws(token).getBody());
+        } catch (MalformedJwtException e) {
+            log.warn("Invalid JWT token: {}", e.getMessage());
+        } catch (ExpiredJwtException e) {
+            log.warn("JWT token has expired: {}", e.getMessage());
+        } catch (UnsupportedJwtException e) {
+            log.warn("Unsupported JWT token format: {}", e.getMessage());
+        } catch (IllegalArgumentException e) {
+            log.warn("JWT claims string is null or empty or only whitespace: {}", e.getMessage());
+        } catch (SignatureException e) {
+            log.warn("Incorrect JWT token signature");
+        }
 
-    /**
-     * Parses the given JWT token using the provided secret key and returns the claims from the token.
-     *
-     * @param token     The JWT token to be parsed.
-     * @param secretKey The secret key used for parsing the JWT token.
-     * @return Claims contained in the JWT token.
-     * @throws NullPointerException if token or secretKey is null.
-     */
-    private Claims getClaims(@NotNull String token, @NotNull Key secretKey) {
-        return Jwts.parserBuilder()
-                .setSigningKey(secretKey)
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        return Optional.empty();
     }
 
     /**
@@ -199,4 +250,27 @@ public class JwtProvider {
         return Date.from(accessExpirationInstant);
     }
 
-}
\ No newline at end of file
+    /**
+     * Expires the cached claims together with the token they were verified from.
+     */
+    private static class ClaimsExpiry implements Expiry<String, Claims> {
+
+        @Override
+        public long expireAfterCreate(String token, Claims claims, long currentTime) {
+            long remainingMillis = claims.getExpiration().getTime() - System.currentTimeMillis();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(remainingMillis, 0));
+        }
+
+        @Override
+        public long expireAfterUpdate(String token, Claims claims, long currentTime, long currentDuration) {
+            return expireAfterCreate(token, claims, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String token, Claims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+
+    }
+
+}
@@ -1,37 +1,57 @@
 package com.example.bankcards.service.impl;
 
+import com.example.bankcards.config.datasource.ReplicaRoutingDataSource;
 import com.example.bankcards.dto.api.resp.LoggedUserRespDTO;
-import com.example.bankcards.entity.RefreshToken;
 import com.example.bankcards.entity.User;
 import com.example.bankcards.exception.InvalidRefreshTokenException;
 import com.example.bankcards.exception.UserNotFoundException;
-import com.example.bankcards.repository.RefreshTokenRepository;
+import com.example.bankcards.repository.RefreshTokenFamilyRepository;
+import com.example.bankcards.repository.RefreshTokenFamilyRepository.RotationResult;
 import com.example.bankcards.repository.UserRepository;
 import com.example.bankcards.service.JwtService;
+import com.example.bankcards.service.TokenRevocationService;
+import io.jsonwebtoken.Claims;
 import jakarta.validation.Valid;
-import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Hibernate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Objects;
+import java.util.UUID;
+
+import static com.example.bankcards.util.Constants.FAMILY_CLAIM;
 import static com.example.bankcards.util.Constants.TOKEN_CANNOT_BE_NULL_OR_EMPTY;
 
 
 /**
  * Service class that provides implementation for generating and regenerating JWT tokens.
+ * <p>
+ * Refresh tokens are kept in Redis by family: a login starts a family, every refresh rotates it to the next token.
+ * Presenting a token which has already been rotated revokes the family and the access tokens of the user,
+ * since either the user or whoever stole the token is using a copy of it. The database is only read on refresh.
+ * </p>
  */
+@Slf4j
 @Service
 @RequiredArgsConstructor
-@Transactional(propagation = Propagation.REQUIRED)
+@Transactional(propagation = Propagation.REQUIRED, readOnly = true)
 public class JwtServiceImpl implements JwtService {
     /**
-     * RefreshTokenRepository bean.
+     * RefreshTokenFamilyRepository bean.
+     *
+     * @see RefreshTokenFamilyRepository
+     */
+    private final RefreshTokenFamilyRepository refreshTokenFamilyRepository;
+    /**
+     * TokenRevocationService bean.
      *
-     * @see RefreshTokenRepository
+     * @see TokenRevocationService
      */
-    private final RefreshTokenRepository refreshTokenRepository;
+    private final TokenRevocationService tokenRevocationService;
     /**
      * JwtProvider bean.
      *
@@ -53,47 +73,83 @@ public class JwtServiceImpl implements JwtService {
      */
     @Override
     public LoggedUserRespDTO generatePairOfTokens(User user) {
-        String accessToken = jwtProvider.generateAccessToken(user);
-        String refreshToken = jwtProvider.generateRefreshToken(user);
-        saveRefreshToken(user.getUsername(), refreshToken);
-        return LoggedUserRespDTO.builder()
-                .accessToken(accessToken)
-                .refreshToken(refreshToken)
-                .userId(user.getId())
-                .build();
+        String familyId = UUID.randomUUID().toString();
+        String tokenId = UUID.randomUUID().toString();
+        refreshTokenFamilyRepository.create(familyId, tokenId, jwtProvider.getRefreshTokenLifetime());
+        return buildPairOfTokens(user, familyId, tokenId);
     }
 
     /**
      * Regenerates a pair of JWT tokens (access token and refresh token) using the provided refresh token.
+     * The refresh token is exchanged for the next token of its family and cannot be used again.
      *
      * @param refreshToken the refresh token used to regenerate the access and refresh tokens.
      * @return {@link LoggedUserRespDTO} containing the newly regenerated pair of JWT tokens.
-     * @throws IllegalArgumentException if the provided refresh token is invalid or expired.
+     * @throws InvalidRefreshTokenException if the provided refresh token is invalid, expired, revoked or reused.
      */
     @Override
     public LoggedUserRespDTO regeneratePairOfTokens(@Valid @NotBlank(message = TOKEN_CANNOT_BE_NULL_OR_EMPTY)
                                                     String refreshToken) {
-        if (!jwtProvider.validateRefreshToken(refreshToken)) {
+        Claims claims = jwtProvider.parseRefreshToken(refreshToken)
+                .orElseThrow(InvalidRefreshTokenException::new);
+        String username = claims.getSubject();
+        String familyId = claims.get(FAMILY_CLAIM, String.class);
+        String tokenId = claims.getId();
+
+        if (Objects.isNull(familyId) || Objects.isNull(tokenId)) {
             throw new InvalidRefreshTokenException();
         }
-        String username = jwtProvider.getRefreshClaims(refreshToken).getSubject();
-        User user = userRepository.findByUsername(username)
-                .orElseThrow(() -> new UserNotFoundException("Cannot find user with username: " + username));
-        return generatePairOfTokens(user);
+
+        String nextTokenId = UUID.randomUUID().toString();
+        RotationResult result = refreshTokenFamilyRepository.rotate(familyId, tokenId, nextTokenId,
+                jwtProvider.getRefreshTokenLifetime());
+
+        if (result == RotationResult.REUSED) {
+            log.warn("Reused refresh token of user {}, the token family {} has been revoked", username, familyId);
+            tokenRevocationService.revokeTokens(username);
+        }
+
+        if (result != RotationResult.ROTATED) {
+            throw new InvalidRefreshTokenException();
+        }
+
+        User user = ReplicaRoutingDataSource.onPrimary(() -> {
+            User found = userRepository.findByUsername(username)
+                    .orElseThrow(() -> new UserNotFoundException("Cannot find user with username: " + username));
+            Hibernate.initialize(found.getRoleSet());
+            return found;
+        });
+        return buildPairOfTokens(user, familyId, nextTokenId);
     }
 
     /**
-     * Saves the refresh token for the given email.
+     * Revokes the family of the given refresh token. Invalid and expired tokens are ignored,
+     * since their family can no longer be used anyway.
      *
-     * @param username The email of the user for whom the token is saved.
-     * @param token    The refresh token to be saved.
+     * @param refreshToken the refresh token whose family is revoked.
      */
-    private void saveRefreshToken(@Valid @Email String username,
-                                  @Valid @NotBlank(message = TOKEN_CANNOT_BE_NULL_OR_EMPTY) String token) {
-        if (!userRepository.existsByUsername(username)) {
-            throw new UserNotFoundException("Cannot find user with username: " + username);
-        }
-        refreshTokenRepository.save(new RefreshToken(username, token));
+    @Override
+    public void revokeRefreshTokenFamily(@Valid @NotBlank(message = TOKEN_CANNOT_BE_NULL_OR_EMPTY)
+                                         String refreshToken) {
+        jwtProvider.parseRefreshToken(refreshToken)
+                .map(claims -> claims.get(FAMILY_CLAIM, String.class))
+                .ifPresent(refreshTokenFamilyRepository::revoke);
+    }
+
+    /**
+     * Builds a pair of JWT tokens with the given refresh token of the family.
+     *
+     * @param user     The user for whom the tokens are generated.
+     * @param familyId The ID of the family of the refresh token.
+     * @param tokenId  The ID of the refresh token.
+     * @return {@link LoggedUserRespDTO} containing the pair of JWT tokens.
+     */
+    private LoggedUserRespDTO buildPairOfTokens(User user, String familyId, String tokenId) {
+        return LoggedUserRespDTO.builder()
+                .accessToken(jwtProvider.generateAccessToken(user))
+                .refreshToken(jwtProvider.generateRefreshToken(user, familyId, tokenId))
+                .userId(user.getId())
+                .build();
     }
 
 }
\ No newline at end of file
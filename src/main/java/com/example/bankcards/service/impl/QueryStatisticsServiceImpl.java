@@ -0,0 +1,37 @@
+package com.example.bankcards.service.impl;
+
+import com.example.bankcards.dto.api.resp.QueryPlanCacheStatisticsDTO;
+import com.example.bankcards.service.QueryStatisticsService;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Service;
+
+/**
+ * Implementation of the {@link QueryStatisticsService} interface based on the Hibernate {@link Statistics}.
+ * The statistics are only collected when {@code hibernate.generate_statistics} is enabled.
+ */
+@Service
+@RequiredArgsConstructor
+public class QueryStatisticsServiceImpl implements QueryStatisticsService {
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    @Override
+    public QueryPlanCacheStatisticsDTO getQueryPlanCacheStatistics() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        long hitCount = statistics.getQueryPlanCacheHitCount();
+        long missCount = statistics.getQueryPlanCacheMissCount();
+        long lookups = hitCount + missCount;
+
+        return QueryPlanCacheStatisticsDTO.builder()
+                .statisticsEnabled(statistics.isStatisticsEnabled())
+                .hitCount(hitCount)
+                .missCount(missCount)
+                .hitRate(lookups == 0 ? 0 : (double) hitCount / lookups)
+                .preparedStatementCount(statistics.getPrepareStatementCount())
+                .build();
+    }
+
+}
@@ -0,0 +1,69 @@
+package com.example.bankcards.service.impl;
+
+import com.example.bankcards.config.app.AppConf;
+import com.example.bankcards.service.TransferArchiveStorage;
+import jakarta.validation.constraints.NotNull;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.UUID;
+
+/**
+ * Implementation of the {@link TransferArchiveStorage} interface on a file system mounted by every node,
+ * e.g. NFS or a shared volume.
+ * <p>
+ * A file is written to a uniquely named temporary file next to the target, synced to disk and moved into place,
+ * so readers on any node never see a partially written file.
+ * </p>
+ */
+@Service
+@RequiredArgsConstructor
+public class SharedFileSystemTransferArchiveStorage implements TransferArchiveStorage {
+
+    /**
+     * The application config bean
+     *
+     * @see AppConf
+     */
+    private final AppConf appConf;
+
+    @Override
+    public void write(@NotNull String path, @NotNull ContentWriter content) throws IOException {
+        Path target = resolve(path);
+        Files.createDirectories(target.getParent());
+        Path temp = target.resolveSibling(target.getFileName() + "." + UUID.randomUUID() + ".tmp");
+
+        try {
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(temp))) {
+                content.writeTo(out);
+            }
+
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                channel.force(true);
+            }
+
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    @Override
+    public InputStream read(@NotNull String path) throws IOException {
+        return Files.newInputStream(resolve(path));
+    }
+
+    private Path resolve(String path) {
+        return Path.of(appConf.getTransferColdArchiveDirectory()).resolve(path);
+    }
+
+}
@@ -0,0 +1,56 @@
+package com.example.bankcards.service.impl;
+
+import com.example.bankcards.service.TokenRevocationService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Implementation of the {@link TokenRevocationService} interface based on Redis.
+ * <p>
+ * The time of the last revocation is stored per user, in epoch seconds like the {@code iat} claim.
+ * The entry expires together with the longest-lived access token it can affect, so Redis only holds
+ * the users whose tokens were revoked recently. Tokens issued in the same second as the revocation stay valid,
+ * otherwise a user logging in right after the revocation would get a token which is already revoked.
+ * </p>
+ */
+@Service
+public class TokenRevocationServiceImpl implements TokenRevocationService {
+
+    static final String REVOKED_KEY_PREFIX = "auth:revoked:";
+
+    private final StringRedisTemplate redisTemplate;
+
+    private final Duration accessTokenLifetime;
+
+    public TokenRevocationServiceImpl(StringRedisTemplate redisTemplate,
+                                      @Value("${spring.application.security.jwt.access-key.expiration-time}")
+                                      Integer jwtAccessExpirationTime) {
+        this.redisTemplate = redisTemplate;
+        this.accessTokenLifetime = Duration.ofMinutes(jwtAccessExpirationTime).plusMinutes(1);
+    }
+
+    @Override
+    public void revokeTokens(String username) {
+        long revokedAt = TimeUnit.MILLISECONDS.toSeconds(System.currentTimeMillis());
+        redisTemplate.opsForValue().set(REVOKED_KEY_PREFIX + username, Long.toString(revokedAt), accessTokenLifetime);
+    }
+
+    @Override
+    public boolean isRevoked(String username, Date issuedAt) {
+        String revokedAt = redisTemplate.opsForValue().get(REVOKED_KEY_PREFIX + username);
+
+        if (Objects.isNull(revokedAt)) {
+            return false;
+        }
+
+        return Objects.isNull(issuedAt)
+                || TimeUnit.MILLISECONDS.toSeconds(issuedAt.getTime()) < Long.parseLong(revokedAt);
+    }
+
+}
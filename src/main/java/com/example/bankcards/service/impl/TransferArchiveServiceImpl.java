@@ -0,0 +1,297 @@
+package com.example.bankcards.service.impl;
+
+import com.example.bankcards.config.app.AppConf;
+import com.example.bankcards.dto.api.resp.ArchivedTransferDTO;
+import com.example.bankcards.entity.User;
+import com.example.bankcards.exception.ProhibitedException;
+import com.example.bankcards.repository.JobLockRepository;
+import com.example.bankcards.repository.TransferColdArchiveRepository;
+import com.example.bankcards.repository.TransferColdArchiveRepository.ArchiveFile;
+import com.example.bankcards.repository.TransferColdArchiveRepository.SettledTransfer;
+import com.example.bankcards.repository.TransferPartitionRepository;
+import com.example.bankcards.repository.TransferPartitionRepository.Partition;
+import com.example.bankcards.service.CardOwnershipIndex;
+import com.example.bankcards.service.TransferArchiveService;
+import com.example.bankcards.service.TransferArchiveStorage;
+import com.example.bankcards.util.PrincipalExtractor;
+import com.example.bankcards.util.Throttling;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import jakarta.validation.constraints.NotNull;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.compress.compressors.CompressorException;
+import org.apache.commons.compress.compressors.CompressorStreamFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Predicate;
+
+/**
+ * Implementation of the {@link TransferArchiveService} interface.
+ * <p>
+ * An archive file is a compressed stream of JSON lines, one {@link ArchivedTransferDTO} per line, so it is written
+ * and read sequentially without holding the whole file in memory. The file is completely written to the shared
+ * {@link TransferArchiveStorage} before the transfers are deleted, and it is registered in the same transaction
+ * as the deletion, so a failure at any point leaves the transfers in the database.
+ * The compressor is stored with every file, so changing it doesn't affect the files written before.
+ * The archiving runs under a lock shared by all the nodes, so two nodes never archive the same chunk.
+ * </p>
+ */
+@Slf4j
+@Service
+public class TransferArchiveServiceImpl implements TransferArchiveService {
+
+    private static final DateTimeFormatter FILE_MONTH_FORMAT = DateTimeFormatter.ofPattern("yyyyMM");
+
+    private static final String ARCHIVE_LOCK = "transfer-cold-archive";
+
+    /**
+     * The application config bean
+     *
+     * @see AppConf
+     */
+    private final AppConf appConf;
+    /**
+     * The TransferColdArchiveRepository bean
+     *
+     * @see TransferColdArchiveRepository
+     */
+    private final TransferColdArchiveRepository archiveRepository;
+    /**
+     * The TransferPartitionRepository bean
+     *
+     * @see TransferPartitionRepository
+     */
+    private final TransferPartitionRepository partitionRepository;
+    /**
+     * The CardOwnershipIndex bean
+     *
+     * @see CardOwnershipIndex
+     */
+    private final CardOwnershipIndex cardOwnershipIndex;
+    /**
+     * The TransferArchiveStorage bean
+     *
+     * @see TransferArchiveStorage
+     */
+    private final TransferArchiveStorage archiveStorage;
+    /**
+     * The JobLockRepository bean
+     *
+     * @see JobLockRepository
+     */
+    private final JobLockRepository jobLockRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    private final ObjectWriter transferWriter;
+
+    private final ObjectReader transferReader;
+
+    private final CompressorStreamFactory compressorStreamFactory = CompressorStreamFactory.getSingleton();
+
+    public TransferArchiveServiceImpl(AppConf appConf, TransferColdArchiveRepository archiveRepository,
+                                      TransferPartitionRepository partitionRepository,
+                                      CardOwnershipIndex cardOwnershipIndex, TransferArchiveStorage archiveStorage,
+                                      JobLockRepository jobLockRepository, TransactionTemplate transactionTemplate,
+                                      ObjectMapper objectMapper) {
+        this.appConf = appConf;
+        this.archiveRepository = archiveRepository;
+        this.partitionRepository = partitionRepository;
+        this.cardOwnershipIndex = cardOwnershipIndex;
+        this.archiveStorage = archiveStorage;
+        this.jobLockRepository = jobLockRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.transferWriter = objectMapper.writerFor(ArchivedTransferDTO.class);
+        this.transferReader = objectMapper.readerFor(ArchivedTransferDTO.class);
+    }
+
+    /**
+     * Archives the settled transfers of every attached monthly partition older than the configured number of months,
+     * oldest month first, chunk by chunk. Nothing is archived while another node is archiving.
+     *
+     * @return the number of archived transfers
+     */
+    @Override
+    public long archiveSettledTransfers() {
+        return jobLockRepository.runExclusively(ARCHIVE_LOCK, this::archiveExpiredPartitions).orElseGet(() -> {
+            log.info("Settled transfers are being archived by another node");
+            return 0L;
+        });
+    }
+
+    /**
+     * Archives the settled transfers of every attached monthly partition older than the configured number of months.
+     *
+     * @return the number of archived transfers
+     */
+    private long archiveExpiredPartitions() {
+        YearMonth oldestRetainedMonth = YearMonth.now().minusMonths(appConf.getTransferColdArchiveOlderThanMonths());
+        int chunkSize = appConf.getTransferColdArchiveChunkSize();
+
+        long startedAt = System.nanoTime();
+        long archived = 0;
+
+        for (Partition partition : partitionRepository.findPartitions()) {
+            if (!partition.month().isBefore(oldestRetainedMonth)) {
+                break;
+            }
+
+            long afterId = 0;
+            List<SettledTransfer> chunk;
+
+            do {
+                chunk = archiveRepository.findSettledTransfers(partition.month(), afterId, chunkSize);
+
+                if (!chunk.isEmpty()) {
+                    archiveChunk(partition.month(), chunk);
+                    afterId = chunk.get(chunk.size() - 1).id();
+                    archived += chunk.size();
+                    Throttling.throttle(startedAt, archived, appConf.getTransferColdArchiveRowsPerSecond());
+                }
+            } while (chunk.size() == chunkSize);
+        }
+
+        if (archived > 0) {
+            log.info("Archived {} settled transfers", archived);
+        }
+
+        return archived;
+    }
+
+    @Override
+    public List<ArchivedTransferDTO> getArchivedTransfers(@NotNull Long cardId, @NotNull YearMonth month) {
+        PrincipalExtractor.checkCurrentUser();
+        User user = PrincipalExtractor.getCurrentUser();
+
+        if (!user.isAdmin() && !cardOwnershipIndex.isOwner(cardId, user.getId())) {
+            throw new ProhibitedException(user.getId());
+        }
+
+        List<ArchivedTransferDTO> transfers = new ArrayList<>();
+
+        for (ArchiveFile file : archiveRepository.findFiles(cardId, month)) {
+            readFile(file, transfer -> cardId.equals(transfer.getFromCardId()) || cardId.equals(transfer.getToCardId()),
+                    transfers);
+        }
+
+        archiveRepository.findTransfersOfArchivedCards(cardId, month).stream()
+                .map(TransferArchiveServiceImpl::toDto)
+                .forEach(transfers::add);
+        transfers.sort(Comparator.comparing(ArchivedTransferDTO::getId));
+
+        return transfers;
+    }
+
+    /**
+     * Writes the chunk to a new archive file, then registers the file and deletes the transfers in one transaction.
+     *
+     * @param month the month the transfers were created in
+     * @param chunk the transfers to archive
+     */
+    private void archiveChunk(YearMonth month, List<SettledTransfer> chunk) {
+        String compression = appConf.getTransferColdArchiveCompression();
+        long firstTransferId = chunk.get(0).id();
+        long lastTransferId = chunk.get(chunk.size() - 1).id();
+
+        String relativePath = month.getYear() + "/" + String.format("%02d", month.getMonthValue()) + "/transfers-" +
+                month.format(FILE_MONTH_FORMAT) + "-" + firstTransferId + ".ndjson." + compression;
+
+        try {
+            writeFile(relativePath, compression, chunk);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write the transfer archive file " + relativePath, e);
+        }
+
+        Set<Long> cardIds = new TreeSet<>();
+        List<Long> transferIds = new ArrayList<>(chunk.size());
+        for (SettledTransfer transfer : chunk) {
+            cardIds.add(transfer.fromCardId());
+            cardIds.add(transfer.toCardId());
+            transferIds.add(transfer.id());
+        }
+
+        ArchiveFile file = new ArchiveFile(null, month, relativePath, compression, chunk.size(),
+                firstTransferId, lastTransferId);
+
+        int deleted = Objects.requireNonNull(transactionTemplate.execute(status -> {
+            archiveRepository.saveFile(file, cardIds);
+            return archiveRepository.deleteTransfers(month, transferIds, appConf.getTransferColdArchiveDeleteBatchSize());
+        }));
+
+        if (deleted != chunk.size()) {
+            log.warn("Archived {} transfers to {}, but deleted {}", chunk.size(), relativePath, deleted);
+        }
+    }
+
+    /**
+     * Writes the transfers to the archive storage.
+     *
+     * @param path the path of the archive file
+     * @param compression the name of the compressor
+     * @param chunk the transfers to write
+     * @throws IOException if the file cannot be written
+     */
+    private void writeFile(String path, String compression, List<SettledTransfer> chunk) throws IOException {
+        archiveStorage.write(path, out -> {
+            try (Writer writer = new BufferedWriter(new OutputStreamWriter(
+                    compressorStreamFactory.createCompressorOutputStream(compression, out), StandardCharsets.UTF_8))) {
+                for (SettledTransfer transfer : chunk) {
+                    writer.write(transferWriter.writeValueAsString(toDto(transfer)));
+                    writer.write('\n');
+                }
+            } catch (CompressorException e) {
+                throw new IOException("Unsupported compression: " + compression, e);
+            }
+        });
+    }
+
+    /**
+     * Reads the archive file sequentially and collects the transfers accepted by the filter.
+     *
+     * @param file the archive file
+     * @param filter the filter of the transfers
+     * @param transfers the list the accepted transfers are added to
+     * @throws UncheckedIOException if the file cannot be read
+     */
+    private void readFile(ArchiveFile file, Predicate<ArchivedTransferDTO> filter,
+                          List<ArchivedTransferDTO> transfers) {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(compressorStreamFactory.createCompressorInputStream(
+                file.compression(), new BufferedInputStream(archiveStorage.read(file.path()))), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                ArchivedTransferDTO transfer = transferReader.readValue(line);
+                if (filter.test(transfer)) {
+                    transfers.add(transfer);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read the transfer archive file " + file.path(), e);
+        } catch (CompressorException e) {
+            throw new IllegalStateException("Unsupported compression of the transfer archive file " + file.path(), e);
+        }
+    }
+
+    private static ArchivedTransferDTO toDto(SettledTransfer transfer) {
+        return ArchivedTransferDTO.builder()
+                .id(transfer.id())
+                .fromCardId(transfer.fromCardId())
+                .toCardId(transfer.toCardId())
+                .amount(transfer.amount())
+                .status(transfer.status())
+                .createdAt(transfer.createdAt())
+                .confirmedAt(transfer.confirmedAt())
+                .build();
+    }
+
+}
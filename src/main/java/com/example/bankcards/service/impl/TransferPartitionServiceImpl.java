@@ -0,0 +1,74 @@
+package com.example.bankcards.service.impl;
+
+import com.example.bankcards.config.app.AppConf;
+import com.example.bankcards.repository.TransferPartitionRepository;
+import com.example.bankcards.repository.TransferPartitionRepository.Partition;
+import com.example.bankcards.service.TransferPartitionService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.time.YearMonth;
+
+/**
+ * Implementation of the {@link TransferPartitionService} interface.
+ * <p>
+ * Detaching a partition takes a short exclusive lock on the transfers table, so partitions are detached
+ * one by one, each in its own transaction.
+ * </p>
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TransferPartitionServiceImpl implements TransferPartitionService {
+
+    /**
+     * The application config bean
+     *
+     * @see AppConf
+     */
+    private final AppConf appConf;
+    /**
+     * The TransferPartitionRepository bean
+     *
+     * @see TransferPartitionRepository
+     */
+    private final TransferPartitionRepository partitionRepository;
+
+    @Override
+    public int createFuturePartitions() {
+        YearMonth currentMonth = YearMonth.now();
+        int created = partitionRepository.createPartitions(currentMonth,
+                currentMonth.plusMonths(appConf.getTransferPartitionMonthsAhead()));
+
+        if (created > 0) {
+            log.info("Created {} transfer partitions", created);
+        }
+
+        return created;
+    }
+
+    @Override
+    public int detachExpiredPartitions() {
+        YearMonth oldestRetainedMonth = YearMonth.now().minusMonths(appConf.getTransferRetentionMonths());
+        int detached = 0;
+
+        for (Partition partition : partitionRepository.findPartitions()) {
+            if (!partition.month().isBefore(oldestRetainedMonth)) {
+                break;
+            }
+
+            if (partitionRepository.hasPendingTransfers(partition)) {
+                log.warn("Transfer partition {} still contains pending transfers and was not detached", partition.name());
+                continue;
+            }
+
+            partitionRepository.detachPartition(partition);
+            log.info("Detached transfer partition {}", partition.name());
+            detached++;
+        }
+
+        return detached;
+    }
+
+}
@@ -18,13 +18,14 @@ import com.example.bankcards.exception.ProhibitedException;
 import com.example.bankcards.repository.BackupAccountRepository;
 import com.example.bankcards.repository.CardRepository;
 import com.example.bankcards.repository.TransferRepository;
+import com.example.bankcards.repository.TransferRepository.PendingTransfer;
+import com.example.bankcards.service.CardOwnershipIndex;
 import com.example.bankcards.service.TransferService;
 import com.example.bankcards.util.PrincipalExtractor;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.jetbrains.annotations.NotNull;
 import org.springframework.context.ApplicationEventPublisher;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.retry.annotation.Backoff;
@@ -34,6 +35,7 @@ import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.*;
 
@@ -49,6 +51,13 @@ import static com.example.bankcards.util.Constants.ENROLMENT_TRANSFER_DETAILS;
 @Transactional
 @RequiredArgsConstructor
 public class TransferServiceImpl implements TransferService {
+
+    /** The number of pending transfers read at once by the pending sweep. */
+    private static final int PENDING_SWEEP_BATCH_SIZE = 500;
+
+    /** The creation date the pending sweep starts after; earlier than any transfer. */
+    private static final LocalDateTime PENDING_SWEEP_START = LocalDateTime.of(1970, 1, 1, 0, 0);
+
     /**
      * The application config bean
      *
@@ -73,6 +82,12 @@ public class TransferServiceImpl implements TransferService {
      * @see CardRepository
      */
     private final CardRepository cardRepository;
+    /**
+     * The CardOwnershipIndex bean
+     *
+     * @see CardOwnershipIndex
+     */
+    private final CardOwnershipIndex cardOwnershipIndex;
     /**
      * The BackupAccountRepository bean
      *
@@ -110,13 +125,13 @@ public class TransferServiceImpl implements TransferService {
         }
 
         fromCardId = Objects.requireNonNullElseGet(transferReqDTO.getFromCardId(),
-                () -> cardRepository.findIdByEncryptedCardNumber(fromCardNumber.encrypted()).orElseThrow());
+                () -> cardRepository.findIdByNumberHash(fromCardNumber.numberHash()).orElseThrow());
 
         toCardId = Objects.requireNonNullElseGet(transferReqDTO.getToCardId(),
-                () -> cardRepository.findIdByEncryptedCardNumber(toCardNumber.encrypted()).orElseThrow());
+                () -> cardRepository.findIdByNumberHash(toCardNumber.numberHash()).orElseThrow());
 
         Long currentUserId = currentUser.getId();
-        Long fromCardOwnerId = cardRepository.getOwnerIdById(fromCardId).orElseThrow();
+        Long fromCardOwnerId = cardOwnershipIndex.getOwnerId(fromCardId);
 
         if (!fromCardOwnerId.equals(currentUserId)) {
             log.error("Prohibited action: Card owner id: {} does not match current user id: {}", fromCardOwnerId, currentUserId);
@@ -141,7 +156,7 @@ public class TransferServiceImpl implements TransferService {
 
         Card fromCard = fromCardOpt.get();
 
-        checkIfSenderCardIsLocked(fromCard.getStatus(), fromCardId);
+        checkIfSenderCardIsLocked(fromCard.getEffectiveStatus(), fromCardId);
 
         Optional<Card> toCardOpt = cardRepository.findById(toCardId);
 
@@ -155,7 +170,7 @@ public class TransferServiceImpl implements TransferService {
 
         checkIfTransferAvailableForYourselfOnly(fromCardOwnerId, toCardOwnerId, fromCardId, toCardId);
 
-        checkIfRecipientCardIsLocked(toCard.getStatus(), toCardId);
+        checkIfRecipientCardIsLocked(toCard.getEffectiveStatus(), toCardId);
         log.info("Creating transfer request from account id: {} by user id: {}", fromCardId, currentUserId);
 
 
@@ -218,6 +233,7 @@ public class TransferServiceImpl implements TransferService {
 
     /**
      * Performs the actual transfer operation from one card to another.
+     * The transfer is loaded together with both cards by a single query, the owners of the cards are not loaded.
      *
      * @param transferDTO the transfer details including the amount, sender, and recipient card IDs
      * @return the completed transfer
@@ -225,15 +241,19 @@ public class TransferServiceImpl implements TransferService {
      */
     @Transactional(propagation = Propagation.REQUIRES_NEW)
     protected Transfer carryOutTransfer(@NotNull TransferMessageDTO transferDTO) {
-        Card toCard = cardRepository.findById(transferDTO.getToCardId()).orElseThrow();
+        LocalDateTime createdFrom = transferDTO.getCreatedAt().toLocalDate().withDayOfMonth(1).atStartOfDay();
+        Transfer transfer = transferRepository.findByIdCreatedBetween(transferDTO.getId(),
+                createdFrom, createdFrom.plusMonths(1)).orElseThrow();
+
+        Card toCard = transfer.getToCard();
         Long toCardOwnerId = toCard.getOwner().getId();
 
-        checkIfRecipientCardIsLocked(toCard.getStatus(), toCard.getId());
+        checkIfRecipientCardIsLocked(toCard.getEffectiveStatus(), toCard.getId());
 
-        Card fromCard = cardRepository.findById(transferDTO.getFromCardId()).orElseThrow();
+        Card fromCard = transfer.getFromCard();
         Long fromCardOwnerId = fromCard.getOwner().getId();
 
-        checkIfSenderCardIsLocked(fromCard.getStatus(), fromCard.getId());
+        checkIfSenderCardIsLocked(fromCard.getEffectiveStatus(), fromCard.getId());
         checkIfTransferAvailableForYourselfOnly(fromCardOwnerId, toCardOwnerId, fromCard.getId(), toCard.getId());
 
         BigDecimal transferAmount = transferDTO.getAmount();
@@ -247,9 +267,6 @@ public class TransferServiceImpl implements TransferService {
         transferDTO.setStatus(TransferStatus.COMPLETED);
         transferDTO.setConfirmedAt(LocalDateTime.now());
 
-        Transfer transfer = transferRepository.findById(transferDTO.getId()).orElseThrow();
-        transfer.setFromCard(fromCard);
-        transfer.setToCard(toCard);
         transfer.setStatus(TransferStatus.COMPLETED);
         transfer.setConfirmedAt(transferDTO.getConfirmedAt());
 
@@ -278,26 +295,35 @@ public class TransferServiceImpl implements TransferService {
     }
 
     /**
-     * Cancels all pending transfers that were created today.
+     * Cancels all pending transfers that were created before today.
      * This method processes all transfers with a status of pending and reverts them.
+     * <p>
+     * The transfers are looked up by status over the whole table, including partitions older than
+     * the retention period which are kept because of their pending transfers. Each transfer is then
+     * locked within the month it was created in, so the lock touches a single partition.
+     * </p>
      */
     @Override
     public void cancelPendingTransfers() {
-        int page = 0;
-        int size = 500;
-        Page<Long> transferIds;
+        LocalDateTime today = LocalDate.now().atStartOfDay();
+        LocalDateTime afterCreatedAt = PENDING_SWEEP_START;
+        long afterId = 0L;
+        List<PendingTransfer> transfers;
 
         do {
-            transferIds = transferRepository.findTransferIdsWithStatusPendingAndCreatedAToToday(PageRequest.of(page, size));
-            transferIds.forEach(transferId -> {
+            transfers = transferRepository.findPendingTransfersCreatedBefore(today, afterCreatedAt, afterId,
+                    PageRequest.ofSize(PENDING_SWEEP_BATCH_SIZE));
+            for (PendingTransfer transfer : transfers) {
+                LocalDateTime createdFrom = transfer.getCreatedAt().toLocalDate().withDayOfMonth(1).atStartOfDay();
                 try {
-                    processSingleTransfer(transferId);
+                    processSingleTransfer(transfer.getId(), createdFrom, createdFrom.plusMonths(1));
                 } catch (Exception e) {
-                    log.error("Error processing transfer cancel {}: {}", transferId, e.getMessage());
+                    log.error("Error processing transfer cancel {}: {}", transfer.getId(), e.getMessage());
                 }
-            });
-            page++;
-        } while (transferIds.hasNext());
+                afterCreatedAt = transfer.getCreatedAt();
+                afterId = transfer.getId();
+            }
+        } while (transfers.size() == PENDING_SWEEP_BATCH_SIZE);
     }
 
     /**
@@ -305,14 +331,16 @@ public class TransferServiceImpl implements TransferService {
      * If the transfer fails due to an optimistic locking exception, it will be retried.
      *
      * @param transferId the ID of the transfer to be processed
+     * @param createdFrom the start of the period the transfer was created in, inclusive
+     * @param createdTo the end of the period the transfer was created in, exclusive
      */
     @Retryable(
             retryFor = {ObjectOptimisticLockingFailureException.class},
             backoff = @Backoff(delay = 100)
     )
     @Transactional(propagation = Propagation.REQUIRES_NEW)
-    protected void processSingleTransfer(Long transferId) {
-        transferRepository.findByIdForUpdate(transferId).ifPresent(transfer -> {
+    protected void processSingleTransfer(Long transferId, LocalDateTime createdFrom, LocalDateTime createdTo) {
+        transferRepository.findByIdForUpdate(transferId, createdFrom, createdTo).ifPresent(transfer -> {
 
             transfer.setStatus(TransferStatus.FAILED);
 
@@ -332,7 +360,7 @@ public class TransferServiceImpl implements TransferService {
         BigDecimal transferAmount = transfer.getAmount();
 
         Card fromCard = transfer.getFromCard();
-        if (CardStatus.isLockedForTransfer(fromCard.getStatus())) {
+        if (CardStatus.isLockedForTransfer(fromCard.getEffectiveStatus())) {
             createBackupAccountIfCardIsBlock(transfer);
         }
 
@@ -385,7 +413,7 @@ public class TransferServiceImpl implements TransferService {
      * Checks if the sender's card is locked for transfers.
      * If the card is locked, a {@link ProhibitedException} is thrown.
      *
-     * @param status the current status of the sender's card
+     * @param status the effective status of the sender's card
      * @param cardId the ID of the sender's card
      * @throws ProhibitedException if the card is locked
      */
@@ -400,7 +428,7 @@ public class TransferServiceImpl implements TransferService {
      * Checks if the recipient's card is locked for transfers.
      * If the card is locked, a {@link ProhibitedException} is thrown.
      *
-     * @param status the current status of the recipient's card
+     * @param status the effective status of the recipient's card
      * @param cardId the ID of the recipient's card
      * @throws ProhibitedException if the card is locked
      */
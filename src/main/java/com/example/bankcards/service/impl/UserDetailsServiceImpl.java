@@ -1,7 +1,10 @@
 package com.example.bankcards.service.impl;
 
+import com.example.bankcards.config.datasource.ReplicaRoutingDataSource;
+import com.example.bankcards.entity.User;
 import com.example.bankcards.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
+import org.hibernate.Hibernate;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
@@ -24,6 +27,8 @@ public class UserDetailsServiceImpl implements UserDetailsService {
 
     /**
      * Loads user details by username for authentication purposes.
+     * The roles of the user are initialized from the second-level cache, so the user can be used outside the transaction.
+     * The user is read from the primary database, since the loaded roles are shared through the second-level cache.
      *
      * @param username the username of the user to be loaded.
      * @return {@link UserDetails} the user details for the user with the specified username.
@@ -31,8 +36,12 @@ public class UserDetailsServiceImpl implements UserDetailsService {
      */
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        return userRepository.findByUsername(username)
-                .orElseThrow(() -> new UsernameNotFoundException("User not found with username: " + username));
+        return ReplicaRoutingDataSource.onPrimary(() -> {
+            User user = userRepository.findByUsername(username)
+                    .orElseThrow(() -> new UsernameNotFoundException("User not found with username: " + username));
+            Hibernate.initialize(user.getRoleSet());
+            return user;
+        });
     }
 
 }
\ No newline at end of file
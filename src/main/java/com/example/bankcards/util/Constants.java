@@ -9,6 +9,7 @@ public interface Constants {
     String REFRESH_TOKEN_KEY = "refresh-token";
     String ID_CLAIM = "id";
     String ROLE_CLAIM = "role";
+    String FAMILY_CLAIM = "fam";
 
     String ENROLMENT_TRANSFER_DETAILS = "from card id: %d, Reason: card is blocked for transfers.";
 
@@ -59,6 +60,12 @@ public interface Constants {
     String TRANSFER_AMOUNT_CANNOT_BE_NUL = "Transfer amount cannot be null";
     String TRANSFER_AMOUNT_MUST_BE_POSITIVE = "Hold balance must be positive!";
     String VERSION_CANNOT_BE_NULL = "Version must be specified";
+    int MAX_BULK_CARDS = 10000;
+    String BULK_CARDS_CANNOT_BE_EMPTY = "Card list cannot be null or empty!";
+    String BULK_CARDS_SIZE_EXCEEDED = "Card list cannot exceed " + MAX_BULK_CARDS + " items!";
+    String ENROLLMENT_INVALID_ROW = "Invalid row: expected a card id and a positive amount with at most 2 decimal places";
+    String ENROLLMENT_CARD_NOT_FOUND = "Card not found";
+    String ENROLLMENT_CARD_LOCKED = "Card is blocked or expired";
 
     String USER_NOT_FOUND = "User with id: %d not found!";
     String ACTION_IS_PROHIBITED = "Action is prohibited for current user! User id: %s";
@@ -25,6 +25,8 @@ public class PrincipalExtractor {
      *
      * <p>If no authentication is found or the authentication is not authenticated, the method returns {@code null}.
      * The method checks if the principal object in the authentication is an instance of the {@link User} class.
+     * In the stateless mode the user is built from the access token and only has the ID, the username and the roles,
+     * it is not managed by the persistence context and must not be saved.
      *
      * @return The current {@link User} object if the user is authenticated, or {@code null} if the user is not authenticated.
      */
@@ -60,6 +62,24 @@ public class PrincipalExtractor {
         return user.getId();
     }
 
+    /**
+     * Retrieves the scope of the data visible to the current user, used to keep the cached results
+     * of different users apart.
+     *
+     * <p>Administrators see the same data and share the scope {@code admin}, other users get a scope of their own.
+     *
+     * @return The scope of the current user, or {@code anonymous} if no authenticated user is found.
+     */
+    public static String getDataScope() {
+        User user = getCurrentUser();
+
+        if (Objects.isNull(user)) {
+            return "anonymous";
+        }
+
+        return user.isAdmin() ? "admin" : "user:" + user.getId();
+    }
+
     /**
      * Checks if the current user is authenticated and throws an exception if the user is not found.
      *
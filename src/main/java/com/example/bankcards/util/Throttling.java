@@ -0,0 +1,39 @@
+package com.example.bankcards.util;
+
+import lombok.experimental.UtilityClass;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Utility class for limiting the throughput of background jobs that process rows in chunks.
+ */
+@UtilityClass
+public class Throttling {
+
+    /**
+     * Pauses the current thread if the processed rows exceed the rows-per-second budget.
+     *
+     * @param startedAt the time the job was started, in nanoseconds
+     * @param processed the number of rows processed so far
+     * @param rowsPerSecond the rows-per-second budget, zero or less disables throttling
+     * @throws IllegalStateException if the thread is interrupted while paused
+     */
+    public static void throttle(long startedAt, long processed, int rowsPerSecond) {
+        if (rowsPerSecond <= 0) {
+            return;
+        }
+
+        long expectedNanos = TimeUnit.SECONDS.toNanos(processed) / rowsPerSecond;
+        long aheadNanos = expectedNanos - (System.nanoTime() - startedAt);
+
+        if (aheadNanos > 0) {
+            try {
+                TimeUnit.NANOSECONDS.sleep(aheadNanos);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Throttled job was interrupted", e);
+            }
+        }
+    }
+
+}
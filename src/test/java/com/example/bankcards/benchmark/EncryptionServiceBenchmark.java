@@ -0,0 +1,97 @@
+package com.example.bankcards.benchmark;
+
+import com.example.bankcards.config.crypto.CryptoConfig;
+import com.example.bankcards.service.impl.EncryptionServiceImpl;
+import com.example.bankcards.utils.ObjectBuilder;
+import com.example.bankcards.utils.TestConstants;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import javax.crypto.Cipher;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the pooled {@link EncryptionServiceImpl} with the previous implementation,
+ * which looked up and initialized a new {@link Cipher} on every call.
+ * <p>
+ * Run with {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.example.bankcards.benchmark.EncryptionServiceBenchmark}
+ * or from the IDE.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EncryptionServiceBenchmark {
+
+    private static final int BATCH_SIZE = 500;
+
+    @Param({TestConstants.CRYPTO_ECB_TRANSFORMATION, TestConstants.CRYPTO_GCM_TRANSFORMATION})
+    private String transformation;
+
+    private EncryptionServiceImpl pooled;
+
+    private CryptoConfig cryptoConfig;
+
+    private SecretKeySpec keySpec;
+
+    private List<String> batch;
+
+    @Setup
+    public void setUp() {
+        cryptoConfig = ObjectBuilder.buildCryptoConfig(transformation);
+        pooled = new EncryptionServiceImpl(cryptoConfig);
+        keySpec = new SecretKeySpec(TestConstants.CRYPTO_SECRET_KEY.getBytes(StandardCharsets.UTF_8),
+                TestConstants.CRYPTO_ALGORITHM);
+        batch = Collections.nCopies(BATCH_SIZE, TestConstants.VISA_CARD_NUMBER);
+    }
+
+    @Benchmark
+    public String encryptPerCallCipher() throws Exception {
+        Cipher cipher = Cipher.getInstance(cryptoConfig.getCryptoAlgorithmWithTransformation());
+        if (cryptoConfig.isGcmMode()) {
+            cipher.init(Cipher.ENCRYPT_MODE, keySpec, new GCMParameterSpec(128, new byte[12]));
+        } else {
+            cipher.init(Cipher.ENCRYPT_MODE, keySpec);
+        }
+        byte[] encrypted = cipher.doFinal(TestConstants.VISA_CARD_NUMBER.getBytes(StandardCharsets.UTF_8));
+        return Base64.getEncoder().encodeToString(encrypted);
+    }
+
+    @Benchmark
+    public String encryptPooledCipher() {
+        return pooled.encrypt(TestConstants.VISA_CARD_NUMBER);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public List<String> encryptAllPooledCipher() {
+        return pooled.encryptAll(batch);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public String encryptPooledCipherContended() {
+        return pooled.encrypt(TestConstants.VISA_CARD_NUMBER);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(EncryptionServiceBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+
+}
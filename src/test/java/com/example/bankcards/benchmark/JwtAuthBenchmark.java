@@ -0,0 +1,83 @@
+package com.example.bankcards.benchmark;
+
+import com.example.bankcards.service.impl.JwtProvider;
+import com.example.bankcards.utils.ObjectBuilder;
+import com.example.bankcards.utils.TestConstants;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import javax.crypto.SecretKey;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cost of authenticating a request by its access token.
+ * <p>
+ * Compares the previous implementation, which decoded the key and built a new parser for the validation
+ * and again for the extraction of the claims, with the shared parser and with the cache of verified claims.
+ * Run with {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.example.bankcards.benchmark.JwtAuthBenchmark}
+ * or from the IDE.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtAuthBenchmark {
+
+    private JwtProvider sharedParser;
+
+    private JwtProvider cachedClaims;
+
+    private String token;
+
+    @Setup
+    public void setUp() {
+        sharedParser = ObjectBuilder.buildJwtProvider(TestConstants.JWT_ACCESS_EXPIRATION_MINUTES, 0);
+        cachedClaims = ObjectBuilder.buildJwtProvider(TestConstants.JWT_ACCESS_EXPIRATION_MINUTES, 10_000);
+        token = sharedParser.generateAccessToken(ObjectBuilder.buildAdmin());
+    }
+
+    @Benchmark
+    public String perCallKeyAndDoubleParse() {
+        Jwts.parserBuilder().setSigningKey(decodeKey()).build().parseClaimsJws(token);
+        return Jwts.parserBuilder().setSigningKey(decodeKey()).build().parseClaimsJws(token).getBody().getSubject();
+    }
+
+    @Benchmark
+    public String sharedParserSingleParse() {
+        return sharedParser.parseAccessToken(token).map(Claims::getSubject).orElseThrow();
+    }
+
+    @Benchmark
+    public String cachedVerifiedClaims() {
+        return cachedClaims.parseAccessToken(token).map(Claims::getSubject).orElseThrow();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public String cachedVerifiedClaimsContended() {
+        return cachedClaims.parseAccessToken(token).map(Claims::getSubject).orElseThrow();
+    }
+
+    private static SecretKey decodeKey() {
+        return Keys.hmacShaKeyFor(Decoders.BASE64.decode(TestConstants.JWT_ACCESS_SECRET));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(JwtAuthBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+
+}
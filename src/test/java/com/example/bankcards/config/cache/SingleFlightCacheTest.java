@@ -0,0 +1,175 @@
+package com.example.bankcards.config.cache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+
+class SingleFlightCacheTest {
+
+    private ConcurrentMapCache delegate;
+
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        delegate = new ConcurrentMapCache("cardsBySearch");
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    void get_ConcurrentMisses_ShouldRunLoaderOnce() throws Exception {
+        SingleFlightCache cache = new SingleFlightCache(delegate, Duration.ofHours(1), 0,
+                Duration.ofSeconds(10), value -> true, Runnable::run, meterRegistry);
+        AtomicInteger loaderCalls = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        int callers = 8;
+
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < callers; i++) {
+                results.add(executor.submit(() -> cache.get("key", () -> {
+                    loaderCalls.incrementAndGet();
+                    release.await();
+                    return "value";
+                })));
+            }
+
+            while (counter("coalesced") + loaderCalls.get() < callers) {
+                Thread.sleep(5);
+            }
+            release.countDown();
+
+            for (Future<String> result : results) {
+                assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo("value");
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(loaderCalls.get()).isEqualTo(1);
+        assertThat(counter("loaded")).isEqualTo(1);
+        assertThat(counter("coalesced")).isEqualTo(callers - 1);
+        assertThat(cache.get("key", String.class)).isEqualTo("value");
+    }
+
+    @Test
+    void get_ValueNotMeetingCondition_ShouldNotBeStored() {
+        SingleFlightCache cache = new SingleFlightCache(delegate, Duration.ofHours(1), 0,
+                Duration.ofSeconds(10), value -> !"".equals(value), Runnable::run, meterRegistry);
+
+        assertThat(cache.get("key", () -> "")).isEmpty();
+
+        assertThat(cache.get("key")).isNull();
+        assertThat(cache.get("key", () -> "value")).isEqualTo("value");
+        assertThat(cache.get("key", () -> "other")).isEqualTo("value");
+    }
+
+    @Test
+    void get_EntryCloseToExpiry_ShouldBeRefreshedEarlyOnExecutor() {
+        Duration ttl = Duration.ofMinutes(1);
+        List<Runnable> refreshes = new ArrayList<>();
+        SingleFlightCache cache = new SingleFlightCache(delegate, ttl, 1.0,
+                Duration.ofSeconds(10), value -> true, refreshes::add, meterRegistry);
+        delegate.put("key", new SingleFlightCache.CachedValue("stale",
+                System.currentTimeMillis() - ttl.toMillis() + 1000, TimeUnit.HOURS.toMillis(1)));
+
+        assertThat(cache.get("key", () -> "fresh")).isEqualTo("stale");
+        assertThat(cache.get("key", () -> "fresh")).isEqualTo("stale");
+        assertThat(refreshes).hasSize(1);
+
+        refreshes.get(0).run();
+
+        assertThat(counter("refreshed")).isEqualTo(1);
+        assertThat(cache.get("key", String.class)).isEqualTo("fresh");
+    }
+
+    @Test
+    void get_RefreshRejected_ShouldKeepCachedValue_AndAllowLaterRefresh() {
+        Duration ttl = Duration.ofMinutes(1);
+        AtomicInteger attempts = new AtomicInteger();
+        SingleFlightCache cache = new SingleFlightCache(delegate, ttl, 1.0, Duration.ofSeconds(10), value -> true,
+                task -> {
+                    if (attempts.incrementAndGet() == 1) {
+                        throw new RejectedExecutionException();
+                    }
+                    task.run();
+                }, meterRegistry);
+        delegate.put("key", new SingleFlightCache.CachedValue("stale",
+                System.currentTimeMillis() - ttl.toMillis() + 1000, TimeUnit.HOURS.toMillis(1)));
+
+        assertThat(cache.get("key", () -> "fresh")).isEqualTo("stale");
+        assertThat(cache.get("key", () -> "fresh")).isEqualTo("stale");
+
+        assertThat(attempts.get()).isEqualTo(2);
+        assertThat(cache.get("key", String.class)).isEqualTo("fresh");
+    }
+
+    @Test
+    void get_KeyEvictedDuringLoad_ShouldNotStoreLoadedValue() {
+        SingleFlightCache cache = new SingleFlightCache(delegate, Duration.ofHours(1), 0,
+                Duration.ofSeconds(10), value -> true, Runnable::run, meterRegistry);
+
+        assertThat(cache.get("key", () -> {
+            cache.evict("key");
+            return "stale";
+        })).isEqualTo("stale");
+        assertThat(cache.get("key")).isNull();
+
+        assertThat(cache.get("key", () -> {
+            cache.clear();
+            return "stale";
+        })).isEqualTo("stale");
+        assertThat(cache.get("key")).isNull();
+
+        assertThat(cache.get("key", () -> "fresh")).isEqualTo("fresh");
+        assertThat(cache.get("key", String.class)).isEqualTo("fresh");
+    }
+
+    @Test
+    void put_ShouldRecordAverageLoadTime_SoThatEntryCanBeRefreshedEarly() {
+        SingleFlightCache cache = new SingleFlightCache(delegate, Duration.ofHours(1), 1.0,
+                Duration.ofSeconds(10), value -> true, Runnable::run, meterRegistry);
+
+        cache.get("loaded", () -> {
+            Thread.sleep(20);
+            return "value";
+        });
+        cache.put("key", "cached");
+
+        SingleFlightCache.CachedValue stored = (SingleFlightCache.CachedValue) delegate.get("key").get();
+        assertThat(stored.getLoadMillis()).isGreaterThanOrEqualTo(20);
+    }
+
+    @Test
+    void get_FreshEntry_ShouldNotBeRefreshed() {
+        SingleFlightCache cache = new SingleFlightCache(delegate, Duration.ofHours(1), 1.0,
+                Duration.ofSeconds(10), value -> true, Runnable::run, meterRegistry);
+        cache.put("key", "cached");
+
+        assertThat(cache.get("key", () -> "fresh")).isEqualTo("cached");
+
+        assertThat(counter("refreshed")).isZero();
+        assertThat(counter("loaded")).isZero();
+    }
+
+    private double counter(String result) {
+        return meterRegistry.get("cache.singleflight.loads").tag("result", result).counter().count();
+    }
+
+}
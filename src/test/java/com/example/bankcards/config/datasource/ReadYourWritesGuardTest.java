@@ -0,0 +1,23 @@
+package com.example.bankcards.config.datasource;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.*;
+
+class ReadYourWritesGuardTest {
+
+    @Test
+    void requiresPrimary_ShouldOnlyHoldForUsersWhoWroteWithinWindow() throws InterruptedException {
+        ReadYourWritesGuard guard = new ReadYourWritesGuard(50);
+
+        guard.recordWrite("user@bank.com");
+
+        assertThat(guard.requiresPrimary("user@bank.com")).isTrue();
+        assertThat(guard.requiresPrimary("admin@bank.com")).isFalse();
+
+        Thread.sleep(60);
+
+        assertThat(guard.requiresPrimary("user@bank.com")).isFalse();
+    }
+
+}
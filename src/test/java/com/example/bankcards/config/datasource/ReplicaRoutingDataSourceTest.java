@@ -0,0 +1,100 @@
+package com.example.bankcards.config.datasource;
+
+import com.example.bankcards.BaseTest;
+import liquibase.Liquibase;
+import liquibase.database.jvm.JdbcConnection;
+import liquibase.resource.ClassLoaderResourceAccessor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.sql.Connection;
+
+import static com.example.bankcards.utils.TestConstants.*;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs against a second Postgres container standing in for the replica. The same migrations are applied to it,
+ * since repository reads are read-only transactions, and the containers are told apart by the database name.
+ */
+public class ReplicaRoutingDataSourceTest extends BaseTest {
+
+    private static final String REPLICA_DATABASE = "replica";
+
+    private static final PostgreSQLContainer<?> replica = new PostgreSQLContainer<>("postgres:latest")
+            .withDatabaseName(REPLICA_DATABASE);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @DynamicPropertySource
+    static void registerReplicaProperties(DynamicPropertyRegistry registry) {
+        replica.start();
+        migrate(replica);
+        registry.add("spring.application.datasource.replica.enabled", () -> true);
+        registry.add("spring.application.datasource.replica.url", replica::getJdbcUrl);
+        registry.add("spring.application.datasource.replica.username", replica::getUsername);
+        registry.add("spring.application.datasource.replica.password", replica::getPassword);
+        registry.add("spring.application.datasource.replica.readYourWritesMillis", () -> 60_000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        clearAuthentication();
+    }
+
+    @Test
+    public void readOnlyTransaction_ShouldUseReplica() {
+        assertThat(currentDatabase(true)).isEqualTo(REPLICA_DATABASE);
+    }
+
+    @Test
+    public void readWriteTransaction_ShouldUsePrimary() {
+        assertThat(currentDatabase(false)).isNotEqualTo(REPLICA_DATABASE);
+    }
+
+    @Test
+    public void readOnlyTransaction_ShouldUsePrimary_AfterOwnWrite() {
+        setAuthentication(REGULAR_USERNAME, REGULAR_RAW_PASSWORD);
+        assertThat(currentDatabase(true)).isEqualTo(REPLICA_DATABASE);
+
+        currentDatabase(false);
+
+        assertThat(currentDatabase(true)).isNotEqualTo(REPLICA_DATABASE);
+
+        setAuthentication(ADMIN_USERNAME, ADMIN_RAW_PASSWORD);
+        assertThat(currentDatabase(true)).isEqualTo(REPLICA_DATABASE);
+    }
+
+    @Test
+    public void readOnlyTransaction_ShouldUsePrimary_WithPrimaryHint() {
+        assertThat(ReplicaRoutingDataSource.onPrimary(() -> currentDatabase(true))).isNotEqualTo(REPLICA_DATABASE);
+        assertThat(currentDatabase(true)).isEqualTo(REPLICA_DATABASE);
+    }
+
+    private static void migrate(PostgreSQLContainer<?> container) {
+        try (Connection connection = container.createConnection("")) {
+            new Liquibase("db/migration/test-changelog-master.xml", new ClassLoaderResourceAccessor(),
+                    new JdbcConnection(connection)).update("");
+        } catch (Exception e) {
+            throw new IllegalStateException("Failed to migrate the replica", e);
+        }
+    }
+
+    private String currentDatabase(boolean readOnly) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(readOnly);
+        return transactionTemplate.execute(status ->
+                jdbcTemplate.queryForObject("SELECT current_database()", String.class));
+    }
+
+}
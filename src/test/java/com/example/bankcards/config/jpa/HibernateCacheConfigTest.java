@@ -0,0 +1,74 @@
+package com.example.bankcards.config.jpa;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.hibernate.cache.spi.RegionFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import java.util.OptionalLong;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+
+class HibernateCacheConfigTest {
+
+    @Test
+    void hibernateCacheManager_ShouldCreateBoundedRegions() {
+        HibernateCacheConfig config = new HibernateCacheConfig();
+        ReflectionTestUtils.setField(config, "referenceDataMaxSize", 10L);
+        ReflectionTestUtils.setField(config, "roleSetsMaxSize", 20L);
+        ReflectionTestUtils.setField(config, "roleSetsExpireAfterWriteMinutes", 5L);
+        ReflectionTestUtils.setField(config, "queryResultsMaxSize", 30L);
+
+        try (CacheManager cacheManager = config.hibernateCacheManager()) {
+            assertThat(configurationOf(cacheManager, HibernateCacheConfig.ROLE_REGION).getMaximumSize())
+                    .isEqualTo(OptionalLong.of(10));
+
+            CaffeineConfiguration<?, ?> roleSets = configurationOf(cacheManager, HibernateCacheConfig.USER_ROLE_SET_REGION);
+            assertThat(roleSets.getMaximumSize()).isEqualTo(OptionalLong.of(20));
+            assertThat(roleSets.getExpireAfterWrite()).isEqualTo(OptionalLong.of(TimeUnit.MINUTES.toNanos(5)));
+
+            assertThat(configurationOf(cacheManager, RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME)
+                    .getMaximumSize()).isEqualTo(OptionalLong.of(30));
+            assertThat(configurationOf(cacheManager, RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME)
+                    .getMaximumSize()).isEqualTo(OptionalLong.of(10));
+        }
+    }
+
+    @Test
+    void hibernateCacheMetrics_ShouldPublishRegionHitsAndMisses() {
+        HibernateCacheConfig config = new HibernateCacheConfig();
+        ReflectionTestUtils.setField(config, "referenceDataMaxSize", 10L);
+        ReflectionTestUtils.setField(config, "roleSetsMaxSize", 20L);
+        ReflectionTestUtils.setField(config, "roleSetsExpireAfterWriteMinutes", 5L);
+        ReflectionTestUtils.setField(config, "queryResultsMaxSize", 30L);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+        try (CacheManager cacheManager = config.hibernateCacheManager()) {
+            config.hibernateCacheMetrics(cacheManager).bindTo(registry);
+            Cache<Object, Object> roles = cacheManager.getCache(HibernateCacheConfig.ROLE_REGION);
+            roles.get(1L);
+            roles.put(1L, "ROLE_USER");
+            roles.get(1L);
+            roles.get(1L);
+
+            assertThat(registry.get("cache.gets").tag("cache", HibernateCacheConfig.ROLE_REGION)
+                    .tag("result", "hit").functionCounter().count()).isEqualTo(2);
+            assertThat(registry.get("cache.gets").tag("cache", HibernateCacheConfig.ROLE_REGION)
+                    .tag("result", "miss").functionCounter().count()).isEqualTo(1);
+            assertThat(registry.get("cache.gets").tag("cache", HibernateCacheConfig.USER_ROLE_SET_REGION)
+                    .tag("result", "hit").functionCounter().count()).isZero();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static CaffeineConfiguration<?, ?> configurationOf(CacheManager cacheManager, String region) {
+        Cache<Object, Object> cache = cacheManager.getCache(region);
+        assertThat(cache).isNotNull();
+        return cache.getConfiguration(CaffeineConfiguration.class);
+    }
+
+}
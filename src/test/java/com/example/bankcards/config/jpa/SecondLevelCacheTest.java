@@ -0,0 +1,62 @@
+package com.example.bankcards.config.jpa;
+
+import com.example.bankcards.BaseTest;
+import com.example.bankcards.entity.enums.RoleEnum;
+import com.example.bankcards.repository.RoleRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.core.userdetails.UserDetailsService;
+
+import static com.example.bankcards.utils.TestConstants.ADMIN_USERNAME;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class SecondLevelCacheTest extends BaseTest {
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private UserDetailsService userDetailsService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+    }
+
+    @Test
+    public void getByRole_ShouldBeServedFromQueryCache() {
+        roleRepository.getByRole(RoleEnum.ROLE_ADMIN).orElseThrow();
+
+        statistics.clear();
+        roleRepository.getByRole(RoleEnum.ROLE_ADMIN).orElseThrow();
+
+        assertThat(statistics.getQueryCacheHitCount()).isEqualTo(1);
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+    }
+
+    @Test
+    public void loadUserByUsername_ShouldTakeRolesFromCollectionCache() {
+        userDetailsService.loadUserByUsername(ADMIN_USERNAME);
+
+        statistics.clear();
+        assertThat(userDetailsService.loadUserByUsername(ADMIN_USERNAME).getAuthorities()).isNotEmpty();
+
+        assertThat(statistics.getCacheRegionStatistics(HibernateCacheConfig.USER_ROLE_SET_REGION).getHitCount())
+                .isEqualTo(1);
+        assertThat(statistics.getCacheRegionStatistics(HibernateCacheConfig.ROLE_REGION).getHitCount())
+                .isPositive();
+        assertThat(statistics.getCollectionFetchCount()).isZero();
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+}
@@ -0,0 +1,165 @@
+package com.example.bankcards.repository.impl;
+
+import com.example.bankcards.BaseTest;
+import com.example.bankcards.dto.api.req.BulkCardStatusDTO;
+import com.example.bankcards.dto.api.req.EnrollDTO;
+import com.example.bankcards.dto.api.req.MoneyTransferReqDTO;
+import com.example.bankcards.dto.api.req.UpdateCardDTO;
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.enums.CardStatus;
+import com.example.bankcards.entity.enums.CardType;
+import com.example.bankcards.events.processors.TransferQueueProcessor;
+import com.example.bankcards.repository.CardPortfolioSummaryRepository;
+import com.example.bankcards.repository.CardPortfolioSummaryRepository.Bucket;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.service.CardService;
+import com.example.bankcards.service.TransferService;
+import com.example.bankcards.utils.ObjectBuilder;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Set;
+
+import static com.example.bankcards.utils.TestConstants.*;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks that the card portfolio summaries maintained by the database triggers match the cards
+ * after every kind of card change.
+ */
+public class CardPortfolioSummaryRepositoryImplTest extends BaseTest {
+
+    @Autowired
+    private CardPortfolioSummaryRepository cardPortfolioSummaryRepository;
+
+    @Autowired
+    private CardRepository cardRepository;
+
+    @Autowired
+    private CardService cardService;
+
+    @Autowired
+    private TransferService transferService;
+
+    @Autowired
+    private TransferQueueProcessor transferQueueProcessor;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        Card visaCard = cardRepository.findById(VISA_CARD_ID_OWNER_ADMIN).orElseThrow();
+        Card mastercardCard = cardRepository.findById(MASTERCARD_CARD_ID_OWNER_ADMIN).orElseThrow();
+
+        visaCard.releaseFromHold(visaCard.getHold());
+        visaCard.setBalance(new BigDecimal("200.00"));
+        visaCard.setStatus(CardStatus.ACTIVE);
+        mastercardCard.releaseFromHold(mastercardCard.getHold());
+        mastercardCard.setBalance(BigDecimal.ZERO);
+        mastercardCard.setStatus(CardStatus.ACTIVE);
+
+        cardRepository.saveAllAndFlush(List.of(visaCard, mastercardCard));
+        super.setAuthentication(ADMIN_USERNAME, ADMIN_RAW_PASSWORD);
+    }
+
+    @AfterEach
+    void tearDown() {
+        clearAuthentication();
+    }
+
+    @Test
+    public void findByOwnerId_ShouldMatchCards_AfterTransfer() {
+        BigDecimal initialTotal = totalBalance(cardPortfolioSummaryRepository.findByOwnerId(ADMIN_ID));
+
+        MoneyTransferReqDTO transferRequest = new MoneyTransferReqDTO();
+        transferRequest.setFromCardId(VISA_CARD_ID_OWNER_ADMIN);
+        transferRequest.setToCardId(MASTERCARD_CARD_ID_OWNER_ADMIN);
+        transferRequest.setAmount(new BigDecimal("50.00"));
+
+        transferService.createTransferRequest(transferRequest);
+        assertSummaryMatchesCards(ADMIN_ID);
+
+        transferQueueProcessor.processQueue();
+
+        List<Bucket> summary = assertSummaryMatchesCards(ADMIN_ID);
+        assertThat(totalBalance(summary)).isEqualByComparingTo(initialTotal);
+        assertThat(bucket(summary, CardType.MASTERCARD, CardStatus.ACTIVE).totalBalance())
+                .isEqualByComparingTo(new BigDecimal("50.00"));
+    }
+
+    @Test
+    public void findByOwnerId_ShouldMatchCards_AfterBalanceUpdate() {
+        BigDecimal initialTotal = totalBalance(cardPortfolioSummaryRepository.findByOwnerId(ADMIN_ID));
+
+        EnrollDTO enrollment = ObjectBuilder.buildEnrollDTO();
+        enrollment.setAmount(new BigDecimal("25.00"));
+        cardService.updateCard(UpdateCardDTO.builder()
+                .cardId(VISA_CARD_ID_OWNER_ADMIN)
+                .enrollment(enrollment)
+                .build());
+
+        List<Bucket> summary = assertSummaryMatchesCards(ADMIN_ID);
+        assertThat(totalBalance(summary)).isEqualByComparingTo(initialTotal.add(new BigDecimal("25.00")));
+    }
+
+    @Test
+    public void findByOwnerId_ShouldMatchCards_AfterStatusChange() {
+        cardService.setCardStatuses(BulkCardStatusDTO.builder()
+                .status(CardStatus.BLOCKED)
+                .idSet(Set.of(MASTERCARD_CARD_ID_OWNER_ADMIN))
+                .build());
+
+        List<Bucket> summary = assertSummaryMatchesCards(ADMIN_ID);
+        assertThat(bucket(summary, CardType.MASTERCARD, CardStatus.BLOCKED).cardCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void findByOwnerId_ShouldCountCardsPastExpirationAsExpired_AfterSweep() {
+        jdbcTemplate.update("UPDATE cards SET expiration = CURRENT_DATE - 1 WHERE id = ?", VISA_CARD_ID_OWNER_ADMIN);
+
+        try {
+            cardService.markExpiredCards();
+
+            List<Bucket> summary = assertSummaryMatchesCards(ADMIN_ID);
+            assertThat(bucket(summary, CardType.VISA, CardStatus.EXPIRED).cardCount()).isEqualTo(1);
+        } finally {
+            jdbcTemplate.update("UPDATE cards SET expiration = CURRENT_DATE + INTERVAL '3 years' WHERE id = ?",
+                    VISA_CARD_ID_OWNER_ADMIN);
+        }
+    }
+
+    private List<Bucket> assertSummaryMatchesCards(long ownerId) {
+        List<Bucket> expected = jdbcTemplate.query("SELECT card_type, status, count(*) AS card_count, sum(balance) AS total_balance, sum(hold) AS total_hold " +
+                        "FROM cards WHERE owner_id = ? AND NOT is_deleted " +
+                        "GROUP BY 1, 2 ORDER BY 1, 2",
+                (rs, rowNum) -> new Bucket(
+                        CardType.valueOf(rs.getString("card_type")),
+                        CardStatus.valueOf(rs.getString("status")),
+                        rs.getLong("card_count"),
+                        rs.getBigDecimal("total_balance"),
+                        rs.getBigDecimal("total_hold")),
+                ownerId);
+
+        List<Bucket> summary = cardPortfolioSummaryRepository.findByOwnerId(ownerId);
+        assertThat(summary).isEqualTo(expected);
+        return summary;
+    }
+
+    private static Bucket bucket(List<Bucket> summary, CardType type, CardStatus status) {
+        return summary.stream()
+                .filter(bucket -> bucket.type() == type && bucket.status() == status)
+                .findFirst()
+                .orElseThrow();
+    }
+
+    private static BigDecimal totalBalance(List<Bucket> summary) {
+        return summary.stream().map(Bucket::totalBalance).reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
+
+}
@@ -0,0 +1,76 @@
+package com.example.bankcards.repository.impl;
+
+import com.example.bankcards.BaseTest;
+import com.example.bankcards.repository.RefreshTokenFamilyRepository;
+import com.example.bankcards.repository.RefreshTokenFamilyRepository.RotationResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static com.example.bankcards.repository.impl.RefreshTokenFamilyRepositoryImpl.FAMILY_KEY_PREFIX;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the rotation script of the refresh token families against Redis.
+ */
+public class RefreshTokenFamilyRepositoryImplTest extends BaseTest {
+
+    private static final Duration TTL = Duration.ofMinutes(5);
+
+    @Autowired
+    private RefreshTokenFamilyRepository refreshTokenFamilyRepository;
+
+    @Autowired
+    private StringRedisTemplate redisTemplate;
+
+    private String familyId;
+
+    @BeforeEach
+    void setUp() {
+        familyId = UUID.randomUUID().toString();
+        refreshTokenFamilyRepository.create(familyId, "first", TTL);
+    }
+
+    @Test
+    public void rotate_ShouldReplaceCurrentToken_WhenCurrentTokenPresented() {
+        RotationResult result = refreshTokenFamilyRepository.rotate(familyId, "first", "second", TTL);
+
+        assertThat(result).isEqualTo(RotationResult.ROTATED);
+        assertThat(redisTemplate.opsForValue().get(FAMILY_KEY_PREFIX + familyId)).isEqualTo("second");
+        assertThat(redisTemplate.getExpire(FAMILY_KEY_PREFIX + familyId, TimeUnit.SECONDS))
+                .isPositive()
+                .isLessThanOrEqualTo(TTL.toSeconds());
+        assertThat(refreshTokenFamilyRepository.rotate(familyId, "second", "third", TTL))
+                .isEqualTo(RotationResult.ROTATED);
+    }
+
+    @Test
+    public void rotate_ShouldRevokeFamily_WhenRotatedTokenPresentedAgain() {
+        refreshTokenFamilyRepository.rotate(familyId, "first", "second", TTL);
+
+        RotationResult result = refreshTokenFamilyRepository.rotate(familyId, "first", "other", TTL);
+
+        assertThat(result).isEqualTo(RotationResult.REUSED);
+        assertThat(redisTemplate.hasKey(FAMILY_KEY_PREFIX + familyId)).isFalse();
+        assertThat(refreshTokenFamilyRepository.rotate(familyId, "second", "third", TTL))
+                .isEqualTo(RotationResult.UNKNOWN);
+    }
+
+    @Test
+    public void rotate_ShouldReportUnknownFamily_WhenFamilyMissingOrRevoked() {
+        assertThat(refreshTokenFamilyRepository.rotate(UUID.randomUUID().toString(), "first", "second", TTL))
+                .isEqualTo(RotationResult.UNKNOWN);
+
+        refreshTokenFamilyRepository.revoke(familyId);
+
+        assertThat(refreshTokenFamilyRepository.rotate(familyId, "first", "second", TTL))
+                .isEqualTo(RotationResult.UNKNOWN);
+        assertThat(redisTemplate.hasKey(FAMILY_KEY_PREFIX + familyId)).isFalse();
+    }
+
+}
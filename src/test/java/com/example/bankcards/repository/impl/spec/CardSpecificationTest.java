@@ -0,0 +1,105 @@
+package com.example.bankcards.repository.impl.spec;
+
+import com.example.bankcards.BaseTest;
+import com.example.bankcards.dto.api.req.filters.CardSearchFilter;
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.enums.CardStatus;
+import com.example.bankcards.entity.enums.CardType;
+import com.example.bankcards.repository.CardRepository;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static com.example.bankcards.utils.TestConstants.*;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks the SQL generated for card searches: collections must be bound as a single array parameter,
+ * so that the SQL does not depend on the number of values passed to a filter.
+ */
+@TestPropertySource(properties = {
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "com.example.bankcards.repository.impl.spec.CardSpecificationTest$RecordingStatementInspector"
+})
+public class CardSpecificationTest extends BaseTest {
+
+    private static final Long[] SEARCHED_CARD_IDS =
+            {VISA_CARD_ID_OWNER_ADMIN, MASTERCARD_CARD_ID_OWNER_ADMIN, AMEX_CARD_ID_OWNER_REGULAR};
+
+    @Autowired
+    private CardRepository cardRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private List<Map<String, Object>> originalCards;
+
+    @BeforeEach
+    void setUp() {
+        originalCards = jdbcTemplate.queryForList("SELECT id, status, expiration, is_deleted FROM cards " +
+                "WHERE id IN (?, ?, ?)", (Object[]) SEARCHED_CARD_IDS);
+        jdbcTemplate.update("UPDATE cards SET status = 'ACTIVE', expiration = CURRENT_DATE + INTERVAL '1 year', " +
+                "is_deleted = false WHERE id IN (?, ?, ?)", (Object[]) SEARCHED_CARD_IDS);
+        RecordingStatementInspector.STATEMENTS.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        originalCards.forEach(card -> jdbcTemplate.update(
+                "UPDATE cards SET status = ?, expiration = ?, is_deleted = ? WHERE id = ?",
+                card.get("status"), card.get("expiration"), card.get("is_deleted"), card.get("id")));
+    }
+
+    @Test
+    public void search_ShouldBindCollectionsAsArrays_WhateverTheirSize() {
+        List<Card> single = cardRepository.findAll(CardSpecification.search(CardSearchFilter.builder()
+                .idSet(Set.of(VISA_CARD_ID_OWNER_ADMIN))
+                .cardTypes(Set.of(CardType.VISA))
+                .status(Set.of(CardStatus.ACTIVE, CardStatus.BLOCKED))
+                .build(), null));
+
+        List<Card> several = cardRepository.findAll(CardSpecification.search(CardSearchFilter.builder()
+                .idSet(Set.of(VISA_CARD_ID_OWNER_ADMIN, MASTERCARD_CARD_ID_OWNER_ADMIN, AMEX_CARD_ID_OWNER_REGULAR))
+                .cardTypes(Set.of(CardType.VISA, CardType.MASTERCARD, CardType.AMERICAN_EXPRESS))
+                .status(Set.of(CardStatus.ACTIVE))
+                .build(), null));
+
+        List<String> statements = RecordingStatementInspector.STATEMENTS.stream()
+                .filter(sql -> sql.contains("from cards"))
+                .toList();
+
+        assertThat(statements).hasSize(2);
+        assertThat(statements).allSatisfy(sql -> {
+            assertThat(sql.split("= any\\(\\?\\)", -1)).hasSize(4);
+            assertThat(sql).doesNotContain(" in (");
+        });
+        assertThat(statements.get(0)).isEqualTo(statements.get(1));
+        assertThat(single).extracting(Card::getId).containsExactly(VISA_CARD_ID_OWNER_ADMIN);
+        assertThat(several).extracting(Card::getId).containsExactlyInAnyOrder(SEARCHED_CARD_IDS);
+    }
+
+    /**
+     * Records the SQL of every statement prepared by Hibernate.
+     */
+    public static class RecordingStatementInspector implements StatementInspector {
+
+        static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+
+    }
+
+}
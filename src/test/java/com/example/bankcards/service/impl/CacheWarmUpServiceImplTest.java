@@ -0,0 +1,190 @@
+package com.example.bankcards.service.impl;
+
+import com.example.bankcards.config.app.AppConf;
+import com.example.bankcards.dto.api.req.SearchReq;
+import com.example.bankcards.dto.api.req.filters.CardSearchFilter;
+import com.example.bankcards.entity.Role;
+import com.example.bankcards.entity.User;
+import com.example.bankcards.entity.enums.CardType;
+import com.example.bankcards.entity.enums.RoleEnum;
+import com.example.bankcards.repository.RoleRepository;
+import com.example.bankcards.repository.UserRepository;
+import com.example.bankcards.service.CardService;
+import com.example.bankcards.util.PrincipalExtractor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockedStatic;
+import org.mockito.MockitoAnnotations;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetailsService;
+
+import java.util.LinkedHashSet;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class CacheWarmUpServiceImplTest {
+
+    private CacheWarmUpServiceImpl cacheWarmUpService;
+
+    @Mock
+    private AppConf appConf;
+    @Mock
+    private StringRedisTemplate redisTemplate;
+    @Mock
+    private ZSetOperations<String, String> zSetOperations;
+    @Mock
+    private CardService cardService;
+    @Mock
+    private RoleRepository roleRepository;
+    @Mock
+    private UserRepository userRepository;
+    @Mock
+    private UserDetailsService userDetailsService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(redisTemplate.opsForZSet()).thenReturn(zSetOperations);
+        when(appConf.isCacheWarmUpEnabled()).thenReturn(true);
+        when(appConf.getCacheWarmUpMaxKeys()).thenReturn(10);
+        when(appConf.getCacheWarmUpTimeoutSeconds()).thenReturn(30L);
+        when(appConf.getCacheWarmUpTrackedKeys()).thenReturn(1000);
+        when(appConf.getCacheWarmUpSampleRate()).thenReturn(1.0);
+        cacheWarmUpService = new CacheWarmUpServiceImpl(appConf, redisTemplate, cardService,
+                roleRepository, userRepository, userDetailsService, Runnable::run);
+    }
+
+    @Test
+    void warmUp_ShouldRepeatRecordedSearches_OnBehalfOfTheirScope() {
+        User admin = user(1L, "admin@bank.com", RoleEnum.ROLE_ADMIN);
+        User owner = user(2L, "user@bank.com", RoleEnum.ROLE_USER);
+        SearchReq<CardSearchFilter> adminSearch = search(CardType.VISA);
+        SearchReq<CardSearchFilter> ownerSearch = search(CardType.MASTERCARD);
+
+        ArgumentCaptor<String> members = ArgumentCaptor.forClass(String.class);
+        record(admin, adminSearch);
+        record(owner, ownerSearch);
+        verify(zSetOperations, times(2)).incrementScore(eq(CacheWarmUpServiceImpl.HOT_CARD_SEARCHES_KEY),
+                members.capture(), eq(1.0));
+
+        when(zSetOperations.reverseRange(CacheWarmUpServiceImpl.HOT_CARD_SEARCHES_KEY, 0, 9))
+                .thenReturn(new LinkedHashSet<>(members.getAllValues()));
+        when(userRepository.findFirstByRoleSet_Role(RoleEnum.ROLE_ADMIN)).thenReturn(Optional.of(admin));
+        when(userRepository.findById(2L)).thenReturn(Optional.of(owner));
+        when(userDetailsService.loadUserByUsername("admin@bank.com")).thenReturn(admin);
+        when(userDetailsService.loadUserByUsername("user@bank.com")).thenReturn(owner);
+
+        AtomicReference<Object> principal = new AtomicReference<>();
+        when(cardService.getCards(any())).thenAnswer(invocation -> {
+            principal.set(SecurityContextHolder.getContext().getAuthentication().getPrincipal());
+            return null;
+        });
+
+        assertThat(cacheWarmUpService.warmUp()).isEqualTo(2);
+
+        ArgumentCaptor<SearchReq<CardSearchFilter>> requests = ArgumentCaptor.captor();
+        verify(cardService, times(2)).getCards(requests.capture());
+        assertThat(requests.getAllValues()).containsExactly(adminSearch, ownerSearch);
+        assertThat(principal.get()).isSameAs(owner);
+        assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
+        verify(roleRepository).getByRole(RoleEnum.ROLE_ADMIN);
+        verify(roleRepository).getByRole(RoleEnum.ROLE_USER);
+    }
+
+    @Test
+    void warmUp_ShouldDropSearches_WhenOwnerNoLongerExists() {
+        User owner = user(3L, "gone@bank.com", RoleEnum.ROLE_USER);
+        ArgumentCaptor<String> member = ArgumentCaptor.forClass(String.class);
+        record(owner, search(CardType.VISA));
+        verify(zSetOperations).incrementScore(anyString(), member.capture(), eq(1.0));
+
+        when(zSetOperations.reverseRange(CacheWarmUpServiceImpl.HOT_CARD_SEARCHES_KEY, 0, 9))
+                .thenReturn(Set.of(member.getValue()));
+        when(userRepository.findById(3L)).thenReturn(Optional.empty());
+
+        assertThat(cacheWarmUpService.warmUp()).isZero();
+
+        verify(zSetOperations).remove(CacheWarmUpServiceImpl.HOT_CARD_SEARCHES_KEY, member.getValue());
+        verifyNoInteractions(cardService);
+    }
+
+    @Test
+    void warmUp_ShouldDoNothing_WhenDisabled() {
+        when(appConf.isCacheWarmUpEnabled()).thenReturn(false);
+
+        assertThat(cacheWarmUpService.warmUp()).isZero();
+
+        verifyNoInteractions(redisTemplate, cardService, roleRepository);
+    }
+
+    @Test
+    void recordCardSearch_ShouldSkipSearches_ByPlainCardNumbers() {
+        SearchReq<CardSearchFilter> req = search(CardType.VISA);
+        req.getFilter().setNumber(Set.of("4111111111111111"));
+
+        record(user(2L, "user@bank.com", RoleEnum.ROLE_USER), req);
+
+        verifyNoInteractions(zSetOperations);
+    }
+
+    @Test
+    void recordCardSearch_ShouldSkipSearches_NotInSample() {
+        when(appConf.getCacheWarmUpSampleRate()).thenReturn(0.0);
+
+        record(user(2L, "user@bank.com", RoleEnum.ROLE_USER), search(CardType.VISA));
+
+        verifyNoInteractions(zSetOperations);
+    }
+
+    @Test
+    void recordCardSearch_ShouldNotFail_WhenExecutorIsBusy() {
+        cacheWarmUpService = new CacheWarmUpServiceImpl(appConf, redisTemplate, cardService,
+                roleRepository, userRepository, userDetailsService, task -> {
+                    throw new TaskRejectedException("busy");
+                });
+
+        assertThatNoException().isThrownBy(() ->
+                record(user(2L, "user@bank.com", RoleEnum.ROLE_USER), search(CardType.VISA)));
+        verifyNoInteractions(zSetOperations);
+    }
+
+    @Test
+    void trimHotCardSearches_ShouldKeepTrackedSearches() {
+        when(zSetOperations.removeRange(CacheWarmUpServiceImpl.HOT_CARD_SEARCHES_KEY, 0, -1001)).thenReturn(5L);
+
+        assertThat(cacheWarmUpService.trimHotCardSearches()).isEqualTo(5);
+    }
+
+    private void record(User user, SearchReq<CardSearchFilter> req) {
+        try (MockedStatic<PrincipalExtractor> mocked = mockStatic(PrincipalExtractor.class)) {
+            mocked.when(PrincipalExtractor::getCurrentUser).thenReturn(user);
+            cacheWarmUpService.recordCardSearch(req);
+        }
+    }
+
+    private static SearchReq<CardSearchFilter> search(CardType cardType) {
+        return SearchReq.<CardSearchFilter>builder()
+                .pageNumber(1)
+                .pageSize(20)
+                .filter(CardSearchFilter.builder().cardTypes(Set.of(cardType)).build())
+                .build();
+    }
+
+    private static User user(Long id, String username, RoleEnum role) {
+        User user = new User();
+        user.setId(id);
+        user.setUsername(username);
+        user.setRoleSet(Set.of(new Role(1, role)));
+        return user;
+    }
+
+}
@@ -0,0 +1,106 @@
+package com.example.bankcards.service.impl;
+
+import com.example.bankcards.config.app.AppConf;
+import com.example.bankcards.dto.api.resp.CardAnalyticsDTO;
+import com.example.bankcards.entity.enums.CardStatus;
+import com.example.bankcards.entity.enums.CardType;
+import com.example.bankcards.repository.CardAnalyticsRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class CardAnalyticsServiceImplTest {
+
+    private static final YearMonth MONTH = YearMonth.of(2027, 5);
+
+    private CardAnalyticsServiceImpl cardAnalyticsService;
+
+    private ThreadPoolTaskExecutor executor;
+
+    @Mock
+    private AppConf appConf;
+    @Mock
+    private CardAnalyticsRepository cardAnalyticsRepository;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(appConf.getCardAnalyticsRangeSize()).thenReturn(10L);
+        when(appConf.getCardAnalyticsTimeoutSeconds()).thenReturn(10L);
+
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(2);
+        executor.setMaxPoolSize(2);
+        executor.initialize();
+
+        cardAnalyticsService = new CardAnalyticsServiceImpl(appConf, cardAnalyticsRepository,
+                new ConcurrentMapCacheManager("cardAnalytics"), executor);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    void getCardAnalytics_ShouldMergeAggregatesOfAllRanges() {
+        when(cardAnalyticsRepository.findIdRange()).thenReturn(Optional.of(new CardAnalyticsRepository.IdRange(1, 25)));
+        when(cardAnalyticsRepository.aggregate(anyLong(), anyLong(), anyInt())).thenReturn(List.of(
+                new CardAnalyticsRepository.Bucket(CardType.VISA, CardStatus.ACTIVE, MONTH,
+                        2, new BigDecimal("100.00"), new BigDecimal("10.00"))));
+
+        CardAnalyticsDTO result = cardAnalyticsService.getCardAnalytics(false);
+
+        verify(cardAnalyticsRepository).aggregate(eq(1L), eq(10L), intThat(timeout -> timeout > 0 && timeout <= 10));
+        verify(cardAnalyticsRepository).aggregate(eq(11L), eq(20L), anyInt());
+        verify(cardAnalyticsRepository).aggregate(eq(21L), eq(25L), anyInt());
+        assertThat(result.getRanges()).isEqualTo(3);
+        assertThat(result.getTotal().getCardCount()).isEqualTo(6);
+        assertThat(result.getTotal().getTotalBalance()).isEqualByComparingTo("300.00");
+        assertThat(result.getByType().get(CardType.VISA).getTotalHold()).isEqualByComparingTo("30.00");
+        assertThat(result.getByStatus().get(CardStatus.ACTIVE).getCardCount()).isEqualTo(6);
+        assertThat(result.getByExpirationMonth()).containsOnlyKeys("2027-05");
+        assertThat(result.getComputedAt()).isNotNull();
+    }
+
+    @Test
+    void getCardAnalytics_ShouldReturnCachedResult_UnlessRefreshRequested() {
+        when(cardAnalyticsRepository.findIdRange()).thenReturn(Optional.of(new CardAnalyticsRepository.IdRange(1, 5)));
+        when(cardAnalyticsRepository.aggregate(eq(1L), eq(5L), anyInt())).thenReturn(List.of());
+
+        CardAnalyticsDTO first = cardAnalyticsService.getCardAnalytics(false);
+        CardAnalyticsDTO cached = cardAnalyticsService.getCardAnalytics(false);
+
+        assertThat(cached.getComputedAt()).isEqualTo(first.getComputedAt());
+        verify(cardAnalyticsRepository, times(1)).aggregate(eq(1L), eq(5L), anyInt());
+
+        cardAnalyticsService.getCardAnalytics(true);
+
+        verify(cardAnalyticsRepository, times(2)).aggregate(eq(1L), eq(5L), anyInt());
+    }
+
+    @Test
+    void getCardAnalytics_ShouldReturnEmptyAggregates_WhenThereAreNoCards() {
+        when(cardAnalyticsRepository.findIdRange()).thenReturn(Optional.empty());
+
+        CardAnalyticsDTO result = cardAnalyticsService.getCardAnalytics(false);
+
+        assertThat(result.getRanges()).isZero();
+        assertThat(result.getTotal().getCardCount()).isZero();
+        assertThat(result.getByType()).isEmpty();
+        verify(cardAnalyticsRepository, never()).aggregate(anyLong(), anyLong(), anyInt());
+    }
+
+}
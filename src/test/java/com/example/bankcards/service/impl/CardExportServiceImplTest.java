@@ -0,0 +1,103 @@
+package com.example.bankcards.service.impl;
+
+import com.example.bankcards.config.app.AppConf;
+import com.example.bankcards.dto.api.req.CardExportFormat;
+import com.example.bankcards.entity.enums.CardStatus;
+import com.example.bankcards.entity.enums.CardType;
+import com.example.bankcards.repository.CardExportRepository;
+import com.example.bankcards.service.EncryptionService;
+import com.example.bankcards.utils.TestConstants;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class CardExportServiceImplTest {
+
+    private static final int FETCH_SIZE = 2;
+
+    private CardExportServiceImpl cardExportService;
+
+    @Mock
+    private AppConf appConf;
+    @Mock
+    private CardExportRepository cardExportRepository;
+    @Mock
+    private EncryptionService encryptionService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(appConf.getCardExportFetchSize()).thenReturn(FETCH_SIZE);
+        when(encryptionService.decryptAll(anyList()))
+                .thenAnswer(invocation -> invocation.<List<String>>getArgument(0).stream()
+                        .map(number -> TestConstants.VISA_CARD_NUMBER)
+                        .toList());
+        doAnswer(invocation -> {
+            Consumer<List<CardExportRepository.CardRow>> consumer = invocation.getArgument(3);
+            consumer.accept(List.of(buildRow(1L), buildRow(2L)));
+            consumer.accept(List.of(buildRow(3L)));
+            return null;
+        }).when(cardExportRepository).forEachChunk(isNull(), eq(false), eq(FETCH_SIZE), any());
+
+        ObjectMapper objectMapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        cardExportService = new CardExportServiceImpl(appConf, cardExportRepository, encryptionService, objectMapper);
+    }
+
+    @Test
+    void exportCards_ShouldWriteOneJsonObjectPerLine() throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        cardExportService.exportCards(CardExportFormat.NDJSON, null, false, false, output);
+
+        List<String> lines = output.toString(StandardCharsets.UTF_8).lines().toList();
+        assertThat(lines).hasSize(3);
+        assertThat(lines.get(0))
+                .contains("\"id\":1")
+                .contains("\"expiration\":\"2030-01-31\"")
+                .contains("\"status\":\"ACTIVE\"")
+                .doesNotContain(TestConstants.VISA_CARD_NUMBER);
+        verify(encryptionService, times(2)).decryptAll(anyList());
+    }
+
+    @Test
+    void exportCards_ShouldWriteGzippedCsvWithHeader() throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        cardExportService.exportCards(CardExportFormat.CSV, null, false, true, output);
+
+        String csv;
+        try (GZIPInputStream input = new GZIPInputStream(new ByteArrayInputStream(output.toByteArray()))) {
+            csv = new String(input.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        List<String> lines = csv.lines().toList();
+        assertThat(lines).hasSize(4);
+        assertThat(lines.get(0)).isEqualTo("id,cardTypeCode,numberMask,expiration,status,balance,hold,ownerId");
+        assertThat(lines.get(3)).startsWith("3,").endsWith(",2030-01-31,ACTIVE,100.00,0.00,10");
+    }
+
+    private static CardExportRepository.CardRow buildRow(long id) {
+        return new CardExportRepository.CardRow(id, CardType.VISA, "ENC:1:encrypted", LocalDate.of(2030, 1, 31),
+                CardStatus.ACTIVE, new BigDecimal("100.00"), new BigDecimal("0.00"), 10L);
+    }
+
+}
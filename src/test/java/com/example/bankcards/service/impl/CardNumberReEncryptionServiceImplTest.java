@@ -0,0 +1,97 @@
+package com.example.bankcards.service.impl;
+
+import com.example.bankcards.config.crypto.CryptoConfig;
+import com.example.bankcards.utils.ObjectBuilder;
+import com.example.bankcards.utils.TestConstants;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.*;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class CardNumberReEncryptionServiceImplTest {
+
+    private static final String PROGRESS_QUERY = "SELECT last_card_id FROM card_reencryption_progress";
+
+    private static final String CARDS_QUERY = "SELECT id, number FROM cards";
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+    @Mock
+    private TransactionTemplate transactionTemplate;
+    @Captor
+    private ArgumentCaptor<List<Object[]>> batchCaptor;
+
+    private EncryptionServiceImpl encryptionService;
+
+    private CardNumberReEncryptionServiceImpl reEncryptionService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        CryptoConfig cryptoConfig = ObjectBuilder.buildCryptoConfig(
+                TestConstants.CRYPTO_GCM_TRANSFORMATION, TestConstants.CRYPTO_ROTATED_KEY_ID,
+                TestConstants.CRYPTO_ROTATED_SECRET_KEY,
+                TestConstants.CRYPTO_KEY_ID + ":" + TestConstants.CRYPTO_ECB_TRANSFORMATION + ":"
+                        + TestConstants.CRYPTO_SECRET_KEY);
+        ReflectionTestUtils.setField(cryptoConfig, "reEncryptionEnabled", true);
+        ReflectionTestUtils.setField(cryptoConfig, "reEncryptionChunkSize", 10);
+        ReflectionTestUtils.setField(cryptoConfig, "reEncryptionRowsPerSecond", Integer.MAX_VALUE);
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        encryptionService = new EncryptionServiceImpl(cryptoConfig);
+        reEncryptionService = new CardNumberReEncryptionServiceImpl(cryptoConfig, encryptionService,
+                jdbcTemplate, transactionTemplate);
+    }
+
+    @Test
+    void reEncryptCardNumbers_ShouldEncryptPlainNumbers_InMixedChunk() throws SQLException {
+        String oldNumber = "ENC:" + new EncryptionServiceImpl(
+                ObjectBuilder.buildCryptoConfig(TestConstants.CRYPTO_ECB_TRANSFORMATION))
+                .encrypt(TestConstants.VISA_CARD_NUMBER);
+        ResultSet oldRow = row(1L, oldNumber);
+        ResultSet plainRow = row(2L, TestConstants.MASTERCARD_CARD_NUMBER);
+
+        when(jdbcTemplate.queryForList(startsWith(PROGRESS_QUERY), eq(Long.class), any(Object[].class)))
+                .thenReturn(List.of(0L), List.of(2L));
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(1);
+            handler.processRow(oldRow);
+            handler.processRow(plainRow);
+            return null;
+        }).doNothing().when(jdbcTemplate).query(startsWith(CARDS_QUERY), any(RowCallbackHandler.class), any(Object[].class));
+
+        long reEncrypted = reEncryptionService.reEncryptCardNumbers();
+
+        assertThat(reEncrypted).isEqualTo(2);
+        verify(jdbcTemplate).batchUpdate(startsWith("UPDATE cards SET number"), batchCaptor.capture());
+        List<Object[]> batch = batchCaptor.getValue();
+        assertThat(batch).extracting(args -> args[1]).containsExactly(1L, 2L);
+        assertThat(batch).extracting(args -> args[2]).containsExactly(oldNumber, TestConstants.MASTERCARD_CARD_NUMBER);
+        assertThat(batch).extracting(args -> (String) args[0])
+                .allMatch(number -> number.startsWith("ENC:" + TestConstants.CRYPTO_ROTATED_KEY_ID + ":"))
+                .extracting(number -> encryptionService.decrypt(number.substring(4)))
+                .containsExactly(TestConstants.VISA_CARD_NUMBER, TestConstants.MASTERCARD_CARD_NUMBER);
+        verify(jdbcTemplate).update(startsWith("UPDATE card_reencryption_progress SET completed_at"),
+                eq(TestConstants.CRYPTO_ROTATED_KEY_ID));
+    }
+
+    private static ResultSet row(long id, String number) throws SQLException {
+        ResultSet resultSet = mock(ResultSet.class);
+        when(resultSet.getLong("id")).thenReturn(id);
+        when(resultSet.getString("number")).thenReturn(number);
+        return resultSet;
+    }
+
+}
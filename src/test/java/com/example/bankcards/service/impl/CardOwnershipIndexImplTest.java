@@ -0,0 +1,122 @@
+package com.example.bankcards.service.impl;
+
+import com.example.bankcards.config.app.AppConf;
+import com.example.bankcards.config.queues.QueuesConf;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class CardOwnershipIndexImplTest {
+
+    private static final String TOPIC = "cardOwnershipInvalidationTopic";
+
+    private CardOwnershipIndexImpl index;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+    @Mock
+    private StringRedisTemplate redisTemplate;
+    @Mock
+    private RedisMessageListenerContainer listenerContainer;
+    @Mock
+    private QueuesConf queuesConf;
+    @Mock
+    private AppConf appConf;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(queuesConf.getCardOwnershipInvalidationTopic()).thenReturn(TOPIC);
+        when(appConf.getCardOwnershipIndexMaxSize()).thenReturn(2);
+        when(appConf.getCardOwnershipIndexMissTtlMillis()).thenReturn(60_000L);
+        index = new CardOwnershipIndexImpl(jdbcTemplate, redisTemplate, listenerContainer, queuesConf, appConf);
+    }
+
+    @Test
+    void isOwner_ShouldNotQueryDatabase_WhenCardIsIndexed() {
+        index.put(1L, 10L);
+
+        assertThat(index.isOwner(1L, 10L)).isTrue();
+        assertThat(index.isOwner(1L, 11L)).isFalse();
+        assertThat(index.getOwnerId(1L)).isEqualTo(10L);
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    void getOwnerId_ShouldQueryDatabaseOnce_WhenCardIsMissing() {
+        when(jdbcTemplate.queryForList(anyString(), eq(Long.class), eq(2L))).thenReturn(List.of(20L));
+
+        assertThat(index.getOwnerId(2L)).isEqualTo(20L);
+        assertThat(index.getOwnerId(2L)).isEqualTo(20L);
+        verify(jdbcTemplate, times(1)).queryForList(anyString(), eq(Long.class), eq(2L));
+    }
+
+    @Test
+    void getOwnerId_ShouldFail_WhenCardDoesNotExist() {
+        when(jdbcTemplate.queryForList(anyString(), eq(Long.class), eq(3L))).thenReturn(List.of());
+
+        assertThatThrownBy(() -> index.getOwnerId(3L)).isInstanceOf(NoSuchElementException.class);
+        assertThat(index.isOwner(3L, 30L)).isFalse();
+        verify(jdbcTemplate, times(1)).queryForList(anyString(), eq(Long.class), eq(3L));
+    }
+
+    @Test
+    void put_ShouldDropLeastRecentlyUsedCard_WhenIndexIsFull() {
+        index.put(1L, 10L);
+        index.put(2L, 20L);
+        index.getOwnerId(1L);
+        index.put(3L, 30L);
+        when(jdbcTemplate.queryForList(anyString(), eq(Long.class), eq(2L))).thenReturn(List.of(20L));
+
+        assertThat(index.getOwnerId(1L)).isEqualTo(10L);
+        assertThat(index.getOwnerId(2L)).isEqualTo(20L);
+        verify(jdbcTemplate, never()).queryForList(anyString(), eq(Long.class), eq(1L));
+        verify(jdbcTemplate).queryForList(anyString(), eq(Long.class), eq(2L));
+    }
+
+    @Test
+    void put_ShouldOverrideRememberedMiss() {
+        when(jdbcTemplate.queryForList(anyString(), eq(Long.class), eq(6L))).thenReturn(List.of());
+        assertThat(index.isOwner(6L, 60L)).isFalse();
+
+        index.put(6L, 60L);
+
+        assertThat(index.isOwner(6L, 60L)).isTrue();
+    }
+
+    @Test
+    void evict_ShouldRemoveCard_AndNotifyOtherNodes() {
+        index.put(4L, 40L);
+        when(jdbcTemplate.queryForList(anyString(), eq(Long.class), eq(4L))).thenReturn(List.of());
+
+        index.evict(4L);
+
+        assertThat(index.isOwner(4L, 40L)).isFalse();
+        verify(redisTemplate).convertAndSend(TOPIC, "4");
+    }
+
+    @Test
+    void onMessage_ShouldRemoveCardEvictedOnAnotherNode() {
+        index.put(5L, 50L);
+        when(jdbcTemplate.queryForList(anyString(), eq(Long.class), eq(5L))).thenReturn(List.of());
+
+        index.onMessage(new DefaultMessage(TOPIC.getBytes(StandardCharsets.UTF_8),
+                "5".getBytes(StandardCharsets.UTF_8)), null);
+
+        assertThat(index.isOwner(5L, 50L)).isFalse();
+        verify(redisTemplate, never()).convertAndSend(anyString(), anyString());
+    }
+
+}
@@ -1,10 +1,18 @@
 package com.example.bankcards.service.impl;
 
 import com.example.bankcards.config.app.AppConf;
+import com.example.bankcards.dto.api.crypto.EncryptedCardNumber;
 import com.example.bankcards.dto.api.req.AddCardDTO;
+import com.example.bankcards.dto.api.req.BulkCardStatusDTO;
 import com.example.bankcards.dto.api.req.EnrollDTO;
 import com.example.bankcards.dto.api.req.UpdateCardDTO;
+import com.example.bankcards.dto.api.req.filters.CardSearchFilter;
+import com.example.bankcards.dto.api.resp.BulkCardResultDTO;
+import com.example.bankcards.dto.api.resp.BulkCardStatusResultDTO;
+import com.example.bankcards.dto.api.resp.BulkEnrollmentResultDTO;
 import com.example.bankcards.dto.api.resp.CardDTO;
+import com.example.bankcards.dto.api.resp.CardPortfolioSummaryDTO;
+import com.example.bankcards.dto.api.resp.RejectedEnrollmentDTO;
 import com.example.bankcards.dto.mappers.CardMapper;
 import com.example.bankcards.entity.Card;
 import com.example.bankcards.entity.Role;
@@ -12,19 +20,39 @@ import com.example.bankcards.entity.User;
 import com.example.bankcards.entity.enums.CardStatus;
 import com.example.bankcards.entity.enums.CardType;
 import com.example.bankcards.entity.enums.RoleEnum;
+import com.example.bankcards.events.Events;
+import com.example.bankcards.exception.ProhibitedException;
+import com.example.bankcards.repository.CardBulkRepository;
+import com.example.bankcards.repository.CardNumberCounterRepository;
 import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.CardPortfolioSummaryRepository;
 import com.example.bankcards.repository.UserRepository;
+import com.example.bankcards.service.CardOwnershipIndex;
 import com.example.bankcards.service.EncryptionService;
 import com.example.bankcards.util.PrincipalExtractor;
 import com.example.bankcards.utils.TestConstants;
+import com.example.bankcards.utils.TestUtils;
+import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.*;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataIntegrityViolationException;
-
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 
+import static com.example.bankcards.util.Constants.ENROLLMENT_INVALID_ROW;
 import static org.assertj.core.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
@@ -38,11 +66,25 @@ class CardServiceImplTest {
     @Mock
     private CardRepository cardRepository;
     @Mock
+    private CardNumberCounterRepository cardNumberCounterRepository;
+    @Mock
     private UserRepository userRepository;
     @Mock
     private EncryptionService encryptionService;
     @Mock
     private CardMapper cardMapper;
+    @Mock
+    private EntityManager entityManager;
+    @Mock
+    private CardBulkRepository cardBulkRepository;
+    @Mock
+    private CardOwnershipIndex cardOwnershipIndex;
+    @Mock
+    private CardPortfolioSummaryRepository cardPortfolioSummaryRepository;
+    @Mock
+    private TransactionTemplate transactionTemplate;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
 
     @BeforeEach
     void setUp() {
@@ -68,6 +110,144 @@ class CardServiceImplTest {
 
         assertThat(cardId).isEqualTo(1L);
         verify(cardRepository).save(any(Card.class));
+        verify(cardOwnershipIndex).put(1L, TestConstants.REGULAR_USER_ID);
+    }
+
+    @Test
+    void createCard_ShouldUseCounter_WithoutLoadingLastCard() {
+        AddCardDTO request = new AddCardDTO(CardType.VISA, TestConstants.REGULAR_USER_ID);
+        User mockUser = new User();
+        mockUser.setId(TestConstants.REGULAR_USER_ID);
+
+        when(userRepository.findById(TestConstants.REGULAR_USER_ID)).thenReturn(Optional.of(mockUser));
+        when(cardNumberCounterRepository.increment(TestConstants.REGULAR_USER_ID, CardType.VISA, 1))
+                .thenReturn(Optional.of(5L));
+        when(appConf.getCardExpirationYears()).thenReturn(3);
+        when(cardRepository.save(any())).thenAnswer(invocation -> {
+            Card card = invocation.getArgument(0);
+            card.setId(1L);
+            return card;
+        });
+
+        cardService.createCard(request);
+
+        ArgumentCaptor<Card> captor = ArgumentCaptor.forClass(Card.class);
+        verify(cardRepository).save(captor.capture());
+        String number = captor.getValue().getNumber();
+        assertThat(number).startsWith(CardType.VISA.getPrefix() + "000002005").hasSize(CardType.VISA.getLength());
+        assertThat(TestUtils.calculateLuhnDigit(number.substring(0, number.length() - 1)))
+                .isEqualTo(number.substring(number.length() - 1));
+        verify(cardRepository, never()).findLastByCardType(any(), any());
+    }
+
+    @Test
+    void createCard_ShouldInitializeCounter_FromLastIssuedCard() {
+        AddCardDTO request = new AddCardDTO(CardType.VISA, TestConstants.REGULAR_USER_ID);
+        User mockUser = new User();
+        mockUser.setId(TestConstants.REGULAR_USER_ID);
+        Card lastCard = new Card();
+        lastCard.setNumber(CardType.VISA.getPrefix() + "000002" + "007" + "0");
+
+        when(userRepository.findById(TestConstants.REGULAR_USER_ID)).thenReturn(Optional.of(mockUser));
+        when(cardNumberCounterRepository.increment(any(), any(), anyInt())).thenReturn(Optional.empty());
+        when(cardRepository.findLastByCardType(TestConstants.REGULAR_USER_ID, CardType.VISA)).thenReturn(Optional.of(lastCard));
+        when(cardNumberCounterRepository.initialize(TestConstants.REGULAR_USER_ID, CardType.VISA, 7L, 1)).thenReturn(8L);
+        when(appConf.getCardExpirationYears()).thenReturn(3);
+        when(cardRepository.save(any())).thenAnswer(invocation -> {
+            Card card = invocation.getArgument(0);
+            card.setId(1L);
+            return card;
+        });
+
+        cardService.createCard(request);
+
+        ArgumentCaptor<Card> captor = ArgumentCaptor.forClass(Card.class);
+        verify(cardRepository).save(captor.capture());
+        assertThat(captor.getValue().getNumber()).startsWith(CardType.VISA.getPrefix() + "000002008");
+    }
+
+    @Test
+    void createCards_ShouldAllocateSequencesOncePerGroup_AndReportMissingOwners() {
+        User owner = new User();
+        owner.setId(TestConstants.REGULAR_USER_ID);
+        List<AddCardDTO> requests = List.of(
+                new AddCardDTO(CardType.VISA, TestConstants.REGULAR_USER_ID),
+                new AddCardDTO(CardType.VISA, 999L),
+                new AddCardDTO(CardType.VISA, TestConstants.REGULAR_USER_ID));
+
+        when(userRepository.findAllById(any())).thenReturn(List.of(owner));
+        when(cardNumberCounterRepository.increment(TestConstants.REGULAR_USER_ID, CardType.VISA, 2))
+                .thenReturn(Optional.of(11L));
+        when(appConf.getCardExpirationYears()).thenReturn(3);
+        stubBulkIssuanceEncryption();
+        when(cardRepository.saveAll(any())).thenAnswer(invocation -> {
+            List<Card> cards = invocation.getArgument(0);
+            long id = 100L;
+            for (Card card : cards) {
+                card.setId(id++);
+            }
+            return cards;
+        });
+
+        List<BulkCardResultDTO> results = cardService.createCards(requests);
+
+        assertThat(results).extracting(BulkCardResultDTO::getCardId).containsExactly(100L, null, 101L);
+        assertThat(results.get(1).getError()).contains("999");
+        verify(cardNumberCounterRepository, times(1)).increment(any(), any(), anyInt());
+        verify(encryptionService, times(1)).encryptAll(any());
+        verify(cardRepository).flush();
+    }
+
+    @Test
+    void createCards_ShouldSaveCardsOneByOne_WhenChunkFails() {
+        User owner = new User();
+        owner.setId(TestConstants.REGULAR_USER_ID);
+        List<AddCardDTO> requests = List.of(
+                new AddCardDTO(CardType.VISA, TestConstants.REGULAR_USER_ID),
+                new AddCardDTO(CardType.VISA, TestConstants.REGULAR_USER_ID));
+
+        when(userRepository.findAllById(any())).thenReturn(List.of(owner));
+        when(cardNumberCounterRepository.increment(TestConstants.REGULAR_USER_ID, CardType.VISA, 2))
+                .thenReturn(Optional.of(11L));
+        when(appConf.getCardExpirationYears()).thenReturn(3);
+        stubBulkIssuanceEncryption();
+        when(cardRepository.saveAll(any())).thenThrow(new DataIntegrityViolationException("duplicate"));
+        when(cardRepository.saveAndFlush(any()))
+                .thenAnswer(invocation -> {
+                    Card card = invocation.getArgument(0);
+                    card.setId(100L);
+                    return card;
+                })
+                .thenThrow(new DataIntegrityViolationException("duplicate number"));
+
+        List<BulkCardResultDTO> results = cardService.createCards(requests);
+
+        assertThat(results).extracting(BulkCardResultDTO::getCardId).containsExactly(100L, null);
+        assertThat(results.get(1).getError()).contains("duplicate number");
+        verify(cardOwnershipIndex).put(100L, TestConstants.REGULAR_USER_ID);
+    }
+
+    @Test
+    void enrollBalances_ShouldApplyFileInSingleTransaction() {
+        BulkEnrollmentResultDTO expected = BulkEnrollmentResultDTO.builder()
+                .received(2)
+                .enrolled(1)
+                .rejected(1)
+                .rejectedRows(List.of(new RejectedEnrollmentDTO(2, "x", "10", ENROLLMENT_INVALID_ROW)))
+                .build();
+
+        when(appConf.getEnrollmentMaxReportedRejections()).thenReturn(100);
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        when(cardBulkRepository.enrollBalances(any(Reader.class), eq(100))).thenReturn(expected);
+
+        BulkEnrollmentResultDTO result = cardService.enrollBalances(
+                new ByteArrayInputStream("1,10.50\nx,10\n".getBytes(StandardCharsets.UTF_8)));
+
+        assertThat(result).isEqualTo(expected);
+        verify(transactionTemplate).execute(any());
+        verify(cardRepository, never()).addToBalance(any(), any());
+        verify(eventPublisher).publishEvent(new Events.CardsBalanceChanged(1));
     }
 
     @Test
@@ -101,6 +281,24 @@ class CardServiceImplTest {
                 .hasMessageContaining("Card not found");
     }
 
+    @Test
+    void updateCard_ShouldResolveCardByNumberHash() {
+        UpdateCardDTO request = new UpdateCardDTO();
+        EnrollDTO enroll = new EnrollDTO();
+        enroll.setAmount(TestConstants.TRANSFER_1_AMOUNT);
+        request.setEnrollment(enroll);
+        request.setCardNumber(new EncryptedCardNumber("encrypted", "**** 1111", "hash"));
+
+        when(cardRepository.findIdByNumberHash("hash")).thenReturn(Optional.of(TestConstants.VISA_CARD_ID_OWNER_ADMIN));
+        when(cardRepository.addToBalance(eq(TestConstants.VISA_CARD_ID_OWNER_ADMIN), eq(TestConstants.TRANSFER_1_AMOUNT)))
+                .thenReturn(1);
+
+        Long updatedCardId = cardService.updateCard(request);
+
+        assertThat(updatedCardId).isEqualTo(TestConstants.VISA_CARD_ID_OWNER_ADMIN);
+        verify(encryptionService, never()).decrypt(any());
+    }
+
     @Test
     void deleteCard_ShouldMarkCardAsDeleted() {
         Card card = new Card();
@@ -114,6 +312,7 @@ class CardServiceImplTest {
 
         assertThat(deletedCardId).isEqualTo(5L);
         assertThat(card.getIsDeleted()).isTrue();
+        verify(eventPublisher).publishEvent(new Events.CardDeleted(5L));
     }
 
     @Test
@@ -144,6 +343,70 @@ class CardServiceImplTest {
                 .hasMessageContaining("Status already set");
     }
 
+    @Test
+    void setCardStatus_ShouldFail_WhenCardIsPastExpiration_BeforeSweep() {
+        Card card = new Card();
+        card.setId(7L);
+        card.setStatus(CardStatus.ACTIVE);
+        card.setExpiration(LocalDate.now().minusDays(1));
+
+        when(cardRepository.findById(7L)).thenReturn(Optional.of(card));
+
+        assertThat(card.getEffectiveStatus()).isEqualTo(CardStatus.EXPIRED);
+        assertThatThrownBy(() -> cardService.setCardStatus(7L, CardStatus.BLOCKED))
+                .isInstanceOf(DataIntegrityViolationException.class)
+                .hasMessageContaining("Card is expired");
+        verify(cardRepository, never()).save(any());
+    }
+
+    @Test
+    void setCardStatuses_ShouldUpdateIdsInChunks_AndPublishSingleEvent() {
+        BulkCardStatusDTO request = BulkCardStatusDTO.builder()
+                .status(CardStatus.BLOCKED)
+                .idSet(Set.of(3L, 1L, 2L))
+                .build();
+
+        when(appConf.getCardBulkStatusChunkSize()).thenReturn(2);
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        when(cardBulkRepository.updateStatus(List.of(1L, 2L), CardStatus.BLOCKED))
+                .thenReturn(new CardBulkRepository.StatusChange(List.of(1L), 1, 0, 2));
+        when(cardBulkRepository.updateStatus(List.of(3L), CardStatus.BLOCKED))
+                .thenReturn(new CardBulkRepository.StatusChange(List.of(), 0, 0, 0));
+
+        BulkCardStatusResultDTO result = cardService.setCardStatuses(request);
+
+        assertThat(result.getRequested()).isEqualTo(3);
+        assertThat(result.getUpdated()).isEqualTo(1);
+        assertThat(result.getExpired()).isEqualTo(1);
+        assertThat(result.getAlreadySet()).isZero();
+        assertThat(result.getNotFound()).isEqualTo(1);
+        verify(eventPublisher).publishEvent(new Events.CardsStatusChanged(List.of(1L), CardStatus.BLOCKED));
+        verify(cardRepository, never()).save(any());
+    }
+
+    @Test
+    void setCardStatuses_ShouldFail_WhenNeitherIdsNorFilterSpecified() {
+        BulkCardStatusDTO request = BulkCardStatusDTO.builder().status(CardStatus.BLOCKED).build();
+
+        assertThatThrownBy(() -> cardService.setCardStatuses(request))
+                .isInstanceOf(IllegalArgumentException.class);
+        verifyNoInteractions(cardBulkRepository);
+    }
+
+    @Test
+    void setCardStatuses_ShouldFail_WhenFilterHasNoCriteria() {
+        BulkCardStatusDTO request = BulkCardStatusDTO.builder()
+                .status(CardStatus.BLOCKED)
+                .filter(CardSearchFilter.builder().isDeleted(false).build())
+                .build();
+
+        assertThatThrownBy(() -> cardService.setCardStatuses(request))
+                .isInstanceOf(IllegalArgumentException.class);
+        verifyNoInteractions(cardBulkRepository);
+        verifyNoInteractions(entityManager);
+    }
+
     @Test
     void getCard_ShouldReturnCardDTO_ForAdmin() {
         Card card = new Card();
@@ -166,4 +429,168 @@ class CardServiceImplTest {
         }
     }
 
+    @Test
+    void markExpiredCards_ShouldExpireCardsInChunks_AndPublishEvents() {
+        when(appConf.getCardExpirySweepChunkSize()).thenReturn(2);
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        when(cardBulkRepository.markExpired(any(LocalDate.class), eq(2)))
+                .thenReturn(List.of(1L, 2L))
+                .thenReturn(List.of(3L));
+
+        cardService.markExpiredCards();
+
+        verify(cardBulkRepository, times(2)).markExpired(LocalDate.now(), 2);
+        verify(eventPublisher).publishEvent(new Events.CardsStatusChanged(List.of(1L, 2L), CardStatus.EXPIRED));
+        verify(eventPublisher).publishEvent(new Events.CardsStatusChanged(List.of(3L), CardStatus.EXPIRED));
+        verify(cardRepository, never()).save(any());
+    }
+
+    @Test
+    void archiveDeletedCards_ShouldArchiveInChunks_UntilChunkIsNotFull() {
+        when(appConf.getCardArchiveRetentionDays()).thenReturn(30);
+        when(appConf.getCardArchiveChunkSize()).thenReturn(2);
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        when(cardBulkRepository.archiveDeleted(any(LocalDateTime.class), eq(2)))
+                .thenReturn(new CardBulkRepository.Archived(2, 5, 1))
+                .thenReturn(new CardBulkRepository.Archived(1, 0, 0));
+
+        cardService.archiveDeletedCards();
+
+        ArgumentCaptor<LocalDateTime> deletedBefore = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(cardBulkRepository, times(2)).archiveDeleted(deletedBefore.capture(), eq(2));
+        assertThat(deletedBefore.getValue()).isBefore(LocalDateTime.now().minusDays(29));
+    }
+
+    @Test
+    void fillMissingNumberHashes_ShouldDecryptStoredNumbers_AndWriteEachChunkSeparately() {
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        when(cardBulkRepository.findNumbersWithoutHash(0L, 500))
+                .thenReturn(List.of(new CardBulkRepository.StoredNumber(7L, "ENC:encrypted"),
+                        new CardBulkRepository.StoredNumber(9L, TestConstants.VISA_CARD_NUMBER)));
+        when(encryptionService.decrypt("encrypted")).thenReturn(TestConstants.MASTERCARD_CARD_NUMBER);
+        when(encryptionService.hash(TestConstants.MASTERCARD_CARD_NUMBER)).thenReturn("hash7");
+        when(encryptionService.hash(TestConstants.VISA_CARD_NUMBER)).thenReturn("hash9");
+        when(cardBulkRepository.updateNumberHashes(any())).thenReturn(2);
+
+        cardService.fillMissingNumberHashes();
+
+        verify(cardBulkRepository).updateNumberHashes(Map.of(7L, "hash7", 9L, "hash9"));
+        verify(cardBulkRepository, times(1)).findNumbersWithoutHash(anyLong(), anyInt());
+        verifyNoInteractions(cardRepository);
+    }
+
+    @Test
+    void hashCardNumbers_ShouldReplaceNumbersWithBlindIndexes() {
+        CardSearchFilter filter = CardSearchFilter.builder()
+                .number(Set.of(TestConstants.VISA_CARD_NUMBER))
+                .build();
+        when(encryptionService.hash(TestConstants.VISA_CARD_NUMBER)).thenReturn("hash");
+
+        cardService.hashCardNumbers(filter);
+
+        assertThat(filter.getNumber()).isNull();
+        assertThat(filter.getNumberHash()).containsExactly("hash");
+        assertThat(filter.toString()).doesNotContain(TestConstants.VISA_CARD_NUMBER);
+    }
+
+    @Test
+    void getCard_ShouldCheckOwnershipWithIndex_ForOwner() {
+        Card card = new Card();
+        card.setId(8L);
+
+        User owner = new User();
+        owner.setId(TestConstants.REGULAR_USER_ID);
+        owner.setRoleSet(Set.of(new Role(2, RoleEnum.ROLE_USER)));
+
+        CardDTO expectedDto = new CardDTO();
+
+        try (MockedStatic<PrincipalExtractor> mockedStatic = mockStatic(PrincipalExtractor.class)) {
+            mockedStatic.when(PrincipalExtractor::getCurrentUser).thenReturn(owner);
+            when(cardOwnershipIndex.isOwner(8L, TestConstants.REGULAR_USER_ID)).thenReturn(true);
+            when(cardRepository.findById(8L)).thenReturn(Optional.of(card));
+            when(cardMapper.toDto(card)).thenReturn(expectedDto);
+
+            CardDTO result = cardService.getCard(8L);
+
+            assertThat(result).isEqualTo(expectedDto);
+            verify(cardRepository).findById(8L);
+            verifyNoMoreInteractions(cardRepository);
+        }
+    }
+
+    @Test
+    void getCard_ShouldFail_WhenCardBelongsToAnotherUser() {
+        User user = new User();
+        user.setId(TestConstants.REGULAR_USER_ID);
+        user.setRoleSet(Set.of(new Role(2, RoleEnum.ROLE_USER)));
+
+        try (MockedStatic<PrincipalExtractor> mockedStatic = mockStatic(PrincipalExtractor.class)) {
+            mockedStatic.when(PrincipalExtractor::getCurrentUser).thenReturn(user);
+            when(cardOwnershipIndex.isOwner(9L, TestConstants.REGULAR_USER_ID)).thenReturn(false);
+
+            assertThatThrownBy(() -> cardService.getCard(9L))
+                    .isInstanceOf(ProhibitedException.class);
+            verifyNoInteractions(cardRepository);
+        }
+    }
+
+    @Test
+    void getPortfolioSummary_ShouldAggregateBuckets_AndHideHold_ForOwner() {
+        User owner = new User();
+        owner.setId(TestConstants.REGULAR_USER_ID);
+        owner.setRoleSet(Set.of(new Role(2, RoleEnum.ROLE_USER)));
+
+        when(cardPortfolioSummaryRepository.findByOwnerId(TestConstants.REGULAR_USER_ID)).thenReturn(List.of(
+                new CardPortfolioSummaryRepository.Bucket(CardType.VISA, CardStatus.ACTIVE, 2,
+                        new BigDecimal("150.00"), new BigDecimal("10.00")),
+                new CardPortfolioSummaryRepository.Bucket(CardType.VISA, CardStatus.BLOCKED, 1,
+                        new BigDecimal("5.00"), BigDecimal.ZERO),
+                new CardPortfolioSummaryRepository.Bucket(CardType.MASTERCARD, CardStatus.ACTIVE, 1,
+                        new BigDecimal("20.00"), BigDecimal.ZERO)));
+
+        try (MockedStatic<PrincipalExtractor> mockedStatic = mockStatic(PrincipalExtractor.class)) {
+            mockedStatic.when(PrincipalExtractor::getCurrentUser).thenReturn(owner);
+
+            CardPortfolioSummaryDTO summary = cardService.getPortfolioSummary(null);
+
+            assertThat(summary.getOwnerId()).isEqualTo(TestConstants.REGULAR_USER_ID);
+            assertThat(summary.getTotalCards()).isEqualTo(4);
+            assertThat(summary.getTotalBalance()).isEqualByComparingTo("175.00");
+            assertThat(summary.getTotalHold()).isEqualByComparingTo(BigDecimal.ZERO);
+            assertThat(summary.getCardsByStatus())
+                    .containsEntry(CardStatus.ACTIVE, 3L)
+                    .containsEntry(CardStatus.BLOCKED, 1L);
+            assertThat(summary.getCardsByType())
+                    .containsEntry(CardType.VISA, 3L)
+                    .containsEntry(CardType.MASTERCARD, 1L);
+            verifyNoInteractions(cardRepository);
+        }
+    }
+
+    @Test
+    void getPortfolioSummary_ShouldFail_WhenUserRequestsAnotherOwner() {
+        User user = new User();
+        user.setId(TestConstants.REGULAR_USER_ID);
+        user.setRoleSet(Set.of(new Role(2, RoleEnum.ROLE_USER)));
+
+        try (MockedStatic<PrincipalExtractor> mockedStatic = mockStatic(PrincipalExtractor.class)) {
+            mockedStatic.when(PrincipalExtractor::getCurrentUser).thenReturn(user);
+
+            assertThatThrownBy(() -> cardService.getPortfolioSummary(TestConstants.ADMIN_ID))
+                    .isInstanceOf(ProhibitedException.class);
+            verifyNoInteractions(cardPortfolioSummaryRepository);
+        }
+    }
+
+    private void stubBulkIssuanceEncryption() {
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        when(encryptionService.encryptAll(any())).thenAnswer(invocation ->
+                invocation.<List<String>>getArgument(0).stream().map(number -> "1:" + number).toList());
+        when(encryptionService.hash(any())).thenReturn("hash");
+    }
+
 }
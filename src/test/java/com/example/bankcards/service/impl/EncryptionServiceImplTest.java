@@ -0,0 +1,124 @@
+package com.example.bankcards.service.impl;
+
+import com.example.bankcards.config.crypto.CryptoConfig;
+import com.example.bankcards.utils.ObjectBuilder;
+import com.example.bankcards.utils.TestConstants;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+class EncryptionServiceImplTest {
+
+    @Test
+    void encrypt_ShouldKeepCompatibilityWithEcbValues() {
+        EncryptionServiceImpl encryptionService =
+                new EncryptionServiceImpl(ObjectBuilder.buildCryptoConfig(TestConstants.CRYPTO_ECB_TRANSFORMATION));
+
+        String encrypted = encryptionService.encrypt(TestConstants.VISA_CARD_NUMBER);
+        String legacy = TestConstants.VISA_CARD_NUMBER_ENCODED.substring(4);
+
+        assertThat(encrypted).isEqualTo(TestConstants.CRYPTO_KEY_ID + ":" + legacy);
+        assertThat(encryptionService.decrypt(encrypted)).isEqualTo(TestConstants.VISA_CARD_NUMBER);
+        assertThat(encryptionService.decrypt(legacy)).isEqualTo(TestConstants.VISA_CARD_NUMBER);
+        assertThat(encryptionService.getKeyId(legacy)).isEqualTo(TestConstants.CRYPTO_KEY_ID);
+    }
+
+    @Test
+    void decrypt_ShouldSupportPreviousKeys_AfterRotation() {
+        EncryptionServiceImpl rotated = new EncryptionServiceImpl(ObjectBuilder.buildCryptoConfig(
+                TestConstants.CRYPTO_GCM_TRANSFORMATION, TestConstants.CRYPTO_ROTATED_KEY_ID,
+                TestConstants.CRYPTO_ROTATED_SECRET_KEY,
+                TestConstants.CRYPTO_KEY_ID + ":" + TestConstants.CRYPTO_SECRET_KEY));
+        String oldValue = new EncryptionServiceImpl(ObjectBuilder.buildCryptoConfig(TestConstants.CRYPTO_GCM_TRANSFORMATION))
+                .encrypt(TestConstants.VISA_CARD_NUMBER);
+
+        String newValue = rotated.encrypt(TestConstants.VISA_CARD_NUMBER);
+
+        assertThat(rotated.getKeyId(oldValue)).isEqualTo(TestConstants.CRYPTO_KEY_ID);
+        assertThat(rotated.getKeyId(newValue)).isEqualTo(TestConstants.CRYPTO_ROTATED_KEY_ID);
+        assertThat(rotated.decryptAll(List.of(oldValue, newValue)))
+                .containsOnly(TestConstants.VISA_CARD_NUMBER);
+    }
+
+    @Test
+    void decrypt_ShouldSupportEcbKeys_AfterRotationToGcm() {
+        EncryptionServiceImpl rotated = new EncryptionServiceImpl(ObjectBuilder.buildCryptoConfig(
+                TestConstants.CRYPTO_GCM_TRANSFORMATION, TestConstants.CRYPTO_ROTATED_KEY_ID,
+                TestConstants.CRYPTO_ROTATED_SECRET_KEY,
+                TestConstants.CRYPTO_KEY_ID + ":" + TestConstants.CRYPTO_ECB_TRANSFORMATION + ":"
+                        + TestConstants.CRYPTO_SECRET_KEY));
+        String oldValue = new EncryptionServiceImpl(ObjectBuilder.buildCryptoConfig(TestConstants.CRYPTO_ECB_TRANSFORMATION))
+                .encrypt(TestConstants.VISA_CARD_NUMBER);
+        String legacy = TestConstants.VISA_CARD_NUMBER_ENCODED.substring(4);
+
+        String newValue = rotated.encrypt(TestConstants.MASTERCARD_CARD_NUMBER);
+
+        assertThat(rotated.getKeyId(newValue)).isEqualTo(TestConstants.CRYPTO_ROTATED_KEY_ID);
+        assertThat(rotated.decrypt(oldValue)).isEqualTo(TestConstants.VISA_CARD_NUMBER);
+        assertThat(rotated.decryptAll(List.of(oldValue, newValue, legacy))).containsExactly(
+                TestConstants.VISA_CARD_NUMBER, TestConstants.MASTERCARD_CARD_NUMBER, TestConstants.VISA_CARD_NUMBER);
+    }
+
+    @Test
+    void encrypt_ShouldUseRandomIv_InGcmMode() {
+        EncryptionServiceImpl encryptionService =
+                new EncryptionServiceImpl(ObjectBuilder.buildCryptoConfig(TestConstants.CRYPTO_GCM_TRANSFORMATION));
+
+        String first = encryptionService.encrypt(TestConstants.VISA_CARD_NUMBER);
+        String second = encryptionService.encrypt(TestConstants.VISA_CARD_NUMBER);
+
+        assertThat(first).isNotEqualTo(second);
+        assertThat(encryptionService.decrypt(first)).isEqualTo(TestConstants.VISA_CARD_NUMBER);
+        assertThat(encryptionService.decrypt(second)).isEqualTo(TestConstants.VISA_CARD_NUMBER);
+    }
+
+    @Test
+    void decrypt_ShouldFail_WhenGcmValueIsTampered() {
+        EncryptionServiceImpl encryptionService =
+                new EncryptionServiceImpl(ObjectBuilder.buildCryptoConfig(TestConstants.CRYPTO_GCM_TRANSFORMATION));
+
+        char[] encrypted = encryptionService.encrypt(TestConstants.VISA_CARD_NUMBER).toCharArray();
+        encrypted[22] = encrypted[22] == 'A' ? 'B' : 'A';
+
+        assertThatThrownBy(() -> encryptionService.decrypt(new String(encrypted)))
+                .isInstanceOf(RuntimeException.class)
+                .hasMessageContaining("Decryption failed");
+    }
+
+    @Test
+    void encryptAll_ShouldPreserveOrder() {
+        EncryptionServiceImpl encryptionService =
+                new EncryptionServiceImpl(ObjectBuilder.buildCryptoConfig(TestConstants.CRYPTO_GCM_TRANSFORMATION));
+        List<String> numbers = List.of(TestConstants.VISA_CARD_NUMBER, TestConstants.MASTERCARD_CARD_NUMBER,
+                TestConstants.AMEX_CARD_NUMBER, TestConstants.BANK_SPECIFIC_CARD_NUMBER);
+
+        List<String> encrypted = encryptionService.encryptAll(numbers);
+
+        assertThat(encrypted).hasSize(numbers.size());
+        assertThat(encryptionService.decryptAll(encrypted)).containsExactlyElementsOf(numbers);
+    }
+
+    @Test
+    void hash_ShouldBeDeterministic() {
+        EncryptionServiceImpl encryptionService =
+                new EncryptionServiceImpl(ObjectBuilder.buildCryptoConfig(TestConstants.CRYPTO_GCM_TRANSFORMATION));
+
+        String hash = encryptionService.hash(TestConstants.VISA_CARD_NUMBER);
+
+        assertThat(hash).hasSize(64).isEqualTo(encryptionService.hash(TestConstants.VISA_CARD_NUMBER));
+        assertThat(hash).isNotEqualTo(encryptionService.hash(TestConstants.MASTERCARD_CARD_NUMBER));
+    }
+
+    @Test
+    void constructor_ShouldReject_IndexKeyEqualToEncryptionKey() {
+        CryptoConfig cryptoConfig = ObjectBuilder.buildCryptoConfig(TestConstants.CRYPTO_GCM_TRANSFORMATION);
+        ReflectionTestUtils.setField(cryptoConfig, "indexSecretKey", TestConstants.CRYPTO_SECRET_KEY);
+
+        assertThatThrownBy(() -> new EncryptionServiceImpl(cryptoConfig))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+}
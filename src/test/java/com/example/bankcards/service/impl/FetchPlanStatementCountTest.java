@@ -0,0 +1,174 @@
+package com.example.bankcards.service.impl;
+
+import com.example.bankcards.BaseTest;
+import com.example.bankcards.config.queues.QueuesConf;
+import com.example.bankcards.dto.api.req.MoneyTransferReqDTO;
+import com.example.bankcards.dto.mappers.TransferMapper;
+import com.example.bankcards.dto.redis.TransferMessageDTO;
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.Transfer;
+import com.example.bankcards.entity.User;
+import com.example.bankcards.entity.enums.CardStatus;
+import com.example.bankcards.entity.enums.TransferStatus;
+import com.example.bankcards.events.processors.TransferQueueProcessor;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.TransferRepository;
+import com.example.bankcards.service.CardService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import static com.example.bankcards.utils.TestConstants.*;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks the fetch plan of the main operations by the statements and entity loads counted by Hibernate.
+ * Card owners and user roles must not be loaded by card reads, settlement or cancellation.
+ * The seed cards, the created transfers and the statistics flag are restored after every test.
+ */
+public class FetchPlanStatementCountTest extends BaseTest {
+
+    @Autowired
+    private CardService cardService;
+
+    @Autowired
+    private TransferServiceImpl transferService;
+
+    @Autowired
+    private TransferQueueProcessor transferQueueProcessor;
+
+    @Autowired
+    private CardRepository cardRepository;
+
+    @Autowired
+    private TransferRepository transferRepository;
+
+    @Autowired
+    private TransferMapper transferMapper;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private RedisTemplate<String, TransferMessageDTO> transferMessageRedisTemplate;
+
+    @Autowired
+    private QueuesConf queuesConf;
+
+    private Statistics statistics;
+
+    private boolean statisticsEnabled;
+
+    private List<Map<String, Object>> originalCards;
+
+    private final List<Long> createdTransferIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statisticsEnabled = statistics.isStatisticsEnabled();
+        statistics.setStatisticsEnabled(true);
+        originalCards = jdbcTemplate.queryForList("SELECT id, balance, hold, status FROM cards WHERE id IN (?, ?)",
+                VISA_CARD_ID_OWNER_ADMIN, MASTERCARD_CARD_ID_OWNER_ADMIN);
+        super.setAuthentication(ADMIN_USERNAME, ADMIN_RAW_PASSWORD);
+    }
+
+    @AfterEach
+    void tearDown() {
+        clearAuthentication();
+        statistics.setStatisticsEnabled(statisticsEnabled);
+
+        String transferQueueName = queuesConf.getTransferQueueName();
+        List<TransferMessageDTO> queued = transferMessageRedisTemplate.opsForList().range(transferQueueName, 0, -1);
+        Objects.requireNonNullElse(queued, List.<TransferMessageDTO>of()).stream()
+                .filter(message -> createdTransferIds.contains(message.getId()))
+                .forEach(message -> transferMessageRedisTemplate.opsForList().remove(transferQueueName, 0, message));
+
+        createdTransferIds.forEach(id -> jdbcTemplate.update("DELETE FROM transfers WHERE id = ?", id));
+        createdTransferIds.clear();
+
+        originalCards.forEach(card -> jdbcTemplate.update(
+                "UPDATE cards SET balance = ?, hold = ?, status = ? WHERE id = ?",
+                card.get("balance"), card.get("hold"), card.get("status"), card.get("id")));
+    }
+
+    @Test
+    public void getCard_ShouldRunSingleStatement() {
+        statistics.clear();
+
+        cardService.getCard(VISA_CARD_ID_OWNER_ADMIN);
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(statistics.getEntityLoadCount()).isEqualTo(1);
+        assertThat(statistics.getCollectionFetchCount()).isZero();
+    }
+
+    @Test
+    public void settlement_ShouldLoadTransferAndCardsWithSingleQuery() {
+        Long transferId = createTransfer();
+
+        statistics.clear();
+        transferQueueProcessor.processQueue();
+
+        assertThat(transferRepository.findById(transferId).orElseThrow().getStatus())
+                .isEqualTo(TransferStatus.COMPLETED);
+        assertThat(statistics.getQueryExecutionCount()).isEqualTo(2);
+        assertThat(statistics.getEntityStatistics(Card.class.getName()).getLoadCount()).isEqualTo(2);
+        assertThat(statistics.getEntityStatistics(User.class.getName()).getLoadCount()).isZero();
+        assertThat(statistics.getCollectionFetchCount()).isZero();
+        // the settlement query and the updates of two cards and the transfer, plus the verification query
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(5);
+    }
+
+    @Test
+    public void cancellation_ShouldNotLoadOwners() {
+        Long transferId = createTransfer();
+        Transfer transfer = transferRepository.findById(transferId).orElseThrow();
+        TransferMessageDTO transferDTO = transferMapper.toTransferMessageDTO(transfer);
+
+        statistics.clear();
+        transferService.cancelTransfer(transferDTO);
+
+        assertThat(statistics.getEntityStatistics(Card.class.getName()).getLoadCount()).isEqualTo(1);
+        assertThat(statistics.getEntityStatistics(User.class.getName()).getLoadCount()).isZero();
+        assertThat(statistics.getCollectionFetchCount()).isZero();
+        // the sender's card, the transfer to merge and the updates of the card and the transfer
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(4);
+    }
+
+    private Long createTransfer() {
+        Card fromCard = cardRepository.findById(VISA_CARD_ID_OWNER_ADMIN).orElseThrow();
+        Card toCard = cardRepository.findById(MASTERCARD_CARD_ID_OWNER_ADMIN).orElseThrow();
+
+        fromCard.releaseFromHold(fromCard.getHold());
+        fromCard.setBalance(new BigDecimal("200.00"));
+        fromCard.setStatus(CardStatus.ACTIVE);
+        toCard.setStatus(CardStatus.ACTIVE);
+        cardRepository.saveAllAndFlush(List.of(fromCard, toCard));
+
+        MoneyTransferReqDTO transferRequest = new MoneyTransferReqDTO();
+        transferRequest.setFromCardId(fromCard.getId());
+        transferRequest.setToCardId(toCard.getId());
+        transferRequest.setAmount(new BigDecimal("10.00"));
+
+        Long transferId = transferService.createTransferRequest(transferRequest);
+        createdTransferIds.add(transferId);
+        return transferId;
+    }
+
+}
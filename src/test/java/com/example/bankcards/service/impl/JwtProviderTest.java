@@ -0,0 +1,95 @@
+package com.example.bankcards.service.impl;
+
+import com.example.bankcards.entity.User;
+import com.example.bankcards.utils.ObjectBuilder;
+import com.example.bankcards.entity.enums.RoleEnum;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static com.example.bankcards.util.Constants.FAMILY_CLAIM;
+import static com.example.bankcards.util.Constants.ID_CLAIM;
+import static com.example.bankcards.util.Constants.ROLE_CLAIM;
+import static com.example.bankcards.utils.TestConstants.*;
+import static org.assertj.core.api.Assertions.*;
+
+class JwtProviderTest {
+
+    private final User admin = ObjectBuilder.buildAdmin();
+
+    @Test
+    void parseAccessToken_ShouldReturnClaims_AndReuseThemForSameToken() {
+        JwtProvider jwtProvider = ObjectBuilder.buildJwtProvider(JWT_ACCESS_EXPIRATION_MINUTES, 100);
+        String token = jwtProvider.generateAccessToken(admin);
+
+        Claims claims = jwtProvider.parseAccessToken(token).orElseThrow();
+
+        assertThat(claims.getSubject()).isEqualTo(ADMIN_USERNAME);
+        assertThat(jwtProvider.parseAccessToken(token)).containsSame(claims);
+    }
+
+    @Test
+    void parseAccessToken_ShouldReject_TamperedToken() {
+        JwtProvider jwtProvider = ObjectBuilder.buildJwtProvider(JWT_ACCESS_EXPIRATION_MINUTES, 100);
+        String token = jwtProvider.generateAccessToken(admin);
+        jwtProvider.parseAccessToken(token);
+
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("A") ? "BB" : "AA");
+
+        assertThat(jwtProvider.parseAccessToken(tampered)).isEmpty();
+    }
+
+    @Test
+    void parseAccessToken_ShouldReject_ExpiredToken() {
+        JwtProvider jwtProvider = ObjectBuilder.buildJwtProvider(-1, 100);
+        String token = jwtProvider.generateAccessToken(admin);
+
+        assertThat(jwtProvider.parseAccessToken(token)).isEmpty();
+    }
+
+    @Test
+    void parseTokens_ShouldNotAcceptTokenSignedWithOtherKey() {
+        JwtProvider jwtProvider = ObjectBuilder.buildJwtProvider(JWT_ACCESS_EXPIRATION_MINUTES, 0);
+        String accessToken = jwtProvider.generateAccessToken(admin);
+        String refreshToken = jwtProvider.generateRefreshToken(admin, "family", "token");
+
+        assertThat(jwtProvider.parseAccessToken(refreshToken)).isEmpty();
+        assertThat(jwtProvider.parseRefreshToken(accessToken)).isEmpty();
+
+        Claims claims = jwtProvider.parseRefreshToken(refreshToken).orElseThrow();
+        assertThat(claims.getSubject()).isEqualTo(ADMIN_USERNAME);
+        assertThat(claims.getId()).isEqualTo("token");
+        assertThat(claims.get(FAMILY_CLAIM, String.class)).isEqualTo("family");
+    }
+
+    @Test
+    void getPrincipal_ShouldBuildUserFromClaims() {
+        JwtProvider jwtProvider = ObjectBuilder.buildJwtProvider(JWT_ACCESS_EXPIRATION_MINUTES, 0);
+        Claims claims = jwtProvider.parseAccessToken(jwtProvider.generateAccessToken(admin)).orElseThrow();
+
+        User principal = jwtProvider.getPrincipal(claims);
+
+        assertThat(principal.getId()).isEqualTo(ADMIN_ID);
+        assertThat(principal.getUsername()).isEqualTo(ADMIN_USERNAME);
+        assertThat(principal.isAdmin()).isTrue();
+        assertThat(claims.getIssuedAt()).isNotNull();
+    }
+
+    @Test
+    void getPrincipal_ShouldReadRolesSerializedAsObjects() {
+        JwtProvider jwtProvider = ObjectBuilder.buildJwtProvider(JWT_ACCESS_EXPIRATION_MINUTES, 0);
+        Claims claims = Jwts.claims()
+                .setSubject(ADMIN_USERNAME);
+        claims.put(ID_CLAIM, 1);
+        claims.put(ROLE_CLAIM, List.of(Map.of("id", 1, "role", RoleEnum.ROLE_ADMIN.name())));
+
+        User principal = jwtProvider.getPrincipal(claims);
+
+        assertThat(principal.getId()).isEqualTo(1L);
+        assertThat(principal.isAdmin()).isTrue();
+    }
+
+}
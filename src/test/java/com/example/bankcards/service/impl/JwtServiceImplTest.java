@@ -0,0 +1,118 @@
+package com.example.bankcards.service.impl;
+
+import com.example.bankcards.dto.api.resp.LoggedUserRespDTO;
+import com.example.bankcards.entity.User;
+import com.example.bankcards.exception.InvalidRefreshTokenException;
+import com.example.bankcards.repository.RefreshTokenFamilyRepository;
+import com.example.bankcards.repository.RefreshTokenFamilyRepository.RotationResult;
+import com.example.bankcards.repository.UserRepository;
+import com.example.bankcards.service.TokenRevocationService;
+import com.example.bankcards.utils.ObjectBuilder;
+import io.jsonwebtoken.Claims;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static com.example.bankcards.util.Constants.FAMILY_CLAIM;
+import static com.example.bankcards.utils.TestConstants.*;
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class JwtServiceImplTest {
+
+    private final User admin = ObjectBuilder.buildAdmin();
+
+    private final JwtProvider jwtProvider = ObjectBuilder.buildJwtProvider(JWT_ACCESS_EXPIRATION_MINUTES, 0);
+
+    private JwtServiceImpl jwtService;
+
+    @Mock
+    private RefreshTokenFamilyRepository refreshTokenFamilyRepository;
+    @Mock
+    private TokenRevocationService tokenRevocationService;
+    @Mock
+    private UserRepository userRepository;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        jwtService = new JwtServiceImpl(refreshTokenFamilyRepository, tokenRevocationService, jwtProvider,
+                userRepository);
+    }
+
+    @Test
+    void generatePairOfTokens_ShouldStartFamily_WithoutDatabase() {
+        LoggedUserRespDTO tokens = jwtService.generatePairOfTokens(admin);
+
+        Claims claims = jwtProvider.parseRefreshToken(tokens.getRefreshToken()).orElseThrow();
+        verify(refreshTokenFamilyRepository).create(claims.get(FAMILY_CLAIM, String.class), claims.getId(),
+                Duration.ofMinutes(JWT_REFRESH_EXPIRATION_MINUTES));
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    void regeneratePairOfTokens_ShouldRotateToNextTokenOfFamily() {
+        String refreshToken = jwtProvider.generateRefreshToken(admin, "family", "token");
+        when(refreshTokenFamilyRepository.rotate(eq("family"), eq("token"), anyString(), any()))
+                .thenReturn(RotationResult.ROTATED);
+        when(userRepository.findByUsername(ADMIN_USERNAME)).thenReturn(Optional.of(admin));
+
+        LoggedUserRespDTO tokens = jwtService.regeneratePairOfTokens(refreshToken);
+
+        ArgumentCaptor<String> nextTokenId = ArgumentCaptor.forClass(String.class);
+        verify(refreshTokenFamilyRepository).rotate(eq("family"), eq("token"), nextTokenId.capture(), any());
+        Claims claims = jwtProvider.parseRefreshToken(tokens.getRefreshToken()).orElseThrow();
+        assertThat(claims.get(FAMILY_CLAIM, String.class)).isEqualTo("family");
+        assertThat(claims.getId()).isEqualTo(nextTokenId.getValue());
+        verifyNoInteractions(tokenRevocationService);
+    }
+
+    @Test
+    void regeneratePairOfTokens_ShouldRevokeAccessTokens_WhenTokenReused() {
+        String refreshToken = jwtProvider.generateRefreshToken(admin, "family", "token");
+        when(refreshTokenFamilyRepository.rotate(eq("family"), eq("token"), anyString(), any()))
+                .thenReturn(RotationResult.REUSED);
+
+        assertThatThrownBy(() -> jwtService.regeneratePairOfTokens(refreshToken))
+                .isInstanceOf(InvalidRefreshTokenException.class);
+
+        verify(tokenRevocationService).revokeTokens(ADMIN_USERNAME);
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    void regeneratePairOfTokens_ShouldReject_UnknownFamily() {
+        String refreshToken = jwtProvider.generateRefreshToken(admin, "family", "token");
+        when(refreshTokenFamilyRepository.rotate(anyString(), anyString(), anyString(), any()))
+                .thenReturn(RotationResult.UNKNOWN);
+
+        assertThatThrownBy(() -> jwtService.regeneratePairOfTokens(refreshToken))
+                .isInstanceOf(InvalidRefreshTokenException.class);
+
+        verifyNoInteractions(tokenRevocationService, userRepository);
+    }
+
+    @Test
+    void revokeRefreshTokenFamily_ShouldRevokeFamilyOfToken() {
+        String refreshToken = jwtProvider.generateRefreshToken(admin, "family", "token");
+
+        jwtService.revokeRefreshTokenFamily(refreshToken);
+
+        verify(refreshTokenFamilyRepository).revoke("family");
+        verifyNoInteractions(tokenRevocationService, userRepository);
+    }
+
+    @Test
+    void revokeRefreshTokenFamily_ShouldIgnore_InvalidToken() {
+        jwtService.revokeRefreshTokenFamily("not-a-token");
+
+        verifyNoInteractions(refreshTokenFamilyRepository);
+    }
+
+}
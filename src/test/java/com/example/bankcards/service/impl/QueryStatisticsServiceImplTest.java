@@ -0,0 +1,55 @@
+package com.example.bankcards.service.impl;
+
+import com.example.bankcards.dto.api.resp.QueryPlanCacheStatisticsDTO;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class QueryStatisticsServiceImplTest {
+
+    @Mock
+    private EntityManagerFactory entityManagerFactory;
+    @Mock
+    private SessionFactory sessionFactory;
+    @Mock
+    private Statistics statistics;
+
+    private QueryStatisticsServiceImpl queryStatisticsService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(entityManagerFactory.unwrap(SessionFactory.class)).thenReturn(sessionFactory);
+        when(sessionFactory.getStatistics()).thenReturn(statistics);
+        queryStatisticsService = new QueryStatisticsServiceImpl(entityManagerFactory);
+    }
+
+    @Test
+    void getQueryPlanCacheStatistics_ShouldCalculateHitRate() {
+        when(statistics.isStatisticsEnabled()).thenReturn(true);
+        when(statistics.getQueryPlanCacheHitCount()).thenReturn(90L);
+        when(statistics.getQueryPlanCacheMissCount()).thenReturn(10L);
+
+        QueryPlanCacheStatisticsDTO result = queryStatisticsService.getQueryPlanCacheStatistics();
+
+        assertThat(result.isStatisticsEnabled()).isTrue();
+        assertThat(result.getHitCount()).isEqualTo(90L);
+        assertThat(result.getMissCount()).isEqualTo(10L);
+        assertThat(result.getHitRate()).isEqualTo(0.9);
+    }
+
+    @Test
+    void getQueryPlanCacheStatistics_ShouldReturnZeroHitRate_WhenThereWereNoLookups() {
+        QueryPlanCacheStatisticsDTO result = queryStatisticsService.getQueryPlanCacheStatistics();
+
+        assertThat(result.getHitRate()).isZero();
+    }
+
+}
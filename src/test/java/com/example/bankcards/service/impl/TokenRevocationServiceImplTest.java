@@ -0,0 +1,61 @@
+package com.example.bankcards.service.impl;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+
+import java.time.Duration;
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class TokenRevocationServiceImplTest {
+
+    private static final String USERNAME = "user@bank.com";
+
+    private TokenRevocationServiceImpl tokenRevocationService;
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+    @Mock
+    private ValueOperations<String, String> valueOperations;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        tokenRevocationService = new TokenRevocationServiceImpl(redisTemplate, 5);
+    }
+
+    @Test
+    void revokeTokens_ShouldExpireWithAccessTokens() {
+        tokenRevocationService.revokeTokens(USERNAME);
+
+        ArgumentCaptor<Duration> ttl = ArgumentCaptor.forClass(Duration.class);
+        verify(valueOperations).set(eq(TokenRevocationServiceImpl.REVOKED_KEY_PREFIX + USERNAME), anyString(), ttl.capture());
+        assertThat(ttl.getValue()).isGreaterThan(Duration.ofMinutes(5));
+    }
+
+    @Test
+    void isRevoked_ShouldOnlyRejectTokensIssuedBeforeRevocation() {
+        long revokedAt = 1_000_000L;
+        when(valueOperations.get(TokenRevocationServiceImpl.REVOKED_KEY_PREFIX + USERNAME))
+                .thenReturn(Long.toString(revokedAt));
+
+        assertThat(tokenRevocationService.isRevoked(USERNAME, new Date((revokedAt - 1) * 1000))).isTrue();
+        assertThat(tokenRevocationService.isRevoked(USERNAME, null)).isTrue();
+        assertThat(tokenRevocationService.isRevoked(USERNAME, new Date(revokedAt * 1000))).isFalse();
+        assertThat(tokenRevocationService.isRevoked(USERNAME, new Date((revokedAt + 1) * 1000))).isFalse();
+    }
+
+    @Test
+    void isRevoked_ShouldAcceptTokens_WhenNothingRevoked() {
+        assertThat(tokenRevocationService.isRevoked(USERNAME, new Date())).isFalse();
+    }
+
+}
@@ -0,0 +1,177 @@
+package com.example.bankcards.service.impl;
+
+import com.example.bankcards.config.app.AppConf;
+import com.example.bankcards.dto.api.resp.ArchivedTransferDTO;
+import com.example.bankcards.entity.Role;
+import com.example.bankcards.entity.User;
+import com.example.bankcards.entity.enums.RoleEnum;
+import com.example.bankcards.entity.enums.TransferStatus;
+import com.example.bankcards.exception.ProhibitedException;
+import com.example.bankcards.repository.JobLockRepository;
+import com.example.bankcards.repository.TransferColdArchiveRepository;
+import com.example.bankcards.repository.TransferColdArchiveRepository.ArchiveFile;
+import com.example.bankcards.repository.TransferColdArchiveRepository.SettledTransfer;
+import com.example.bankcards.repository.TransferPartitionRepository;
+import com.example.bankcards.repository.TransferPartitionRepository.Partition;
+import com.example.bankcards.service.CardOwnershipIndex;
+import com.example.bankcards.util.PrincipalExtractor;
+import com.example.bankcards.utils.TestConstants;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.*;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class TransferArchiveServiceImplTest {
+
+    @Mock
+    private AppConf appConf;
+    @Mock
+    private TransferColdArchiveRepository archiveRepository;
+    @Mock
+    private TransferPartitionRepository partitionRepository;
+    @Mock
+    private CardOwnershipIndex cardOwnershipIndex;
+    @Mock
+    private JobLockRepository jobLockRepository;
+    @Mock
+    private TransactionTemplate transactionTemplate;
+    @Captor
+    private ArgumentCaptor<ArchiveFile> fileCaptor;
+    @Captor
+    private ArgumentCaptor<Collection<Long>> cardIdsCaptor;
+
+    @TempDir
+    private Path archiveDirectory;
+
+    private TransferArchiveServiceImpl transferArchiveService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(appConf.getTransferColdArchiveDirectory()).thenReturn(archiveDirectory.toString());
+        when(appConf.getTransferColdArchiveOlderThanMonths()).thenReturn(12);
+        when(appConf.getTransferColdArchiveChunkSize()).thenReturn(2);
+        when(appConf.getTransferColdArchiveDeleteBatchSize()).thenReturn(1000);
+        when(appConf.getTransferColdArchiveRowsPerSecond()).thenReturn(Integer.MAX_VALUE);
+        when(appConf.getTransferColdArchiveCompression()).thenReturn("bzip2");
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        when(jobLockRepository.runExclusively(eq("transfer-cold-archive"), any())).thenAnswer(invocation ->
+                Optional.ofNullable(invocation.<Supplier<?>>getArgument(1).get()));
+        transferArchiveService = new TransferArchiveServiceImpl(appConf, archiveRepository, partitionRepository,
+                cardOwnershipIndex, new SharedFileSystemTransferArchiveStorage(appConf), jobLockRepository,
+                transactionTemplate, new ObjectMapper().findAndRegisterModules());
+    }
+
+    @Test
+    void archiveSettledTransfers_ShouldWriteChunksToFiles_AndServeThemForStatements() throws Exception {
+        YearMonth month = YearMonth.now().minusMonths(13);
+        LocalDateTime createdAt = month.atDay(10).atStartOfDay();
+        SettledTransfer first = new SettledTransfer(1L, 10L, 20L, new BigDecimal("5.00"),
+                TransferStatus.COMPLETED, createdAt, createdAt.plusMinutes(1));
+        SettledTransfer second = new SettledTransfer(2L, 30L, 40L, new BigDecimal("7.00"),
+                TransferStatus.FAILED, createdAt, null);
+        SettledTransfer third = new SettledTransfer(3L, 20L, 10L, new BigDecimal("3.00"),
+                TransferStatus.COMPLETED, createdAt, createdAt.plusMinutes(2));
+
+        when(partitionRepository.findPartitions()).thenReturn(List.of(
+                new Partition("transfers_p1", month), new Partition("transfers_p2", YearMonth.now().minusMonths(12))));
+        when(archiveRepository.findSettledTransfers(month, 0L, 2)).thenReturn(List.of(first, second));
+        when(archiveRepository.findSettledTransfers(month, 2L, 2)).thenReturn(List.of(third));
+        when(archiveRepository.deleteTransfers(eq(month), anyList(), eq(1000)))
+                .thenAnswer(invocation -> invocation.<List<Long>>getArgument(1).size());
+
+        long archived = transferArchiveService.archiveSettledTransfers();
+
+        assertThat(archived).isEqualTo(3);
+        verify(archiveRepository).deleteTransfers(month, List.of(1L, 2L), 1000);
+        verify(archiveRepository).deleteTransfers(month, List.of(3L), 1000);
+        verify(archiveRepository, never()).findSettledTransfers(eq(YearMonth.now().minusMonths(12)), anyLong(), anyInt());
+        verify(archiveRepository, times(2)).saveFile(fileCaptor.capture(), cardIdsCaptor.capture());
+        assertThat(cardIdsCaptor.getAllValues().get(0)).containsExactly(10L, 20L, 30L, 40L);
+
+        List<ArchiveFile> files = fileCaptor.getAllValues();
+        assertThat(files).allSatisfy(file -> assertThat(archiveDirectory.resolve(file.path())).exists());
+        try (Stream<Path> leftovers = Files.walk(archiveDirectory)) {
+            assertThat(leftovers).noneMatch(path -> path.toString().endsWith(".tmp"));
+        }
+        assertThat(files.get(0).rowCount()).isEqualTo(2);
+        assertThat(files.get(1).firstTransferId()).isEqualTo(3L);
+
+        User admin = new User();
+        admin.setId(TestConstants.ADMIN_ID);
+        admin.setRoleSet(Set.of(new Role(1, RoleEnum.ROLE_ADMIN)));
+        when(archiveRepository.findFiles(10L, month)).thenReturn(files);
+        when(archiveRepository.findTransfersOfArchivedCards(10L, month)).thenReturn(List.of(new SettledTransfer(4L, 50L,
+                10L, new BigDecimal("7.00"), TransferStatus.COMPLETED, createdAt, createdAt.plusMinutes(3))));
+
+        try (MockedStatic<PrincipalExtractor> mockedStatic = mockStatic(PrincipalExtractor.class)) {
+            mockedStatic.when(PrincipalExtractor::getCurrentUser).thenReturn(admin);
+
+            List<ArchivedTransferDTO> statement = transferArchiveService.getArchivedTransfers(10L, month);
+
+            assertThat(statement).extracting(ArchivedTransferDTO::getId).containsExactly(1L, 3L, 4L);
+            assertThat(statement.get(0).getAmount()).isEqualByComparingTo("5.00");
+            assertThat(statement.get(0).getCreatedAt()).isEqualTo(createdAt);
+        }
+    }
+
+    @Test
+    void archiveSettledTransfers_ShouldKeepTransfers_WhenFileCannotBeWritten() throws Exception {
+        YearMonth month = YearMonth.now().minusMonths(13);
+        Files.writeString(archiveDirectory.resolve(String.valueOf(month.getYear())), "not a directory");
+        when(partitionRepository.findPartitions()).thenReturn(List.of(new Partition("transfers_p1", month)));
+        when(archiveRepository.findSettledTransfers(month, 0L, 2)).thenReturn(List.of(new SettledTransfer(1L, 10L, 20L,
+                BigDecimal.ONE, TransferStatus.COMPLETED, month.atDay(1).atStartOfDay(), null)));
+
+        assertThatThrownBy(() -> transferArchiveService.archiveSettledTransfers())
+                .isInstanceOf(UncheckedIOException.class);
+        verify(archiveRepository, never()).saveFile(any(), any());
+        verify(archiveRepository, never()).deleteTransfers(any(), any(), anyInt());
+    }
+
+    @Test
+    void archiveSettledTransfers_ShouldSkip_WhenAnotherNodeIsArchiving() {
+        when(jobLockRepository.runExclusively(eq("transfer-cold-archive"), any())).thenReturn(Optional.empty());
+
+        assertThat(transferArchiveService.archiveSettledTransfers()).isZero();
+        verifyNoInteractions(partitionRepository, archiveRepository);
+    }
+
+    @Test
+    void getArchivedTransfers_ShouldFail_WhenCardBelongsToAnotherUser() {
+        User user = new User();
+        user.setId(TestConstants.REGULAR_USER_ID);
+        user.setRoleSet(Set.of(new Role(2, RoleEnum.ROLE_USER)));
+
+        try (MockedStatic<PrincipalExtractor> mockedStatic = mockStatic(PrincipalExtractor.class)) {
+            mockedStatic.when(PrincipalExtractor::getCurrentUser).thenReturn(user);
+            when(cardOwnershipIndex.isOwner(9L, TestConstants.REGULAR_USER_ID)).thenReturn(false);
+
+            assertThatThrownBy(() -> transferArchiveService.getArchivedTransfers(9L, YearMonth.now().minusMonths(13)))
+                    .isInstanceOf(ProhibitedException.class);
+            verifyNoInteractions(archiveRepository);
+        }
+    }
+
+}
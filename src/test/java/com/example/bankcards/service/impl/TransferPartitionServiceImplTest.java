@@ -0,0 +1,66 @@
+package com.example.bankcards.service.impl;
+
+import com.example.bankcards.config.app.AppConf;
+import com.example.bankcards.repository.TransferPartitionRepository;
+import com.example.bankcards.repository.TransferPartitionRepository.Partition;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.time.YearMonth;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class TransferPartitionServiceImplTest {
+
+    @Mock
+    private AppConf appConf;
+    @Mock
+    private TransferPartitionRepository partitionRepository;
+
+    private TransferPartitionServiceImpl transferPartitionService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(appConf.getTransferPartitionMonthsAhead()).thenReturn(3);
+        when(appConf.getTransferRetentionMonths()).thenReturn(24);
+        transferPartitionService = new TransferPartitionServiceImpl(appConf, partitionRepository);
+    }
+
+    @Test
+    void createFuturePartitions_ShouldCreateCurrentAndUpcomingMonths() {
+        YearMonth currentMonth = YearMonth.now();
+        when(partitionRepository.createPartitions(currentMonth, currentMonth.plusMonths(3))).thenReturn(1);
+
+        int created = transferPartitionService.createFuturePartitions();
+
+        assertThat(created).isEqualTo(1);
+    }
+
+    @Test
+    void detachExpiredPartitions_ShouldSkipPartitionsWithPendingTransfers_AndKeepRetainedMonths() {
+        YearMonth oldestRetainedMonth = YearMonth.now().minusMonths(24);
+        Partition withPending = partition(oldestRetainedMonth.minusMonths(2));
+        Partition expired = partition(oldestRetainedMonth.minusMonths(1));
+        Partition retained = partition(oldestRetainedMonth);
+        when(partitionRepository.findPartitions()).thenReturn(List.of(withPending, expired, retained));
+        when(partitionRepository.hasPendingTransfers(withPending)).thenReturn(true);
+
+        int detached = transferPartitionService.detachExpiredPartitions();
+
+        assertThat(detached).isEqualTo(1);
+        verify(partitionRepository).detachPartition(expired);
+        verify(partitionRepository, never()).detachPartition(withPending);
+        verify(partitionRepository, never()).hasPendingTransfers(retained);
+        verify(partitionRepository, never()).detachPartition(retained);
+    }
+
+    private static Partition partition(YearMonth month) {
+        return new Partition("transfers_p" + month.getYear() + String.format("%02d", month.getMonthValue()), month);
+    }
+
+}
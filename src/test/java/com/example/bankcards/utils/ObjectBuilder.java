@@ -1,10 +1,13 @@
 package com.example.bankcards.utils;
 
+import com.example.bankcards.config.crypto.CryptoConfig;
 import com.example.bankcards.dto.api.req.EnrollDTO;
 import com.example.bankcards.dto.api.req.UpdateCardDTO;
 import com.example.bankcards.entity.*;
 import com.example.bankcards.entity.enums.*;
+import com.example.bankcards.service.impl.JwtProvider;
 import lombok.experimental.UtilityClass;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
@@ -233,4 +236,27 @@ public class ObjectBuilder {
                 .build();
     }
 
+    public static CryptoConfig buildCryptoConfig(String transformation) {
+        return buildCryptoConfig(transformation, CRYPTO_KEY_ID, CRYPTO_SECRET_KEY, "");
+    }
+
+    public static CryptoConfig buildCryptoConfig(String transformation, String keyId, String secretKey, String previousKeys) {
+        CryptoConfig cryptoConfig = new CryptoConfig();
+        ReflectionTestUtils.setField(cryptoConfig, "cryptoAlgorithm", CRYPTO_ALGORITHM);
+        ReflectionTestUtils.setField(cryptoConfig, "cryptoTransformation", transformation);
+        ReflectionTestUtils.setField(cryptoConfig, "cryptoSecretKey", secretKey);
+        ReflectionTestUtils.setField(cryptoConfig, "cryptoKeyId", keyId);
+        ReflectionTestUtils.setField(cryptoConfig, "previousSecretKeys", previousKeys);
+        ReflectionTestUtils.setField(cryptoConfig, "legacyKeyId", CRYPTO_KEY_ID);
+        ReflectionTestUtils.setField(cryptoConfig, "indexAlgorithm", CRYPTO_INDEX_ALGORITHM);
+        ReflectionTestUtils.setField(cryptoConfig, "indexSecretKey", CRYPTO_INDEX_SECRET_KEY);
+        ReflectionTestUtils.setField(cryptoConfig, "enginePoolSize", CRYPTO_ENGINE_POOL_SIZE);
+        return cryptoConfig;
+    }
+
+    public static JwtProvider buildJwtProvider(int accessExpirationMinutes, long verifiedCacheSize) {
+        return new JwtProvider(JWT_ACCESS_SECRET, JWT_REFRESH_SECRET, accessExpirationMinutes,
+                JWT_REFRESH_EXPIRATION_MINUTES, verifiedCacheSize);
+    }
+
 }
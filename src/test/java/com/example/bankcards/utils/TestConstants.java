@@ -15,6 +15,22 @@ public interface TestConstants {
     String PAGE_PARAM = "pageNum";
     String USER_ID_PARAM = "id";
 
+    // Шифрование
+    String CRYPTO_ALGORITHM = "AES";
+    String CRYPTO_ECB_TRANSFORMATION = "ECB/PKCS5Padding";
+    String CRYPTO_GCM_TRANSFORMATION = "GCM/NoPadding";
+    String CRYPTO_SECRET_KEY = "MySecretKey12345";
+    String CRYPTO_KEY_ID = "1";
+    String CRYPTO_ROTATED_SECRET_KEY = "MyRotatedKey1234";
+    String CRYPTO_ROTATED_KEY_ID = "2";
+    String CRYPTO_INDEX_ALGORITHM = "HmacSHA256";
+    String CRYPTO_INDEX_SECRET_KEY = "MyIndexKey123456";
+    int CRYPTO_ENGINE_POOL_SIZE = 4;
+    String JWT_ACCESS_SECRET = "UJxAGlMa1lfUNHv9YDVzNtZ72Re8CL+/GxTIi8MfjZaGTfPWaVNivPmCwx9w8NT217ID53hOK9xg72OUhvaLbg==";
+    String JWT_REFRESH_SECRET = "veldANG4z1dIBMwAakiWM/juUANm/cez0QbklVza+wJVKyZ5jSnCgqewjfE4bik/gVJW5aOow47a43LKqGHbWQ==";
+    int JWT_ACCESS_EXPIRATION_MINUTES = 5;
+    int JWT_REFRESH_EXPIRATION_MINUTES = 120;
+
     // Пользователи
     String ADMIN_USERNAME = "admin@bank.com";
     String ADMIN_NAME = "Admin";